@@ -61,6 +61,9 @@ dependencies {
     compileOnly("com.mojang:authlib:${rootProject.properties["authlib_version"]}")
     // concurrentutil
     compileOnly("ca.spottedleaf:concurrentutil:${rootProject.properties["concurrent_util_version"]}")
+    // Test
+    testImplementation("org.junit.jupiter:junit-jupiter:${rootProject.properties["junit_version"]}")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
@@ -78,6 +81,10 @@ tasks.withType<JavaCompile> {
     dependsOn(tasks.clean)
 }
 
+tasks.test {
+    useJUnitPlatform()
+}
+
 artifacts {
     implementation(tasks.shadowJar)
 }
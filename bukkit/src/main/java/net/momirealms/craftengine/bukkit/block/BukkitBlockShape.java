@@ -16,17 +16,17 @@ public final class BukkitBlockShape implements BlockShape {
     }
 
     @Override
-    public Object getShape(Object thisObj, Object[] args) {
-        return FastNMS.INSTANCE.method$BlockState$getShape(this.rawBlockState, args[1], args[2], args[3]);
+    public Object getShape(Object thisObj, Object state, Object level, Object pos, Object context) {
+        return FastNMS.INSTANCE.method$BlockState$getShape(this.rawBlockState, level, pos, context);
     }
 
     @Override
-    public Object getCollisionShape(Object thisObj, Object[] args) {
-        return FastNMS.INSTANCE.method$BlockState$getCollisionShape(this.rawBlockState, args[1], args[2], args[3]);
+    public Object getCollisionShape(Object thisObj, Object state, Object level, Object pos, Object context) {
+        return FastNMS.INSTANCE.method$BlockState$getCollisionShape(this.rawBlockState, level, pos, context);
     }
 
     @Override
-    public Object getSupportShape(Object thisObj, Object[] args) {
-        return FastNMS.INSTANCE.method$BlockState$getBlockSupportShape(this.supportBlockState, args[1], args[2]);
+    public Object getSupportShape(Object thisObj, Object state, Object level, Object pos) {
+        return FastNMS.INSTANCE.method$BlockState$getBlockSupportShape(this.supportBlockState, level, pos);
     }
 }
@@ -23,12 +23,9 @@ public abstract class AbstractCanSurviveBlockBehavior extends BukkitBlockBehavio
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public void tick(Object thisBlock, Object blockState, Object level, Object blockPos, Object random) throws Exception {
         if (this.delay == 0) return;
-        Object blockState = args[0];
-        Object level = args[1];
-        Object blockPos = args[2];
-        if (!canSurvive(thisBlock, args, () -> true)) {
+        if (!canSurvive(thisBlock, blockState, level, blockPos)) {
             BlockStateUtils.getOptionalCustomBlockState(blockState).ifPresent(customState -> {
                 if (!customState.isEmpty() && customState.owner().value() == this.customBlock) {
                     net.momirealms.craftengine.core.world.World world = new BukkitWorld(FastNMS.INSTANCE.method$Level$getCraftWorld(level));
@@ -40,14 +37,6 @@ public abstract class AbstractCanSurviveBlockBehavior extends BukkitBlockBehavio
         }
     }
 
-    @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object world = args[1];
-        Object pos = args[2];
-        return canSurvive(thisBlock, state, world, pos);
-    }
-
     @Override
     public void onPlace(Object thisBlock, Object[] args, Callable<Object> superMethod) {
         Object world = args[1];
@@ -56,10 +45,7 @@ public abstract class AbstractCanSurviveBlockBehavior extends BukkitBlockBehavio
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object level = args[updateShape$level];
-        Object blockPos = args[updateShape$blockPos];
-        Object state = args[0];
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object blockPos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(state);
         if (optionalCustomState.isEmpty()) {
             return state;
@@ -75,5 +61,6 @@ public abstract class AbstractCanSurviveBlockBehavior extends BukkitBlockBehavio
         return state;
     }
 
-    protected abstract boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception;
+    @Override
+    public abstract boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception;
 }
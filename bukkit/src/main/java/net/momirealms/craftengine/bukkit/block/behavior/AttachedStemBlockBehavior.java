@@ -7,6 +7,7 @@ import net.momirealms.craftengine.bukkit.util.BlockStateUtils;
 import net.momirealms.craftengine.bukkit.util.DirectionUtils;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
 import net.momirealms.craftengine.core.block.behavior.IsPathFindableBlockBehavior;
@@ -15,11 +16,9 @@ import net.momirealms.craftengine.core.block.properties.Property;
 import net.momirealms.craftengine.core.util.HorizontalDirection;
 import net.momirealms.craftengine.core.util.Key;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
-import net.momirealms.craftengine.core.util.VersionHelper;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 public class AttachedStemBlockBehavior extends BukkitBlockBehavior implements IsPathFindableBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -38,19 +37,17 @@ public class AttachedStemBlockBehavior extends BukkitBlockBehavior implements Is
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        return (VersionHelper.isOrAbove1_20_5() ? args[1] : args[3]).equals(CoreReflections.instance$PathComputationType$AIR)
-                && !FastNMS.INSTANCE.field$BlockBehavior$hasCollision(thisBlock) || (boolean) superMethod.call();
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) throws Exception {
+        return type.equals(CoreReflections.instance$PathComputationType$AIR)
+                && !FastNMS.INSTANCE.field$BlockBehavior$hasCollision(thisBlock) || ((DelegatingBlock) thisBlock).superIsPathFindable(state, world, pos, type);
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        HorizontalDirection direction = DirectionUtils.fromNMSDirection(args[updateShape$direction]).toHorizontalDirection();
-        Object neighborState = args[updateShape$neighborState];
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
+        HorizontalDirection horizontalDirection = DirectionUtils.fromNMSDirection(direction).toHorizontalDirection();
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(state);
-        if (optionalCustomState.isEmpty() || direction != optionalCustomState.get().get(this.facingProperty)) {
-            return super.updateShape(thisBlock, args, superMethod);
+        if (optionalCustomState.isEmpty() || horizontalDirection != optionalCustomState.get().get(this.facingProperty)) {
+            return super.updateShape(thisBlock, state, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
         }
         Optional<ImmutableBlockState> optionalCustomNeighborState = BlockStateUtils.getOptionalCustomBlockState(neighborState);
         if (optionalCustomNeighborState.isPresent()) {
@@ -71,7 +68,7 @@ public class AttachedStemBlockBehavior extends BukkitBlockBehavior implements Is
                 if (stemBlock != null) return stemBlock;
             }
         }
-        return super.updateShape(thisBlock, args, superMethod);
+        return super.updateShape(thisBlock, state, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
     }
 
     private Object resetStemBlock() {
@@ -16,7 +16,6 @@ import net.momirealms.craftengine.core.util.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 public class BuddingBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -30,16 +29,16 @@ public class BuddingBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         if (RandomUtils.generateRandomFloat(0, 1) >= growthChance) return;
         Object nmsDirection = CoreReflections.instance$Direction$values[RandomUtils.generateRandomInt(0, 6)];
         Direction direction = DirectionUtils.fromNMSDirection(nmsDirection);
-        Object blockPos = FastNMS.INSTANCE.method$BlockPos$relative(args[2], nmsDirection);
-        Object blockState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(args[1], blockPos);
+        Object blockPos = FastNMS.INSTANCE.method$BlockPos$relative(pos, nmsDirection);
+        Object blockState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(level, blockPos);
         if (canClusterGrowAtState(blockState)) {
             Key blockId = blocks.getFirst();
             CustomBlock firstBlock = BukkitBlockManager.instance().blockById(blockId).orElse(null);
-            placeWithPropertyBlock(firstBlock, blockId, direction, nmsDirection, args[1], blockPos, blockState);
+            placeWithPropertyBlock(firstBlock, blockId, direction, nmsDirection, level, blockPos, blockState);
         } else {
             Key blockId = BlockStateUtils.getOptionalCustomBlockState(blockState)
                     .map(it -> it.owner().value().id())
@@ -48,7 +47,7 @@ public class BuddingBlockBehavior extends BukkitBlockBehavior {
             if (blockIdIndex < 0 || blockIdIndex == blocks.size() - 1) return;
             Key nextBlockId = blocks.get(blockIdIndex + 1);
             CustomBlock nextBlock = BukkitBlockManager.instance().blockById(nextBlockId).orElse(null);
-            placeWithPropertyBlock(nextBlock, nextBlockId, direction, nmsDirection, args[1], blockPos, blockState);
+            placeWithPropertyBlock(nextBlock, nextBlockId, direction, nmsDirection, level, blockPos, blockState);
         }
     }
 
@@ -170,19 +170,12 @@ public class BukkitBlockBehavior extends AbstractBlockBehavior {
         return args[canPlaceLiquid$liquid] == MFluids.WATER;
     }
 
-    protected static final int updateShape$level = VersionHelper.isOrAbove1_21_2() ? 1 : 3;
-    protected static final int updateShape$blockPos = VersionHelper.isOrAbove1_21_2() ? 3 : 4;
-    protected static final int updateShape$neighborState = VersionHelper.isOrAbove1_21_2() ? 6 : 2;
-    protected static final int updateShape$direction = VersionHelper.isOrAbove1_21_2() ? 4 : 1;
-
-    protected static final int isPathFindable$type = VersionHelper.isOrAbove1_20_5() ? 1 : 3;
-
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(args[0]);
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) throws Exception {
+        Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(state);
         if (optionalCustomState.isEmpty()) return false;
         BlockStateWrapper vanillaState = optionalCustomState.get().visualBlockState();
         if (vanillaState == null) return false;
-        return FastNMS.INSTANCE.method$BlockStateBase$isPathFindable(vanillaState.literalObject(), VersionHelper.isOrAbove1_20_5() ? null : args[1], VersionHelper.isOrAbove1_20_5() ? null : args[2], args[isPathFindable$type]);
+        return FastNMS.INSTANCE.method$BlockStateBase$isPathFindable(vanillaState.literalObject(), world, pos, type);
     }
 }
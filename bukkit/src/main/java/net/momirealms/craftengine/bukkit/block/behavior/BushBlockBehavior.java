@@ -79,7 +79,7 @@ public class BushBlockBehavior extends AbstractCanSurviveBlockBehavior {
 
     @SuppressWarnings("DuplicatedCode")
     @Override
-    protected boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
         Object belowPos = LocationUtils.below(blockPos);
         Object belowState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(world, belowPos);
         return mayPlaceOn(belowState, world, belowPos);
@@ -110,10 +110,7 @@ public class ButtonBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) {
         ImmutableBlockState blockState = BlockStateUtils.getOptionalCustomBlockState(state).orElse(null);
         if (blockState == null) return;
         if (blockState.get(this.poweredProperty)) {
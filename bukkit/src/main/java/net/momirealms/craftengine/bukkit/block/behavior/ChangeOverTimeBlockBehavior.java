@@ -16,7 +16,6 @@ import net.momirealms.sparrow.nbt.CompoundTag;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 public class ChangeOverTimeBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -49,15 +48,14 @@ public class ChangeOverTimeBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) {
+    public void randomTick(Object thisBlock, Object blockState, Object level, Object pos, Object random) {
         if (RandomUtils.generateRandomFloat(0F, 1F) >= this.changeSpeed) return;
-        Object blockState = args[0];
         BlockStateUtils.getOptionalCustomBlockState(blockState).ifPresent(state -> {
             BlockStateWrapper nextState = this.nextState();
             if (nextState == null) return;
             nextState = nextState.withProperties(filter(state.propertiesNbt()));
             try {
-                CraftBukkitReflections.method$CraftEventFactory$handleBlockFormEvent.invoke(null, args[1], args[2], nextState.literalObject(), UpdateOption.UPDATE_ALL.flags());
+                CraftBukkitReflections.method$CraftEventFactory$handleBlockFormEvent.invoke(null, level, pos, nextState.literalObject(), UpdateOption.UPDATE_ALL.flags());
             } catch (ReflectiveOperationException e) {
                 CraftEngine.instance().logger().warn("Failed to call block form event", e);
             }
@@ -24,7 +24,6 @@ import org.bukkit.event.block.BlockFormEvent;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 public class ConcretePowderBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -77,9 +76,7 @@ public class ConcretePowderBlockBehavior extends BukkitBlockBehavior {
 
     @SuppressWarnings("UnstableApiUsage")
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object level = args[updateShape$level];
-        Object pos = args[updateShape$blockPos];
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
         if (touchesLiquid(level, pos)) {
             if (!CoreReflections.clazz$Level.isInstance(level)) {
                 return getDefaultBlockState();
@@ -92,7 +89,7 @@ public class ConcretePowderBlockBehavior extends BukkitBlockBehavior {
                 }
             }
         }
-        return args[0];
+        return state;
     }
 
     private static boolean shouldSolidify(Object level, Object blockPos, Object blockState) throws ReflectiveOperationException {
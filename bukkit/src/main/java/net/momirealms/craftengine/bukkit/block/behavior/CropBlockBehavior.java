@@ -34,7 +34,6 @@ import org.bukkit.World;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 @SuppressWarnings("DuplicatedCode")
 public class CropBlockBehavior extends BukkitBlockBehavior {
@@ -87,10 +86,7 @@ public class CropBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         if (getRawBrightness(level, pos) >= this.minGrowLight) {
             BlockStateUtils.getOptionalCustomBlockState(state).ifPresent(customState -> {
                 int age = this.getAge(customState);
@@ -102,9 +98,7 @@ public class CropBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object world = args[1];
-        Object pos = args[2];
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object pos) throws Exception {
         return hasSufficientLight(world, pos);
     }
 
@@ -23,7 +23,6 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
 
 import java.util.*;
-import java.util.concurrent.Callable;
 
 public class DirectionalAttachedBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -51,25 +50,25 @@ public class DirectionalAttachedBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null);
-        if (state == null) return args[0];
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object nmsDirection, Object neighborPos, Object neighborState, Object random) throws Exception {
+        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(blockState).orElse(null);
+        if (state == null) return blockState;
         DirectionalAttachedBlockBehavior behavior = state.behavior().getAs(DirectionalAttachedBlockBehavior.class).orElse(null);
         if (behavior == null) return state;
         boolean flag;
         if (isSixDirection) {
-            Direction direction = DirectionUtils.fromNMSDirection(args[updateShape$direction]).opposite();
+            Direction direction = DirectionUtils.fromNMSDirection(nmsDirection).opposite();
             flag = direction == state.get(behavior.facingProperty);
         } else {
-            HorizontalDirection direction = DirectionUtils.fromNMSDirection(args[updateShape$direction]).opposite().toHorizontalDirection();
+            HorizontalDirection direction = DirectionUtils.fromNMSDirection(nmsDirection).opposite().toHorizontalDirection();
             flag = direction == state.get(behavior.facingProperty);
         }
-        return flag && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(args[0], args[updateShape$level], args[updateShape$blockPos]) ? MBlocks.AIR$defaultState : args[0];
+        return flag && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(blockState, level, pos) ? MBlocks.AIR$defaultState : blockState;
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null);
+    public boolean canSurvive(Object thisBlock, Object blockState, Object world, Object pos) throws Exception {
+        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(blockState).orElse(null);
         if (state == null) return false;
         DirectionalAttachedBlockBehavior behavior = state.behavior().getAs(DirectionalAttachedBlockBehavior.class).orElse(null);
         if (behavior == null) return false;
@@ -79,10 +78,10 @@ public class DirectionalAttachedBlockBehavior extends BukkitBlockBehavior {
         } else {
             direction = ((HorizontalDirection) state.get(behavior.facingProperty)).toDirection();
         }
-        BlockPos blockPos = LocationUtils.fromBlockPos(args[2]).relative(direction.opposite());
+        BlockPos blockPos = LocationUtils.fromBlockPos(pos).relative(direction.opposite());
         Object nmsPos = LocationUtils.toBlockPos(blockPos);
-        Object nmsState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(args[1], nmsPos);
-        return FastNMS.INSTANCE.method$BlockStateBase$isFaceSturdy(nmsState, args[1], nmsPos, DirectionUtils.toNMSDirection(direction), CoreReflections.instance$SupportType$FULL)
+        Object nmsState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(world, nmsPos);
+        return FastNMS.INSTANCE.method$BlockStateBase$isFaceSturdy(nmsState, world, nmsPos, DirectionUtils.toNMSDirection(direction), CoreReflections.instance$SupportType$FULL)
                 && mayPlaceOn(nmsState);
     }
 
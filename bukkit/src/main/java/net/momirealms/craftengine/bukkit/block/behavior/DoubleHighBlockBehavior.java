@@ -37,16 +37,12 @@ public class DoubleHighBlockBehavior extends AbstractCanSurviveBlockBehavior {
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object level = args[updateShape$level];
-        Object blockPos = args[updateShape$blockPos];
-        Object blockState = args[0];
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object blockPos, Object direction, Object neighborPos, Object nmsNeighborState, Object random) throws Exception {
         ImmutableBlockState customState = BlockStateUtils.getOptionalCustomBlockState(blockState).orElse(null);
         if (customState == null || customState.isEmpty()) return blockState;
         DoubleBlockHalf half = customState.get(this.halfProperty);
-        Object direction = args[updateShape$direction];
         if (DirectionUtils.isYAxis(direction) && half == DoubleBlockHalf.LOWER == (direction == CoreReflections.instance$Direction$UP)) {
-            ImmutableBlockState neighborState = BlockStateUtils.getOptionalCustomBlockState(args[updateShape$neighborState]).orElse(null);
+            ImmutableBlockState neighborState = BlockStateUtils.getOptionalCustomBlockState(nmsNeighborState).orElse(null);
             if (neighborState == null || neighborState.isEmpty()) return MBlocks.AIR$defaultState;
             DoubleHighBlockBehavior anotherDoorBehavior = neighborState.behavior().getAs(DoubleHighBlockBehavior.class).orElse(null);
             if (anotherDoorBehavior == null) return MBlocks.AIR$defaultState;
@@ -94,7 +90,7 @@ public class DoubleHighBlockBehavior extends AbstractCanSurviveBlockBehavior {
     }
 
     @Override
-    protected boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
         ImmutableBlockState customState = BlockStateUtils.getOptionalCustomBlockState(state).orElse(null);
         if (customState == null || customState.isEmpty()) return false;
         if (customState.get(this.halfProperty) == DoubleBlockHalf.UPPER) {
@@ -8,6 +8,7 @@ import net.momirealms.craftengine.bukkit.util.DirectionUtils;
 import net.momirealms.craftengine.bukkit.util.LocationUtils;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
 import net.momirealms.craftengine.core.block.properties.Property;
@@ -23,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Callable;
 
 public class FaceAttachedHorizontalDirectionalBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -51,14 +51,14 @@ public class FaceAttachedHorizontalDirectionalBlockBehavior extends BukkitBlockB
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Direction direction = getConnectedDirection(BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null));
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object pos) throws Exception {
+        Direction direction = getConnectedDirection(BlockStateUtils.getOptionalCustomBlockState(state).orElse(null));
         if (direction == null) return false;
         direction = direction.opposite();
         Object nmsDirection = DirectionUtils.toNMSDirection(direction);
-        Object targetPos = FastNMS.INSTANCE.method$BlockPos$relative(args[2], nmsDirection);
-        Object targetState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(args[1], targetPos);
-        return canAttach(args[1], targetPos, nmsDirection, targetState) && mayPlaceOn(targetState);
+        Object targetPos = FastNMS.INSTANCE.method$BlockPos$relative(pos, nmsDirection);
+        Object targetState = FastNMS.INSTANCE.method$BlockGetter$getBlockState(world, targetPos);
+        return canAttach(world, targetPos, nmsDirection, targetState) && mayPlaceOn(targetState);
     }
 
     @SuppressWarnings("unchecked")
@@ -83,13 +83,13 @@ public class FaceAttachedHorizontalDirectionalBlockBehavior extends BukkitBlockB
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Direction direction = getConnectedDirection(BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null));
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object pos, Object nmsDirection, Object neighborPos, Object neighborState, Object random) throws Exception {
+        Direction direction = getConnectedDirection(BlockStateUtils.getOptionalCustomBlockState(state).orElse(null));
         if (direction == null) return MBlocks.AIR$defaultState;
-        if (DirectionUtils.toNMSDirection(direction.opposite()) == args[updateShape$direction] && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(args[0], args[updateShape$level], args[updateShape$blockPos])) {
+        if (DirectionUtils.toNMSDirection(direction.opposite()) == nmsDirection && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(state, level, pos)) {
             return MBlocks.AIR$defaultState;
         }
-        return superMethod.call();
+        return ((DelegatingBlock) thisBlock).superUpdateShape(state, level, scheduledTickAccess, pos, nmsDirection, neighborPos, neighborState, random);
     }
 
     private boolean mayPlaceOn(Object state) {
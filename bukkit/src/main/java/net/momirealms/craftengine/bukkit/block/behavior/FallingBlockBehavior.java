@@ -45,18 +45,14 @@ public class FallingBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object world = args[updateShape$level];
-        Object blockPos = args[updateShape$blockPos];
+    public Object updateShape(Object thisBlock, Object state, Object world, Object scheduledTickAccess, Object blockPos, Object direction, Object neighborPos, Object neighborState, Object random) {
         FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleBlockTick(world, blockPos, thisBlock, 2);
-        return args[0];
+        return state;
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockPos = args[2];
+    public void tick(Object thisBlock, Object blockState, Object world, Object blockPos, Object random) throws Exception {
         int y = FastNMS.INSTANCE.field$Vec3i$y(blockPos);
-        Object world = args[1];
         Object dimension = CoreReflections.method$$LevelReader$dimensionType.invoke(world);
         int minY = CoreReflections.field$DimensionType$minY.getInt(dimension);
         if (y < minY) {
@@ -70,7 +66,6 @@ public class FallingBlockBehavior extends BukkitBlockBehavior {
         if (!isFree) {
             return;
         }
-        Object blockState = args[0];
         Object fallingBlockEntity = FastNMS.INSTANCE.createInjectedFallingBlockEntity(world, blockPos, blockState);
         if (this.hurtAmount > 0 && this.maxHurt > 0) {
             CoreReflections.method$FallingBlockEntity$setHurtsEntities.invoke(fallingBlockEntity, this.hurtAmount, this.maxHurt);
@@ -9,6 +9,7 @@ import net.momirealms.craftengine.bukkit.util.*;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.BlockStateWrapper;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
 import net.momirealms.craftengine.core.block.behavior.IsPathFindableBlockBehavior;
@@ -29,7 +30,6 @@ import net.momirealms.craftengine.core.world.World;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 public class FenceBlockBehavior extends BukkitBlockBehavior implements IsPathFindableBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -57,7 +57,7 @@ public class FenceBlockBehavior extends BukkitBlockBehavior implements IsPathFin
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) {
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) {
         return false;
     }
 
@@ -113,28 +113,28 @@ public class FenceBlockBehavior extends BukkitBlockBehavior implements IsPathFin
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Optional<ImmutableBlockState> optionalState = BlockStateUtils.getOptionalCustomBlockState(args[0]);
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object nmsDirection, Object neighborPos, Object neighborState, Object random) throws Exception {
+        Optional<ImmutableBlockState> optionalState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         BooleanProperty waterlogged = (BooleanProperty) optionalState
                 .map(ImmutableBlockState::owner)
                 .map(Holder::value)
                 .map(block -> block.getProperty("waterlogged"))
                 .orElse(null);
         if (waterlogged != null) {
-            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(args[updateShape$level], args[updateShape$blockPos], MFluids.WATER, 5);
+            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(level, pos, MFluids.WATER, 5);
         }
-        if (DirectionUtils.fromNMSDirection(args[updateShape$direction]).axis().isHorizontal() && optionalState.isPresent()) {
-            Direction direction = DirectionUtils.fromNMSDirection(args[updateShape$direction]);
+        if (DirectionUtils.fromNMSDirection(nmsDirection).axis().isHorizontal() && optionalState.isPresent()) {
+            Direction direction = DirectionUtils.fromNMSDirection(nmsDirection);
             ImmutableBlockState state = optionalState.get();
             if (state.owner() != null) {
                 BooleanProperty booleanProperty = (BooleanProperty) state.owner().value().getProperty(direction.name().toLowerCase(Locale.ROOT));
                 if (booleanProperty != null) {
-                    BlockStateWrapper wrapper = BlockStateUtils.toBlockStateWrapper(args[updateShape$neighborState]);
-                    return state.with(booleanProperty, this.connectsTo(wrapper, FastNMS.INSTANCE.method$BlockStateBase$isFaceSturdy(wrapper.literalObject(), args[updateShape$level], args[5], DirectionUtils.toNMSDirection(direction.opposite()), CoreReflections.instance$SupportType$FULL), direction.opposite().toHorizontalDirection())).customBlockState().literalObject();
+                    BlockStateWrapper wrapper = BlockStateUtils.toBlockStateWrapper(neighborState);
+                    return state.with(booleanProperty, this.connectsTo(wrapper, FastNMS.INSTANCE.method$BlockStateBase$isFaceSturdy(wrapper.literalObject(), level, neighborPos, DirectionUtils.toNMSDirection(direction.opposite()), CoreReflections.instance$SupportType$FULL), direction.opposite().toHorizontalDirection())).customBlockState().literalObject();
                 }
             }
         }
-        return superMethod.call();
+        return ((DelegatingBlock) thisBlock).superUpdateShape(blockState, level, scheduledTickAccess, pos, nmsDirection, neighborPos, neighborState, random);
     }
 
     public static class Factory implements BlockBehaviorFactory {
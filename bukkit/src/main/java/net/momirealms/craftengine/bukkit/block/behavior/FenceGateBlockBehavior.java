@@ -24,7 +24,6 @@ import net.momirealms.craftengine.core.sound.SoundData;
 import net.momirealms.craftengine.core.util.Direction;
 import net.momirealms.craftengine.core.util.HorizontalDirection;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
-import net.momirealms.craftengine.core.util.VersionHelper;
 import net.momirealms.craftengine.core.world.BlockPos;
 import net.momirealms.craftengine.core.world.Vec3d;
 import net.momirealms.craftengine.core.world.World;
@@ -89,18 +88,15 @@ public class FenceGateBlockBehavior extends BukkitBlockBehavior implements IsPat
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockState = args[0];
-        Direction direction = DirectionUtils.fromNMSDirection(args[updateShape$direction]);
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object nmsDirection, Object neighborPos, Object neighborState, Object random) throws Exception {
+        Direction direction = DirectionUtils.fromNMSDirection(nmsDirection);
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return blockState;
         ImmutableBlockState customState = optionalCustomState.get();
         if (customState.get(this.facingProperty).toDirection().clockWise().axis() != direction.axis()) {
-            return superMethod.call();
+            return ((DelegatingBlock) thisBlock).superUpdateShape(blockState, level, scheduledTickAccess, pos, nmsDirection, neighborPos, neighborState, random);
         }
-        Object neighborState = args[updateShape$neighborState];
-        Object level = args[updateShape$level];
-        BlockPos blockPos = LocationUtils.fromBlockPos(VersionHelper.isOrAbove1_21_2() ? args[3] : args[4]);
+        BlockPos blockPos = LocationUtils.fromBlockPos(pos);
         Object relativeState = getBlockState(level, blockPos.relative(direction.opposite()));
         boolean neighborStateIsWall = this.isWall(neighborState);
         boolean relativeStateIsWall = this.isWall(relativeState);
@@ -153,9 +149,7 @@ public class FenceGateBlockBehavior extends BukkitBlockBehavior implements IsPat
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object type = VersionHelper.isOrAbove1_20_5() ? args[1] : args[3];
-        Object blockState = args[0];
+    public boolean isPathFindable(Object thisBlock, Object blockState, Object world, Object pos, Object type) {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return false;
         if (type == CoreReflections.instance$PathComputationType$LAND || type == CoreReflections.instance$PathComputationType$AIR) {
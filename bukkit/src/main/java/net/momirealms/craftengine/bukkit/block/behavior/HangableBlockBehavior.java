@@ -8,6 +8,7 @@ import net.momirealms.craftengine.bukkit.util.BlockStateUtils;
 import net.momirealms.craftengine.bukkit.util.LocationUtils;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
 import net.momirealms.craftengine.core.block.behavior.IsPathFindableBlockBehavior;
@@ -18,7 +19,6 @@ import net.momirealms.craftengine.core.util.ResourceConfigUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 public class HangableBlockBehavior extends BukkitBlockBehavior implements IsPathFindableBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -47,10 +47,7 @@ public class HangableBlockBehavior extends BukkitBlockBehavior implements IsPath
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object world = args[1];
-        Object blockPos = args[2];
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
         ImmutableBlockState blockState = BlockStateUtils.getOptionalCustomBlockState(state).orElse(null);
         if (blockState == null) return false;
         BooleanProperty hangingProperty = (BooleanProperty) blockState.owner().value().getProperty("hanging");
@@ -61,24 +58,24 @@ public class HangableBlockBehavior extends BukkitBlockBehavior implements IsPath
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null);
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
+        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(blockState).orElse(null);
         if (state == null) return MBlocks.AIR$defaultState;
         @Nullable BooleanProperty waterlogged = (BooleanProperty) state.owner().value().getProperty("waterlogged");
         if (waterlogged != null && state.get(waterlogged)) {
-            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(args[updateShape$level], args[updateShape$blockPos], MFluids.WATER, 5);
+            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(level, pos, MFluids.WATER, 5);
         }
         BooleanProperty hanging = (BooleanProperty) state.owner().value().getProperty("hanging");
         if (hanging == null) return MBlocks.AIR$defaultState;
-        if ((state.get(hanging) ? CoreReflections.instance$Direction$UP : CoreReflections.instance$Direction$DOWN) == args[updateShape$direction]
-                && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(args[0], args[updateShape$level], args[updateShape$blockPos])) {
+        if ((state.get(hanging) ? CoreReflections.instance$Direction$UP : CoreReflections.instance$Direction$DOWN) == direction
+                && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(blockState, level, pos)) {
             return MBlocks.AIR$defaultState;
         }
-        return superMethod.call();
+        return ((DelegatingBlock) thisBlock).superUpdateShape(blockState, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) {
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) {
         return false;
     }
 
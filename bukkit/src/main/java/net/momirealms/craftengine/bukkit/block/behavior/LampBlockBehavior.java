@@ -33,12 +33,9 @@ public class LampBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockState = args[0];
+    public void tick(Object thisBlock, Object blockState, Object world, Object blockPos, Object random) throws Exception {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return;
-        Object world = args[1];
-        Object blockPos = args[2];
         ImmutableBlockState customState = optionalCustomState.get();
         if (customState.get(this.litProperty) && !FastNMS.INSTANCE.method$SignalGetter$hasNeighborSignal(world, blockPos)) {
             if (FastNMS.INSTANCE.method$CraftEventFactory$callRedstoneChange(world, blockPos, 0, 15).getNewCurrent() != 15) {
@@ -21,7 +21,6 @@ import org.bukkit.event.block.LeavesDecayEvent;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 public class LeavesBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -54,11 +53,7 @@ public class LeavesBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object world = args[updateShape$level];
-        Object blockPos = args[updateShape$blockPos];
-        Object neighborState = args[updateShape$neighborState];
-        Object blockState = args[0];
+    public Object updateShape(Object thisBlock, Object blockState, Object world, Object scheduledTickAccess, Object blockPos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isPresent()) {
             Optional<LeavesBlockBehavior> optionalBehavior = optionalCustomState.get().behavior().getAs(LeavesBlockBehavior.class);
@@ -74,10 +69,7 @@ public class LeavesBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockState = args[0];
-        Object level = args[1];
-        Object blockPos = args[2];
+    public void tick(Object thisBlock, Object blockState, Object level, Object blockPos, Object random) throws Exception {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isPresent()) {
             ImmutableBlockState customState = optionalCustomState.get();
@@ -98,10 +90,7 @@ public class LeavesBlockBehavior extends BukkitBlockBehavior {
 
     @SuppressWarnings("UnstableApiUsage")
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object blockState = args[0];
-        Object level = args[1];
-        Object blockPos = args[2];
+    public void randomTick(Object thisBlock, Object blockState, Object level, Object blockPos, Object random) {
         BlockStateUtils.getOptionalCustomBlockState(blockState).ifPresent(customState -> {
             // 可能是另一种树叶
             Optional<LeavesBlockBehavior> optionalBehavior = customState.behavior().getAs(LeavesBlockBehavior.class);
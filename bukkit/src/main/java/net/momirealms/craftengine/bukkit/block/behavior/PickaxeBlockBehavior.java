@@ -16,7 +16,6 @@ import net.momirealms.craftengine.core.util.MiscUtils;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -44,10 +43,7 @@ public class PickaxeBlockBehavior extends FacingTriggerableBlockBehavior {
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) {
         tick(state, level, pos);
     }
 
@@ -33,7 +33,6 @@ import org.bukkit.inventory.ItemStack;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -65,10 +64,7 @@ public class PlaceBlockBehavior extends FacingTriggerableBlockBehavior {
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) {
         tick(state, level, pos);
     }
 
@@ -19,7 +19,6 @@ import net.momirealms.craftengine.core.sound.SoundData;
 import net.momirealms.craftengine.core.util.Direction;
 import net.momirealms.craftengine.core.util.PressurePlateSensitivity;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
-import net.momirealms.craftengine.core.util.VersionHelper;
 import net.momirealms.craftengine.core.world.World;
 import net.momirealms.craftengine.core.world.WorldEvents;
 import org.bukkit.GameEvent;
@@ -56,11 +55,8 @@ public class PressurePlateBlockBehavior extends BukkitBlockBehavior {
 
     @SuppressWarnings("DuplicatedCode")
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object level = args[updateShape$level];
-        Object blockPos = args[updateShape$blockPos];
-        Direction direction = DirectionUtils.fromNMSDirection(VersionHelper.isOrAbove1_21_2() ? args[4] : args[1]);
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object blockPos, Object nmsDirection, Object neighborPos, Object neighborState, Object random) throws Exception {
+        Direction direction = DirectionUtils.fromNMSDirection(nmsDirection);
         if (direction == Direction.DOWN && !FastNMS.INSTANCE.method$BlockStateBase$canSurvive(state, level, blockPos)) {
             Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(state);
             if (optionalCustomState.isEmpty()) {
@@ -74,19 +70,17 @@ public class PressurePlateBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockPos = LocationUtils.below(args[2]);
-        Object level = args[1];
+    public boolean canSurvive(Object thisBlock, Object state, Object level, Object pos) throws Exception {
+        Object blockPos = LocationUtils.below(pos);
         return FastNMS.INSTANCE.method$Block$canSupportRigidBlock(level, blockPos)
                 || FastNMS.INSTANCE.method$Block$canSupportCenter(level, blockPos, CoreReflections.instance$Direction$UP);
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         int signalForState = this.getSignalForState(state);
         if (signalForState > 0) {
-            this.checkPressed(null, args[1], args[2], state, signalForState, thisBlock);
+            this.checkPressed(null, level, pos, state, signalForState, thisBlock);
         }
     }
 
@@ -30,7 +30,6 @@ import org.bukkit.World;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 @SuppressWarnings("DuplicatedCode")
 public class SaplingBlockBehavior extends BukkitBlockBehavior {
@@ -53,13 +52,10 @@ public class SaplingBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object world = args[1];
-        Object blockPos = args[2];
-        Object blockState = args[0];
+    public void randomTick(Object thisBlock, Object blockState, Object world, Object blockPos, Object random) throws Exception {
         Object aboveBlockPos = LocationUtils.above(blockPos);
         if ((int) CoreReflections.method$LevelReader$getMaxLocalRawBrightness.invoke(world, aboveBlockPos) >= 9 && RandomUtils.generateRandomFloat(0, 1) < this.growSpeed) {
-            increaseStage(world, blockPos, blockState, args[3]);
+            increaseStage(world, blockPos, blockState, random);
         }
     }
 
@@ -103,15 +103,13 @@ public class SimpleStorageBlockBehavior extends BukkitBlockBehavior implements E
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object world = args[1];
-        Object blockPos = args[2];
+    public void tick(Object thisBlock, Object state, Object world, Object blockPos, Object random) throws Exception {
         BlockPos pos = LocationUtils.fromBlockPos(blockPos);
         World bukkitWorld = FastNMS.INSTANCE.method$Level$getCraftWorld(world);
         CEWorld ceWorld = BukkitWorldManager.instance().getWorld(bukkitWorld.getUID());
         BlockEntity blockEntity = ceWorld.getBlockEntityAtIfLoaded(pos);
         if (blockEntity instanceof SimpleStorageBlockEntity entity) {
-            entity.checkOpeners(world, blockPos, args[0]);
+            entity.checkOpeners(world, blockPos, state);
         }
     }
 
@@ -90,21 +90,18 @@ public class SlabBlockBehavior extends BukkitBlockBehavior implements IsPathFind
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockState = args[0];
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
         if (super.waterloggedProperty == null) return blockState;
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return blockState;
         if (optionalCustomState.get().get(super.waterloggedProperty)) {
-            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(VersionHelper.isOrAbove1_21_2() ? args[2] : args[3], VersionHelper.isOrAbove1_21_2() ? args[3] : args[4], MFluids.WATER, 5);
+            FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(scheduledTickAccess, pos, MFluids.WATER, 5);
         }
         return blockState;
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object type = VersionHelper.isOrAbove1_20_5() ? args[1] : args[3];
-        Object blockState = args[0];
+    public boolean isPathFindable(Object thisBlock, Object blockState, Object world, Object pos, Object type) {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return false;
         if (type == CoreReflections.instance$PathComputationType$WATER) {
@@ -7,6 +7,7 @@ import net.momirealms.craftengine.bukkit.util.BlockStateUtils;
 import net.momirealms.craftengine.bukkit.util.LocationUtils;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
 import net.momirealms.craftengine.core.block.properties.BooleanProperty;
@@ -14,7 +15,6 @@ import net.momirealms.craftengine.core.item.context.BlockPlaceContext;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
 
 import java.util.Map;
-import java.util.concurrent.Callable;
 
 public class SnowyBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -26,11 +26,11 @@ public class SnowyBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        if (args[updateShape$direction] != CoreReflections.instance$Direction$UP) return superMethod.call();
-        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(args[0]).orElse(null);
-        if (state == null || state.isEmpty()) return superMethod.call();
-        ImmutableBlockState newState = state.with(this.snowyProperty, isSnowySetting(args[updateShape$neighborState]));
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
+        if (direction != CoreReflections.instance$Direction$UP) return ((DelegatingBlock) thisBlock).superUpdateShape(blockState, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
+        ImmutableBlockState state = BlockStateUtils.getOptionalCustomBlockState(blockState).orElse(null);
+        if (state == null || state.isEmpty()) return ((DelegatingBlock) thisBlock).superUpdateShape(blockState, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
+        ImmutableBlockState newState = state.with(this.snowyProperty, isSnowySetting(neighborState));
         return newState.customBlockState().literalObject();
     }
 
@@ -10,6 +10,7 @@ import net.momirealms.craftengine.bukkit.util.DirectionUtils;
 import net.momirealms.craftengine.bukkit.util.KeyUtils;
 import net.momirealms.craftengine.core.block.BlockBehavior;
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.UpdateOption;
 import net.momirealms.craftengine.core.block.behavior.BlockBehaviorFactory;
@@ -20,7 +21,6 @@ import net.momirealms.craftengine.core.util.*;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 public class StemBlockBehavior extends BukkitBlockBehavior implements IsPathFindableBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -48,16 +48,13 @@ public class StemBlockBehavior extends BukkitBlockBehavior implements IsPathFind
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        return (VersionHelper.isOrAbove1_20_5() ? args[1] : args[3]).equals(CoreReflections.instance$PathComputationType$AIR)
-                && !FastNMS.INSTANCE.field$BlockBehavior$hasCollision(thisBlock) || (boolean) superMethod.call();
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) throws Exception {
+        return type.equals(CoreReflections.instance$PathComputationType$AIR)
+                && !FastNMS.INSTANCE.field$BlockBehavior$hasCollision(thisBlock) || ((DelegatingBlock) thisBlock).superIsPathFindable(state, world, pos, type);
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         if (CropBlockBehavior.getRawBrightness(level, pos) < this.minGrowLight) return;
         ImmutableBlockState customState = BlockStateUtils.getOptionalCustomBlockState(state).orElse(null);
         if (customState == null || customState.isEmpty()) return;
@@ -35,7 +35,7 @@ public class SturdyBaseBlockBehavior extends AbstractCanSurviveBlockBehavior {
     }
 
     @Override
-    protected boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object blockPos) throws Exception {
         int x = FastNMS.INSTANCE.field$Vec3i$x(blockPos) + this.direction.stepX();
         int y = FastNMS.INSTANCE.field$Vec3i$y(blockPos) + this.direction.stepY();
         int z = FastNMS.INSTANCE.field$Vec3i$z(blockPos) + this.direction.stepZ();
@@ -19,7 +19,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.Callable;
 
 public class SurfaceSpreadingBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -35,10 +34,7 @@ public class SurfaceSpreadingBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object state = args[0];
-        Object level = args[1];
-        Object pos = args[2];
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         if (!canBeGrass(state, level, pos)) {
             FastNMS.INSTANCE.method$LevelWriter$setBlock(level, pos, this.baseBlock.get(), 3);
             return;
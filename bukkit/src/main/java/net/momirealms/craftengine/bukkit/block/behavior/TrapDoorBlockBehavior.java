@@ -73,12 +73,11 @@ public class TrapDoorBlockBehavior extends BukkitBlockBehavior implements IsPath
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object blockState = args[0];
+    public Object updateShape(Object thisBlock, Object blockState, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) {
         if (super.waterloggedProperty != null) {
             BlockStateUtils.getOptionalCustomBlockState(blockState).ifPresent(customState -> {
                 if (customState.get(super.waterloggedProperty)) {
-                    FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(args[updateShape$level], args[updateShape$blockPos], MFluids.WATER, 5);
+                    FastNMS.INSTANCE.method$ScheduledTickAccess$scheduleFluidTick(level, pos, MFluids.WATER, 5);
                 }
             });
         }
@@ -126,9 +125,7 @@ public class TrapDoorBlockBehavior extends BukkitBlockBehavior implements IsPath
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) {
-        Object type = VersionHelper.isOrAbove1_20_5() ? args[1] : args[3];
-        Object blockState = args[0];
+    public boolean isPathFindable(Object thisBlock, Object blockState, Object world, Object pos, Object type) {
         Optional<ImmutableBlockState> optionalCustomState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCustomState.isEmpty()) return false;
         if (type == CoreReflections.instance$PathComputationType$LAND || type == CoreReflections.instance$PathComputationType$AIR) {
@@ -1,6 +1,7 @@
 package net.momirealms.craftengine.bukkit.block.behavior;
 
 import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.DelegatingBlock;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
 import net.momirealms.craftengine.core.block.behavior.*;
 import net.momirealms.craftengine.core.entity.player.InteractionResult;
@@ -107,15 +108,14 @@ public class UnsafeCompositeBlockBehavior extends BukkitBlockBehavior
     }
 
     @Override
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object previous = args[0];
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
         for (AbstractBlockBehavior behavior : this.behaviors) {
-            Object processed = behavior.updateShape(thisBlock, args, superMethod);
-            if (processed != previous) {
+            Object processed = behavior.updateShape(thisBlock, state, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
+            if (processed != state) {
                 return processed;
             }
         }
-        return previous;
+        return state;
     }
 
     @Override
@@ -130,16 +130,16 @@ public class UnsafeCompositeBlockBehavior extends BukkitBlockBehavior
     }
 
     @Override
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         for (AbstractBlockBehavior behavior : this.behaviors) {
-            behavior.tick(thisBlock, args, superMethod);
+            behavior.tick(thisBlock, state, level, pos, random);
         }
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
         for (AbstractBlockBehavior behavior : this.behaviors) {
-            behavior.randomTick(thisBlock, args, superMethod);
+            behavior.randomTick(thisBlock, state, level, pos, random);
         }
     }
 
@@ -223,9 +223,9 @@ public class UnsafeCompositeBlockBehavior extends BukkitBlockBehavior
     }
 
     @Override
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object pos) throws Exception {
         for (AbstractBlockBehavior behavior : this.behaviors) {
-            if (!behavior.canSurvive(thisBlock, args, superMethod)) {
+            if (!behavior.canSurvive(thisBlock, state, world, pos)) {
                 return false;
             }
         }
@@ -233,18 +233,18 @@ public class UnsafeCompositeBlockBehavior extends BukkitBlockBehavior
     }
 
     @Override
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) throws Exception {
         boolean processed = false;
         for (AbstractBlockBehavior behavior : this.behaviors) {
             if (behavior instanceof IsPathFindableBlockBehavior pathFindableBlockBehavior) {
-                if (!pathFindableBlockBehavior.isPathFindable(thisBlock, args, superMethod)) {
+                if (!pathFindableBlockBehavior.isPathFindable(thisBlock, state, world, pos, type)) {
                     return false;
                 } else {
                     processed = true;
                 }
             }
         }
-        if (!processed) return (boolean) superMethod.call();
+        if (!processed) return ((DelegatingBlock) thisBlock).superIsPathFindable(state, world, pos, type);
         return true;
     }
 
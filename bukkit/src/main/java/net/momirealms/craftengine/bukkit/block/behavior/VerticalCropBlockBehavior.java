@@ -19,7 +19,6 @@ import net.momirealms.craftengine.core.world.BlockPos;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
 
 public class VerticalCropBlockBehavior extends BukkitBlockBehavior {
     public static final Factory FACTORY = new Factory();
@@ -38,10 +37,7 @@ public class VerticalCropBlockBehavior extends BukkitBlockBehavior {
     }
 
     @Override
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        Object blockState = args[0];
-        Object level = args[1];
-        Object blockPos = args[2];
+    public void randomTick(Object thisBlock, Object blockState, Object level, Object blockPos, Object random) throws Exception {
         Optional<ImmutableBlockState> optionalCurrentState = BlockStateUtils.getOptionalCustomBlockState(blockState);
         if (optionalCurrentState.isEmpty()) {
             return;
@@ -1,5 +1,6 @@
 package net.momirealms.craftengine.bukkit.entity.furniture;
 
+import ca.spottedleaf.concurrentutil.map.ConcurrentLong2ReferenceChainedHashTable;
 import net.momirealms.craftengine.bukkit.api.BukkitAdaptors;
 import net.momirealms.craftengine.bukkit.entity.furniture.hitbox.InteractionFurnitureHitboxConfig;
 import net.momirealms.craftengine.bukkit.nms.CollisionEntity;
@@ -29,9 +30,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 public class BukkitFurnitureManager extends AbstractFurnitureManager {
@@ -46,9 +45,10 @@ public class BukkitFurnitureManager extends AbstractFurnitureManager {
 
     private final BukkitCraftEngine plugin;
 
-    private final Map<Integer, BukkitFurniture> byMetaEntityId = new ConcurrentHashMap<>(256, 0.5f);
-    private final Map<Integer, BukkitFurniture> byVirtualEntityId = new ConcurrentHashMap<>(512, 0.5f);
-    private final Map<Integer, BukkitFurniture> byColliderEntityId = new ConcurrentHashMap<>(512, 0.5f);
+    // 实体id作为long键，避免在网络线程上装箱
+    private final ConcurrentLong2ReferenceChainedHashTable<BukkitFurniture> byMetaEntityId = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(256, 0.5f);
+    private final ConcurrentLong2ReferenceChainedHashTable<BukkitFurniture> byVirtualEntityId = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(512, 0.5f);
+    private final ConcurrentLong2ReferenceChainedHashTable<BukkitFurniture> byColliderEntityId = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(512, 0.5f);
     // Event listeners
     private final FurnitureEventListener furnitureEventListener;
 
@@ -24,6 +24,7 @@ public class ArmorStandFurnitureElement implements FurnitureElement {
     private final ArmorStandFurnitureElementConfig config;
     private final FurnitureColorSource colorSource;
     public final Object cachedSpawnPacket;
+    public final Object cachedDataPacket;
     public final Object cachedDespawnPacket;
     public final Object cachedScalePacket;
     public final Object cachedTeamPacket;
@@ -39,6 +40,7 @@ public class ArmorStandFurnitureElement implements FurnitureElement {
                 this.entityId, this.uuid, position.x, position.y, position.z,
                 furniturePos.xRot, furniturePos.yRot, MEntityTypes.ARMOR_STAND, 0, CoreReflections.instance$Vec3$Zero, furniturePos.yRot
         );
+        this.cachedDataPacket = FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, config.metadata);
         this.colorSource = furniture.dataAccessor.getColorSource();
         this.cachedDespawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(IntList.of(this.entityId));
         if (VersionHelper.isOrAbove1_20_5() && config.scale != 1) {
@@ -59,16 +61,17 @@ public class ArmorStandFurnitureElement implements FurnitureElement {
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPackets(List.of(this.cachedSpawnPacket, FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, this.config.metadata.apply(player))), false);
-        player.sendPacket(FastNMS.INSTANCE.constructor$ClientboundSetEquipmentPacket(this.entityId, List.of(
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        collector.accept(this.cachedSpawnPacket);
+        collector.accept(this.cachedDataPacket);
+        collector.accept(FastNMS.INSTANCE.constructor$ClientboundSetEquipmentPacket(this.entityId, List.of(
                 Pair.of(CoreReflections.instance$EquipmentSlot$HEAD, this.config.item(player, this.colorSource).getLiteralObject())
-        )), false);
+        )));
         if (this.cachedScalePacket != null) {
-            player.sendPacket(this.cachedScalePacket, false);
+            collector.accept(this.cachedScalePacket);
         }
         if (this.cachedTeamPacket != null) {
-            player.sendPacket(this.cachedTeamPacket, false);
+            collector.accept(this.cachedTeamPacket);
         }
     }
 
@@ -25,11 +25,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 
 public class ArmorStandFurnitureElementConfig implements FurnitureElementConfig<ArmorStandFurnitureElement>, Glowing {
     public static final Factory FACTORY = new Factory();
-    public final Function<Player, List<Object>> metadata;
+    public final List<Object> metadata;
     public final Key itemId;
     public final float scale;
     public final boolean applyDyedColor;
@@ -49,19 +48,17 @@ public class ArmorStandFurnitureElementConfig implements FurnitureElementConfig<
         this.scale = scale;
         this.itemId = itemId;
         this.glowColor = glowColor;
-        this.metadata = (player) -> {
-            List<Object> dataValues = new ArrayList<>(2);
-            if (glowColor != null) {
-                BaseEntityData.SharedFlags.addEntityData((byte) 0x60, dataValues);
-            } else {
-                BaseEntityData.SharedFlags.addEntityData((byte) 0x20, dataValues);
-            }
-            if (small) {
-                ArmorStandData.ArmorStandFlags.addEntityData((byte) 0x01, dataValues);
-            }
-
-            return dataValues;
-        };
+        // 盔甲架的数据与玩家无关
+        List<Object> dataValues = new ArrayList<>(2);
+        if (glowColor != null) {
+            BaseEntityData.SharedFlags.addEntityData((byte) 0x60, dataValues);
+        } else {
+            BaseEntityData.SharedFlags.addEntityData((byte) 0x20, dataValues);
+        }
+        if (small) {
+            ArmorStandData.ArmorStandFlags.addEntityData((byte) 0x01, dataValues);
+        }
+        this.metadata = dataValues;
     }
 
     public Item<?> item(Player player, FurnitureColorSource colorSource) {
@@ -12,7 +12,6 @@ import net.momirealms.craftengine.core.util.MiscUtils;
 import net.momirealms.craftengine.core.world.Vec3d;
 import net.momirealms.craftengine.core.world.WorldPosition;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -20,6 +19,7 @@ public class ItemDisplayFurnitureElement implements FurnitureElement {
     private final ItemDisplayFurnitureElementConfig config;
     private final WorldPosition position;
     private final int entityId;
+    private final Object spawnPacket;
     private final Object despawnPacket;
     private final FurnitureColorSource colorSource;
     private final UUID uuid = UUID.randomUUID();
@@ -30,20 +30,19 @@ public class ItemDisplayFurnitureElement implements FurnitureElement {
         WorldPosition furniturePos = furniture.position();
         Vec3d position = Furniture.getRelativePosition(furniturePos, config.position());
         this.position = new WorldPosition(furniturePos.world, position.x, position.y, position.z, furniturePos.xRot, furniturePos.yRot);
+        this.spawnPacket = FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
+                this.entityId, this.uuid,
+                this.position.x, this.position.y, this.position.z, 0, this.position.yRot,
+                MEntityTypes.ITEM_DISPLAY, 0, CoreReflections.instance$Vec3$Zero, 0
+        );
         this.despawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(MiscUtils.init(new IntArrayList(), a -> a.add(entityId)));
         this.colorSource = furniture.dataAccessor.getColorSource();
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPacket(FastNMS.INSTANCE.constructor$ClientboundBundlePacket(List.of(
-                FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
-                        this.entityId, this.uuid,
-                        this.position.x, this.position.y, this.position.z, 0, this.position.yRot,
-                        MEntityTypes.ITEM_DISPLAY, 0, CoreReflections.instance$Vec3$Zero, 0
-                ),
-                FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, this.config.metadata.apply(player, this.colorSource))
-        )), false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        collector.accept(this.spawnPacket);
+        collector.accept(FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, this.config.metadata.apply(player, this.colorSource)));
     }
 
     @Override
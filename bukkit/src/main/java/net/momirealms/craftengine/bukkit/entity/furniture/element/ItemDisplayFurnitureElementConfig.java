@@ -94,23 +94,26 @@ public class ItemDisplayFurnitureElementConfig implements FurnitureElementConfig
             }
             return Optional.ofNullable(wrappedItem).orElseGet(() -> BukkitItemManager.instance().createWrappedItem(ItemKeys.BARRIER, null));
         };
+        // 与玩家无关的数据只需要创建一次
+        List<Object> sharedDataValues = new ArrayList<>();
+        if (glowColor != null) {
+            ItemDisplayEntityData.SharedFlags.addEntityData((byte) 0x40, sharedDataValues);
+            ItemDisplayEntityData.GlowColorOverride.addEntityData(glowColor.color(), sharedDataValues);
+        }
+        ItemDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(this.scale, sharedDataValues);
+        ItemDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(this.rotation, sharedDataValues);
+        ItemDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(this.billboard.id(), sharedDataValues);
+        ItemDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(this.translation, sharedDataValues);
+        ItemDisplayEntityData.DisplayType.addEntityDataIfNotDefaultValue(this.displayContext.id(), sharedDataValues);
+        ItemDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(this.shadowRadius, sharedDataValues);
+        ItemDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(this.shadowStrength, sharedDataValues);
+        if (this.blockLight != -1 && this.skyLight != -1) {
+            ItemDisplayEntityData.BrightnessOverride.addEntityData(this.blockLight << 4 | this.skyLight << 20, sharedDataValues);
+        }
         this.metadata = (player, source) -> {
-            List<Object> dataValues = new ArrayList<>();
-            if (glowColor != null) {
-                ItemDisplayEntityData.SharedFlags.addEntityData((byte) 0x40, dataValues);
-                ItemDisplayEntityData.GlowColorOverride.addEntityData(glowColor.color(), dataValues);
-            }
+            List<Object> dataValues = new ArrayList<>(sharedDataValues.size() + 2);
+            dataValues.addAll(sharedDataValues);
             ItemDisplayEntityData.DisplayedItem.addEntityData(itemFunction.apply(player, source).getLiteralObject(), dataValues);
-            ItemDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(this.scale, dataValues);
-            ItemDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(this.rotation, dataValues);
-            ItemDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(this.billboard.id(), dataValues);
-            ItemDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(this.translation, dataValues);
-            ItemDisplayEntityData.DisplayType.addEntityDataIfNotDefaultValue(this.displayContext.id(), dataValues);
-            ItemDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(this.shadowRadius, dataValues);
-            ItemDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(this.shadowStrength, dataValues);
-            if (this.blockLight != -1 && this.skyLight != -1) {
-                ItemDisplayEntityData.BrightnessOverride.addEntityData(this.blockLight << 4 | this.skyLight << 20, dataValues);
-            }
             ItemDisplayEntityData.ViewRange.addEntityDataIfNotDefaultValue((float) (this.viewRange * player.displayEntityViewDistance()), dataValues);
             return dataValues;
         };
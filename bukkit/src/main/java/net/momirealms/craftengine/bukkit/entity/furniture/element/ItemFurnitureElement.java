@@ -12,7 +12,6 @@ import net.momirealms.craftengine.core.util.MiscUtils;
 import net.momirealms.craftengine.core.world.Vec3d;
 import net.momirealms.craftengine.core.world.WorldPosition;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -51,13 +50,11 @@ public class ItemFurnitureElement implements FurnitureElement {
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPackets(List.of(
-                this.cachedSpawnPacket1,
-                this.cachedSpawnPacket2,
-                this.cachedRidePacket,
-                FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId2, this.config.metadata().apply(player, this.colorSource)
-        )), false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        collector.accept(this.cachedSpawnPacket1);
+        collector.accept(this.cachedSpawnPacket2);
+        collector.accept(this.cachedRidePacket);
+        collector.accept(FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId2, this.config.metadata().apply(player, this.colorSource)));
     }
 
     @Override
@@ -11,7 +11,6 @@ import net.momirealms.craftengine.core.util.MiscUtils;
 import net.momirealms.craftengine.core.world.Vec3d;
 import net.momirealms.craftengine.core.world.WorldPosition;
 
-import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -19,6 +18,7 @@ public class TextDisplayFurnitureElement implements FurnitureElement {
     private final TextDisplayFurnitureElementConfig config;
     private final WorldPosition position;
     private final int entityId;
+    private final Object spawnPacket;
     private final Object despawnPacket;
     private final UUID uuid = UUID.randomUUID();
 
@@ -28,19 +28,18 @@ public class TextDisplayFurnitureElement implements FurnitureElement {
         WorldPosition furniturePos = furniture.position();
         Vec3d position = Furniture.getRelativePosition(furniturePos, config.position());
         this.position = new WorldPosition(furniturePos.world, position.x, position.y, position.z, furniturePos.xRot, furniturePos.yRot);
+        this.spawnPacket = FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
+                this.entityId, this.uuid,
+                this.position.x, this.position.y, this.position.z, 0, this.position.yRot,
+                MEntityTypes.TEXT_DISPLAY, 0, CoreReflections.instance$Vec3$Zero, 0
+        );
         this.despawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(MiscUtils.init(new IntArrayList(), a -> a.add(entityId)));
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPacket(FastNMS.INSTANCE.constructor$ClientboundBundlePacket(List.of(
-                FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
-                        this.entityId, this.uuid,
-                        this.position.x, this.position.y, this.position.z, 0, this.position.yRot,
-                        MEntityTypes.TEXT_DISPLAY, 0, CoreReflections.instance$Vec3$Zero, 0
-                ),
-                FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, this.config.metadata.apply(player))
-        )), false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        collector.accept(this.spawnPacket);
+        collector.accept(FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(this.entityId, this.config.metadata.apply(player)));
     }
 
     @Override
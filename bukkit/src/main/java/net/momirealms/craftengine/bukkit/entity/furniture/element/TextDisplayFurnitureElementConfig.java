@@ -94,26 +94,29 @@ public class TextDisplayFurnitureElementConfig implements FurnitureElementConfig
         this.useDefaultBackgroundColor = useDefaultBackgroundColor;
         this.alignment = alignment;
         this.isSeeThrough = isSeeThrough;
+        // 与玩家无关的数据只需要创建一次
+        List<Object> sharedDataValues = new ArrayList<>();
+        if (glowColor != null) {
+            TextDisplayEntityData.SharedFlags.addEntityData((byte) 0x40, sharedDataValues);
+            TextDisplayEntityData.GlowColorOverride.addEntityData(glowColor.color(), sharedDataValues);
+        }
+        TextDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(this.scale, sharedDataValues);
+        TextDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(this.rotation, sharedDataValues);
+        TextDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(this.billboard.id(), sharedDataValues);
+        TextDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(this.translation, sharedDataValues);
+        TextDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(this.shadowRadius, sharedDataValues);
+        TextDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(this.shadowStrength, sharedDataValues);
+        TextDisplayEntityData.LineWidth.addEntityDataIfNotDefaultValue(this.lineWidth, sharedDataValues);
+        TextDisplayEntityData.BackgroundColor.addEntityDataIfNotDefaultValue(this.backgroundColor, sharedDataValues);
+        TextDisplayEntityData.TextOpacity.addEntityDataIfNotDefaultValue(this.opacity, sharedDataValues);
+        TextDisplayEntityData.TextDisplayMasks.addEntityDataIfNotDefaultValue(TextDisplayEntityData.encodeMask(this.hasShadow, this.isSeeThrough, this.useDefaultBackgroundColor, this.alignment), sharedDataValues);
+        if (this.blockLight != -1 && this.skyLight != -1) {
+            TextDisplayEntityData.BrightnessOverride.addEntityData(this.blockLight << 4 | this.skyLight << 20, sharedDataValues);
+        }
         this.metadata = (player) -> {
-            List<Object> dataValues = new ArrayList<>();
-            if (glowColor != null) {
-                TextDisplayEntityData.SharedFlags.addEntityData((byte) 0x40, dataValues);
-                TextDisplayEntityData.GlowColorOverride.addEntityData(glowColor.color(), dataValues);
-            }
-            TextDisplayEntityData.Scale.addEntityDataIfNotDefaultValue(this.scale, dataValues);
-            TextDisplayEntityData.RotationLeft.addEntityDataIfNotDefaultValue(this.rotation, dataValues);
-            TextDisplayEntityData.BillboardConstraints.addEntityDataIfNotDefaultValue(this.billboard.id(), dataValues);
-            TextDisplayEntityData.Translation.addEntityDataIfNotDefaultValue(this.translation, dataValues);
-            TextDisplayEntityData.ShadowRadius.addEntityDataIfNotDefaultValue(this.shadowRadius, dataValues);
-            TextDisplayEntityData.ShadowStrength.addEntityDataIfNotDefaultValue(this.shadowStrength, dataValues);
+            List<Object> dataValues = new ArrayList<>(sharedDataValues.size() + 2);
+            dataValues.addAll(sharedDataValues);
             TextDisplayEntityData.Text.addEntityData(ComponentUtils.adventureToMinecraft(AdventureHelper.miniMessage().deserialize(this.text, NetworkTextReplaceContext.of(player).tagResolvers())), dataValues);
-            TextDisplayEntityData.LineWidth.addEntityDataIfNotDefaultValue(this.lineWidth, dataValues);
-            TextDisplayEntityData.BackgroundColor.addEntityDataIfNotDefaultValue(this.backgroundColor, dataValues);
-            TextDisplayEntityData.TextOpacity.addEntityDataIfNotDefaultValue(this.opacity, dataValues);
-            TextDisplayEntityData.TextDisplayMasks.addEntityDataIfNotDefaultValue(TextDisplayEntityData.encodeMask(this.hasShadow, this.isSeeThrough, this.useDefaultBackgroundColor, this.alignment), dataValues);
-            if (this.blockLight != -1 && this.skyLight != -1) {
-                TextDisplayEntityData.BrightnessOverride.addEntityData(this.blockLight << 4 | this.skyLight << 20, dataValues);
-            }
             TextDisplayEntityData.ViewRange.addEntityDataIfNotDefaultValue((float) (this.viewRange * player.displayEntityViewDistance()), dataValues);
             return dataValues;
         };
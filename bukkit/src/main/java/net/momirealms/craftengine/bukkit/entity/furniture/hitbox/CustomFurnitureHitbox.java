@@ -23,7 +23,7 @@ import java.util.function.Consumer;
 public class CustomFurnitureHitbox extends AbstractFurnitureHitBox {
     private final CustomFurnitureHitboxConfig config;
     private final Collider collider;
-    private final Object spawnPacket;
+    private final Object[] spawnPackets;
     private final Object despawnPacket;
     private final FurnitureHitboxPart part;
     private final int entityId;
@@ -47,7 +47,7 @@ public class CustomFurnitureHitbox extends AbstractFurnitureHitBox {
             FastNMS.INSTANCE.method$AttributeInstance$setBaseValue(attributeIns, config.scale());
             packets.add(FastNMS.INSTANCE.constructor$ClientboundUpdateAttributesPacket(entityId, Collections.singletonList(attributeIns)));
         }
-        this.spawnPacket = FastNMS.INSTANCE.constructor$ClientboundBundlePacket(packets);
+        this.spawnPackets = packets.toArray();
         this.part = new FurnitureHitboxPart(entityId, aabb, pos, false);
         this.despawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(MiscUtils.init(new IntArrayList(), l -> l.add(entityId)));
         this.entityId = entityId;
@@ -64,8 +64,10 @@ public class CustomFurnitureHitbox extends AbstractFurnitureHitBox {
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPacket(this.spawnPacket, false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        for (Object packet : this.spawnPackets) {
+            collector.accept(packet);
+        }
     }
 
     @Override
@@ -62,14 +62,15 @@ public class HappyGhastFurnitureHitbox extends AbstractFurnitureHitBox {
     }
 
     @Override
-    public void show(Player player) {
-        List<Object> packets = new ArrayList<>();
-        packets.add(FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        // 快乐恶魂先在玩家下方生成，再同步到实际位置
+        collector.accept(FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
                 this.entityId, UUID.randomUUID(), this.pos.x, player.y() - (this.config.scale() * 4 + 16), this.pos.z, 0, this.yaw,
                 MEntityTypes.HAPPY_GHAST, 0, CoreReflections.instance$Vec3$Zero, 0
         ));
-        packets.addAll(this.packets);
-        player.sendPacket(FastNMS.INSTANCE.constructor$ClientboundBundlePacket(packets), false);
+        for (Object packet : this.packets) {
+            collector.accept(packet);
+        }
     }
 
     @Override
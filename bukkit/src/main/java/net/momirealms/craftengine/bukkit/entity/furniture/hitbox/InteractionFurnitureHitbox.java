@@ -20,7 +20,7 @@ import java.util.function.Consumer;
 public class InteractionFurnitureHitbox extends AbstractFurnitureHitBox {
     private final InteractionFurnitureHitboxConfig config;
     private final Collider collider;
-    private final Object spawnPacket;
+    private final Object[] spawnPackets;
     private final Object despawnPacket;
     private final FurnitureHitboxPart part;
     private final int entityId;
@@ -33,13 +33,13 @@ public class InteractionFurnitureHitbox extends AbstractFurnitureHitBox {
         AABB aabb = AABB.makeBoundingBox(pos, config.size().x, config.size().y);
         this.collider = createCollider(furniture.world(), pos, aabb, false, config.blocksBuilding(), config.canBeHitByProjectile());
         int interactionId = CoreReflections.instance$Entity$ENTITY_COUNTER.incrementAndGet();
-        this.spawnPacket = FastNMS.INSTANCE.constructor$ClientboundBundlePacket(List.of(
+        this.spawnPackets = new Object[] {
                 FastNMS.INSTANCE.constructor$ClientboundAddEntityPacket(
                         interactionId, UUID.randomUUID(), pos.x, pos.y, pos.z, 0, position.yRot,
                         MEntityTypes.INTERACTION, 0, CoreReflections.instance$Vec3$Zero, 0
                 ),
                 FastNMS.INSTANCE.constructor$ClientboundSetEntityDataPacket(interactionId, config.cachedValues())
-        ));
+        };
         this.part = new FurnitureHitboxPart(interactionId, aabb, pos, config.responsive());
         this.despawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(MiscUtils.init(new IntArrayList(), l -> l.add(interactionId)));
         this.entityId = interactionId;
@@ -66,8 +66,10 @@ public class InteractionFurnitureHitbox extends AbstractFurnitureHitBox {
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPacket(this.spawnPacket, false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        for (Object packet : this.spawnPackets) {
+            collector.accept(packet);
+        }
     }
 
     @Override
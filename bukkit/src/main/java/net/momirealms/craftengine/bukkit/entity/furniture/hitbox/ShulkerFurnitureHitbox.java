@@ -28,7 +28,7 @@ public class ShulkerFurnitureHitbox extends AbstractFurnitureHitBox {
     private final ShulkerFurnitureHitboxConfig config;
     private final List<FurnitureHitboxPart> parts;
     private final List<Collider> colliders;
-    private final Object spawnPacket;
+    private final Object[] spawnPackets;
     private final Object despawnPacket;
     private final int[] entityIds;
 
@@ -82,7 +82,7 @@ public class ShulkerFurnitureHitbox extends AbstractFurnitureHitBox {
         config.spawner().accept(entityIds, position.world(), x, y, z, yaw, offset, packets::add, colliders::add, parts::add);
         this.parts = parts;
         this.colliders = colliders;
-        this.spawnPacket = FastNMS.INSTANCE.constructor$ClientboundBundlePacket(packets);
+        this.spawnPackets = packets.toArray();
         this.despawnPacket = FastNMS.INSTANCE.constructor$ClientboundRemoveEntitiesPacket(new IntArrayList(entityIds));
     }
 
@@ -104,8 +104,10 @@ public class ShulkerFurnitureHitbox extends AbstractFurnitureHitBox {
     }
 
     @Override
-    public void show(Player player) {
-        player.sendPacket(this.spawnPacket, false);
+    public void collectSpawnPackets(Player player, Consumer<Object> collector) {
+        for (Object packet : this.spawnPackets) {
+            collector.accept(packet);
+        }
     }
 
     @Override
@@ -91,6 +91,11 @@ public class BukkitItemManager extends AbstractItemManager<ItemStack> {
             }
         }
         this.factory.resetRecipeIngredientSources(sources.isEmpty() ? null : sources.toArray(new ExternalItemSource[0]));
+        // 物品配置或翻译可能已改变
+        if (this.networkItemHandler instanceof ModernNetworkItemHandler handler) {
+            handler.cache().clear();
+            handler.cache().setMaximumSize(Config.networkItemCacheMaxSize());
+        }
     }
 
     @Override
@@ -11,6 +11,7 @@ import net.momirealms.craftengine.core.plugin.context.Context;
 import net.momirealms.craftengine.core.plugin.context.ContextHolder;
 import net.momirealms.craftengine.core.plugin.context.ContextKey;
 import net.momirealms.craftengine.core.plugin.context.NetworkTextReplaceContext;
+import net.momirealms.craftengine.core.plugin.context.PlayerDependencyTracker;
 import net.momirealms.craftengine.core.plugin.text.component.ComponentProvider;
 import net.momirealms.craftengine.core.util.AdventureHelper;
 import net.momirealms.craftengine.core.util.VersionHelper;
@@ -29,6 +30,11 @@ import java.util.function.Supplier;
 
 @SuppressWarnings("DuplicatedCode")
 public final class ModernNetworkItemHandler implements NetworkItemHandler<ItemStack> {
+    private final NetworkItemCache cache = new NetworkItemCache();
+
+    public NetworkItemCache cache() {
+        return this.cache;
+    }
 
     @Override
     public Optional<Item<ItemStack>> c2s(Item<ItemStack> wrapped) {
@@ -110,8 +116,28 @@ public final class ModernNetworkItemHandler implements NetworkItemHandler<ItemSt
         return forceReturn ? Optional.of(wrapped) : Optional.empty();
     }
 
+    @SuppressWarnings("OptionalAssignedToNull")
     @Override
     public Optional<Item<ItemStack>> s2c(Item<ItemStack> wrapped, @Nullable Player player) {
+        // 内容物各自缓存，且可能依赖于玩家
+        if (!Config.enableNetworkItemCache() || wrapped.hasComponent(DataComponentTypes.BUNDLE_CONTENTS) || wrapped.hasComponent(DataComponentTypes.CONTAINER)) {
+            return s2c(wrapped, player, null);
+        }
+        // 必须在处理之前创建，处理过程会修改物品
+        NetworkItemCache.Key key = NetworkItemCache.key(wrapped, player);
+        Optional<ItemStack> cached = this.cache.get(key);
+        if (cached != null) {
+            return cached.map(BukkitItemManager.instance()::wrap);
+        }
+        PlayerDependencyTracker tracker = new PlayerDependencyTracker();
+        Optional<Item<ItemStack>> result = s2c(wrapped, player, tracker);
+        if (!tracker.isPlayerDependent()) {
+            this.cache.put(key, result.map(Item::getItem));
+        }
+        return result;
+    }
+
+    private Optional<Item<ItemStack>> s2c(Item<ItemStack> wrapped, @Nullable Player player, @Nullable PlayerDependencyTracker tracker) {
         boolean forceReturn = false;
 
         // 处理收纳袋
@@ -162,7 +188,7 @@ public final class ModernNetworkItemHandler implements NetworkItemHandler<ItemSt
             if (!Config.interceptItem()) {
                 return forceReturn ? Optional.of(wrapped) : Optional.empty();
             }
-            return new OtherItem(wrapped, forceReturn).process(NetworkTextReplaceContext.of(player));
+            return new OtherItem(wrapped, forceReturn).process(tracker == null ? NetworkTextReplaceContext.of(player) : NetworkTextReplaceContext.of(player, tracker));
         }
 
         BukkitCustomItem customItem = (BukkitCustomItem) optionalCustomItem.get();
@@ -178,7 +204,7 @@ public final class ModernNetworkItemHandler implements NetworkItemHandler<ItemSt
             if (!Config.interceptItem()) {
                 return forceReturn ? Optional.of(wrapped) : Optional.empty();
             }
-            return new OtherItem(wrapped, forceReturn).process(NetworkTextReplaceContext.of(player));
+            return new OtherItem(wrapped, forceReturn).process(tracker == null ? NetworkTextReplaceContext.of(player) : NetworkTextReplaceContext.of(player, tracker));
         }
         // 获取custom data
         CompoundTag customData = Optional.ofNullable(wrapped.getSparrowNBTComponent(DataComponentTypes.CUSTOM_DATA))
@@ -187,18 +213,23 @@ public final class ModernNetworkItemHandler implements NetworkItemHandler<ItemSt
         CompoundTag arguments = customData.getCompound(ArgumentsModifier.ARGUMENTS_TAG);
         // 创建context
         NetworkItemBuildContext context;
-        if (arguments == null) {
+        if (arguments == null && tracker == null) {
             context = NetworkItemBuildContext.of(player);
         } else {
             ContextHolder.Builder builder = ContextHolder.builder();
-            for (Map.Entry<String, Tag> entry : arguments.entrySet()) {
-                builder.withParameter(ContextKey.direct(entry.getKey()), entry.getValue().getAsString());
+            if (arguments != null) {
+                for (Map.Entry<String, Tag> entry : arguments.entrySet()) {
+                    builder.withParameter(ContextKey.direct(entry.getKey()), entry.getValue().getAsString());
+                }
             }
-            context = NetworkItemBuildContext.of(player, builder);
+            context = tracker == null ? NetworkItemBuildContext.of(player, builder) : NetworkItemBuildContext.of(player, builder, tracker);
         }
         // 准备阶段
         CompoundTag tag = new CompoundTag();
         for (ItemDataModifier<ItemStack> modifier : customItem.clientBoundDataModifiers()) {
+            if (tracker != null && modifier.isPlayerDependent()) {
+                tracker.markPlayerDependent();
+            }
             modifier.prepareNetworkItem(original, context, tag);
         }
         // 应用阶段
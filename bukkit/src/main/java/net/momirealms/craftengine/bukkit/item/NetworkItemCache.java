@@ -0,0 +1,99 @@
+package net.momirealms.craftengine.bukkit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import net.momirealms.craftengine.bukkit.nms.FastNMS;
+import net.momirealms.craftengine.core.entity.player.Player;
+import net.momirealms.craftengine.core.item.Item;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the items sent to clients, so that identical items are only rewritten once
+ * for all the viewers that share the same locale.
+ * Results that depend on the viewer beyond its locale are never stored.
+ */
+public final class NetworkItemCache {
+    private final Cache<Key, Optional<ItemStack>> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public NetworkItemCache() {
+        this.cache = Caffeine.newBuilder()
+                .scheduler(Scheduler.systemScheduler())
+                .maximumSize(4096)
+                .expireAfterAccess(60, TimeUnit.SECONDS)
+                .build();
+        MetricsRegistry.instance().counter("craftengine_cache_hits_total", "Lookups answered by a cache", this::hitCount, "cache", "network_item");
+        MetricsRegistry.instance().counter("craftengine_cache_misses_total", "Lookups not answered by a cache", this::missCount, "cache", "network_item");
+        MetricsRegistry.instance().gauge("craftengine_cache_entries", "Estimated number of entries in a cache", this::size, "cache", "network_item");
+    }
+
+    public static Key key(Item<ItemStack> item, @Nullable Player player) {
+        Object literalItem = item.getLiteralObject();
+        return new Key(
+                FastNMS.INSTANCE.method$ItemStack$getItem(literalItem),
+                FastNMS.INSTANCE.method$ItemStack$getComponentsPatch(literalItem),
+                item.count(),
+                player == null ? null : player.selectedLocale()
+        );
+    }
+
+    /**
+     * @return null if the item is not cached, an empty optional if the item is sent as is, or a copy of the rewritten item
+     */
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Nullable
+    public Optional<ItemStack> get(Key key) {
+        Optional<ItemStack> cached = this.cache.getIfPresent(key);
+        if (cached == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return cached.map(ItemStack::clone);
+    }
+
+    /**
+     * @param result the rewritten item, which is copied
+     */
+    public void put(Key key, Optional<ItemStack> result) {
+        this.cache.put(key, result.map(ItemStack::clone));
+    }
+
+    public void setMaximumSize(long size) {
+        this.cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(size));
+    }
+
+    public void clear() {
+        this.cache.invalidateAll();
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @param item the item type
+     * @param patch the data component patch, which is immutable
+     * @param count the count of the item
+     * @param locale the selected locale of the viewer
+     */
+    public record Key(Object item, Object patch, int count, @Nullable Locale locale) {
+    }
+}
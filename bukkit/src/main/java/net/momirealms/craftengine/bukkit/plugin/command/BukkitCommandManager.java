@@ -69,6 +69,8 @@ public class BukkitCommandManager extends AbstractCommandManager<CommandSender>
                 new SendResourcePackCommand(this, plugin),
                 new DebugSaveDefaultResourcesCommand(this, plugin),
                 new DebugCleanCacheCommand(this, plugin),
+                new DebugMetricsCommand(this, plugin),
+                new DebugEntityCullingCommand(this, plugin),
                 new DebugGenerateInternalAssetsCommand(this, plugin),
                 new DebugCustomModelDataCommand(this, plugin),
                 new DebugImageCommand(this, plugin)
@@ -0,0 +1,49 @@
+package net.momirealms.craftengine.bukkit.plugin.command.feature;
+
+import net.momirealms.craftengine.bukkit.plugin.command.BukkitCommandFeature;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.command.CraftEngineCommandManager;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.entityculling.EntityCullingScheduler;
+import org.bukkit.command.CommandSender;
+import org.incendo.cloud.Command;
+import org.incendo.cloud.CommandManager;
+import org.incendo.cloud.parser.standard.IntegerParser;
+
+import java.util.List;
+
+public class DebugEntityCullingCommand extends BukkitCommandFeature<CommandSender> {
+
+    public DebugEntityCullingCommand(CraftEngineCommandManager<CommandSender> commandManager, CraftEngine plugin) {
+        super(commandManager, plugin);
+    }
+
+    @Override
+    public Command.Builder<? extends CommandSender> assembleCommand(CommandManager<CommandSender> manager, Command.Builder<CommandSender> builder) {
+        return builder
+                .optional("limit", IntegerParser.integerParser(1, 100))
+                .handler(context -> {
+                    if (!Config.enableEntityCulling()) {
+                        context.sender().sendMessage("Entity culling is disabled");
+                        return;
+                    }
+                    int limit = context.getOrDefault("limit", 10);
+                    List<EntityCullingScheduler.PlayerCost> costs = plugin().entityCullingManager().playerCosts();
+                    if (costs.isEmpty()) {
+                        context.sender().sendMessage("No players are being culled");
+                        return;
+                    }
+                    context.sender().sendMessage("Entity culling cost of " + Math.min(limit, costs.size()) + "/" + costs.size() + " players:");
+                    for (int i = 0; i < Math.min(limit, costs.size()); i++) {
+                        EntityCullingScheduler.PlayerCost cost = costs.get(i);
+                        context.sender().sendMessage(String.format("%d. %s avg=%.3fms max=%.3fms runs=%d throttled=%d",
+                                i + 1, cost.name(), cost.averageNanos() / 1_000_000.0, cost.maxNanos() / 1_000_000.0, cost.runs(), cost.throttledRuns()));
+                    }
+                });
+    }
+
+    @Override
+    public String getFeatureID() {
+        return "debug_entity_culling";
+    }
+}
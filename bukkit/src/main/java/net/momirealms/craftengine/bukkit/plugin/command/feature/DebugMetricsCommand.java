@@ -0,0 +1,45 @@
+package net.momirealms.craftengine.bukkit.plugin.command.feature;
+
+import net.momirealms.craftengine.bukkit.plugin.command.BukkitCommandFeature;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.command.CraftEngineCommandManager;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+import org.bukkit.command.CommandSender;
+import org.incendo.cloud.Command;
+import org.incendo.cloud.CommandManager;
+import org.incendo.cloud.parser.standard.StringParser;
+
+import java.util.List;
+
+public class DebugMetricsCommand extends BukkitCommandFeature<CommandSender> {
+
+    public DebugMetricsCommand(CraftEngineCommandManager<CommandSender> commandManager, CraftEngine plugin) {
+        super(commandManager, plugin);
+    }
+
+    @Override
+    public Command.Builder<? extends CommandSender> assembleCommand(CommandManager<CommandSender> manager, Command.Builder<CommandSender> builder) {
+        return builder
+                .optional("filter", StringParser.stringParser())
+                .handler(context -> {
+                    String filter = context.getOrDefault("filter", null);
+                    List<String> samples = MetricsRegistry.instance().summary(filter);
+                    if (!Config.enablePacketMetrics()) {
+                        context.sender().sendMessage("Packet metrics are disabled, enable network.metrics in config.yml to record them");
+                    }
+                    if (samples.isEmpty()) {
+                        context.sender().sendMessage("No metrics found");
+                        return;
+                    }
+                    for (String sample : samples) {
+                        context.sender().sendMessage(sample);
+                    }
+                });
+    }
+
+    @Override
+    public String getFeatureID() {
+        return "debug_metrics";
+    }
+}
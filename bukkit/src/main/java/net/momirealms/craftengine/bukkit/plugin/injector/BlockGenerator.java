@@ -7,11 +7,15 @@ import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
 import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodCall;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.Argument;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import net.bytebuddy.implementation.bind.annotation.SuperMethod;
 import net.bytebuddy.implementation.bind.annotation.This;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
 import net.bytebuddy.matcher.ElementMatchers;
 import net.momirealms.craftengine.bukkit.block.BukkitBlockShape;
 import net.momirealms.craftengine.bukkit.nms.FastNMS;
@@ -36,6 +40,7 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -75,6 +80,21 @@ public final class BlockGenerator {
                 .intercept(FieldAccessor.ofField("isClientSideNoteBlock"))
                 .method(ElementMatchers.named("isTripwire"))
                 .intercept(FieldAccessor.ofField("isClientSideTripwire"))
+                // 直接调用父类方法，供行为回退到原版逻辑
+                .method(ElementMatchers.named("superTick"))
+                .intercept(superCall(CoreReflections.method$BlockBehaviour$tick, 0, 1, 2, 3))
+                .method(ElementMatchers.named("superRandomTick"))
+                .intercept(superCall(CoreReflections.method$BlockBehaviour$randomTick, 0, 1, 2, 3))
+                .method(ElementMatchers.named("superCanSurvive"))
+                .intercept(superCall(CoreReflections.method$BlockBehaviour$canSurvive, 0, 1, 2))
+                .method(ElementMatchers.named("superIsPathFindable"))
+                .intercept(VersionHelper.isOrAbove1_20_5()
+                        ? superCall(CoreReflections.method$BlockBehaviour$isPathFindable, 0, 3)
+                        : superCall(CoreReflections.method$BlockBehaviour$isPathFindable, 0, 1, 2, 3))
+                .method(ElementMatchers.named("superUpdateShape"))
+                .intercept(VersionHelper.isOrAbove1_21_2()
+                        ? superCall(CoreReflections.method$BlockBehaviour$updateShape, 0, 1, 2, 3, 4, 5, 6, 7)
+                        : superCall(CoreReflections.method$BlockBehaviour$updateShape, 0, 4, 6, 1, 3, 5))
                 // getShape
                 .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$getShape))
                 .intercept(MethodDelegation.to(GetShapeInterceptor.INSTANCE))
@@ -86,7 +106,7 @@ public final class BlockGenerator {
                 .intercept(MethodDelegation.to(GetSupportShapeInterceptor.INSTANCE))
                 // isPathFindable
                 .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$isPathFindable))
-                .intercept(MethodDelegation.to(IsPathFindableInterceptor.INSTANCE))
+                .intercept(MethodDelegation.to(VersionHelper.isOrAbove1_20_5() ? IsPathFindableInterceptor.INSTANCE : LegacyIsPathFindableInterceptor.INSTANCE))
                 // mirror
                 .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$mirror))
                 .intercept(MethodDelegation.to(MirrorInterceptor.INSTANCE))
@@ -127,12 +147,11 @@ public final class BlockGenerator {
                 .method(ElementMatchers.is(CoreReflections.method$Fallable$onLand))
                 .intercept(MethodDelegation.to(OnLandInterceptor.INSTANCE))
                 // canSurvive
-                .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$canSurvive)
-                )
+                .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$canSurvive))
                 .intercept(MethodDelegation.to(CanSurviveInterceptor.INSTANCE))
                 // updateShape
                 .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$updateShape))
-                .intercept(MethodDelegation.to(UpdateShapeInterceptor.INSTANCE))
+                .intercept(MethodDelegation.to(VersionHelper.isOrAbove1_21_2() ? UpdateShapeInterceptor.INSTANCE : LegacyUpdateShapeInterceptor.INSTANCE))
                 // neighborChanged
                 .method(ElementMatchers.is(CoreReflections.method$BlockBehaviour$neighborChanged))
                 .intercept(MethodDelegation.to(NeighborChangedInterceptor.INSTANCE))
@@ -204,6 +223,11 @@ public final class BlockGenerator {
         field$CraftEngineBlock$isTripwire = clazz$CraftEngineBlock.getField("isClientSideTripwire");
     }
 
+    // 接口方法的参数为所有版本参数的并集，按索引取出当前版本需要的参数
+    private static MethodCall superCall(Method method, int... arguments) {
+        return MethodCall.invoke(method).onSuper().withArgument(arguments).withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC);
+    }
+
     public static Field field$CraftEngineBlock$isNoteBlock() {
         return field$CraftEngineBlock$isNoteBlock;
     }
@@ -259,55 +283,67 @@ public final class BlockGenerator {
 
     public static class UpdateShapeInterceptor {
         public static final UpdateShapeInterceptor INSTANCE = new UpdateShapeInterceptor();
-        public static final int levelIndex = VersionHelper.isOrAbove1_21_2() ? 1 : 3;
-        public static final int directionIndex = VersionHelper.isOrAbove1_21_2() ? 4 : 1;
-        public static final int posIndex = VersionHelper.isOrAbove1_21_2() ? 3 : 4;
 
-        @SuppressWarnings("deprecation")
+        // 1.21.2+ BlockState state, LevelReader level, ScheduledTickAccess scheduledTickAccess, BlockPos pos, Direction direction, BlockPos neighborPos, BlockState neighborState, RandomSource random
         @RuntimeType
-        public Object intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) {
-            ObjectHolder<BlockBehavior> holder = ((DelegatingBlock) thisObj).behaviorDelegate();
-            DelegatingBlock indicator = (DelegatingBlock) thisObj;
-            // todo better chain updater
-            if (indicator.isNoteBlock() && CoreReflections.clazz$ServerLevel.isInstance(args[levelIndex])) {
-                startNoteBlockChain(args);
-            }
-            try {
-                return holder.value().updateShape(thisObj, args, superMethod);
-            } catch (Exception e) {
-                CraftEngine.instance().logger().severe("Failed to run updateShape", e);
-                return args[0];
-            }
+        public Object intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object scheduledTickAccess, @Argument(3) Object pos,
+                                @Argument(4) Object direction, @Argument(5) Object neighborPos, @Argument(6) Object neighborState, @Argument(7) Object random) {
+            return updateShape(thisObj, state, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
         }
+    }
 
-        private static void startNoteBlockChain(Object[] args) {
-            Object direction = args[directionIndex];
-            Object serverLevel = args[levelIndex];
-            Object blockPos = args[posIndex];
-            // Y axis
-            if (direction == CoreReflections.instance$Direction$DOWN) {
-                Object chunkSource = FastNMS.INSTANCE.method$ServerLevel$getChunkSource(serverLevel);
-                FastNMS.INSTANCE.method$ServerChunkCache$blockChanged(chunkSource, blockPos);
-                NoteBlockChainUpdateUtils.noteBlockChainUpdate(serverLevel, chunkSource, CoreReflections.instance$Direction$UP, blockPos, Config.maxNoteBlockChainUpdate());
-            } else if (direction == CoreReflections.instance$Direction$UP) {
-                Object chunkSource = FastNMS.INSTANCE.method$ServerLevel$getChunkSource(serverLevel);
-                FastNMS.INSTANCE.method$ServerChunkCache$blockChanged(chunkSource, blockPos);
-                NoteBlockChainUpdateUtils.noteBlockChainUpdate(serverLevel, chunkSource, CoreReflections.instance$Direction$DOWN, blockPos, Config.maxNoteBlockChainUpdate());
-            }
+    public static class LegacyUpdateShapeInterceptor {
+        public static final LegacyUpdateShapeInterceptor INSTANCE = new LegacyUpdateShapeInterceptor();
+
+        // 1.20.1-1.21.1 BlockState state, Direction direction, BlockState neighborState, LevelAccessor world, BlockPos pos, BlockPos neighborPos
+        @RuntimeType
+        public Object intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object direction, @Argument(2) Object neighborState, @Argument(3) Object world,
+                                @Argument(4) Object pos, @Argument(5) Object neighborPos) {
+            return updateShape(thisObj, state, world, world, pos, direction, neighborPos, neighborState, null);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Object updateShape(Object thisObj, Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) {
+        DelegatingBlock indicator = (DelegatingBlock) thisObj;
+        // todo better chain updater
+        if (indicator.isNoteBlock() && CoreReflections.clazz$ServerLevel.isInstance(level)) {
+            startNoteBlockChain(level, pos, direction);
+        }
+        try {
+            return indicator.behaviorDelegate().value().updateShape(thisObj, state, level, scheduledTickAccess, pos, direction, neighborPos, neighborState, random);
+        } catch (Exception e) {
+            CraftEngine.instance().logger().severe("Failed to run updateShape", e);
+            return state;
         }
     }
 
+    private static void startNoteBlockChain(Object serverLevel, Object blockPos, Object direction) {
+        // Y axis
+        if (direction == CoreReflections.instance$Direction$DOWN) {
+            Object chunkSource = FastNMS.INSTANCE.method$ServerLevel$getChunkSource(serverLevel);
+            FastNMS.INSTANCE.method$ServerChunkCache$blockChanged(chunkSource, blockPos);
+            NoteBlockChainUpdateUtils.noteBlockChainUpdate(serverLevel, chunkSource, CoreReflections.instance$Direction$UP, blockPos, Config.maxNoteBlockChainUpdate());
+        } else if (direction == CoreReflections.instance$Direction$UP) {
+            Object chunkSource = FastNMS.INSTANCE.method$ServerLevel$getChunkSource(serverLevel);
+            FastNMS.INSTANCE.method$ServerChunkCache$blockChanged(chunkSource, blockPos);
+            NoteBlockChainUpdateUtils.noteBlockChainUpdate(serverLevel, chunkSource, CoreReflections.instance$Direction$DOWN, blockPos, Config.maxNoteBlockChainUpdate());
+        }
+    }
+
+    // 形状查询调用极其频繁，直接绑定参数，仅在出错时才通过反射调用父类方法
     public static class GetShapeInterceptor {
         public static final GetShapeInterceptor INSTANCE = new GetShapeInterceptor();
 
         @RuntimeType
-        public Object intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) throws Exception {
+        public Object intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object pos, @Argument(3) Object context,
+                                @SuperMethod Method superMethod) throws Exception {
             ObjectHolder<BlockShape> holder = ((DelegatingBlock) thisObj).shapeDelegate();
             try {
-                return holder.value().getShape(thisObj, args);
+                return holder.value().getShape(thisObj, state, level, pos, context);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run getShape", e);
-                return superMethod.call();
+                return superMethod.invoke(thisObj, state, level, pos, context);
             }
         }
     }
@@ -316,13 +352,14 @@ public final class BlockGenerator {
         public static final GetCollisionShapeInterceptor INSTANCE = new GetCollisionShapeInterceptor();
 
         @RuntimeType
-        public Object intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) throws Exception {
+        public Object intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object pos, @Argument(3) Object context,
+                                @SuperMethod Method superMethod) throws Exception {
             ObjectHolder<BlockShape> holder = ((DelegatingBlock) thisObj).shapeDelegate();
             try {
-                return holder.value().getCollisionShape(thisObj, args);
+                return holder.value().getCollisionShape(thisObj, state, level, pos, context);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run getCollisionShape", e);
-                return superMethod.call();
+                return superMethod.invoke(thisObj, state, level, pos, context);
             }
         }
     }
@@ -331,13 +368,14 @@ public final class BlockGenerator {
         public static final GetSupportShapeInterceptor INSTANCE = new GetSupportShapeInterceptor();
 
         @RuntimeType
-        public Object intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) throws Exception {
+        public Object intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object pos,
+                                @SuperMethod Method superMethod) throws Exception {
             ObjectHolder<BlockShape> holder = ((DelegatingBlock) thisObj).shapeDelegate();
             try {
-                return holder.value().getSupportShape(thisObj, args);
+                return holder.value().getSupportShape(thisObj, state, level, pos);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run getSupportShape", e);
-                return superMethod.call();
+                return superMethod.invoke(thisObj, state, level, pos);
             }
         }
     }
@@ -345,15 +383,30 @@ public final class BlockGenerator {
     public static class IsPathFindableInterceptor {
         public static final IsPathFindableInterceptor INSTANCE = new IsPathFindableInterceptor();
 
+        // 1.20.5+ BlockState state, PathComputationType type
         @RuntimeType
-        public Object intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) throws Exception {
-            ObjectHolder<BlockBehavior> holder = ((DelegatingBlock) thisObj).behaviorDelegate();
-            try {
-                return holder.value().isPathFindable(thisObj, args, superMethod);
-            } catch (Exception e) {
-                CraftEngine.instance().logger().severe("Failed to run isPathFindable", e);
-                return superMethod.call();
-            }
+        public boolean intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object type) {
+            return isPathFindable(thisObj, state, null, null, type);
+        }
+    }
+
+    public static class LegacyIsPathFindableInterceptor {
+        public static final LegacyIsPathFindableInterceptor INSTANCE = new LegacyIsPathFindableInterceptor();
+
+        // 1.20-1.20.4 BlockState state, BlockGetter world, BlockPos pos, PathComputationType type
+        @RuntimeType
+        public boolean intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object world, @Argument(2) Object pos, @Argument(3) Object type) {
+            return isPathFindable(thisObj, state, world, pos, type);
+        }
+    }
+
+    private static boolean isPathFindable(Object thisObj, Object state, Object world, Object pos, Object type) {
+        DelegatingBlock block = (DelegatingBlock) thisObj;
+        try {
+            return block.behaviorDelegate().value().isPathFindable(thisObj, state, world, pos, type);
+        } catch (Exception e) {
+            CraftEngine.instance().logger().severe("Failed to run isPathFindable", e);
+            return block.superIsPathFindable(state, world, pos, type);
         }
     }
 
@@ -391,10 +444,10 @@ public final class BlockGenerator {
         public static final RandomTickInterceptor INSTANCE = new RandomTickInterceptor();
 
         @RuntimeType
-        public void intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) {
+        public void intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object pos, @Argument(3) Object random) {
             ObjectHolder<BlockBehavior> holder = ((DelegatingBlock) thisObj).behaviorDelegate();
             try {
-                holder.value().randomTick(thisObj, args, superMethod);
+                holder.value().randomTick(thisObj, state, level, pos, random);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run randomTick", e);
             }
@@ -405,10 +458,10 @@ public final class BlockGenerator {
         public static final TickInterceptor INSTANCE = new TickInterceptor();
 
         @RuntimeType
-        public void intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) {
+        public void intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object level, @Argument(2) Object pos, @Argument(3) Object random) {
             ObjectHolder<BlockBehavior> holder = ((DelegatingBlock) thisObj).behaviorDelegate();
             try {
-                holder.value().tick(thisObj, args, superMethod);
+                holder.value().tick(thisObj, state, level, pos, random);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run tick", e);
             }
@@ -461,10 +514,10 @@ public final class BlockGenerator {
         public static final CanSurviveInterceptor INSTANCE = new CanSurviveInterceptor();
 
         @RuntimeType
-        public boolean intercept(@This Object thisObj, @AllArguments Object[] args, @SuperCall Callable<Object> superMethod) {
+        public boolean intercept(@This Object thisObj, @Argument(0) Object state, @Argument(1) Object world, @Argument(2) Object pos) {
             ObjectHolder<BlockBehavior> holder = ((DelegatingBlock) thisObj).behaviorDelegate();
             try {
-                return holder.value().canSurvive(thisObj, args, superMethod);
+                return holder.value().canSurvive(thisObj, state, world, pos);
             } catch (Exception e) {
                 CraftEngine.instance().logger().severe("Failed to run canSurvive", e);
                 return true;
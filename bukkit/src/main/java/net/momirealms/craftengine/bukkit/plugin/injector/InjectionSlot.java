@@ -0,0 +1,44 @@
+package net.momirealms.craftengine.bukkit.plugin.injector;
+
+import java.util.function.Consumer;
+
+/**
+ * A place holding an object that can be replaced by its injected version, such as an element of the section array
+ * of a chunk or the block states of a section.
+ */
+interface InjectionSlot {
+
+    Object get() throws Throwable;
+
+    boolean compareAndSet(Object expected, Object replacement) throws Throwable;
+
+    @FunctionalInterface
+    interface Factory<H> {
+
+        H create(Object original) throws Throwable;
+    }
+
+    /**
+     * Replaces the object in the slot with an injected one, unless it's already injected.
+     * The replacement is created without holding any lock. When another thread replaces the object first,
+     * the slot is read again, so only one injected object is ever installed and every caller binds that one.
+     *
+     * @return the injected object in the slot
+     */
+    static <H> H inject(InjectionSlot slot, Class<H> injectedType, Factory<H> factory, Consumer<H> binder) throws Throwable {
+        while (true) {
+            Object current = slot.get();
+            if (injectedType.isInstance(current)) {
+                H injected = injectedType.cast(current);
+                binder.accept(injected);
+                return injected;
+            }
+            H injected = factory.create(current);
+            // 先绑定再替换，其他线程读到的注入对象一定是可用的
+            binder.accept(injected);
+            if (slot.compareAndSet(current, injected)) {
+                return injected;
+            }
+        }
+    }
+}
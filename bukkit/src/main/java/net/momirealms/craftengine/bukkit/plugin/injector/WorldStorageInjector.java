@@ -34,12 +34,15 @@ import net.momirealms.craftengine.core.world.chunk.InjectedHolder;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Modifier;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
-import java.util.function.Consumer;
 
 public final class WorldStorageInjector {
+    private static final VarHandle SECTIONS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final boolean CAS_STATES = !Modifier.isFinal(CoreReflections.field$LevelChunkSection$states.getModifiers());
     private static Class<?> clazz$InjectedPalettedContainer;
     private static MethodHandle constructor$InjectedLevelChunkSection;
 
@@ -107,57 +110,95 @@ public final class WorldStorageInjector {
                 .asType(MethodType.methodType(CoreReflections.clazz$LevelChunkSection, CoreReflections.clazz$PalettedContainer, CoreReflections.clazz$PalettedContainer));
     }
 
-    public synchronized static void injectLevelChunkSection(Object targetSection, CESection ceSection, CEChunk chunk, SectionPos pos, Consumer<Object> callback) {
+    /**
+     * Injects every section of a chunk. The injected sections are written back into the given array.
+     */
+    public static void injectLevelChunkSections(Object[] sections, CESection[] ceSections, CEChunk chunk) {
+        for (int i = 0; i < ceSections.length; i++) {
+            injectLevelChunkSection(sections, i, ceSections[i], chunk, new SectionPos(chunk.chunkPos.x, chunk.sectionY(i), chunk.chunkPos.z));
+        }
+    }
+
+    /**
+     * Injects the section at the given index. Sections are replaced with compare-and-set,
+     * so different chunks can be injected from different threads at the same time.
+     */
+    public static void injectLevelChunkSection(Object[] sections, int index, CESection ceSection, CEChunk chunk, SectionPos pos) {
         try {
             if (Config.injectionTarget()) {
-                Object container = FastNMS.INSTANCE.field$LevelChunkSection$states(targetSection);
-                if (!(container instanceof InjectedHolder.Palette holder)) {
+                Object targetSection = SECTIONS.getVolatile(sections, index);
+                InjectionSlot.inject(new StatesSlot(targetSection), InjectedHolder.Palette.class, container -> {
                     InjectedHolder.Palette injectedObject;
                     if (Config.fastInjection()) {
                         injectedObject = FastNMS.INSTANCE.createInjectedPalettedContainerHolder(container);
                     } else {
                         injectedObject = (InjectedHolder.Palette) ReflectionUtils.UNSAFE.allocateInstance(clazz$InjectedPalettedContainer);
                         injectedObject.setTarget(container);
-                        //varHandle$InjectedPalettedContainer$target.set(injectedObject, container);
                     }
-                    injectedObject.ceChunk(chunk);
-                    injectedObject.ceSection(ceSection);
-                    injectedObject.cePos(pos);
-                    injectedObject.setActive(true);
                     CoreReflections.varHandle$PalettedContainer$data.setVolatile(injectedObject, CoreReflections.varHandle$PalettedContainer$data.get(container));
-                    CoreReflections.field$LevelChunkSection$states.set(targetSection, injectedObject);
-                } else {
-                    holder.ceChunk(chunk);
-                    holder.ceSection(ceSection);
-                    holder.cePos(pos);
-                    holder.setActive(true);
-                }
+                    return injectedObject;
+                }, holder -> bind(holder, ceSection, chunk, pos));
             } else {
-                if (!(targetSection instanceof InjectedHolder.Section holder)) {
-                    InjectedHolder.Section injectedObject;
+                InjectionSlot.inject(new SectionSlot(sections, index), InjectedHolder.Section.class, targetSection -> {
                     if (Config.fastInjection()) {
-                        injectedObject = FastNMS.INSTANCE.createInjectedLevelChunkSectionHolder(targetSection);
-                    } else {
-                        injectedObject = (InjectedHolder.Section) constructor$InjectedLevelChunkSection.invoke(
-                                FastNMS.INSTANCE.field$LevelChunkSection$states(targetSection), FastNMS.INSTANCE.field$LevelChunkSection$biomes(targetSection));
+                        return FastNMS.INSTANCE.createInjectedLevelChunkSectionHolder(targetSection);
                     }
-                    injectedObject.ceChunk(chunk);
-                    injectedObject.ceSection(ceSection);
-                    injectedObject.cePos(pos);
-                    injectedObject.setActive(true);
-                    callback.accept(injectedObject);
-                } else {
-                    holder.ceChunk(chunk);
-                    holder.ceSection(ceSection);
-                    holder.cePos(pos);
-                    holder.setActive(true);
-                }
+                    return (InjectedHolder.Section) constructor$InjectedLevelChunkSection.invoke(
+                            FastNMS.INSTANCE.field$LevelChunkSection$states(targetSection), FastNMS.INSTANCE.field$LevelChunkSection$biomes(targetSection));
+                }, holder -> bind(holder, ceSection, chunk, pos));
             }
         } catch (Throwable e) {
             CraftEngine.instance().logger().severe("Failed to inject chunk section " + pos, e);
         }
     }
 
+    private record SectionSlot(Object[] sections, int index) implements InjectionSlot {
+
+        @Override
+        public Object get() {
+            return SECTIONS.getVolatile(this.sections, this.index);
+        }
+
+        @Override
+        public boolean compareAndSet(Object expected, Object replacement) {
+            return SECTIONS.compareAndSet(this.sections, this.index, expected, replacement);
+        }
+    }
+
+    private record StatesSlot(Object section) implements InjectionSlot {
+
+        @Override
+        public Object get() {
+            return FastNMS.INSTANCE.field$LevelChunkSection$states(this.section);
+        }
+
+        @Override
+        public boolean compareAndSet(Object expected, Object replacement) throws IllegalAccessException {
+            return compareAndSetStates(this.section, expected, replacement);
+        }
+    }
+
+    private static void bind(InjectedHolder holder, CESection ceSection, CEChunk chunk, SectionPos pos) {
+        holder.ceChunk(chunk);
+        holder.ceSection(ceSection);
+        holder.cePos(pos);
+        holder.setActive(true);
+    }
+
+    private static boolean compareAndSetStates(Object section, Object expected, Object container) throws IllegalAccessException {
+        if (CAS_STATES) {
+            return CoreReflections.varHandle$LevelChunkSection$states.compareAndSet(section, expected, container);
+        }
+        // 字段为final时无法使用VarHandle写入
+        synchronized (section) {
+            if (CoreReflections.field$LevelChunkSection$states.get(section) != expected) {
+                return false;
+            }
+            CoreReflections.field$LevelChunkSection$states.set(section, container);
+            return true;
+        }
+    }
+
     public static boolean isSectionInjected(Object section) {
         if (Config.injectionTarget()) {
             Object container = FastNMS.INSTANCE.field$LevelChunkSection$states(section);
@@ -167,7 +208,7 @@ public final class WorldStorageInjector {
         }
     }
 
-    public synchronized static Object uninjectLevelChunkSection(Object section) {
+    public static Object uninjectLevelChunkSection(Object section) {
         if (Config.injectionTarget()) {
             Object states = FastNMS.INSTANCE.field$LevelChunkSection$states(section);
             if (states instanceof InjectedHolder.Palette holder) {
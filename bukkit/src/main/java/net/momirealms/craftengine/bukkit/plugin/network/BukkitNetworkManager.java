@@ -8,6 +8,7 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.datafixers.util.Either;
 import com.mojang.serialization.DataResult;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -86,18 +87,24 @@ import net.momirealms.craftengine.core.plugin.context.event.EventTrigger;
 import net.momirealms.craftengine.core.plugin.context.parameter.DirectContextParameters;
 import net.momirealms.craftengine.core.plugin.locale.TranslationManager;
 import net.momirealms.craftengine.core.plugin.logger.Debugger;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+import net.momirealms.craftengine.core.plugin.metrics.PacketMetrics;
 import net.momirealms.craftengine.core.plugin.network.*;
 import net.momirealms.craftengine.core.plugin.text.component.ComponentProvider;
 import net.momirealms.craftengine.core.util.*;
 import net.momirealms.craftengine.core.world.*;
 import net.momirealms.craftengine.core.world.chunk.CEChunk;
 import net.momirealms.craftengine.core.world.chunk.Palette;
+import net.momirealms.craftengine.core.world.chunk.PaletteStorage;
 import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
 import net.momirealms.craftengine.core.world.chunk.client.ClientChunk;
 import net.momirealms.craftengine.core.world.chunk.client.ClientSection;
+import net.momirealms.craftengine.core.world.chunk.client.ClientSectionOcclusionStorage;
+import net.momirealms.craftengine.core.world.chunk.client.OcclusionTable;
 import net.momirealms.craftengine.core.world.chunk.client.PackedOcclusionStorage;
 import net.momirealms.craftengine.core.world.chunk.client.SingularOcclusionStorage;
-import net.momirealms.craftengine.core.world.chunk.packet.BlockEntityData;
+import net.momirealms.craftengine.core.world.chunk.packet.ChunkPacketCache;
+import net.momirealms.craftengine.core.world.chunk.packet.ChunkSectionRewriter;
 import net.momirealms.craftengine.core.world.chunk.packet.MCSection;
 import net.momirealms.sparrow.nbt.CompoundTag;
 import net.momirealms.sparrow.nbt.ListTag;
@@ -129,6 +136,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 public class BukkitNetworkManager implements NetworkManager, Listener, PluginMessageListener {
@@ -138,6 +146,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
 
     private final ByteBufferPacketListenerHolder[] s2cGamePacketListeners;
     private final ByteBufferPacketListenerHolder[] c2sGamePacketListeners;
+    private final PacketMetrics s2cPacketMetrics;
+    private final PacketMetrics c2sPacketMetrics;
+    private final Map<Class<?>, MetricsRegistry.Histogram> nmsPacketListenerTimes = new ConcurrentHashMap<>();
 
     private final TriConsumer<ChannelHandler, Object, Object> packetConsumer;
     private final TriConsumer<ChannelHandler, List<Object>, Object> packetsConsumer;
@@ -156,17 +167,22 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
     private static final String PLAYER_CHANNEL_HANDLER_NAME = "craftengine_player_channel_handler";
     private static final String PACKET_ENCODER = "craftengine_encoder";
     private static final String PACKET_DECODER = "craftengine_decoder";
+    // 在解码文本之前检查原始数据中是否存在需要替换的标签
+    private static final Predicate<String> HAS_NETWORK_TAGS = text -> CraftEngine.instance().fontManager().hasTags(text);
 
     private final boolean hasModelEngine;
 
     private int[] blockStateRemapper;
     private int[] modBlockStateRemapper;
+    private final ChunkPacketCache chunkPacketCache = new ChunkPacketCache();
 
     @SuppressWarnings("unchecked")
     public BukkitNetworkManager(BukkitCraftEngine plugin) {
         instance = this;
         this.s2cGamePacketListeners = new ByteBufferPacketListenerHolder[PlayPacketIdHelper.count(PacketFlow.CLIENTBOUND)];
         this.c2sGamePacketListeners = new ByteBufferPacketListenerHolder[PlayPacketIdHelper.count(PacketFlow.SERVERBOUND)];
+        this.s2cPacketMetrics = new PacketMetrics("clientbound", this.s2cGamePacketListeners.length);
+        this.c2sPacketMetrics = new PacketMetrics("serverbound", this.c2sGamePacketListeners.length);
         Plugin modelEngine = Bukkit.getPluginManager().getPlugin("ModelEngine");
         this.hasModelEngine = modelEngine != null && modelEngine.getPluginMeta().getVersion().startsWith("R4");
         this.plugin = plugin;
@@ -293,7 +309,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         }
     }
 
-    public void registerBlockStatePacketListeners(int[] blockStateMappings, Predicate<Integer> occlusionPredicate) {
+    public void registerBlockStatePacketListeners(int[] blockStateMappings, IntPredicate occlusionPredicate) {
         int stoneId = BlockStateUtils.blockStateToId(MBlocks.STONE$defaultState);
         int vanillaBlocks = BlockStateUtils.vanillaBlockStateCount();
         int[] newMappings = new int[blockStateMappings.length];
@@ -319,15 +335,20 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         }
         this.blockStateRemapper = newMappings;
         this.modBlockStateRemapper = newMappingsMOD;
+        // 映射表已改变，之前改写的区块数据不再有效
+        this.chunkPacketCache.clear();
+        this.chunkPacketCache.setMaximumSize(Config.chunkPacketCacheMaxSize() * 1024L * 1024L);
+        OcclusionTable occlusionTable = OcclusionTable.of(blockStateMappings.length, occlusionPredicate);
         registerS2CGamePacketListener(new LevelChunkWithLightListener(
                 newMappings,
                 newMappingsMOD,
                 newMappings.length,
                 RegistryUtils.currentBiomeRegistrySize(),
-                occlusionPredicate
+                occlusionTable,
+                this.chunkPacketCache
         ), this.packetIds.clientboundLevelChunkWithLightPacket(), "ClientboundLevelChunkWithLightPacket");
-        registerS2CGamePacketListener(new SectionBlockUpdateListener(newMappings, newMappingsMOD, occlusionPredicate), this.packetIds.clientboundSectionBlocksUpdatePacket(), "ClientboundSectionBlocksUpdatePacket");
-        registerS2CGamePacketListener(new BlockUpdateListener(newMappings, newMappingsMOD, occlusionPredicate), this.packetIds.clientboundBlockUpdatePacket(), "ClientboundBlockUpdatePacket");
+        registerS2CGamePacketListener(new SectionBlockUpdateListener(newMappings, newMappingsMOD, occlusionTable), this.packetIds.clientboundSectionBlocksUpdatePacket(), "ClientboundSectionBlocksUpdatePacket");
+        registerS2CGamePacketListener(new BlockUpdateListener(newMappings, newMappingsMOD, occlusionTable), this.packetIds.clientboundBlockUpdatePacket(), "ClientboundBlockUpdatePacket");
         registerS2CGamePacketListener(
                 VersionHelper.isOrAbove1_21_4() ?
                 new LevelParticleListener1_21_4(newMappings, newMappingsMOD) :
@@ -838,12 +859,17 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 int preIndex = buf.readerIndex();
                 try {
                     ByteBufPacketEvent event = new ByteBufPacketEvent(packetId, buf, preIndex);
+                    boolean metrics = Config.enablePacketMetrics();
+                    long startTime = metrics ? System.nanoTime() : 0;
                     BukkitNetworkManager.this.handleS2CByteBufPacket(this.player, event);
                     if (event.isCancelled()) {
                         buf.clear();
                     } else if (!event.changed()) {
                         buf.readerIndex(preProcessIndex);
                     }
+                    if (metrics) {
+                        recordPacket(BukkitNetworkManager.this.s2cPacketMetrics, BukkitNetworkManager.this.s2cGamePacketListeners, event, size, buf.readableBytes(), System.nanoTime() - startTime);
+                    }
                 } catch (Throwable e) {
                     CraftEngine.instance().logger().warn("An error occurred when writing packet " + packetId, e);
                     buf.readerIndex(preProcessIndex);
@@ -884,12 +910,17 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 int preIndex = buf.readerIndex();
                 try {
                     ByteBufPacketEvent event = new ByteBufPacketEvent(packetId, buf, preIndex);
+                    boolean metrics = Config.enablePacketMetrics();
+                    long startTime = metrics ? System.nanoTime() : 0;
                     BukkitNetworkManager.this.handleC2SByteBufPacket(this.player, event);
                     if (event.isCancelled()) {
                         buf.clear();
                     } else if (!event.changed()) {
                         buf.readerIndex(preProcessIndex);
                     }
+                    if (metrics) {
+                        recordPacket(BukkitNetworkManager.this.c2sPacketMetrics, BukkitNetworkManager.this.c2sGamePacketListeners, event, size, buf.readableBytes(), System.nanoTime() - startTime);
+                    }
                 } catch (Throwable e) {
                     CraftEngine.instance().logger().warn("An error occurred when reading packet " + packetId, e);
                     buf.readerIndex(preProcessIndex);
@@ -919,7 +950,13 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         NMSPacketListener nmsPacketListener = this.nmsPacketListeners.get(packet.getClass());
         if (nmsPacketListener != null) {
             try {
-                nmsPacketListener.onPacketReceive(user, event, packet);
+                if (Config.enablePacketMetrics()) {
+                    long startTime = System.nanoTime();
+                    nmsPacketListener.onPacketReceive(user, event, packet);
+                    nmsPacketListenerTime(packet.getClass(), nmsPacketListener, "serverbound").observe(System.nanoTime() - startTime);
+                } else {
+                    nmsPacketListener.onPacketReceive(user, event, packet);
+                }
             } catch (Throwable t) {
                 this.plugin.logger().warn("An error occurred when handling packet " + packet.getClass(), t);
             }
@@ -930,13 +967,31 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         NMSPacketListener nmsPacketListener = this.nmsPacketListeners.get(packet.getClass());
         if (nmsPacketListener != null) {
             try {
-                nmsPacketListener.onPacketSend(user, event, packet);
+                if (Config.enablePacketMetrics()) {
+                    long startTime = System.nanoTime();
+                    nmsPacketListener.onPacketSend(user, event, packet);
+                    nmsPacketListenerTime(packet.getClass(), nmsPacketListener, "clientbound").observe(System.nanoTime() - startTime);
+                } else {
+                    nmsPacketListener.onPacketSend(user, event, packet);
+                }
             } catch (Throwable t) {
                 this.plugin.logger().warn("An error occurred when handling packet " + packet.getClass(), t);
             }
         }
     }
 
+    private MetricsRegistry.Histogram nmsPacketListenerTime(Class<?> packet, NMSPacketListener listener, String direction) {
+        return this.nmsPacketListenerTimes.computeIfAbsent(packet, k -> MetricsRegistry.instance().histogram("craftengine_packet_listener_seconds", "Time spent in packet listeners",
+                "direction", direction, "packet", packet.getSimpleName(), "listener", listener.getClass().getSimpleName()));
+    }
+
+    private static void recordPacket(PacketMetrics metrics, ByteBufferPacketListenerHolder[] listeners, ByteBufPacketEvent event, int sizeBefore, int sizeAfter, long nanos) {
+        int packetId = event.packetID();
+        ByteBufferPacketListenerHolder holder = packetId >= 0 && packetId < listeners.length ? listeners[packetId] : null;
+        metrics.record(packetId, holder == null ? String.valueOf(packetId) : holder.id(), holder == null ? null : holder.listener().getClass().getSimpleName(),
+                sizeBefore, sizeAfter, event.changed(), event.isCancelled(), nanos);
+    }
+
     protected void handleS2CByteBufPacket(NetWorkUser user, ByteBufPacketEvent event) {
         int packetID = event.packetID();
         ByteBufferPacketListenerHolder holder = this.s2cGamePacketListeners[packetID];
@@ -1481,7 +1536,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         @Override
         public void onPacketSend(NetWorkUser user, NMSPacketEvent event, Object packet) {
             int entityId = FastNMS.INSTANCE.method$ClientboundEntityPositionSyncPacket$id(packet);
-            EntityPacketHandler handler = user.entityPacketHandlers().get(entityId);
+            EntityPacketHandler handler = user.getEntityPacketHandler(entityId);
             if (handler != null) {
                 handler.handleSyncEntityPosition(user, event, packet);
             }
@@ -1745,7 +1800,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         @Override
         public void onPacketSend(NetWorkUser user, NMSPacketEvent event, Object packet) {
             int entityId = ProtectedFieldVisitor.get().field$ClientboundMoveEntityPacket$entityId(packet);
-            EntityPacketHandler handler = user.entityPacketHandlers().get(entityId);
+            EntityPacketHandler handler = user.getEntityPacketHandler(entityId);
             if (handler != null) {
                 handler.handleMoveAndRotate(user, event, packet);
             }
@@ -1757,7 +1812,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         @Override
         public void onPacketSend(NetWorkUser user, NMSPacketEvent event, Object packet) {
             int entityId = ProtectedFieldVisitor.get().field$ClientboundMoveEntityPacket$entityId(packet);
-            EntityPacketHandler handler = user.entityPacketHandlers().get(entityId);
+            EntityPacketHandler handler = user.getEntityPacketHandler(entityId);
             if (handler != null) {
                 handler.handleMove(user, event, packet);
             }
@@ -1947,60 +2002,116 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         private final IntIdentityList biomeList;
         private final IntIdentityList blockList;
         private final boolean needsDowngrade;
-        private final Predicate<Integer> occlusionPredicate;
+        private final OcclusionTable occlusionTable;
+        private final ChunkPacketCache packetCache;
 
-        public LevelChunkWithLightListener(int[] blockStateMapper, int[] modBlockStateMapper, int blockRegistrySize, int biomeRegistrySize, Predicate<Integer> occlusionPredicate) {
+        public LevelChunkWithLightListener(int[] blockStateMapper, int[] modBlockStateMapper, int blockRegistrySize, int biomeRegistrySize, OcclusionTable occlusionTable, ChunkPacketCache packetCache) {
             this.blockStateMapper = blockStateMapper;
             this.modBlockStateMapper = modBlockStateMapper;
             this.biomeList = new IntIdentityList(biomeRegistrySize);
             this.blockList = new IntIdentityList(blockRegistrySize);
             this.needsDowngrade = MiscUtils.ceilLog2(BlockStateUtils.vanillaBlockStateCount()) != MiscUtils.ceilLog2(blockRegistrySize);
-            this.occlusionPredicate = occlusionPredicate;
+            this.occlusionTable = occlusionTable;
+            this.packetCache = packetCache;
         }
 
         @Override
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             BukkitServerPlayer player = (BukkitServerPlayer) user;
             FriendlyByteBuf buf = event.getBuffer();
+            int packetStart = buf.readerIndex() - FriendlyByteBuf.getVarIntSize(event.packetID());
             int chunkX = buf.readInt();
             int chunkZ = buf.readInt();
             ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
             boolean named = !VersionHelper.isOrAbove1_20_2();
 
-            int[] remapper = user.clientModEnabled() ? this.modBlockStateMapper : this.blockStateMapper;
-
-            // 读取区块数据
-            int heightmapsCount = 0;
-            Map<Integer, long[]> heightmapsMap = null;
-            net.momirealms.sparrow.nbt.Tag heightmaps = null;
+            // 跳过高度图，它们不需要改写
             if (VersionHelper.isOrAbove1_21_5()) {
-                heightmapsMap = new HashMap<>();
-                heightmapsCount = buf.readVarInt();
+                int heightmapsCount = buf.readVarInt();
                 for (int i = 0; i < heightmapsCount; i++) {
-                    int key = buf.readVarInt();
-                    long[] value = buf.readLongArray();
-                    heightmapsMap.put(key, value);
+                    buf.readVarInt();
+                    buf.readLongArray();
                 }
             } else {
-                heightmaps = buf.readNbt(named);
+                buf.readNbt(named);
             }
 
+            // 直接在原缓冲区上读取区块数据，不复制
+            int chunkDataSizeIndex = buf.readerIndex();
             int chunkDataBufferSize = buf.readVarInt();
-            byte[] chunkDataBytes = new byte[chunkDataBufferSize];
-            buf.readBytes(chunkDataBytes);
+            int chunkDataStart = buf.readerIndex();
+            int chunkDataEnd = chunkDataStart + chunkDataBufferSize;
+            ByteBuf chunkData = buf.slice(chunkDataStart, chunkDataBufferSize);
 
             // 客户端侧section数量很重要，不能读取此时玩家所在的真实世界，包具有滞后性
             net.momirealms.craftengine.core.world.World clientSideWorld = player.clientSideWorld();
             WorldHeight worldHeight = clientSideWorld.worldHeight();
             int count = worldHeight.getSectionsCount();
+            // 创建客户端侧世界（只在开启实体情况下创建）
+            boolean occlusion = Config.entityCullingRayTracing();
+
+            ChunkPacketCache.Entry rewritten;
+            // 生物群系重定向因玩家而异，只能完整解析区块数据，且无法共享结果
+            if (biomeRemapper != null) {
+                rewritten = this.rewriteChunkData(user, ByteBufUtil.getBytes(chunkData), count, occlusion);
+            } else if (Config.enableChunkPacketCache()) {
+                ChunkPacketCache.Key key = new ChunkPacketCache.Key(clientSideWorld.uuid(), chunkPos.longKey, user.clientModEnabled(), user.clientBlockList().size(), occlusion);
+                rewritten = this.packetCache.get(key, chunkData);
+                if (rewritten == null) {
+                    rewritten = this.streamChunkData(user, chunkData, count, occlusion);
+                    this.packetCache.put(key, chunkData, rewritten);
+                }
+            } else {
+                rewritten = this.streamChunkData(user, chunkData, count, occlusion);
+            }
+
+            // 只有被修改了才改写，高度图、方块实体和光照信息原样保留
+            byte[] newChunkDataBytes = rewritten.rewrittenChunkData();
+            if (newChunkDataBytes != null) {
+                if (newChunkDataBytes.length == chunkDataBufferSize) {
+                    // 长度不变时原地覆盖
+                    buf.setBytes(chunkDataStart, newChunkDataBytes);
+                } else {
+                    ByteBuf remaining = buf.copy(chunkDataEnd, buf.writerIndex() - chunkDataEnd);
+                    try {
+                        buf.writerIndex(chunkDataSizeIndex);
+                        buf.writeVarInt(newChunkDataBytes.length);
+                        buf.writeBytes(newChunkDataBytes);
+                        buf.writeBytes(remaining);
+                    } finally {
+                        remaining.release();
+                    }
+                }
+                // 开始修改
+                event.setChanged(true);
+                buf.readerIndex(packetStart);
+            }
+
+            // 记录加载的区块
+            player.addTrackedChunk(chunkPos.longKey, new ClientChunk(rewritten.createClientSections(), worldHeight));
+
+            // 生成方块实体
+            CEWorld ceWorld = clientSideWorld.storageWorld();
+            // 世界可能被卸载，因为包滞后
+            if (ceWorld != null) {
+                CEChunk ceChunk = ceWorld.getChunkAtIfLoaded(chunkPos.longKey);
+                if (ceChunk != null) {
+                    // 生成方块实体
+                    ceChunk.spawnBlockEntities(player);
+                }
+            }
+        }
+
+        // 完整解析每个section，仅在需要重定向生物群系时使用
+        private ChunkPacketCache.Entry rewriteChunkData(NetWorkUser user, byte[] chunkDataBytes, int count, boolean occlusion) {
+            int[] remapper = user.clientModEnabled() ? this.modBlockStateMapper : this.blockStateMapper;
             MCSection[] sections = new MCSection[count];
             FriendlyByteBuf chunkDataByteBuf = new FriendlyByteBuf(Unpooled.wrappedBuffer(chunkDataBytes));
 
             boolean hasChangedAnyBlock = false;
             boolean hasGlobalPalette = false;
 
-            // 创建客户端侧世界（只在开启实体情况下创建）
-            ClientSection[] clientSections = Config.entityCullingRayTracing() ? new ClientSection[count] : null;
+            ClientSectionOcclusionStorage[] occlusions = occlusion ? new ClientSectionOcclusionStorage[count] : null;
 
             for (int i = 0; i < count; i++) {
                 MCSection mcSection = new MCSection(user.clientBlockList(), this.blockList, this.biomeList);
@@ -2021,44 +2132,44 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                     }
 
                     // 处理客户端侧哪些方块有阻挡
-                    if (clientSections != null) {
+                    if (occlusions != null) {
                         int size = palette.getSize();
                         // 单个元素的情况下，使用优化的存储方案
                         if (size == 1) {
-                            clientSections[i] = new ClientSection(new SingularOcclusionStorage(this.occlusionPredicate.test(palette.get(0))));
+                            occlusions[i] = new SingularOcclusionStorage(this.occlusionTable.test(palette.get(0)));
                         } else {
                             boolean hasOcclusions = false;
                             boolean hasNoOcclusions = false;
+                            long[] occludingValues = new long[(size + 63) >>> 6];
                             for (int h = 0; h < size; h++) {
                                 int entry = palette.get(h);
-                                if (this.occlusionPredicate.test(entry)) {
+                                if (this.occlusionTable.test(entry)) {
+                                    occludingValues[h >>> 6] |= 1L << h;
                                     hasOcclusions = true;
                                 } else {
                                     hasNoOcclusions = true;
                                 }
                             }
-                            // 两种情况都有，那么需要一个个遍历处理视线遮挡数据
+                            // 两种情况都有，那么需要根据调色板索引处理视线遮挡数据
                             if (hasOcclusions && hasNoOcclusions) {
-                                PackedOcclusionStorage storage = new PackedOcclusionStorage(false);
-                                clientSections[i] = new ClientSection(storage);
-                                for (int j = 0; j < 4096; j++) {
-                                    int state = container.get(j);
-                                    storage.set(j, this.occlusionPredicate.test(state));
-                                }
+                                PaletteStorage paletteStorage = container.data().storage();
+                                long[] data = paletteStorage.getData();
+                                occlusions[i] = PackedOcclusionStorage.fromPackedData(paletteStorage.getElementBits(), l -> data[l], occludingValues);
                             }
                             // 全遮蔽或全透视则使用优化存储方案
                             else {
-                                clientSections[i] = new ClientSection(new SingularOcclusionStorage(hasOcclusions));
+                                occlusions[i] = new SingularOcclusionStorage(hasOcclusions);
                             }
                         }
                     }
                 } else {
                     hasGlobalPalette = true;
 
-                    PackedOcclusionStorage storage = null;
-                    if (clientSections != null) {
-                        storage = new PackedOcclusionStorage(false);
-                        clientSections[i] = new ClientSection(storage);
+                    // 在重定向之前写入视线遮挡数据
+                    if (occlusions != null) {
+                        PaletteStorage paletteStorage = container.data().storage();
+                        long[] data = paletteStorage.getData();
+                        occlusions[i] = PackedOcclusionStorage.fromPackedData(paletteStorage.getElementBits(), l -> data[l], this.occlusionTable);
                     }
 
                     for (int j = 0; j < 4096; j++) {
@@ -2070,102 +2181,55 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                             container.set(j, newState);
                             hasChangedAnyBlock = true;
                         }
-
-                        // 写入视线遮挡数据
-                        if (storage != null) {
-                            storage.set(j, this.occlusionPredicate.test(state));
-                        }
                     }
                 }
 
                 sections[i] = mcSection;
             }
 
-            // 只有被修改了，才读后续内容，并改写
+            // 只有被修改了，才重新编码
+            byte[] newChunkDataBytes = null;
             if (hasChangedAnyBlock || (this.needsDowngrade && hasGlobalPalette)) {
-                // 读取其他非必要信息
-                int blockEntitiesDataCount = buf.readVarInt();
-                List<BlockEntityData> blockEntitiesData = new ArrayList<>();
-                for (int i = 0; i < blockEntitiesDataCount; i++) {
-                    byte packedXZ = buf.readByte();
-                    short y = buf.readShort();
-                    int type = buf.readVarInt();
-                    Tag tag = buf.readNbt(named);
-                    BlockEntityData blockEntityData = new BlockEntityData(packedXZ, y, type, tag);
-                    blockEntitiesData.add(blockEntityData);
-                }
-                // 光照信息
-                BitSet skyYMask = buf.readBitSet();
-                BitSet blockYMask = buf.readBitSet();
-                BitSet emptySkyYMask = buf.readBitSet();
-                BitSet emptyBlockYMask = buf.readBitSet();
-                List<byte[]> skyUpdates = buf.readByteArrayList(2048);
-                List<byte[]> blockUpdates = buf.readByteArrayList(2048);
-
                 // 预分配容量
-                FriendlyByteBuf newChunkDataBuf = new FriendlyByteBuf(Unpooled.buffer(chunkDataBufferSize + 16));
+                FriendlyByteBuf newChunkDataBuf = new FriendlyByteBuf(Unpooled.buffer(chunkDataBytes.length + 16));
                 for (int i = 0; i < count; i++) {
                     sections[i].writePacket(newChunkDataBuf);
                 }
-                chunkDataBytes = newChunkDataBuf.array();
-
-                // 开始修改
-                event.setChanged(true);
-                buf.clear();
-                buf.writeVarInt(event.packetID());
-                buf.writeInt(chunkX);
-                buf.writeInt(chunkZ);
-                if (VersionHelper.isOrAbove1_21_5()) {
-                    buf.writeVarInt(heightmapsCount);
-                    for (Map.Entry<Integer, long[]> entry : heightmapsMap.entrySet()) {
-                        buf.writeVarInt(entry.getKey());
-                        buf.writeLongArray(entry.getValue());
-                    }
-                } else {
-                    buf.writeNbt(heightmaps, named);
-                }
-                buf.writeVarInt(chunkDataBytes.length);
-                buf.writeBytes(chunkDataBytes);
-                buf.writeVarInt(blockEntitiesDataCount);
-                for (BlockEntityData blockEntityData : blockEntitiesData) {
-                    buf.writeByte(blockEntityData.packedXZ());
-                    buf.writeShort(blockEntityData.y());
-                    buf.writeVarInt(blockEntityData.type());
-                    buf.writeNbt(blockEntityData.tag(), named);
-                }
-                buf.writeBitSet(skyYMask);
-                buf.writeBitSet(blockYMask);
-                buf.writeBitSet(emptySkyYMask);
-                buf.writeBitSet(emptyBlockYMask);
-                buf.writeByteArrayList(skyUpdates);
-                buf.writeByteArrayList(blockUpdates);
+                newChunkDataBytes = Arrays.copyOf(newChunkDataBuf.array(), newChunkDataBuf.writerIndex());
             }
+            return new ChunkPacketCache.Entry(newChunkDataBytes, occlusions);
+        }
 
-            // 记录加载的区块
-            player.addTrackedChunk(chunkPos.longKey, new ClientChunk(clientSections, worldHeight));
-
-            // 生成方块实体
-            CEWorld ceWorld = clientSideWorld.storageWorld();
-            // 世界可能被卸载，因为包滞后
-            if (ceWorld != null) {
-                CEChunk ceChunk = ceWorld.getChunkAtIfLoaded(chunkPos.longKey);
-                if (ceChunk != null) {
-                    // 生成方块实体
-                    ceChunk.spawnBlockEntities(player);
-                }
-            }
+        // 直接遍历section的网络格式，只改写调色板
+        private ChunkPacketCache.Entry streamChunkData(NetWorkUser user, ByteBuf chunkData, int count, boolean occlusion) {
+            int[] remapper = user.clientModEnabled() ? this.modBlockStateMapper : this.blockStateMapper;
+            ClientSectionOcclusionStorage[] occlusions = occlusion ? new ClientSectionOcclusionStorage[count] : null;
+            int chunkDataBufferSize = chunkData.readableBytes();
+            // 预分配容量
+            FriendlyByteBuf newChunkDataBuf = new FriendlyByteBuf(Unpooled.buffer(chunkDataBufferSize + 16));
+            boolean changed = ChunkSectionRewriter.rewrite(
+                    new FriendlyByteBuf(chunkData.duplicate()),
+                    count,
+                    remapper,
+                    MiscUtils.ceilLog2(user.clientBlockList().size()),
+                    this.occlusionTable,
+                    occlusions,
+                    newChunkDataBuf
+            );
+            byte[] newChunkDataBytes = changed ? Arrays.copyOf(newChunkDataBuf.array(), newChunkDataBuf.writerIndex()) : null;
+            return new ChunkPacketCache.Entry(newChunkDataBytes, occlusions);
         }
     }
 
     public static class SectionBlockUpdateListener implements ByteBufferPacketListener {
         private final int[] blockStateMapper;
         private final int[] modBlockStateMapper;
-        private final Predicate<Integer> occlusionPredicate;
+        private final OcclusionTable occlusionTable;
 
-        public SectionBlockUpdateListener(int[] blockStateMapper, int[] modBlockStateMapper, Predicate<Integer> occlusionPredicate) {
+        public SectionBlockUpdateListener(int[] blockStateMapper, int[] modBlockStateMapper, OcclusionTable occlusionTable) {
             this.blockStateMapper = blockStateMapper;
             this.modBlockStateMapper = modBlockStateMapper;
-            this.occlusionPredicate = occlusionPredicate;
+            this.occlusionTable = occlusionTable;
         }
 
         @Override
@@ -2179,8 +2243,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
 
             // 获取客户端侧区域
             ClientSection clientSection = null;
+            SectionPos sectionPos = null;
             if (Config.entityCullingRayTracing()) {
-                SectionPos sectionPos = SectionPos.of(sPos);
+                sectionPos = SectionPos.of(sPos);
                 ClientChunk trackedChunk = user.getTrackedChunk(sectionPos.asChunkPos().longKey);
                 if (trackedChunk != null) {
                     clientSection = trackedChunk.sectionById(sectionPos.y);
@@ -2196,7 +2261,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 if (clientSection != null) {
                     // 设置遮蔽状态
                     BlockPos pos = SectionPos.unpackSectionRelativePos(posIndex);
-                    clientSection.setOccluding(pos.x, pos.y, pos.z, this.occlusionPredicate.test(beforeState));
+                    if (clientSection.setOccluding(pos.x, pos.y, pos.z, this.occlusionTable.test(beforeState))) {
+                        user.onClientOcclusionChanged(sectionPos.minBlockX() + pos.x, sectionPos.minBlockY() + pos.y, sectionPos.minBlockZ() + pos.z);
+                    }
                 }
             }
 
@@ -2214,12 +2281,12 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
     public static class BlockUpdateListener implements ByteBufferPacketListener {
         private final int[] blockStateMapper;
         private final int[] modBlockStateMapper;
-        private final Predicate<Integer> occlusionPredicate;
+        private final OcclusionTable occlusionTable;
 
-        public BlockUpdateListener(int[] blockStateMapper, int[] modBlockStateMapper, Predicate<Integer> occlusionPredicate) {
+        public BlockUpdateListener(int[] blockStateMapper, int[] modBlockStateMapper, OcclusionTable occlusionTable) {
             this.blockStateMapper = blockStateMapper;
             this.modBlockStateMapper = modBlockStateMapper;
-            this.occlusionPredicate = occlusionPredicate;
+            this.occlusionTable = occlusionTable;
         }
 
         @Override
@@ -2230,7 +2297,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             if (Config.entityCullingRayTracing()) {
                 ClientChunk trackedChunk = user.getTrackedChunk(ChunkPos.asLong(pos.x >> 4, pos.z >> 4));
                 if (trackedChunk != null) {
-                    trackedChunk.setOccluding(pos.x, pos.y, pos.z, this.occlusionPredicate.test(before));
+                    if (trackedChunk.setOccluding(pos.x, pos.y, pos.z, this.occlusionTable.test(before))) {
+                        user.onClientOcclusionChanged(pos.x, pos.y, pos.z);
+                    }
                 }
             }
             if (user.clientModEnabled() && !BlockStateUtils.isVanillaBlock(before)) {
@@ -2410,7 +2479,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             if (Config.entityCullingRayTracing()) {
                 ClientChunk trackedChunk = user.getTrackedChunk(ChunkPos.asLong(blockPos.x >> 4, blockPos.z >> 4));
                 if (trackedChunk != null) {
-                    trackedChunk.setOccluding(blockPos.x, blockPos.y, blockPos.z, false);
+                    if (trackedChunk.setOccluding(blockPos.x, blockPos.y, blockPos.z, false)) {
+                        user.onClientOcclusionChanged(blockPos.x, blockPos.y, blockPos.z);
+                    }
                 }
             }
             boolean global = buf.readBoolean();
@@ -2497,6 +2568,14 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         }
     }
 
+    private static Tag replaceText(Tag nbt, Map<String, ComponentProvider> tokens, NetWorkUser user) {
+        return CraftEngine.instance().fontManager().networkTextCache().replace(nbt, tokens, (BukkitServerPlayer) user);
+    }
+
+    private static String replaceText(String json, Map<String, ComponentProvider> tokens, NetWorkUser user) {
+        return CraftEngine.instance().fontManager().networkTextCache().replace(json, tokens, (BukkitServerPlayer) user);
+    }
+
     @SuppressWarnings({"deprecation", "all"})
     public HoverEvent.ShowItem replaceShowItem(HoverEvent.ShowItem showItem, BukkitServerPlayer player) {
         Object nmsItemStack;
@@ -2578,6 +2657,11 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             if (!Config.interceptSystemChat() && Config.disableItemOperations()) return;
             FriendlyByteBuf buf = event.getBuffer();
             String jsonOrPlainString = buf.readUtf();
+            // 既没有标签也没有物品悬停时保持原样
+            if (!(Config.interceptSystemChat() && CraftEngine.instance().fontManager().hasTags(jsonOrPlainString))
+                    && !(!Config.disableItemOperations() && jsonOrPlainString.contains("show_item"))) {
+                return;
+            }
             Tag tag = MRegistryOps.JSON.convertTo(MRegistryOps.SPARROW_NBT, GsonHelper.get().fromJson(jsonOrPlainString, JsonElement.class));
             Component component = AdventureHelper.nbtToComponent(tag);
             boolean overlay = buf.readBoolean();
@@ -2604,23 +2688,30 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             if (!Config.interceptSystemChat() && Config.disableItemOperations()) return;
             FriendlyByteBuf buf = event.getBuffer();
+            int start = buf.readerIndex();
+            boolean interceptText = Config.interceptSystemChat();
+            boolean interceptItem = !Config.disableItemOperations();
+            // 既没有标签也没有物品悬停时保持原样
+            if (!buf.skipNbt(false, text -> (interceptText && HAS_NETWORK_TAGS.test(text)) || (interceptItem && text.equals("show_item")))) return;
+            buf.readerIndex(start);
             Tag nbt = buf.readNbt(false);
             if (nbt == null) return;
             boolean overlay = buf.readBoolean();
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            Component component = AdventureHelper.tagToComponent(nbt);
             if (Config.interceptSystemChat()) {
                 Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(nbt);
                 if (!tokens.isEmpty()) {
-                    component = AdventureHelper.replaceText(component, tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user));
+                    nbt = replaceText(nbt, tokens, user);
                 }
             }
+            // 物品悬停需要为每个玩家单独处理
             if (!Config.disableItemOperations()) {
-                component = AdventureHelper.replaceShowItem(component, s -> replaceShowItem(s, (BukkitServerPlayer) user));
+                Component component = AdventureHelper.replaceShowItem(AdventureHelper.tagToComponent(nbt), s -> replaceShowItem(s, (BukkitServerPlayer) user));
+                nbt = AdventureHelper.componentToTag(component);
             }
-            buf.writeNbt(AdventureHelper.componentToTag(component), false);
+            buf.writeNbt(nbt, false);
             buf.writeBoolean(overlay);
         }
     }
@@ -2639,9 +2730,8 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            NetworkTextReplaceContext context = NetworkTextReplaceContext.of((BukkitServerPlayer) user);
-            buf.writeUtf(tokens1.isEmpty() ? json1 : AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json1), tokens1, context)));
-            buf.writeUtf(tokens2.isEmpty() ? json2 : AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json2), tokens2, context)));
+            buf.writeUtf(tokens1.isEmpty() ? json1 : replaceText(json1, tokens1, user));
+            buf.writeUtf(tokens2.isEmpty() ? json2 : replaceText(json2, tokens2, user));
         }
     }
 
@@ -2651,6 +2741,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             if (!Config.interceptTabList()) return;
             FriendlyByteBuf buf = event.getBuffer();
+            int start = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS) && !buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(start);
             Tag nbt1 = buf.readNbt(false);
             if (nbt1 == null) return;
             Tag nbt2 = buf.readNbt(false);
@@ -2661,9 +2754,8 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            NetworkTextReplaceContext context = NetworkTextReplaceContext.of((BukkitServerPlayer) user);
-            buf.writeNbt(tokens1.isEmpty() ? nbt1 : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt1), tokens1, context)), false);
-            buf.writeNbt(tokens2.isEmpty() ? nbt2 : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt2), tokens2, context)), false);
+            buf.writeNbt(tokens1.isEmpty() ? nbt1 : replaceText(nbt1, tokens1, user), false);
+            buf.writeNbt(tokens2.isEmpty() ? nbt2 : replaceText(nbt2, tokens2, user), false);
         }
     }
 
@@ -2679,7 +2771,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+            buf.writeUtf(replaceText(json, tokens, user));
         }
     }
 
@@ -2689,6 +2781,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             if (!Config.interceptActionBar()) return;
             FriendlyByteBuf buf = event.getBuffer();
+            int start = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(start);
             Tag nbt = buf.readNbt(false);
             if (nbt == null) return;
             Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(nbt);
@@ -2696,7 +2791,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+            buf.writeNbt(replaceText(nbt, tokens, user), false);
         }
     }
 
@@ -2712,7 +2807,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+            buf.writeUtf(replaceText(json, tokens, user));
         }
     }
 
@@ -2722,6 +2817,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             if (!Config.interceptTitle()) return;
             FriendlyByteBuf buf = event.getBuffer();
+            int start = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(start);
             Tag nbt = buf.readNbt(false);
             if (nbt == null) return;
             Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(nbt);
@@ -2729,7 +2827,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+            buf.writeNbt(replaceText(nbt, tokens, user), false);
         }
     }
 
@@ -2745,7 +2843,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+            buf.writeUtf(replaceText(json, tokens, user));
         }
     }
 
@@ -2755,6 +2853,9 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         public void onPacketSend(NetWorkUser user, ByteBufPacketEvent event) {
             if (!Config.interceptTitle()) return;
             FriendlyByteBuf buf = event.getBuffer();
+            int start = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(start);
             Tag nbt = buf.readNbt(false);
             if (nbt == null) return;
             Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(nbt);
@@ -2762,7 +2863,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
-            buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+            buf.writeNbt(replaceText(nbt, tokens, user), false);
         }
     }
 
@@ -2787,7 +2888,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 buf.writeVarInt(event.packetID());
                 buf.writeUUID(uuid);
                 buf.writeVarInt(actionType);
-                buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+                buf.writeUtf(replaceText(json, tokens, user));
                 buf.writeFloat(health);
                 buf.writeVarInt(color);
                 buf.writeVarInt(division);
@@ -2801,7 +2902,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 buf.writeVarInt(event.packetID());
                 buf.writeUUID(uuid);
                 buf.writeVarInt(actionType);
-                buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+                buf.writeUtf(replaceText(json, tokens, user));
             }
         }
     }
@@ -2814,6 +2915,10 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             FriendlyByteBuf buf = event.getBuffer();
             UUID uuid = buf.readUUID();
             int actionType = buf.readVarInt();
+            if (actionType != 0 && actionType != 3) return;
+            int nameIndex = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(nameIndex);
             if (actionType == 0) {
                 Tag nbt = buf.readNbt(false);
                 if (nbt == null) return;
@@ -2828,7 +2933,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 buf.writeVarInt(event.packetID());
                 buf.writeUUID(uuid);
                 buf.writeVarInt(actionType);
-                buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                buf.writeNbt(replaceText(nbt, tokens, user), false);
                 buf.writeFloat(health);
                 buf.writeVarInt(color);
                 buf.writeVarInt(division);
@@ -2843,7 +2948,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 buf.writeVarInt(event.packetID());
                 buf.writeUUID(uuid);
                 buf.writeVarInt(actionType);
-                buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                buf.writeNbt(replaceText(nbt, tokens, user), false);
             }
         }
     }
@@ -2871,20 +2976,19 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             Map<String, ComponentProvider> tokens3 = CraftEngine.instance().fontManager().matchTags(suffix);
             if (tokens1.isEmpty() && tokens2.isEmpty() && tokens3.isEmpty()) return;
             event.setChanged(true);
-            NetworkTextReplaceContext context = NetworkTextReplaceContext.of((BukkitServerPlayer) user);
 
             List<String> entities = method == 0 ? buf.readStringList() : null;
             buf.clear();
             buf.writeVarInt(event.packetID());
             buf.writeUtf(name);
             buf.writeByte(method);
-            buf.writeUtf(tokens1.isEmpty() ? displayName : AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(displayName), tokens1, context)));
+            buf.writeUtf(tokens1.isEmpty() ? displayName : replaceText(displayName, tokens1, user));
             buf.writeByte(friendlyFlags);
             buf.writeUtf(nameTagVisibility);
             buf.writeUtf(collisionRule);
             buf.writeVarInt(color);
-            buf.writeUtf(tokens2.isEmpty() ? prefix : AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(prefix), tokens2, context)));
-            buf.writeUtf(tokens3.isEmpty() ? suffix : AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(suffix), tokens3, context)));
+            buf.writeUtf(tokens2.isEmpty() ? prefix : replaceText(prefix, tokens2, user));
+            buf.writeUtf(tokens3.isEmpty() ? suffix : replaceText(suffix, tokens3, user));
             if (entities != null) {
                 buf.writeStringList(entities);
             }
@@ -2900,6 +3004,19 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             String name = buf.readUtf();
             byte method = buf.readByte();
             if (method != 2 && method != 0) return;
+            int displayNameIndex = buf.readerIndex();
+            boolean hasTags = buf.skipNbt(false, HAS_NETWORK_TAGS);
+            buf.skipBytes(1);
+            if (VersionHelper.isOrAbove1_21_5()) {
+                buf.readVarInt();
+                buf.readVarInt();
+            } else {
+                buf.readUtf(40);
+                buf.readUtf(40);
+            }
+            buf.readVarInt();
+            if (!hasTags && !buf.skipNbt(false, HAS_NETWORK_TAGS) && !buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            buf.readerIndex(displayNameIndex);
             Tag displayName = buf.readNbt(false);
             if (displayName == null) return;
             byte friendlyFlags = buf.readByte();
@@ -2914,20 +3031,19 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             Map<String, ComponentProvider> tokens2 = CraftEngine.instance().fontManager().matchTags(prefix);
             Map<String, ComponentProvider> tokens3 = CraftEngine.instance().fontManager().matchTags(suffix);
             if (tokens1.isEmpty() && tokens2.isEmpty() && tokens3.isEmpty()) return;
-            NetworkTextReplaceContext context = NetworkTextReplaceContext.of((BukkitServerPlayer) user);
             List<String> entities = method == 0 ? buf.readStringList() : null;
             event.setChanged(true);
             buf.clear();
             buf.writeVarInt(event.packetID());
             buf.writeUtf(name);
             buf.writeByte(method);
-            buf.writeNbt(tokens1.isEmpty() ? displayName : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(displayName), tokens1, context)), false);
+            buf.writeNbt(tokens1.isEmpty() ? displayName : replaceText(displayName, tokens1, user), false);
             buf.writeByte(friendlyFlags);
             eitherVisibility.ifLeft(buf::writeUtf).ifRight(buf::writeVarInt);
             eitherCollisionRule.ifLeft(buf::writeUtf).ifRight(buf::writeVarInt);
             buf.writeVarInt(color);
-            buf.writeNbt(tokens2.isEmpty() ? prefix : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(prefix), tokens2, context)), false);
-            buf.writeNbt(tokens3.isEmpty() ? suffix : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(suffix), tokens3, context)), false);
+            buf.writeNbt(tokens2.isEmpty() ? prefix : replaceText(prefix, tokens2, user), false);
+            buf.writeNbt(tokens3.isEmpty() ? suffix : replaceText(suffix, tokens3, user), false);
             if (entities != null) {
                 buf.writeStringList(entities);
             }
@@ -2952,7 +3068,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             buf.writeVarInt(event.packetID());
             buf.writeUtf(objective);
             buf.writeByte(mode);
-            buf.writeUtf(AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(displayName), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))));
+            buf.writeUtf(replaceText(displayName, tokens, user));
             buf.writeVarInt(renderType);
         }
     }
@@ -2966,6 +3082,13 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             String objective = buf.readUtf();
             byte mode = buf.readByte();
             if (mode != 0 && mode != 2) return;
+            int displayNameIndex = buf.readerIndex();
+            if (!buf.skipNbt(false, HAS_NETWORK_TAGS)) {
+                buf.readVarInt();
+                // 只有固定格式中可能还有需要替换的文本
+                if (!buf.readBoolean() || buf.readVarInt() != 2 || !buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            }
+            buf.readerIndex(displayNameIndex);
             Tag displayName = buf.readNbt(false);
             if (displayName == null) return;
             int renderType = buf.readVarInt();
@@ -2980,7 +3103,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                     buf.writeVarInt(event.packetID());
                     buf.writeUtf(objective);
                     buf.writeByte(mode);
-                    buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(displayName), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                    buf.writeNbt(replaceText(displayName, tokens, user), false);
                     buf.writeVarInt(renderType);
                     buf.writeBoolean(true);
                     buf.writeVarInt(0);
@@ -2993,7 +3116,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                     buf.writeVarInt(event.packetID());
                     buf.writeUtf(objective);
                     buf.writeByte(mode);
-                    buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(displayName), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                    buf.writeNbt(replaceText(displayName, tokens, user), false);
                     buf.writeVarInt(renderType);
                     buf.writeBoolean(true);
                     buf.writeVarInt(1);
@@ -3009,11 +3132,11 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                     buf.writeVarInt(event.packetID());
                     buf.writeUtf(objective);
                     buf.writeByte(mode);
-                    buf.writeNbt(tokens1.isEmpty() ? displayName : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(displayName), tokens1, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                    buf.writeNbt(tokens1.isEmpty() ? displayName : replaceText(displayName, tokens1, user), false);
                     buf.writeVarInt(renderType);
                     buf.writeBoolean(true);
                     buf.writeVarInt(2);
-                    buf.writeNbt(tokens2.isEmpty() ? fixed : AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(fixed), tokens2, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                    buf.writeNbt(tokens2.isEmpty() ? fixed : replaceText(fixed, tokens2, user), false);
                 }
             } else {
                 Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(displayName);
@@ -3023,7 +3146,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 buf.writeVarInt(event.packetID());
                 buf.writeUtf(objective);
                 buf.writeByte(mode);
-                buf.writeNbt(AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(displayName), tokens, NetworkTextReplaceContext.of((BukkitServerPlayer) user))), false);
+                buf.writeNbt(replaceText(displayName, tokens, user), false);
                 buf.writeVarInt(renderType);
                 buf.writeBoolean(false);
             }
@@ -3041,6 +3164,12 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             String owner = buf.readUtf();
             String objectiveName = buf.readUtf();
             int score = buf.readVarInt();
+            int displayIndex = buf.readerIndex();
+            if (!(buf.readBoolean() && buf.skipNbt(false, HAS_NETWORK_TAGS))) {
+                // 只有固定格式中可能还有需要替换的文本
+                if (!buf.readBoolean() || buf.readVarInt() != 2 || !buf.skipNbt(false, HAS_NETWORK_TAGS)) return;
+            }
+            buf.readerIndex(displayIndex);
             boolean hasDisplay = buf.readBoolean();
             Tag displayName = null;
             if (hasDisplay) {
@@ -3050,9 +3179,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             if (displayName != null) {
                 Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(displayName);
                 if (tokens.isEmpty()) break outside;
-                Component component = AdventureHelper.tagToComponent(displayName);
-                component = AdventureHelper.replaceText(component, tokens, NetworkTextReplaceContext.of(serverPlayer));
-                displayName = AdventureHelper.componentToTag(component);
+                displayName = replaceText(displayName, tokens, serverPlayer);
                 isChanged = true;
             }
             boolean hasNumberFormat = buf.readBoolean();
@@ -3072,9 +3199,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                     Map<String, ComponentProvider> tokens = CraftEngine.instance().fontManager().matchTags(fixed);
                     if (tokens.isEmpty() && !isChanged) return;
                     if (!tokens.isEmpty()) {
-                        Component component = AdventureHelper.tagToComponent(fixed);
-                        component = AdventureHelper.replaceText(component, tokens, NetworkTextReplaceContext.of(serverPlayer));
-                        fixed = AdventureHelper.componentToTag(component);
+                        fixed = replaceText(fixed, tokens, serverPlayer);
                         isChanged = true;
                     }
                 }
@@ -3316,7 +3441,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             IntList intList = buf.readIntIdList();
             for (int i = 0, size = intList.size(); i < size; i++) {
                 int entityId = intList.getInt(i);
-                EntityPacketHandler handler = user.entityPacketHandlers().remove(entityId);
+                EntityPacketHandler handler = user.removeEntityPacketHandler(entityId);
                 if (handler != null && handler.handleEntitiesRemove(user, intList)) {
                     changed = true;
                 }
@@ -3967,7 +4092,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 BukkitServerPlayer serverPlayer = (BukkitServerPlayer) user;
                 BukkitFurniture furniture = BukkitFurnitureManager.instance().loadedFurnitureByMetaEntityId(id);
                 if (furniture != null) {
-                    EntityPacketHandler previous = serverPlayer.entityPacketHandlers().put(id, new FurniturePacketHandler(id, furniture.virtualEntityIds()));
+                    EntityPacketHandler previous = serverPlayer.putEntityPacketHandler(id, new FurniturePacketHandler(id, furniture.virtualEntityIds()));
                     if (Config.enableEntityCulling()) {
                         serverPlayer.addTrackedFurniture(id, furniture);
                     } else {
@@ -3980,7 +4105,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                         event.setCancelled(true);
                     }
                 } else {
-                    user.entityPacketHandlers().put(id, ItemDisplayPacketHandler.INSTANCE);
+                    user.putEntityPacketHandler(id, ItemDisplayPacketHandler.INSTANCE);
                 }
             };
             this.handlers[MEntityTypes.INTERACTION$registryId] = (user, event) -> {
@@ -3991,7 +4116,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 BukkitFurniture furniture = BukkitFurnitureManager.instance().loadedFurnitureByColliderEntityId(id);
                 if (furniture != null) {
                     event.setCancelled(true);
-                    user.entityPacketHandlers().put(id, FurnitureCollisionPacketHandler.INSTANCE);
+                    user.putEntityPacketHandler(id, FurnitureCollisionPacketHandler.INSTANCE);
                 }
             };
             this.handlers[MEntityTypes.OAK_BOAT$registryId] = (user, event) -> {
@@ -4002,7 +4127,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 BukkitFurniture furniture = BukkitFurnitureManager.instance().loadedFurnitureByColliderEntityId(id);
                 if (furniture != null) {
                     event.setCancelled(true);
-                    user.entityPacketHandlers().put(id, FurnitureCollisionPacketHandler.INSTANCE);
+                    user.putEntityPacketHandler(id, FurnitureCollisionPacketHandler.INSTANCE);
                 }
             };
         }
@@ -4010,7 +4135,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
         private static EntityTypeHandler simpleAddEntityHandler(EntityPacketHandler handler) {
             return (user, event) -> {
                 FriendlyByteBuf buf = event.getBuffer();
-                user.entityPacketHandlers().put(buf.readVarInt(), handler);
+                user.putEntityPacketHandler(buf.readVarInt(), handler);
             };
         }
 
@@ -4021,10 +4146,10 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
                 BukkitProjectileManager.instance().projectileByEntityId(id).ifPresentOrElse(customProjectile -> {
                     ProjectilePacketHandler handler = new ProjectilePacketHandler(customProjectile, id);
                     handler.convertAddCustomProjectilePacket(buf, event);
-                    user.entityPacketHandlers().put(id, handler);
+                    user.putEntityPacketHandler(id, handler);
                 }, () -> {
                     if (fallback) {
-                        user.entityPacketHandlers().put(id, CommonItemPacketHandler.INSTANCE);
+                        user.putEntityPacketHandler(id, CommonItemPacketHandler.INSTANCE);
                     }
                 });
             };
@@ -4060,7 +4185,7 @@ public class BukkitNetworkManager implements NetworkManager, Listener, PluginMes
             if (!(user instanceof BukkitServerPlayer serverPlayer)) return;
             FriendlyByteBuf buf = event.getBuffer();
             int id = buf.readVarInt();
-            EntityPacketHandler handler = user.entityPacketHandlers().get(id);
+            EntityPacketHandler handler = user.getEntityPacketHandler(id);
             if (handler != null) {
                 handler.handleSetEntityData(serverPlayer, event);
                 return;
@@ -6,6 +6,7 @@ import net.momirealms.craftengine.bukkit.util.BukkitReflectionUtils;
 import net.momirealms.craftengine.core.util.ReflectionUtils;
 import net.momirealms.craftengine.core.util.VersionHelper;
 import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
 import org.bukkit.Server;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.data.BlockData;
@@ -47,6 +48,15 @@ public final class CraftBukkitReflections {
             ReflectionUtils.getClazz(BukkitReflectionUtils.assembleCBClass("CraftWorld"))
     );
 
+    public static final Class<?> clazz$CraftParticle = requireNonNull(
+            ReflectionUtils.getClazz(BukkitReflectionUtils.assembleCBClass("CraftParticle"))
+    );
+
+    // 1.20.5以前为toNMS
+    public static final Method method$CraftParticle$createParticleParam = requireNonNull(
+            ReflectionUtils.getStaticMethod(clazz$CraftParticle, CoreReflections.clazz$ParticleOptions, Particle.class, Object.class)
+    );
+
     public static final Class<?> clazz$CraftBlock = requireNonNull(
             ReflectionUtils.getClazz(BukkitReflectionUtils.assembleCBClass("block.CraftBlock"))
     );
@@ -1907,6 +1907,10 @@ public final class CoreReflections {
             ReflectionUtils.getDeclaredField(clazz$LevelChunkSection, clazz$PalettedContainer, 0)
     );
 
+    public static final VarHandle varHandle$LevelChunkSection$states = requireNonNull(
+            ReflectionUtils.findVarHandle(field$LevelChunkSection$states)
+    );
+
     public static final Constructor<?> constructor$ItemStack = requireNonNull(
             ReflectionUtils.getConstructor(clazz$ItemStack, clazz$ItemLike)
     );
@@ -422,6 +422,12 @@ public final class NetworkReflections {
                     ReflectionUtils.getConstructor(clazz$ClientboundLevelParticlesPacket, CoreReflections.clazz$FriendlyByteBuf)
     );
 
+    public static final Constructor<?> constructor$ClientboundLevelParticlesPacket$fields = requireNonNull(
+            VersionHelper.isOrAbove1_21_4() ?
+                    ReflectionUtils.getConstructor(clazz$ClientboundLevelParticlesPacket, CoreReflections.clazz$ParticleOptions, boolean.class, boolean.class, double.class, double.class, double.class, float.class, float.class, float.class, float.class, int.class) :
+                    ReflectionUtils.getConstructor(clazz$ClientboundLevelParticlesPacket, CoreReflections.clazz$ParticleOptions, boolean.class, double.class, double.class, double.class, float.class, float.class, float.class, float.class, int.class)
+    );
+
     public static final Field field$ClientboundLevelParticlesPacket$particle = requireNonNull(
             ReflectionUtils.getDeclaredField(clazz$ClientboundLevelParticlesPacket, CoreReflections.clazz$ParticleOptions, 0)
     );
@@ -21,6 +21,7 @@ import net.momirealms.craftengine.bukkit.plugin.reflection.minecraft.MMobEffects
 import net.momirealms.craftengine.bukkit.plugin.reflection.minecraft.NetworkReflections;
 import net.momirealms.craftengine.bukkit.util.*;
 import net.momirealms.craftengine.bukkit.world.BukkitWorld;
+import net.momirealms.craftengine.bukkit.world.BukkitWorldManager;
 import net.momirealms.craftengine.core.advancement.AdvancementType;
 import net.momirealms.craftengine.core.block.BlockStateWrapper;
 import net.momirealms.craftengine.core.block.ImmutableBlockState;
@@ -39,6 +40,7 @@ import net.momirealms.craftengine.core.plugin.config.Config;
 import net.momirealms.craftengine.core.plugin.context.CooldownData;
 import net.momirealms.craftengine.core.plugin.entityculling.CullingData;
 import net.momirealms.craftengine.core.plugin.entityculling.EntityCulling;
+import net.momirealms.craftengine.core.plugin.entityculling.OcclusionChangeLog;
 import net.momirealms.craftengine.core.plugin.locale.TranslationManager;
 import net.momirealms.craftengine.core.plugin.network.ConnectionState;
 import net.momirealms.craftengine.core.plugin.network.EntityPacketHandler;
@@ -75,6 +77,7 @@ import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 public class BukkitServerPlayer extends Player {
@@ -138,7 +141,7 @@ public class BukkitServerPlayer extends Player {
     // tracked chunks
     private ConcurrentLong2ReferenceChainedHashTable<ClientChunk> trackedChunks;
     // entity view
-    private Map<Integer, EntityPacketHandler> entityTypeView;
+    private ConcurrentLong2ReferenceChainedHashTable<EntityPacketHandler> entityTypeView;
     // 通过指令或api设定的语言
     @Nullable
     private Locale selectedLocale;
@@ -152,10 +155,18 @@ public class BukkitServerPlayer extends Player {
     private int lastStopMiningTick;
     // 跟踪到的方块实体渲染器
     private final Map<BlockPos, VirtualCullableObject> trackedBlockEntityRenderers = new ConcurrentHashMap<>();
-    private final Map<Integer, VirtualCullableObject> trackedFurniture = new ConcurrentHashMap<>();
+    private final ConcurrentLong2ReferenceChainedHashTable<VirtualCullableObject> trackedFurniture = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(64, 0.5f);
     private final EntityCulling culling;
     private Vec3d firstPersonCameraVec3;
     private Vec3d thirdPersonCameraVec3;
+    // 相机移动或跟踪的对象变化时递增
+    private final AtomicInteger entityCullingViewVersion = new AtomicInteger();
+    // 可见性缓存所基于的相机位置，相机偏离超过阈值时递增版本
+    private Vec3d cachedFirstPersonCameraVec3;
+    private Vec3d cachedThirdPersonCameraVec3;
+    private volatile int cullingCameraVersion;
+    // 客户端侧方块遮挡的变化
+    private final OcclusionChangeLog occlusionChanges = new OcclusionChangeLog();
     // 是否启用实体剔除
     private boolean enableEntityCulling;
     // 玩家眼睛所在位置
@@ -170,6 +181,10 @@ public class BukkitServerPlayer extends Player {
     private double displayEntityViewDistance;
     // 是否是基岩版
     private Tristate isBedrock = Tristate.UNDEFINED;
+    // 上一次预读区块时所在的区块
+    private UUID lastPrefetchWorld;
+    private int lastPrefetchChunkX;
+    private int lastPrefetchChunkZ;
 
     public BukkitServerPlayer(BukkitCraftEngine plugin, @Nullable Channel channel) {
         this.channel = channel;
@@ -202,7 +217,7 @@ public class BukkitServerPlayer extends Player {
         this.culling.setDistanceScale(Optional.ofNullable(scale).orElse(1.0));
         this.selectedLocale = TranslationManager.parseLocale(locale);
         this.trackedChunks = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(512, 0.5f);
-        this.entityTypeView = new ConcurrentHashMap<>(256);
+        this.entityTypeView = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(256, 0.5f);
         try {
             this.cooldownData = CooldownData.fromBytes(bytes);
         } catch (IOException e) {
@@ -601,6 +616,11 @@ public class BukkitServerPlayer extends Player {
             this.eyeLocation = unsureEyeLocation;
         }
 
+        // 提前读取即将进入视距的区块
+        if (Config.enableAsyncChunkLoading()) {
+            this.prefetchChunks(bukkitPlayer);
+        }
+
         if (hasSwingHand()) {
             if (this.isDestroyingBlock) {
                 this.tickBlockDestroy();
@@ -633,7 +653,7 @@ public class BukkitServerPlayer extends Player {
         if (Config.entityCullingRayTracing()) {
             org.bukkit.entity.Player player = platformPlayer();
             Location eyeLocation = this.eyeLocation.clone();
-            this.firstPersonCameraVec3 = LocationUtils.toVec3d(eyeLocation);
+            Vec3d firstPersonCameraVec3 = LocationUtils.toVec3d(eyeLocation);
             int distance = 4;
             if (VersionHelper.isOrAbove1_21_6()) {
                 Entity vehicle = player.getVehicle();
@@ -641,23 +661,75 @@ public class BukkitServerPlayer extends Player {
                     distance = 8;
                 }
             }
-            this.thirdPersonCameraVec3 = LocationUtils.toVec3d(eyeLocation.subtract(eyeLocation.getDirection().multiply(distance)));
+            Vec3d thirdPersonCameraVec3 = LocationUtils.toVec3d(eyeLocation.subtract(eyeLocation.getDirection().multiply(distance)));
+            if (hasCameraMoved(this.firstPersonCameraVec3, firstPersonCameraVec3) || hasCameraMoved(this.thirdPersonCameraVec3, thirdPersonCameraVec3)) {
+                this.entityCullingViewVersion.incrementAndGet();
+            }
+            this.firstPersonCameraVec3 = firstPersonCameraVec3;
+            this.thirdPersonCameraVec3 = thirdPersonCameraVec3;
+            // 与缓存时的相机位置比较，避免缓慢移动时累积误差
+            double threshold = Config.entityCullingCameraMoveThreshold();
+            if (hasCameraMoved(this.cachedFirstPersonCameraVec3, firstPersonCameraVec3, threshold) || hasCameraMoved(this.cachedThirdPersonCameraVec3, thirdPersonCameraVec3, threshold)) {
+                this.cachedFirstPersonCameraVec3 = firstPersonCameraVec3;
+                this.cachedThirdPersonCameraVec3 = thirdPersonCameraVec3;
+                this.cullingCameraVersion++;
+            }
         }
     }
 
+    private static boolean hasCameraMoved(Vec3d previous, Vec3d current) {
+        return hasCameraMoved(previous, current, 0.01);
+    }
+
+    private static boolean hasCameraMoved(Vec3d previous, Vec3d current, double threshold) {
+        return previous == null || Vec3d.distanceToSqr(previous, current) > threshold * threshold;
+    }
+
+    private void prefetchChunks(org.bukkit.entity.Player player) {
+        int chunkX = this.eyeLocation.getBlockX() >> 4;
+        int chunkZ = this.eyeLocation.getBlockZ() >> 4;
+        org.bukkit.World world = this.eyeLocation.getWorld();
+        UUID worldUUID = world.getUID();
+        boolean sameWorld = worldUUID.equals(this.lastPrefetchWorld);
+        if (sameWorld && chunkX == this.lastPrefetchChunkX && chunkZ == this.lastPrefetchChunkZ) {
+            return;
+        }
+        CEWorld ceWorld = BukkitWorldManager.instance().getWorld(worldUUID);
+        if (ceWorld != null) {
+            // 多预读一圈，服务端通常会加载视距外一格的区块
+            int radius = player.getViewDistance() + 1;
+            if (sameWorld) {
+                ceWorld.chunkPrefetcher().prefetchFrontier(this.lastPrefetchChunkX, this.lastPrefetchChunkZ, chunkX, chunkZ, radius);
+            } else {
+                ceWorld.chunkPrefetcher().prefetchFrontier(chunkX + radius * 2 + 1, chunkZ, chunkX, chunkZ, radius);
+            }
+        }
+        this.lastPrefetchWorld = worldUUID;
+        this.lastPrefetchChunkX = chunkX;
+        this.lastPrefetchChunkZ = chunkZ;
+    }
+
     @Override
-    public void entityCullingTick() {
+    public void restoreEntityCullingTokens() {
         this.culling.restoreTokenOnTick();
+    }
+
+    @Override
+    public void entityCullingTick() {
         if (this.firstPersonCameraVec3 == null || this.thirdPersonCameraVec3 == null) {
             return;
         }
         boolean useRayTracing = Config.entityCullingRayTracing();
         if (this.enableEntityCulling) {
+            // 先读取版本再读取相机，保证缓存的结果不会比版本更旧
+            int cameraVersion = this.cullingCameraVersion;
+            int occlusionGeneration = this.occlusionChanges.generation();
+            long occlusionSequence = this.occlusionChanges.sequence();
             for (VirtualCullableObject cullableObject : this.trackedBlockEntityRenderers.values()) {
-                cullEntity(useRayTracing, cullableObject);
+                cullEntity(useRayTracing, cameraVersion, occlusionGeneration, occlusionSequence, cullableObject);
             }
             for (VirtualCullableObject cullableObject : this.trackedFurniture.values()) {
-                cullEntity(useRayTracing, cullableObject);
+                cullEntity(useRayTracing, cameraVersion, occlusionGeneration, occlusionSequence, cullableObject);
             }
         } else {
             for (VirtualCullableObject cullableObject : this.trackedBlockEntityRenderers.values()) {
@@ -669,13 +741,19 @@ public class BukkitServerPlayer extends Player {
         }
     }
 
-    private void cullEntity(boolean useRayTracing, VirtualCullableObject cullableObject) {
+    @Override
+    public int entityCullingViewVersion() {
+        return this.entityCullingViewVersion.get();
+    }
+
+    private void cullEntity(boolean useRayTracing, int cameraVersion, int occlusionGeneration, long occlusionSequence, VirtualCullableObject cullableObject) {
         CullingData cullingData = cullableObject.cullable.cullingData();
         if (cullingData != null) {
-            boolean firstPersonVisible = this.culling.isVisible(cullingData, this.firstPersonCameraVec3, useRayTracing);
+            this.validateVisibilityCache(cullableObject, cullingData, useRayTracing, cameraVersion, occlusionGeneration, occlusionSequence);
+            boolean firstPersonVisible = this.isFirstPersonVisible(cullableObject, cullingData, useRayTracing);
             // 之前可见
             if (cullableObject.isShown) {
-                boolean thirdPersonVisible = this.culling.isVisible(cullingData, this.thirdPersonCameraVec3, useRayTracing);
+                boolean thirdPersonVisible = this.isThirdPersonVisible(cullableObject, cullingData, useRayTracing);
                 if (!firstPersonVisible && !thirdPersonVisible) {
                     cullableObject.setShown(this, false);
                 }
@@ -691,7 +769,7 @@ public class BukkitServerPlayer extends Player {
                     cullableObject.setShown(this, true);
                     return;
                 }
-                if (this.culling.isVisible(cullingData, this.thirdPersonCameraVec3, useRayTracing)) {
+                if (this.isThirdPersonVisible(cullableObject, cullingData, useRayTracing)) {
                     // 下次再说
                     if (Config.enableEntityCullingRateLimiting() && !this.culling.takeToken()) {
                         return;
@@ -705,6 +783,58 @@ public class BukkitServerPlayer extends Player {
         }
     }
 
+    private void validateVisibilityCache(VirtualCullableObject cullableObject, CullingData cullingData, boolean useRayTracing,
+                                         int cameraVersion, int occlusionGeneration, long occlusionSequence) {
+        if (!cullableObject.isVisibilityCached(cullingData, cameraVersion, useRayTracing)) {
+            cullableObject.resetVisibility(cullingData, cameraVersion, useRayTracing, occlusionGeneration, occlusionSequence);
+            return;
+        }
+        // 不进行射线检测时结果与方块无关
+        if (!useRayTracing || !cullingData.rayTracing) {
+            return;
+        }
+        if (cullableObject.occlusionGeneration() != occlusionGeneration || this.hasOcclusionChanged(cullingData, cullableObject.occlusionSequence(), occlusionSequence)) {
+            cullableObject.resetVisibility(cullingData, cameraVersion, true, occlusionGeneration, occlusionSequence);
+        } else {
+            cullableObject.setOcclusionSequence(occlusionSequence);
+        }
+    }
+
+    // 射线只会经过两个相机与碰撞箱所围成的范围
+    private boolean hasOcclusionChanged(CullingData cullingData, long from, long to) {
+        AABB aabb = cullingData.aabb;
+        double expansion = cullingData.aabbExpansion + 1;
+        Vec3d first = this.firstPersonCameraVec3;
+        Vec3d third = this.thirdPersonCameraVec3;
+        return this.occlusionChanges.hasChanged(from, to,
+                MiscUtils.floor(Math.min(aabb.minX - expansion, Math.min(first.x, third.x) - 1)),
+                MiscUtils.floor(Math.min(aabb.minY - expansion, Math.min(first.y, third.y) - 1)),
+                MiscUtils.floor(Math.min(aabb.minZ - expansion, Math.min(first.z, third.z) - 1)),
+                MiscUtils.floor(Math.max(aabb.maxX + expansion, Math.max(first.x, third.x) + 1)),
+                MiscUtils.floor(Math.max(aabb.maxY + expansion, Math.max(first.y, third.y) + 1)),
+                MiscUtils.floor(Math.max(aabb.maxZ + expansion, Math.max(first.z, third.z) + 1)));
+    }
+
+    private boolean isFirstPersonVisible(VirtualCullableObject cullableObject, CullingData cullingData, boolean useRayTracing) {
+        Tristate cached = cullableObject.firstPersonVisible();
+        if (cached != Tristate.UNDEFINED) {
+            return cached.asBoolean();
+        }
+        boolean visible = this.culling.isVisible(cullingData, this.firstPersonCameraVec3, useRayTracing);
+        cullableObject.setFirstPersonVisible(visible);
+        return visible;
+    }
+
+    private boolean isThirdPersonVisible(VirtualCullableObject cullableObject, CullingData cullingData, boolean useRayTracing) {
+        Tristate cached = cullableObject.thirdPersonVisible();
+        if (cached != Tristate.UNDEFINED) {
+            return cached.asBoolean();
+        }
+        boolean visible = this.culling.isVisible(cullingData, this.thirdPersonCameraVec3, useRayTracing);
+        cullableObject.setThirdPersonVisible(visible);
+        return visible;
+    }
+
     private void updateGUI() {
         org.bukkit.inventory.Inventory top = platformPlayer().getOpenInventory().getTopInventory();
         if (!InventoryUtils.isCustomContainer(top)) return;
@@ -1152,8 +1282,18 @@ public class BukkitServerPlayer extends Player {
     }
 
     @Override
-    public Map<Integer, EntityPacketHandler> entityPacketHandlers() {
-        return this.entityTypeView;
+    public EntityPacketHandler getEntityPacketHandler(int entityId) {
+        return this.entityTypeView.get(entityId);
+    }
+
+    @Override
+    public EntityPacketHandler putEntityPacketHandler(int entityId, EntityPacketHandler handler) {
+        return this.entityTypeView.put(entityId, handler);
+    }
+
+    @Override
+    public EntityPacketHandler removeEntityPacketHandler(int entityId) {
+        return this.entityTypeView.remove(entityId);
     }
 
     public void setResendSound() {
@@ -1319,11 +1459,13 @@ public class BukkitServerPlayer extends Player {
     @Override
     public void addTrackedChunk(long chunkPos, ClientChunk chunkStatus) {
         this.trackedChunks.put(chunkPos, chunkStatus);
+        this.occlusionChanges.invalidateAll();
     }
 
     @Override
     public void removeTrackedChunk(long chunkPos) {
         this.trackedChunks.remove(chunkPos);
+        this.occlusionChanges.invalidateAll();
         if (Config.entityCullingRayTracing()) {
             this.culling.removeLastVisitChunkIfMatches((int) chunkPos, (int) (chunkPos >> 32));
         }
@@ -1332,6 +1474,13 @@ public class BukkitServerPlayer extends Player {
     @Override
     public void clearTrackedChunks() {
         this.trackedChunks.clear();
+        this.occlusionChanges.invalidateAll();
+    }
+
+    @Override
+    public void onClientOcclusionChanged(int x, int y, int z) {
+        this.occlusionChanges.record(x, y, z);
+        this.entityCullingViewVersion.incrementAndGet();
     }
 
     @Override
@@ -1407,6 +1556,8 @@ public class BukkitServerPlayer extends Player {
     public void setEntityCullingDistanceScale(double value) {
         value = Math.min(Math.max(0.125, value), 8);
         this.culling.setDistanceScale(value);
+        this.entityCullingViewVersion.incrementAndGet();
+        this.cullingCameraVersion++;
         platformPlayer().getPersistentDataContainer().set(KeyUtils.toNamespacedKey(ENTITY_CULLING_DISTANCE_SCALE), PersistentDataType.DOUBLE, value);
     }
 
@@ -1425,6 +1576,7 @@ public class BukkitServerPlayer extends Player {
     @Override
     public void setEnableEntityCulling(boolean enable) {
         this.enableEntityCulling = enable;
+        this.entityCullingViewVersion.incrementAndGet();
         platformPlayer().getPersistentDataContainer().set(KeyUtils.toNamespacedKey(ENABLE_ENTITY_CULLING), PersistentDataType.BOOLEAN, enable);
     }
 
@@ -1482,11 +1634,13 @@ public class BukkitServerPlayer extends Player {
         for (Map.Entry<BlockPos, ConstantBlockEntityRenderer> entry : renders.entrySet()) {
             this.trackedBlockEntityRenderers.put(entry.getKey(), new VirtualCullableObject(entry.getValue()));
         }
+        this.entityCullingViewVersion.incrementAndGet();
     }
 
     @Override
     public void addTrackedBlockEntity(BlockPos blockPos, ConstantBlockEntityRenderer renderer) {
         this.trackedBlockEntityRenderers.put(blockPos, new VirtualCullableObject(renderer));
+        this.entityCullingViewVersion.incrementAndGet();
     }
 
     @Override
@@ -1529,6 +1683,7 @@ public class BukkitServerPlayer extends Player {
     @Override
     public void addTrackedFurniture(int entityId, Furniture furniture) {
         this.trackedFurniture.put(entityId, new VirtualCullableObject(furniture));
+        this.entityCullingViewVersion.incrementAndGet();
     }
 
     @Override
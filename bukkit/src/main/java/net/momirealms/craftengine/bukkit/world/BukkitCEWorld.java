@@ -1,6 +1,10 @@
 package net.momirealms.craftengine.bukkit.world;
 
+import net.momirealms.craftengine.bukkit.api.BukkitAdaptors;
+import net.momirealms.craftengine.bukkit.plugin.user.BukkitServerPlayer;
 import net.momirealms.craftengine.bukkit.util.LightUtils;
+import net.momirealms.craftengine.bukkit.world.particle.BlockParticleEmitter;
+import net.momirealms.craftengine.core.entity.player.Player;
 import net.momirealms.craftengine.core.plugin.config.Config;
 import net.momirealms.craftengine.core.util.SectionPosUtils;
 import net.momirealms.craftengine.core.world.CEWorld;
@@ -13,13 +17,40 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BukkitCEWorld extends CEWorld {
+    private final BlockParticleEmitter particleEmitter;
 
     public BukkitCEWorld(World world, StorageAdaptor adaptor) {
         super(world, adaptor);
+        this.particleEmitter = new BlockParticleEmitter(world);
     }
 
     public BukkitCEWorld(World world, WorldDataStorage dataStorage) {
         super(world, dataStorage);
+        this.particleEmitter = new BlockParticleEmitter(world);
+    }
+
+    public BlockParticleEmitter particleEmitter() {
+        return this.particleEmitter;
+    }
+
+    @Override
+    public void syncTick() {
+        super.syncTick();
+        List<Player> players = new ArrayList<>();
+        for (org.bukkit.entity.Player player : ((org.bukkit.World) this.world.platformWorld()).getPlayers()) {
+            BukkitServerPlayer serverPlayer = BukkitAdaptors.adapt(player);
+            if (serverPlayer != null) {
+                players.add(serverPlayer);
+            }
+        }
+        this.particleEmitter.updatePlayers(players);
+    }
+
+    @Override
+    public void asyncTick() {
+        super.asyncTick();
+        // 发送方块实体在本tick产生的粒子
+        this.particleEmitter.flush();
     }
 
     @Override
@@ -19,6 +19,7 @@ import net.momirealms.craftengine.core.world.chunk.CEChunk;
 import net.momirealms.craftengine.core.world.chunk.CESection;
 import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
 import net.momirealms.craftengine.core.world.chunk.storage.DefaultStorageAdaptor;
+import net.momirealms.craftengine.core.world.chunk.storage.PrefetchedChunk;
 import net.momirealms.craftengine.core.world.chunk.storage.StorageAdaptor;
 import net.momirealms.craftengine.core.world.chunk.storage.WorldDataStorage;
 import org.bukkit.Bukkit;
@@ -125,9 +126,11 @@ public class BukkitWorldManager implements WorldManager, Listener {
         for (World world : Bukkit.getWorlds()) {
             CEWorld ceWorld = getWorld(world.getUID());
             ceWorld.setTicking(false);
+            ceWorld.chunkPrefetcher().clear();
             for (Chunk chunk : world.getLoadedChunks()) {
                 handleChunkUnload(ceWorld, chunk);
             }
+            ceWorld.chunkSaver().flush();
             try {
                 ceWorld.worldDataStorage().close();
             } catch (IOException e) {
@@ -232,9 +235,11 @@ public class BukkitWorldManager implements WorldManager, Listener {
         }
         this.resetWorldArray();
         ceWorld.setTicking(false);
+        ceWorld.chunkPrefetcher().clear();
         for (Chunk chunk : ((World) world.platformWorld()).getLoadedChunks()) {
             handleChunkUnload(ceWorld, chunk);
         }
+        ceWorld.chunkSaver().flush();
         if (uuid.equals(this.lastWorldUUID)) {
             this.lastWorld = null;
             this.lastWorldUUID = null;
@@ -278,13 +283,11 @@ public class BukkitWorldManager implements WorldManager, Listener {
     }
 
     private void handleChunkUnload(CEWorld world, Chunk chunk) {
-        ChunkPos pos = new ChunkPos(chunk.getX(), chunk.getZ());
         CEChunk ceChunk = world.getChunkAtIfLoaded(chunk.getX(), chunk.getZ());
         if (ceChunk != null) {
             if (ceChunk.dirty()) {
                 try {
-                    world.worldDataStorage().writeChunkAt(pos, ceChunk);
-                    ceChunk.setDirty(false);
+                    world.chunkSaver().save(ceChunk);
                 } catch (IOException e) {
                     this.plugin.logger().warn("Failed to write chunk tag at " + chunk.getX() + " " + chunk.getZ(), e);
                 }
@@ -332,16 +335,14 @@ public class BukkitWorldManager implements WorldManager, Listener {
         Object[] sections = FastNMS.INSTANCE.method$ChunkAccess$getSections(chunkAccess);
         CEChunk ceChunk;
         try {
+            // 丢弃等待保存的旧数据，新区块需要保存一次以覆盖可能仍在写入的旧数据
+            boolean unsaved = ceWorld.chunkSaver().takeUnsaved(chunkPos) != null;
             ceChunk = ceWorld.worldDataStorage().readNewChunkAt(ceWorld, chunkPos);
-            CESection[] ceSections = ceChunk.sections();
+            if (unsaved) {
+                ceChunk.setDirty(true);
+            }
             synchronized (sections) {
-                for (int i = 0; i < ceSections.length; i++) {
-                    CESection ceSection = ceSections[i];
-                    Object section = sections[i];
-                    int finalI = i;
-                    WorldStorageInjector.injectLevelChunkSection(section, ceSection, ceChunk, new SectionPos(chunkPos.x, ceChunk.sectionY(i), chunkPos.z),
-                            (injected) -> sections[finalI] = injected);
-                }
+                WorldStorageInjector.injectLevelChunkSections(sections, ceChunk.sections(), ceChunk);
             }
             ceChunk.load();
         } catch (IOException e) {
@@ -349,6 +350,23 @@ public class BukkitWorldManager implements WorldManager, Listener {
         }
     }
 
+    private CEChunk readChunk(CEWorld ceWorld, ChunkPos chunkPos) throws IOException {
+        // 还未写入的区块直接重新使用，无需等待写入
+        CEChunk unsaved = ceWorld.chunkSaver().takeUnsaved(chunkPos);
+        if (unsaved != null) {
+            unsaved.setDirty(true);
+            return unsaved;
+        }
+        if (Config.enableAsyncChunkLoading()) {
+            // 区块数据已在其他线程上读取并解码完毕
+            PrefetchedChunk prefetched = ceWorld.chunkPrefetcher().take(chunkPos);
+            if (prefetched != null) {
+                return ceWorld.worldDataStorage().readChunkAt(ceWorld, prefetched);
+            }
+        }
+        return ceWorld.worldDataStorage().readChunkAt(ceWorld, chunkPos);
+    }
+
     private void handleChunkLoad(CEWorld ceWorld, Chunk chunk, boolean isNew) {
         int chunkX = chunk.getX();
         int chunkZ = chunk.getZ();
@@ -362,7 +380,7 @@ public class BukkitWorldManager implements WorldManager, Listener {
         }
         CEChunk ceChunk;
         try {
-            ceChunk = ceWorld.worldDataStorage().readChunkAt(ceWorld, chunkPos);
+            ceChunk = readChunk(ceWorld, chunkPos);
             try {
                 CESection[] ceSections = ceChunk.sections();
                 Object worldServer = FastNMS.INSTANCE.field$CraftChunk$worldServer(chunk);
@@ -447,9 +465,7 @@ public class BukkitWorldManager implements WorldManager, Listener {
                                 }
                             }
                         }
-                        int finalI = i;
-                        WorldStorageInjector.injectLevelChunkSection(section, ceSection, ceChunk, new SectionPos(chunkPos.x, ceChunk.sectionY(i), chunkPos.z),
-                                (injected) -> sections[finalI] = injected);
+                        WorldStorageInjector.injectLevelChunkSection(sections, i, ceSection, ceChunk, new SectionPos(chunkPos.x, ceChunk.sectionY(i), chunkPos.z));
                     }
                 }
             } catch (ReflectiveOperationException e) {
@@ -0,0 +1,179 @@
+package net.momirealms.craftengine.bukkit.world.particle;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.momirealms.craftengine.bukkit.plugin.reflection.bukkit.CraftBukkitReflections;
+import net.momirealms.craftengine.bukkit.plugin.reflection.minecraft.NetworkReflections;
+import net.momirealms.craftengine.bukkit.util.ParticleUtils;
+import net.momirealms.craftengine.core.entity.player.Player;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.context.Context;
+import net.momirealms.craftengine.core.util.VersionHelper;
+import net.momirealms.craftengine.core.world.BlockPos;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.World;
+import net.momirealms.craftengine.core.world.particle.ParticleConfig;
+import org.bukkit.Particle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the particles emitted by blocks during one tick of a world, and sends them bundled into
+ * one packet per player for each chunk once the tick ends. Blocks with no player nearby don't emit anything.
+ * Except for {@link #updatePlayers(List)}, only used from the thread ticking the block entities of the world.
+ */
+public final class BlockParticleEmitter {
+    // 客户端会断开包含超过4096个数据包的bundle
+    private static final int MAX_BUNDLE_SIZE = 4096;
+    private final World world;
+    private final Long2ObjectOpenHashMap<Batch> batches = new Long2ObjectOpenHashMap<>();
+    private volatile PlayerPosition[] players = new PlayerPosition[0];
+    private Batch current;
+
+    public BlockParticleEmitter(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Takes a snapshot of the players in the world and their positions. Must be called on the main thread,
+     * so that the players are never read from the thread ticking the block entities.
+     */
+    public void updatePlayers(List<Player> players) {
+        PlayerPosition[] positions = new PlayerPosition[players.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Player player = players.get(i);
+            positions[i] = new PlayerPosition(player, player.x(), player.y(), player.z());
+        }
+        this.players = positions;
+    }
+
+    /**
+     * Selects the players close enough to see the particles of a block, which receive the particles emitted next.
+     *
+     * @return whether any player is close enough, if not the block should skip emitting particles
+     */
+    public boolean observe(BlockPos pos) {
+        long key = ChunkPos.asLong(pos.x() >> 4, pos.z() >> 4);
+        Batch batch = this.batches.get(key);
+        if (batch == null) {
+            batch = new Batch(this.players, pos.x() >> 4, pos.z() >> 4, Config.blockParticleViewDistance());
+            this.batches.put(key, batch);
+        }
+        this.current = batch;
+        double distance = Config.blockParticleViewDistance();
+        return batch.observe(pos.x() + 0.5, pos.y() + 0.5, pos.z() + 0.5, distance * distance);
+    }
+
+    /**
+     * Emits a particle to the players selected by the last {@link #observe(BlockPos)}.
+     */
+    public void emit(ParticleConfig particle, double x, double y, double z, Context context) {
+        Batch batch = this.current;
+        if (batch == null || batch.observerCount == 0) return;
+        Particle particleType = (Particle) particle.particleType.platformParticle();
+        if (particleType == null) return;
+        int count = particle.count.getInt(context);
+        float xOffset = particle.xOffset.getFloat(context);
+        float yOffset = particle.yOffset.getFloat(context);
+        float zOffset = particle.zOffset.getFloat(context);
+        float speed = particle.speed.getFloat(context);
+        Object data = particle.particleData == null ? null : ParticleUtils.toBukkitParticleData(particle.particleData, context, (org.bukkit.World) this.world.platformWorld(), x, y, z);
+        try {
+            Object options = CraftBukkitReflections.method$CraftParticle$createParticleParam.invoke(null, particleType, data);
+            Object packet = VersionHelper.isOrAbove1_21_4() ?
+                    NetworkReflections.constructor$ClientboundLevelParticlesPacket$fields.newInstance(options, false, false, x, y, z, xOffset, yOffset, zOffset, speed, count) :
+                    NetworkReflections.constructor$ClientboundLevelParticlesPacket$fields.newInstance(options, false, x, y, z, xOffset, yOffset, zOffset, speed, count);
+            batch.add(packet);
+        } catch (ReflectiveOperationException e) {
+            CraftEngine.instance().logger().warn("Failed to create particle packet for " + particleType, e);
+        }
+    }
+
+    /**
+     * Sends the particles emitted during this tick.
+     */
+    public void flush() {
+        this.current = null;
+        if (this.batches.isEmpty()) return;
+        for (Batch batch : this.batches.values()) {
+            batch.send();
+        }
+        this.batches.clear();
+    }
+
+    private static final class Batch {
+        private final Viewer[] viewers;
+        // 当前方块附近的玩家
+        private final int[] observers;
+        private int observerCount;
+
+        private Batch(PlayerPosition[] players, int chunkX, int chunkZ, double distance) {
+            // 只保留可能看到该区块内粒子的玩家
+            double minX = (chunkX << 4) - distance;
+            double minZ = (chunkZ << 4) - distance;
+            double maxX = (chunkX << 4) + 16 + distance;
+            double maxZ = (chunkZ << 4) + 16 + distance;
+            List<Viewer> viewers = new ArrayList<>();
+            for (PlayerPosition player : players) {
+                if (player.x >= minX && player.x <= maxX && player.z >= minZ && player.z <= maxZ) {
+                    viewers.add(new Viewer(player.player, player.x, player.y, player.z));
+                }
+            }
+            this.viewers = viewers.toArray(new Viewer[0]);
+            this.observers = new int[this.viewers.length];
+        }
+
+        private boolean observe(double x, double y, double z, double distanceSquared) {
+            this.observerCount = 0;
+            for (int i = 0; i < this.viewers.length; i++) {
+                Viewer viewer = this.viewers[i];
+                double dx = viewer.x - x;
+                double dy = viewer.y - y;
+                double dz = viewer.z - z;
+                if (dx * dx + dy * dy + dz * dz <= distanceSquared) {
+                    this.observers[this.observerCount++] = i;
+                }
+            }
+            return this.observerCount > 0;
+        }
+
+        private void add(Object packet) {
+            for (int i = 0; i < this.observerCount; i++) {
+                Viewer viewer = this.viewers[this.observers[i]];
+                if (viewer.packets == null) {
+                    viewer.packets = new ArrayList<>();
+                }
+                viewer.packets.add(packet);
+            }
+        }
+
+        private void send() {
+            for (Viewer viewer : this.viewers) {
+                List<Object> packets = viewer.packets;
+                if (packets == null) continue;
+                for (int i = 0, size = packets.size(); i < size; i += MAX_BUNDLE_SIZE) {
+                    viewer.player.sendPackets(packets.subList(i, Math.min(size, i + MAX_BUNDLE_SIZE)), false);
+                }
+            }
+        }
+    }
+
+    private record PlayerPosition(Player player, double x, double y, double z) {
+    }
+
+    private static final class Viewer {
+        private final Player player;
+        private final double x;
+        private final double y;
+        private final double z;
+        private List<Object> packets;
+
+        private Viewer(Player player, double x, double y, double z) {
+            this.player = player;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+}
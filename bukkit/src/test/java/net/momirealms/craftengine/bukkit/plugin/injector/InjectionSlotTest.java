@@ -0,0 +1,140 @@
+package net.momirealms.craftengine.bukkit.plugin.injector;
+
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Injects the same sections from many threads at once, like chunk loads on several region threads,
+ * and checks that each section ends up with exactly one injected object that every caller bound.
+ */
+public class InjectionSlotTest {
+    private static final int THREADS = 8;
+    private static final int SLOTS = 2048;
+
+    @RepeatedTest(5)
+    public void injectSectionArray() throws Exception {
+        AtomicReferenceArray<Object> sections = new AtomicReferenceArray<>(SLOTS);
+        List<InjectionSlot> slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            sections.set(i, new Original(i));
+            int index = i;
+            slots.add(new InjectionSlot() {
+                @Override
+                public Object get() {
+                    return sections.get(index);
+                }
+
+                @Override
+                public boolean compareAndSet(Object expected, Object replacement) {
+                    return sections.compareAndSet(index, expected, replacement);
+                }
+            });
+        }
+        this.stress(slots, i -> sections.get(i));
+    }
+
+    // 与字段为final时的写入方式相同
+    @RepeatedTest(5)
+    public void injectFinalStates() throws Exception {
+        List<LockedSlot> slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new LockedSlot(new Original(i)));
+        }
+        this.stress(slots, i -> slots.get(i).value);
+    }
+
+    private void stress(List<? extends InjectionSlot> slots, IntFunction<Object> installed) throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        Injected[][] results = new Injected[THREADS][SLOTS];
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // 每个线程按不同顺序访问，增加竞争的位置
+                    for (int n = 0; n < SLOTS; n++) {
+                        int i = (n * (2 * thread + 1) + thread * 97) % SLOTS;
+                        results[thread][i] = inject(slots.get(i), created);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            Injected injected = assertInstanceOf(Injected.class, installed.apply(i));
+            assertEquals(i, injected.original.index(), "injected object wraps another section");
+            // 每个线程只绑定一次最终安装的对象
+            assertEquals(THREADS, injected.bound.get(), "some callers did not bind the installed object");
+            for (int t = 0; t < THREADS; t++) {
+                assertSame(injected, results[t][i], "caller got an object that was not installed");
+            }
+        }
+        assertTrue(created.get() >= SLOTS);
+    }
+
+    private static Injected inject(InjectionSlot slot, AtomicInteger created) {
+        try {
+            return InjectionSlot.inject(slot, Injected.class, original -> {
+                created.incrementAndGet();
+                Thread.onSpinWait();
+                return new Injected((Original) original);
+            }, Injected::bind);
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private record Original(int index) {
+    }
+
+    private static final class Injected {
+        private final Original original;
+        private final AtomicInteger bound = new AtomicInteger();
+
+        private Injected(Original original) {
+            this.original = original;
+        }
+
+        private void bind() {
+            this.bound.incrementAndGet();
+        }
+    }
+
+    private static final class LockedSlot implements InjectionSlot {
+        private Object value;
+
+        private LockedSlot(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public synchronized Object get() {
+            return this.value;
+        }
+
+        @Override
+        public synchronized boolean compareAndSet(Object expected, Object replacement) {
+            if (this.value != expected) {
+                return false;
+            }
+            this.value = replacement;
+            return true;
+        }
+    }
+}
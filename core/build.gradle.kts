@@ -1,6 +1,7 @@
 plugins {
     id("com.gradleup.shadow") version "9.3.0"
     id("maven-publish")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 repositories {
@@ -73,6 +74,16 @@ dependencies {
     compileOnly("com.bucket4j:bucket4j_jdk17-core:${rootProject.properties["bucket4j_version"]}")
 }
 
+// 基准测试需要插件运行时提供的依赖
+configurations.named("jmh") {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+jmh {
+    jmhVersion = rootProject.properties["jmh_version"].toString()
+    includes.addAll(providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(listOf()))
+}
+
 java {
     sourceCompatibility = JavaVersion.VERSION_21
     targetCompatibility = JavaVersion.VERSION_21
@@ -0,0 +1,10 @@
+package net.minecraft.server;
+
+/**
+ * Stands in for the server entry point, so that {@code VersionHelper} can find the {@code version.json}
+ * next to it when benchmarks run without a server jar.
+ */
+public final class Main {
+
+    private Main() {}
+}
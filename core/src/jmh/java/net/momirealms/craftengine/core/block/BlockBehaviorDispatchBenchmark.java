@@ -0,0 +1,179 @@
+package net.momirealms.craftengine.core.block;
+
+import net.momirealms.craftengine.core.util.ObjectHolder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the typed behavior methods with the previous {@code Object[]} + {@link Callable} dispatch,
+ * for a behavior that falls back to the vanilla method and one that answers on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+UseParallelGC")
+public class BlockBehaviorDispatchBenchmark {
+    private final Object state = new Object();
+    private final Object level = new Object();
+    private final Object pos = new Object();
+    private final Object random = new Object();
+    private FakeBlock block;
+    private BlockBehavior fallback;
+    private BlockBehavior custom;
+    private LegacyBehavior legacyFallback;
+    private LegacyBehavior legacyCustom;
+
+    @Setup
+    public void setup() {
+        this.block = new FakeBlock();
+        this.fallback = new TypedBehavior(false);
+        this.custom = new TypedBehavior(true);
+        this.legacyFallback = new LegacyBehavior(false);
+        this.legacyCustom = new LegacyBehavior(true);
+    }
+
+    @Benchmark
+    public void typedFallback(Blackhole blackhole) throws Exception {
+        blackhole.consume(this.fallback.canSurvive(this.block, this.state, this.level, this.pos));
+        this.fallback.tick(this.block, this.state, this.level, this.pos, this.random);
+    }
+
+    @Benchmark
+    public void typedCustom(Blackhole blackhole) throws Exception {
+        blackhole.consume(this.custom.canSurvive(this.block, this.state, this.level, this.pos));
+        this.custom.tick(this.block, this.state, this.level, this.pos, this.random);
+    }
+
+    @Benchmark
+    public void legacyFallback(Blackhole blackhole) throws Exception {
+        blackhole.consume(this.legacyCanSurvive(this.legacyFallback, this.state, this.level, this.pos));
+        this.legacyTick(this.legacyFallback, this.state, this.level, this.pos, this.random);
+    }
+
+    @Benchmark
+    public void legacyCustom(Blackhole blackhole) throws Exception {
+        blackhole.consume(this.legacyCanSurvive(this.legacyCustom, this.state, this.level, this.pos));
+        this.legacyTick(this.legacyCustom, this.state, this.level, this.pos, this.random);
+    }
+
+    // 与之前的拦截器相同，每次调用都创建参数数组和回调
+    private boolean legacyCanSurvive(LegacyBehavior behavior, Object state, Object level, Object pos) throws Exception {
+        Object[] args = new Object[] {state, level, pos};
+        return behavior.canSurvive(this.block, args, () -> this.block.superCanSurvive(args[0], args[1], args[2]));
+    }
+
+    private void legacyTick(LegacyBehavior behavior, Object state, Object level, Object pos, Object random) throws Exception {
+        Object[] args = new Object[] {state, level, pos, random};
+        behavior.tick(this.block, args, () -> {
+            this.block.superTick(args[0], args[1], args[2], args[3]);
+            return null;
+        });
+    }
+
+    private static class TypedBehavior extends BlockBehavior {
+        private final boolean custom;
+
+        private TypedBehavior(boolean custom) {
+            this.custom = custom;
+        }
+
+        @Override
+        public boolean canSurvive(Object thisBlock, Object state, Object world, Object pos) throws Exception {
+            if (this.custom) {
+                return state != pos;
+            }
+            return super.canSurvive(thisBlock, state, world, pos);
+        }
+
+        @Override
+        public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
+            if (this.custom) {
+                ((FakeBlock) thisBlock).ticks++;
+                return;
+            }
+            super.tick(thisBlock, state, level, pos, random);
+        }
+
+        @Override
+        public CustomBlock block() {
+            return null;
+        }
+    }
+
+    private static class LegacyBehavior {
+        private final boolean custom;
+
+        private LegacyBehavior(boolean custom) {
+            this.custom = custom;
+        }
+
+        private boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+            if (this.custom) {
+                return args[0] != args[2];
+            }
+            return (boolean) superMethod.call();
+        }
+
+        private void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
+            if (this.custom) {
+                ((FakeBlock) thisBlock).ticks++;
+                return;
+            }
+            superMethod.call();
+        }
+    }
+
+    private static class FakeBlock implements DelegatingBlock {
+        private int ticks;
+
+        @Override
+        public ObjectHolder<BlockShape> shapeDelegate() {
+            return null;
+        }
+
+        @Override
+        public ObjectHolder<BlockBehavior> behaviorDelegate() {
+            return null;
+        }
+
+        @Override
+        public void superTick(Object state, Object level, Object pos, Object random) {
+            this.ticks++;
+        }
+
+        @Override
+        public void superRandomTick(Object state, Object level, Object pos, Object random) {
+            this.ticks++;
+        }
+
+        @Override
+        public boolean superCanSurvive(Object state, Object world, Object pos) {
+            return state != world;
+        }
+
+        @Override
+        public boolean superIsPathFindable(Object state, Object world, Object pos, Object type) {
+            return false;
+        }
+
+        @Override
+        public Object superUpdateShape(Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) {
+            return state;
+        }
+
+        @Override
+        public boolean isNoteBlock() {
+            return false;
+        }
+
+        @Override
+        public boolean isTripwire() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.momirealms.craftengine.core.entity.furniture;
+
+import ca.spottedleaf.concurrentutil.map.ConcurrentLong2ReferenceChainedHashTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the boxed {@link ConcurrentHashMap} furniture indexes with the primitive keyed table
+ * at the sizes of a server with many furniture. Each furniture is indexed by several entity ids,
+ * like its meta entity, virtual entities and colliders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class FurnitureIndexBenchmark {
+    private static final int IDS_PER_FURNITURE = 4;
+    @Param({"10000", "50000"})
+    public int furniture;
+    private int[] ids;
+    private Map<Integer, Object> boxed;
+    private ConcurrentLong2ReferenceChainedHashTable<Object> primitive;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(0);
+        this.ids = new int[this.furniture * IDS_PER_FURNITURE];
+        this.boxed = new ConcurrentHashMap<>(this.ids.length);
+        this.primitive = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(this.ids.length, 0.5f);
+        // 实体id递增分配，但会被其他实体打断
+        int id = 1000;
+        for (int i = 0; i < this.ids.length; i++) {
+            id += 1 + random.nextInt(8);
+            Object value = new Object();
+            this.ids[i] = id;
+            this.boxed.put(id, value);
+            this.primitive.put(id, value);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom();
+
+        private int nextIndex(int bound) {
+            return this.random.nextInt(bound);
+        }
+    }
+
+    // 网络线程在每个实体数据包上的查询，同时包含家具与非家具实体
+    @Benchmark
+    public void boxedLookup(Cursor cursor, Blackhole blackhole) {
+        int id = this.ids[cursor.nextIndex(this.ids.length)];
+        blackhole.consume(this.boxed.get(id));
+        blackhole.consume(this.boxed.get(-id));
+    }
+
+    @Benchmark
+    public void primitiveLookup(Cursor cursor, Blackhole blackhole) {
+        int id = this.ids[cursor.nextIndex(this.ids.length)];
+        blackhole.consume(this.primitive.get(id));
+        blackhole.consume(this.primitive.get(-id));
+    }
+
+    // 家具进出玩家视野时的更新
+    @Benchmark
+    public Object boxedChurn(Cursor cursor) {
+        int id = this.ids[cursor.nextIndex(this.ids.length)];
+        Object value = this.boxed.remove(id);
+        if (value != null) {
+            this.boxed.put(id, value);
+        }
+        return value;
+    }
+
+    @Benchmark
+    public Object primitiveChurn(Cursor cursor) {
+        int id = this.ids[cursor.nextIndex(this.ids.length)];
+        Object value = this.primitive.remove(id);
+        if (value != null) {
+            this.primitive.put(id, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+package net.momirealms.craftengine.core.plugin.context.expression;
+
+import com.ezylang.evalex.Expression;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.momirealms.craftengine.core.plugin.context.AbstractCommonContext;
+import net.momirealms.craftengine.core.plugin.context.ContextHolder;
+import net.momirealms.craftengine.core.plugin.context.ContextKey;
+import net.momirealms.craftengine.core.util.AdventureHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CompiledExpression} with evaluating the expression through MiniMessage and parsing it again,
+ * which is what {@code ExpressionNumberProvider} does for dynamic expressions. A new context is created
+ * for every evaluation, like a particle emission or a loot roll does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExpressionBenchmark {
+    @Param({
+            // 粒子
+            "<arg:count> * 0.25 + 1",
+            "sin(<arg:tick> / 10) * 0.5",
+            "0.3 * 2",
+            // 战利品
+            "min(<arg:count> + <arg:fortune:0>, 64)"
+    })
+    public String expression;
+    private CompiledExpression compiled;
+    private ContextHolder holder;
+
+    @Setup
+    public void setup() {
+        this.compiled = CompiledExpression.compile(this.expression);
+        if (this.compiled.isDynamic()) {
+            throw new IllegalStateException("Expression should be compiled: " + this.expression);
+        }
+        this.holder = ContextHolder.builder()
+                .withParameter(ContextKey.direct("count"), 3)
+                .withParameter(ContextKey.direct("tick"), 42L)
+                .build();
+    }
+
+    @Benchmark
+    public BigDecimal compiled() throws Exception {
+        return this.compiled.evaluate(new BenchmarkContext(this.holder)).getNumberValue();
+    }
+
+    @Benchmark
+    public BigDecimal miniMessage() throws Exception {
+        Component component = AdventureHelper.customMiniMessage().deserialize(this.expression, new BenchmarkContext(this.holder).tagResolvers());
+        return new Expression(AdventureHelper.plainTextContent(component)).evaluate().getNumberValue();
+    }
+
+    // 外部标签需要插件实例
+    private static class BenchmarkContext extends AbstractCommonContext {
+
+        private BenchmarkContext(ContextHolder contexts) {
+            super(contexts);
+        }
+
+        @Override
+        protected TagResolver[] getExternalTagResolvers() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.momirealms.craftengine.core.world.chunk.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.momirealms.craftengine.core.util.FriendlyByteBuf;
+import net.momirealms.craftengine.core.util.IntIdentityList;
+import net.momirealms.craftengine.core.util.MiscUtils;
+import net.momirealms.craftengine.core.world.chunk.Palette;
+import net.momirealms.craftengine.core.world.chunk.PaletteStorage;
+import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
+import net.momirealms.craftengine.core.world.chunk.client.ClientSectionOcclusionStorage;
+import net.momirealms.craftengine.core.world.chunk.client.OcclusionTable;
+import net.momirealms.craftengine.core.world.chunk.client.PackedOcclusionStorage;
+import net.momirealms.craftengine.core.world.chunk.client.SingularOcclusionStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ChunkSectionRewriter} with materializing every section as an {@link MCSection},
+ * which is what the chunk listener did before and still does when biomes are remapped.
+ * Every section of a chunk uses the same kind of palette, and occlusion data is collected like with
+ * ray traced entity culling enabled. Both paths are checked to produce the same bytes before measuring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChunkPaletteRewriteBenchmark {
+    private static final int SECTIONS = 24;
+    private static final int VANILLA_STATES = 29_000;
+    private static final int CUSTOM_STATES = 3_000;
+    private static final IntIdentityList SERVER_BLOCKS = new IntIdentityList(VANILLA_STATES + CUSTOM_STATES);
+    private static final IntIdentityList CLIENT_BLOCKS = new IntIdentityList(VANILLA_STATES);
+    private static final IntIdentityList BIOMES = new IntIdentityList(64);
+    /**
+     * single: stone below and air above, one state per section
+     * linear: 8 states per section
+     * hashmap: 100 states per section
+     * global: 400 states per section
+     */
+    @Param({"single", "linear", "hashmap", "global"})
+    public String palette;
+    /**
+     * Whether the chunk contains custom blocks that need remapping
+     */
+    @Param({"true", "false"})
+    public boolean custom;
+    private final int[] remapper = new int[VANILLA_STATES + CUSTOM_STATES];
+    private OcclusionTable occlusionTable;
+    private ByteBuf chunkData;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 自定义方块状态映射到原版方块状态上
+        for (int i = 0; i < this.remapper.length; i++) {
+            this.remapper[i] = i < VANILLA_STATES ? i : 1000 + (i - VANILLA_STATES) % 800;
+        }
+        this.occlusionTable = OcclusionTable.of(this.remapper.length, i -> i % 3 != 0);
+        SplittableRandom random = new SplittableRandom(this.palette.hashCode());
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        for (int i = 0; i < SECTIONS; i++) {
+            PalettedContainer<Integer> blocks = new PalettedContainer<>(SERVER_BLOCKS, 0, PalettedContainer.PaletteProvider.BLOCK_STATE);
+            int[] states = this.sectionStates(i, random);
+            int nonEmpty = 0;
+            for (int j = 0; j < 4096; j++) {
+                int state = states.length == 1 ? states[0] : states[random.nextInt(states.length)];
+                blocks.set(j, state);
+                if (state != 0) {
+                    nonEmpty++;
+                }
+            }
+            buf.writeShort(nonEmpty);
+            blocks.writePacket(buf);
+            new PalettedContainer<>(BIOMES, random.nextInt(64), PalettedContainer.PaletteProvider.BIOME).writePacket(buf);
+        }
+        this.chunkData = buf.asReadOnly();
+        byte[] streamed = this.stream(new ClientSectionOcclusionStorage[SECTIONS]);
+        byte[] materialized = this.materialize(new ClientSectionOcclusionStorage[SECTIONS]);
+        if (!Arrays.equals(streamed, materialized)) {
+            throw new IllegalStateException("Rewritten chunk data differs for " + this.palette);
+        }
+        System.out.printf("%n[%s, custom=%s] %d bytes, %s%n", this.palette, this.custom, this.chunkData.readableBytes(),
+                streamed == null ? "unchanged" : "rewritten to " + streamed.length + " bytes");
+    }
+
+    private int[] sectionStates(int section, SplittableRandom random) {
+        if (this.palette.equals("single")) {
+            if (this.custom && section == 4) {
+                return new int[] {VANILLA_STATES + 7};
+            }
+            return new int[] {section < 8 ? 1 : 0};
+        }
+        int size = switch (this.palette) {
+            case "linear" -> 8;
+            case "hashmap" -> 100;
+            case "global" -> 400;
+            default -> throw new IllegalArgumentException(this.palette);
+        };
+        int[] states = new int[size];
+        for (int i = 0; i < size; i++) {
+            // 约十分之一为自定义方块
+            states[i] = this.custom && i % 10 == 9 ? VANILLA_STATES + random.nextInt(CUSTOM_STATES) : random.nextInt(VANILLA_STATES);
+        }
+        return states;
+    }
+
+    @Benchmark
+    public byte[] streaming(Blackhole blackhole) {
+        ClientSectionOcclusionStorage[] occlusions = new ClientSectionOcclusionStorage[SECTIONS];
+        blackhole.consume(occlusions);
+        return this.stream(occlusions);
+    }
+
+    @Benchmark
+    public byte[] materialized(Blackhole blackhole) {
+        ClientSectionOcclusionStorage[] occlusions = new ClientSectionOcclusionStorage[SECTIONS];
+        blackhole.consume(occlusions);
+        return this.materialize(occlusions);
+    }
+
+    private byte[] stream(ClientSectionOcclusionStorage[] occlusions) {
+        ByteBuf chunkData = this.chunkData.duplicate();
+        FriendlyByteBuf out = new FriendlyByteBuf(Unpooled.buffer(chunkData.readableBytes() + 16));
+        boolean changed = ChunkSectionRewriter.rewrite(new FriendlyByteBuf(chunkData), SECTIONS, this.remapper,
+                MiscUtils.ceilLog2(CLIENT_BLOCKS.size()), this.occlusionTable, occlusions, out);
+        return changed ? Arrays.copyOf(out.array(), out.writerIndex()) : null;
+    }
+
+    // 与BukkitNetworkManager中完整解析的路径相同，不包含生物群系重定向
+    private byte[] materialize(ClientSectionOcclusionStorage[] occlusions) {
+        byte[] chunkDataBytes = ByteBufUtil.getBytes(this.chunkData);
+        MCSection[] sections = new MCSection[SECTIONS];
+        FriendlyByteBuf in = new FriendlyByteBuf(Unpooled.wrappedBuffer(chunkDataBytes));
+        boolean changed = false;
+        boolean hasGlobalPalette = false;
+        for (int i = 0; i < SECTIONS; i++) {
+            MCSection section = new MCSection(CLIENT_BLOCKS, SERVER_BLOCKS, BIOMES);
+            section.readPacket(in);
+            PalettedContainer<Integer> container = section.blockStateContainer();
+            Palette<Integer> palette = container.data().palette();
+            if (palette.canRemap()) {
+                if (palette.remapAndCheck(s -> this.remapper[s])) {
+                    changed = true;
+                }
+                int size = palette.getSize();
+                if (size == 1) {
+                    occlusions[i] = new SingularOcclusionStorage(this.occlusionTable.test(palette.get(0)));
+                } else {
+                    boolean hasOcclusions = false;
+                    boolean hasNoOcclusions = false;
+                    long[] occludingValues = new long[(size + 63) >>> 6];
+                    for (int h = 0; h < size; h++) {
+                        if (this.occlusionTable.test(palette.get(h))) {
+                            occludingValues[h >>> 6] |= 1L << h;
+                            hasOcclusions = true;
+                        } else {
+                            hasNoOcclusions = true;
+                        }
+                    }
+                    if (hasOcclusions && hasNoOcclusions) {
+                        PaletteStorage storage = container.data().storage();
+                        long[] data = storage.getData();
+                        occlusions[i] = PackedOcclusionStorage.fromPackedData(storage.getElementBits(), l -> data[l], occludingValues);
+                    } else {
+                        occlusions[i] = new SingularOcclusionStorage(hasOcclusions);
+                    }
+                }
+            } else {
+                hasGlobalPalette = true;
+                PaletteStorage storage = container.data().storage();
+                long[] data = storage.getData();
+                occlusions[i] = PackedOcclusionStorage.fromPackedData(storage.getElementBits(), l -> data[l], this.occlusionTable);
+                for (int j = 0; j < 4096; j++) {
+                    int state = container.get(j);
+                    int newState = this.remapper[state];
+                    if (newState != state) {
+                        container.set(j, newState);
+                        changed = true;
+                    }
+                }
+            }
+            sections[i] = section;
+        }
+        boolean needsDowngrade = MiscUtils.ceilLog2(CLIENT_BLOCKS.size()) != MiscUtils.ceilLog2(SERVER_BLOCKS.size());
+        if (!changed && !(needsDowngrade && hasGlobalPalette)) {
+            return null;
+        }
+        FriendlyByteBuf out = new FriendlyByteBuf(Unpooled.buffer(chunkDataBytes.length + 16));
+        for (MCSection section : sections) {
+            section.writePacket(out);
+        }
+        return Arrays.copyOf(out.array(), out.writerIndex());
+    }
+}
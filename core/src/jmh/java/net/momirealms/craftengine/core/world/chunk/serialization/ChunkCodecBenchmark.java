@@ -0,0 +1,189 @@
+package net.momirealms.craftengine.core.world.chunk.serialization;
+
+import io.netty.buffer.Unpooled;
+import net.momirealms.craftengine.core.block.CustomBlock;
+import net.momirealms.craftengine.core.block.EmptyBlock;
+import net.momirealms.craftengine.core.block.ImmutableBlockState;
+import net.momirealms.craftengine.core.block.InactiveCustomBlock;
+import net.momirealms.craftengine.core.registry.BuiltInRegistries;
+import net.momirealms.craftengine.core.registry.Holder;
+import net.momirealms.craftengine.core.registry.WritableRegistry;
+import net.momirealms.craftengine.core.util.FriendlyByteBuf;
+import net.momirealms.craftengine.core.util.Key;
+import net.momirealms.craftengine.core.util.ResourceKey;
+import net.momirealms.craftengine.core.world.BlockPos;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.chunk.CESection;
+import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
+import net.momirealms.sparrow.nbt.CompoundTag;
+import net.momirealms.sparrow.nbt.ListTag;
+import net.momirealms.sparrow.nbt.NBT;
+import net.momirealms.sparrow.nbt.Tag;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the NBT chunk format with the compact one: encode and decode time per chunk,
+ * and the size of a chunk, printed once per layout, both raw and deflated.
+ * Decoding stops at the sections, block states are resolved through a prefilled map in both formats
+ * since the real resolver needs a loaded plugin.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChunkCodecBenchmark {
+    private static final int SECTIONS = 24;
+    private static final int STATES_PER_BLOCK = 8;
+    private static final List<InactiveCustomBlock> BLOCKS = new ArrayList<>();
+    private static final ChunkPos POS = new ChunkPos(12, -7);
+    /**
+     * sparse: a few decorations in one section
+     * mixed: builds spread over four sections
+     * dense: every block of eight sections is custom, with many states
+     */
+    @Param({"sparse", "mixed", "dense"})
+    public String layout;
+    private CESection[] sections;
+    private ListTag blockEntities;
+    private List<BlockPos> blockEntityRenderers;
+    private final Map<CompoundTag, ImmutableBlockState> resolvedStates = new HashMap<>();
+    private byte[] nbtBytes;
+    private byte[] compactBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int sectionCount;
+        int blocksPerSection;
+        int stateCount;
+        switch (this.layout) {
+            case "sparse" -> { sectionCount = 1; blocksPerSection = 24; stateCount = 4; }
+            case "mixed" -> { sectionCount = 4; blocksPerSection = 600; stateCount = 24; }
+            case "dense" -> { sectionCount = 8; blocksPerSection = 4096; stateCount = 160; }
+            default -> throw new IllegalArgumentException(this.layout);
+        }
+        ImmutableBlockState[] states = new ImmutableBlockState[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            states[i] = state(i);
+            this.resolvedStates.put(states[i].getNbtToSave(), states[i]);
+        }
+        SplittableRandom random = new SplittableRandom(this.layout.hashCode());
+        this.sections = new CESection[SECTIONS];
+        for (int i = 0; i < sectionCount; i++) {
+            PalettedContainer<ImmutableBlockState> container = new PalettedContainer<>(null, EmptyBlock.STATE, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE);
+            for (int j = 0; j < blocksPerSection; j++) {
+                int index = blocksPerSection == 4096 ? j : random.nextInt(4096);
+                container.set(index, states[random.nextInt(stateCount)]);
+            }
+            int sectionIndex = 4 + i * 2;
+            this.sections[sectionIndex] = new CESection(sectionIndex - 4, container);
+        }
+        this.blockEntities = new ListTag();
+        this.blockEntityRenderers = new ArrayList<>();
+        for (int i = 0; i < sectionCount * 4; i++) {
+            int x = (POS.x << 4) + random.nextInt(16);
+            int y = random.nextInt(sectionCount * 32);
+            int z = (POS.z << 4) + random.nextInt(16);
+            CompoundTag blockEntity = new CompoundTag();
+            blockEntity.putString("id", "craftengine:simple_storage");
+            blockEntity.putInt("x", x);
+            blockEntity.putInt("y", y);
+            blockEntity.putInt("z", z);
+            this.blockEntities.add(blockEntity);
+            this.blockEntityRenderers.add(new BlockPos(x, y, z));
+        }
+        this.nbtBytes = this.encodeNbt();
+        this.compactBytes = this.encodeCompact();
+        System.out.printf("%n[%s] nbt: %d bytes (%d deflated), compact: %d bytes (%d deflated)%n", this.layout,
+                this.nbtBytes.length, deflatedSize(this.nbtBytes), this.compactBytes.length, deflatedSize(this.compactBytes));
+    }
+
+    @Benchmark
+    public byte[] encodeNbt() throws IOException {
+        CompoundTag tag = DefaultChunkSerializer.serialize(this.sections, this.blockEntities, DefaultBlockEntityRendererSerializer.serialize(this.blockEntityRenderers));
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        NBT.writeCompound(tag, new DataOutputStream(out), false);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() {
+        return CompactChunkSerializer.serialize(this.sections, this.blockEntities, this.blockEntityRenderers);
+    }
+
+    // 与DefaultChunkSerializer.deserializeSections相同，每个区段的调色板分别解析
+    @Benchmark
+    public void decodeNbt(Blackhole blackhole) throws IOException {
+        CompoundTag chunk = NBT.readCompound(new DataInputStream(new ByteArrayInputStream(this.nbtBytes)), false);
+        ListTag sections = chunk.getList("sections");
+        for (int i = 0, size = sections.size(); i < size; i++) {
+            CompoundTag blockStates = sections.getCompound(i).getCompound("block_states");
+            ListTag palette = blockStates.getList("palette");
+            List<ImmutableBlockState> entries = new ArrayList<>(palette.size());
+            for (Tag tag : palette) {
+                entries.add(this.resolvedStates.get((CompoundTag) tag));
+            }
+            blackhole.consume(PalettedContainer.read(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE, entries, blockStates.getLongArray("data")));
+        }
+        blackhole.consume(chunk.getList("block_entities"));
+        blackhole.consume(DefaultBlockEntityRendererSerializer.deserialize(POS, chunk.getList("block_entity_renderers")));
+    }
+
+    // 与CompactChunkSerializer.deserializeSections相同，字典中的每种方块状态只解析一次
+    @Benchmark
+    public void decodeCompact(Blackhole blackhole) throws IOException {
+        CompactChunkSerializer.Decoded decoded = CompactChunkSerializer.read(new FriendlyByteBuf(Unpooled.wrappedBuffer(this.compactBytes)), POS);
+        ImmutableBlockState[] states = new ImmutableBlockState[decoded.dictionary().length];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = this.resolvedStates.get(decoded.dictionary()[i]);
+        }
+        for (CompactChunkSerializer.DecodedSection section : decoded.sections()) {
+            List<ImmutableBlockState> entries = new ArrayList<>(section.palette().length);
+            for (int index : section.palette()) {
+                entries.add(states[index]);
+            }
+            blackhole.consume(PalettedContainer.read(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE, entries, section.data()));
+        }
+        blackhole.consume(decoded.blockEntities());
+        blackhole.consume(decoded.blockEntityRenderers());
+    }
+
+    // 与解析未知方块时相同，注册为未激活的方块
+    private static synchronized ImmutableBlockState state(int index) {
+        int blockIndex = index / STATES_PER_BLOCK;
+        while (BLOCKS.size() <= blockIndex) {
+            Key key = Key.of("benchmark", "block_" + BLOCKS.size());
+            Holder.Reference<CustomBlock> holder = ((WritableRegistry<CustomBlock>) BuiltInRegistries.BLOCK).registerForHolder(ResourceKey.create(BuiltInRegistries.BLOCK.key().location(), key));
+            InactiveCustomBlock block = new InactiveCustomBlock(holder);
+            holder.bindValue(block);
+            BLOCKS.add(block);
+        }
+        CompoundTag properties = new CompoundTag();
+        properties.putString("facing", index % 2 == 0 ? "north" : "east");
+        properties.putString("age", String.valueOf(index % STATES_PER_BLOCK));
+        return BLOCKS.get(blockIndex).getBlockState(properties);
+    }
+
+    private static int deflatedSize(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            int size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -41,6 +41,7 @@ import net.momirealms.craftengine.core.registry.WritableRegistry;
 import net.momirealms.craftengine.core.util.*;
 import net.momirealms.craftengine.core.world.Glowing;
 import net.momirealms.craftengine.core.world.collision.AABB;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultSectionSerializer;
 import net.momirealms.sparrow.nbt.CompoundTag;
 import org.incendo.cloud.suggestion.Suggestion;
 import org.jetbrains.annotations.NotNull;
@@ -214,6 +215,7 @@ public abstract class AbstractBlockManager extends AbstractModelGenerator implem
         Arrays.fill(this.tempVanillaBlockStateModels, null);
         this.tempVisualBlockStatesInUse.clear();
         this.tempVisualBlocksInUse.clear();
+        DefaultSectionSerializer.invalidateStateCache();
     }
 
     protected void initSuggestions() {
@@ -446,10 +448,13 @@ public abstract class AbstractBlockManager extends AbstractModelGenerator implem
             boolean singleState = !stateSection.containsKey("properties");
             // 读取方块的property，通过property决定
             Map<String, Property<?>> properties = singleState ? Map.of() : parseBlockProperties(ResourceConfigUtils.getAsMap(ResourceConfigUtils.requireNonNullOrThrow(stateSection.get("properties"), "warning.config.block.state.missing_properties"), "properties"));
-            // 注册方块容器
-            Holder.Reference<CustomBlock> holder = ((WritableRegistry<CustomBlock>) BuiltInRegistries.BLOCK).getOrRegisterForHolder(ResourceKey.create(BuiltInRegistries.BLOCK.key().location(), id));
-            // 先绑定无效方块
-            holder.bindValue(new InactiveCustomBlock(holder));
+            // 注册方块容器，与区块解析时注册的无效方块使用同一把锁
+            Holder.Reference<CustomBlock> holder;
+            synchronized (BuiltInRegistries.BLOCK) {
+                holder = ((WritableRegistry<CustomBlock>) BuiltInRegistries.BLOCK).getOrRegisterForHolder(ResourceKey.create(BuiltInRegistries.BLOCK.key().location(), id));
+                // 先绑定无效方块
+                holder.bindValue(new InactiveCustomBlock(holder));
+            }
 
             // 根据properties生成variant provider
             BlockStateVariantProvider variantProvider = new BlockStateVariantProvider(holder, (owner, propertyMap) -> {
@@ -46,10 +46,10 @@ public abstract class BlockBehavior {
         return superMethod.call();
     }
 
-    // 1.20.1-1.21.1 BlockState state, Direction direction, BlockState neighborState, LevelAccessor world, BlockPos pos, BlockPos neighborPos
-    // 1.21.2+ BlockState state, LevelReader level, ScheduledTickAccess scheduledTickAccess, BlockPos pos, Direction direction, BlockPos neighborPos, BlockState neighborState, RandomSource random
-    public Object updateShape(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        return args[0];
+    // BlockState state, LevelReader level, ScheduledTickAccess scheduledTickAccess, BlockPos pos, Direction direction, BlockPos neighborPos, BlockState neighborState, RandomSource random
+    // 1.20.1-1.21.1 level and scheduledTickAccess are both the LevelAccessor, random is null
+    public Object updateShape(Object thisBlock, Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random) throws Exception {
+        return state;
     }
 
     // BlockState state, Level level, BlockPos pos, Block neighborBlock, @Nullable Orientation orientation, boolean movedByPiston
@@ -58,13 +58,13 @@ public abstract class BlockBehavior {
     }
 
     // BlockState state, ServerLevel level, BlockPos pos, RandomSource random
-    public void tick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        superMethod.call();
+    public void tick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
+        ((DelegatingBlock) thisBlock).superTick(state, level, pos, random);
     }
 
     // BlockState state, ServerLevel level, BlockPos pos, RandomSource random
-    public void randomTick(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        superMethod.call();
+    public void randomTick(Object thisBlock, Object state, Object level, Object pos, Object random) throws Exception {
+        ((DelegatingBlock) thisBlock).superRandomTick(state, level, pos, random);
     }
 
     // 1.20-1.20.4 BlockState state, Level world, BlockPos pos, BlockState oldState, boolean notify, UseOnContext context
@@ -74,14 +74,14 @@ public abstract class BlockBehavior {
     }
 
     // BlockState state, LevelReader world, BlockPos pos
-    public boolean canSurvive(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        return (boolean) superMethod.call();
+    public boolean canSurvive(Object thisBlock, Object state, Object world, Object pos) throws Exception {
+        return ((DelegatingBlock) thisBlock).superCanSurvive(state, world, pos);
     }
 
-    // 1.20-1.20.4 BlockState state, BlockGetter world, BlockPos pos, PathComputationType type
-    // 1.20.5+ BlockState state, PathComputationType pathComputationType
-    public boolean isPathFindable(Object thisBlock, Object[] args, Callable<Object> superMethod) throws Exception {
-        return (boolean) superMethod.call();
+    // BlockState state, BlockGetter world, BlockPos pos, PathComputationType type
+    // 1.20.5+ world and pos are null
+    public boolean isPathFindable(Object thisBlock, Object state, Object world, Object pos, Object type) throws Exception {
+        return ((DelegatingBlock) thisBlock).superIsPathFindable(state, world, pos, type);
     }
 
     // Level level, BlockPos pos, FallingBlockEntity fallingBlock
@@ -32,6 +32,33 @@ public interface DelegatingBlock {
      */
     ObjectHolder<BlockBehavior> behaviorDelegate();
 
+    /**
+     * Calls the vanilla {@code tick} of this block, bypassing the behavior.
+     */
+    void superTick(Object state, Object level, Object pos, Object random);
+
+    /**
+     * Calls the vanilla {@code randomTick} of this block, bypassing the behavior.
+     */
+    void superRandomTick(Object state, Object level, Object pos, Object random);
+
+    /**
+     * Calls the vanilla {@code canSurvive} of this block, bypassing the behavior.
+     */
+    boolean superCanSurvive(Object state, Object world, Object pos);
+
+    /**
+     * Calls the vanilla {@code isPathFindable} of this block, bypassing the behavior.
+     * On 1.20.5+ world and pos are ignored.
+     */
+    boolean superIsPathFindable(Object state, Object world, Object pos, Object type);
+
+    /**
+     * Calls the vanilla {@code updateShape} of this block, bypassing the behavior.
+     * Before 1.21.2 scheduledTickAccess and random are ignored.
+     */
+    Object superUpdateShape(Object state, Object level, Object scheduledTickAccess, Object pos, Object direction, Object neighborPos, Object neighborState, Object random);
+
     // 其实是错误的做法
     @Deprecated
     boolean isNoteBlock();
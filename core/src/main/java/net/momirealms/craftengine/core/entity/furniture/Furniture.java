@@ -223,16 +223,21 @@ public abstract class Furniture implements Cullable {
 
     @Override
     public void show(Player player) {
+        // 所有元素与碰撞箱合并为一个数据包发送
+        List<Object> packets = new ArrayList<>(this.virtualEntityIds.length * 2);
         for (FurnitureElement element : this.elements) {
             if (element != null) {
-                element.show(player);
+                element.collectSpawnPackets(player, packets::add);
             }
         }
         for (FurnitureHitBox hitbox : this.hitboxes) {
             if (hitbox != null) {
-                hitbox.show(player);
+                hitbox.collectSpawnPackets(player, packets::add);
             }
         }
+        if (!packets.isEmpty()) {
+            player.sendPackets(packets, false);
+        }
     }
 
     @Override
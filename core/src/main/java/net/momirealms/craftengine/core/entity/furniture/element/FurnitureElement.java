@@ -2,6 +2,8 @@ package net.momirealms.craftengine.core.entity.furniture.element;
 
 import net.momirealms.craftengine.core.entity.player.Player;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 public interface FurnitureElement {
@@ -10,7 +12,17 @@ public interface FurnitureElement {
 
     void collectVirtualEntityId(Consumer<Integer> collector);
 
-    void show(Player player);
+    /**
+     * Collects the packets that spawn this element for the player in order,
+     * so that a whole furniture can be sent in one bundle.
+     */
+    void collectSpawnPackets(Player player, Consumer<Object> collector);
+
+    default void show(Player player) {
+        List<Object> packets = new ArrayList<>();
+        this.collectSpawnPackets(player, packets::add);
+        player.sendPackets(packets, false);
+    }
 
     void hide(Player player);
 
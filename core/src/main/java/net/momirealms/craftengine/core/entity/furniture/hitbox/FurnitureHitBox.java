@@ -7,6 +7,7 @@ import net.momirealms.craftengine.core.entity.seat.SeatOwner;
 import net.momirealms.craftengine.core.world.EntityHitResult;
 import net.momirealms.craftengine.core.world.Vec3d;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -19,7 +20,17 @@ public interface FurnitureHitBox extends SeatOwner {
 
     List<FurnitureHitboxPart> parts();
 
-    void show(Player player);
+    /**
+     * Collects the packets that spawn this hitbox for the player in order,
+     * so that a whole furniture can be sent in one bundle.
+     */
+    void collectSpawnPackets(Player player, Consumer<Object> collector);
+
+    default void show(Player player) {
+        List<Object> packets = new ArrayList<>();
+        this.collectSpawnPackets(player, packets::add);
+        player.sendPackets(packets, false);
+    }
 
     void hide(Player player);
 
@@ -41,6 +41,16 @@ public abstract class Player extends AbstractEntity implements NetWorkUser {
 
     public abstract void entityCullingTick();
 
+    /**
+     * Restores the rate limiting tokens of the entity culling. Called every culling tick, even when the culling itself is throttled.
+     */
+    public abstract void restoreEntityCullingTokens();
+
+    /**
+     * A counter that changes whenever the camera of the player moves or the tracked cullable objects change.
+     */
+    public abstract int entityCullingViewVersion();
+
     public abstract float getDestroyProgress(Object blockState, BlockPos pos);
 
     public abstract void setClientSideCanBreakBlock(boolean canBreak);
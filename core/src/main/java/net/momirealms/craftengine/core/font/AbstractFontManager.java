@@ -45,6 +45,7 @@ public abstract class AbstractFontManager implements FontManager {
     private final Set<Integer> illegalChars = new HashSet<>();
     private final ImageParser imageParser;
     private final EmojiParser emojiParser;
+    private final NetworkTextCache networkTextCache = new NetworkTextCache();
     private OffsetFont offsetFont;
 
     protected Trie networkTagTrie;
@@ -103,6 +104,7 @@ public abstract class AbstractFontManager implements FontManager {
         this.emojis.clear();
         this.networkTagTrie = null;
         this.emojiKeywordTrie = null;
+        this.networkTextCache.clear();
         if (this.networkTagMapper != null) {
             this.networkTagMapper.clear();
         }
@@ -130,6 +132,7 @@ public abstract class AbstractFontManager implements FontManager {
         this.registerL10nTags();
         this.buildNetworkTagTrie();
         this.buildEmojiKeywordsTrie();
+        this.networkTextCache.setMaximumSize(Config.networkTextCacheMaxSize());
         this.emojiList = new ArrayList<>(this.emojis.values());
         this.allEmojiSuggestions = this.emojis.values().stream()
                 .flatMap(emoji -> emoji.keywords().stream())
@@ -196,6 +199,16 @@ public abstract class AbstractFontManager implements FontManager {
         return tags;
     }
 
+    @Override
+    public NetworkTextCache networkTextCache() {
+        return this.networkTextCache;
+    }
+
+    @Override
+    public boolean hasTags(String text) {
+        return this.networkTagTrie != null && this.networkTagTrie.containsMatch(text);
+    }
+
     @Override
     public EmojiTextProcessResult replaceMiniMessageEmoji(@NotNull String miniMessage, Player player, int maxTimes) {
         if (this.emojiKeywordTrie == null || maxTimes <= 0) {
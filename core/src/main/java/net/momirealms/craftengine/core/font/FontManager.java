@@ -113,6 +113,13 @@ public interface FontManager extends Manageable {
 
     Map<String, ComponentProvider> matchTags(String text);
 
+    /**
+     * A cheaper check than {@link #matchTags(String)} that stops at the first tag found.
+     */
+    boolean hasTags(String text);
+
+    NetworkTextCache networkTextCache();
+
     default Map<String, ComponentProvider> matchTags(Tag nbt) {
         return matchTags(new StringValueOnlyTagVisitor().visit(nbt));
     }
@@ -0,0 +1,112 @@
+package net.momirealms.craftengine.core.font;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import net.momirealms.craftengine.core.entity.player.Player;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.context.NetworkTextReplaceContext;
+import net.momirealms.craftengine.core.plugin.context.PlayerDependencyTracker;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+import net.momirealms.craftengine.core.plugin.text.component.ComponentProvider;
+import net.momirealms.craftengine.core.util.AdventureHelper;
+import net.momirealms.sparrow.nbt.Tag;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the texts rewritten for clients, so that a text broadcast to many players, such as a scoreboard or a boss bar,
+ * is only rewritten once for all the viewers that share the same locale.
+ * Texts resolved with tags that depend on the viewer beyond its locale are never stored.
+ */
+public final class NetworkTextCache {
+    private final Cache<Key, Object> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public NetworkTextCache() {
+        this.cache = Caffeine.newBuilder()
+                .scheduler(Scheduler.systemScheduler())
+                .maximumSize(2048)
+                .expireAfterAccess(60, TimeUnit.SECONDS)
+                .build();
+        MetricsRegistry.instance().counter("craftengine_cache_hits_total", "Lookups answered by a cache", this::hitCount, "cache", "network_text");
+        MetricsRegistry.instance().counter("craftengine_cache_misses_total", "Lookups not answered by a cache", this::missCount, "cache", "network_text");
+        MetricsRegistry.instance().gauge("craftengine_cache_entries", "Estimated number of entries in a cache", this::size, "cache", "network_text");
+    }
+
+    /**
+     * @param nbt the text, which must not be modified afterward
+     * @return the rewritten text, which must not be modified
+     */
+    public Tag replace(Tag nbt, Map<String, ComponentProvider> tokens, Player player) {
+        if (!Config.enableNetworkTextCache()) {
+            return AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of(player)));
+        }
+        Key key = new Key(nbt, player.selectedLocale());
+        if (this.cache.getIfPresent(key) instanceof Tag cached) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        PlayerDependencyTracker tracker = new PlayerDependencyTracker();
+        Tag result = AdventureHelper.componentToTag(AdventureHelper.replaceText(AdventureHelper.tagToComponent(nbt), tokens, NetworkTextReplaceContext.of(player, tracker)));
+        if (!tracker.isPlayerDependent()) {
+            this.cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param json the text in json
+     * @return the rewritten text in json
+     */
+    public String replace(String json, Map<String, ComponentProvider> tokens, Player player) {
+        if (!Config.enableNetworkTextCache()) {
+            return AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of(player)));
+        }
+        Key key = new Key(json, player.selectedLocale());
+        if (this.cache.getIfPresent(key) instanceof String cached) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        PlayerDependencyTracker tracker = new PlayerDependencyTracker();
+        String result = AdventureHelper.componentToJson(AdventureHelper.replaceText(AdventureHelper.jsonToComponent(json), tokens, NetworkTextReplaceContext.of(player, tracker)));
+        if (!tracker.isPlayerDependent()) {
+            this.cache.put(key, result);
+        }
+        return result;
+    }
+
+    public void setMaximumSize(long size) {
+        this.cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(size));
+    }
+
+    public void clear() {
+        this.cache.invalidateAll();
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @param content the original text, either a tag or a json string
+     * @param locale the selected locale of the viewer
+     */
+    private record Key(Object content, @Nullable Locale locale) {
+    }
+}
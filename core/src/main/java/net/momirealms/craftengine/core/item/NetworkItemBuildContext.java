@@ -3,6 +3,7 @@ package net.momirealms.craftengine.core.item;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.momirealms.craftengine.core.entity.player.Player;
 import net.momirealms.craftengine.core.plugin.context.ContextHolder;
+import net.momirealms.craftengine.core.plugin.context.PlayerDependencyTracker;
 import net.momirealms.craftengine.core.plugin.context.parameter.DirectContextParameters;
 import net.momirealms.craftengine.core.plugin.text.minimessage.*;
 import org.jetbrains.annotations.NotNull;
@@ -11,9 +12,16 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Map;
 
 public class NetworkItemBuildContext extends ItemBuildContext {
+    @Nullable
+    private final PlayerDependencyTracker tracker;
 
     public NetworkItemBuildContext(@Nullable Player player, @NotNull ContextHolder contexts) {
+        this(player, contexts, null);
+    }
+
+    public NetworkItemBuildContext(@Nullable Player player, @NotNull ContextHolder contexts, @Nullable PlayerDependencyTracker tracker) {
         super(player, contexts);
+        this.tracker = tracker;
     }
 
     @NotNull
@@ -38,8 +46,25 @@ public class NetworkItemBuildContext extends ItemBuildContext {
         return new NetworkItemBuildContext(player, new ContextHolder(Map.of(DirectContextParameters.PLAYER, () -> player)));
     }
 
+    @NotNull
+    public static NetworkItemBuildContext of(@Nullable Player player, @NotNull ContextHolder.Builder builder, @NotNull PlayerDependencyTracker tracker) {
+        if (player != null) builder.withParameter(DirectContextParameters.PLAYER, player);
+        return new NetworkItemBuildContext(player, builder.build(), tracker);
+    }
+
+    @Override
+    protected TagResolver @Nullable [] getExternalTagResolvers() {
+        TagResolver[] resolvers = super.getExternalTagResolvers();
+        return this.tracker == null ? resolvers : this.tracker.track(resolvers);
+    }
+
     @NotNull
     protected TagResolver[] getInternalTagResolvers() {
+        if (this.tracker != null) {
+            // 语言相关的标签由缓存键区分
+            return new TagResolver[]{ShiftTag.INSTANCE, ImageTag.INSTANCE, new I18NTag(this), new L10NTag(this), this.tracker.track(new NamedArgumentTag(this)),
+                    this.tracker.track(new PlaceholderTag(this)), this.tracker.track(new ExpressionTag(this)), this.tracker.track(new GlobalVariableTag(this))};
+        }
         return new TagResolver[]{ShiftTag.INSTANCE, ImageTag.INSTANCE, new I18NTag(this), new L10NTag(this), new NamedArgumentTag(this),
                 new PlaceholderTag(this), new ExpressionTag(this), new GlobalVariableTag(this)};
     }
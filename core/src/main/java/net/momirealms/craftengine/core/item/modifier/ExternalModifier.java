@@ -36,6 +36,11 @@ public class ExternalModifier<I> implements ItemDataModifier<I> {
         return ItemDataModifiers.EXTERNAL;
     }
 
+    @Override
+    public boolean isPlayerDependent() {
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public Item<I> apply(Item<I> item, ItemBuildContext context) {
@@ -11,6 +11,14 @@ public interface ItemDataModifier<I> {
 
     Item<I> apply(Item<I> item, ItemBuildContext context);
 
+    /**
+     * Whether the result may differ between players for reasons other than their locale or the tags in its text.
+     * Items with such client-bound modifiers are rewritten for every player instead of being cached.
+     */
+    default boolean isPlayerDependent() {
+        return false;
+    }
+
     default Item<I> prepareNetworkItem(Item<I> item, ItemBuildContext context, CompoundTag networkData) {
         return item;
     }
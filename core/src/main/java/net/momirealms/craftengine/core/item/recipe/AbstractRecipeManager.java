@@ -21,6 +21,7 @@ public abstract class AbstractRecipeManager<T> implements RecipeManager<T> {
     protected final Map<Key, List<Recipe<T>>> byResult = new HashMap<>();
     protected final Map<Key, List<Recipe<T>>> byIngredient = new HashMap<>();
     protected final Set<Key> dataPackRecipes = new HashSet<>();
+    private final Map<RecipeType, RecipeIndex<T>> indexes = new EnumMap<>(RecipeType.class);
     protected final RecipeParser recipeParser;
 
     public AbstractRecipeManager() {
@@ -39,6 +40,7 @@ public abstract class AbstractRecipeManager<T> implements RecipeManager<T> {
         this.byId.clear();
         this.byResult.clear();
         this.byIngredient.clear();
+        this.indexes.clear();
     }
 
     protected void markAsDataPackRecipe(Key key) {
@@ -78,14 +80,9 @@ public abstract class AbstractRecipeManager<T> implements RecipeManager<T> {
     @Nullable
     @Override
     public Recipe<T> recipeByInput(RecipeType type, RecipeInput input) {
-        List<Recipe<T>> recipes = this.byType.get(type);
-        if (recipes == null) return null;
-        for (Recipe<T> recipe : recipes) {
-            if (recipe.matches(input)) {
-                return recipe;
-            }
-        }
-        return null;
+        RecipeIndex<T> index = this.indexes.get(type);
+        if (index == null) return null;
+        return index.find(input);
     }
 
     @Nullable
@@ -103,6 +100,7 @@ public abstract class AbstractRecipeManager<T> implements RecipeManager<T> {
     protected boolean registerInternalRecipe(Key id, Recipe<T> recipe) {
         if (this.byId.containsKey(id)) return false;
         this.byType.computeIfAbsent(recipe.type(), k -> new ArrayList<>()).add(recipe);
+        this.indexes.computeIfAbsent(recipe.type(), k -> new RecipeIndex<>()).add(recipe);
         this.byId.put(id, recipe);
         if (recipe instanceof AbstractedFixedResultRecipe<?> fixedResult) {
             this.byResult.computeIfAbsent(fixedResult.result().item().id(), k -> new ArrayList<>()).add(recipe);
@@ -115,6 +115,10 @@ public class CustomShapedRecipe<T> extends CustomCraftingTableRecipe<T> {
             return height;
         }
 
+        public int ingredientCount() {
+            return ingredientCount;
+        }
+
         public boolean matches(CraftingInput<T> input) {
             if (input.ingredientCount == this.ingredientCount) {
                 if (input.width == this.width && input.height == this.height) {
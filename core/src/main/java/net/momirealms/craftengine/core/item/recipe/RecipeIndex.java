@@ -0,0 +1,105 @@
+package net.momirealms.craftengine.core.item.recipe;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.momirealms.craftengine.core.item.recipe.input.CraftingInput;
+import net.momirealms.craftengine.core.item.recipe.input.RecipeInput;
+import net.momirealms.craftengine.core.item.recipe.input.SingleItemInput;
+import net.momirealms.craftengine.core.util.UniqueKey;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Narrows down the recipes of one type that could match an input before {@link Recipe#matches} is called.
+ * Every recipe is a bit in registration order, so the first matching candidate is the same recipe a full scan would find.
+ */
+final class RecipeIndex<T> {
+    private final List<Recipe<T>> recipes = new ArrayList<>();
+    // 每种物品可以参与的配方
+    private final Map<UniqueKey, BitSet> byItem = new Reference2ObjectOpenHashMap<>();
+    // 工作台配方按照材料数量分组
+    private final Int2ObjectOpenHashMap<BitSet> byIngredientCount = new Int2ObjectOpenHashMap<>();
+    // 无法建立索引的配方，总是需要检查
+    private final BitSet unindexed = new BitSet();
+
+    void add(Recipe<T> recipe) {
+        int index = this.recipes.size();
+        this.recipes.add(recipe);
+        if (recipe instanceof CustomCookingRecipe<T> cooking) {
+            indexItems(index, cooking.ingredient());
+        } else if (recipe instanceof CustomStoneCuttingRecipe<T> stoneCutting) {
+            indexItems(index, stoneCutting.ingredient());
+        } else if (recipe instanceof CustomShapedRecipe<T> shaped) {
+            this.byIngredientCount.computeIfAbsent(shaped.parsedPattern().ingredientCount(), k -> new BitSet()).set(index);
+            for (Ingredient<T> ingredient : shaped.pattern().ingredients().values()) {
+                indexItems(index, ingredient);
+            }
+        } else if (recipe instanceof CustomShapelessRecipe<T> shapeless) {
+            this.byIngredientCount.computeIfAbsent(shapeless.ingredientsInUse().size(), k -> new BitSet()).set(index);
+            for (Ingredient<T> ingredient : shapeless.ingredientsInUse()) {
+                indexItems(index, ingredient);
+            }
+        } else {
+            this.unindexed.set(index);
+        }
+    }
+
+    private void indexItems(int index, Ingredient<T> ingredient) {
+        for (UniqueKey item : ingredient.items()) {
+            this.byItem.computeIfAbsent(item, k -> new BitSet()).set(index);
+        }
+    }
+
+    @Nullable
+    Recipe<T> find(RecipeInput input) {
+        BitSet candidates = candidates(input);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Recipe<T> recipe = this.recipes.get(i);
+            if (recipe.matches(input)) {
+                return recipe;
+            }
+        }
+        return null;
+    }
+
+    private BitSet candidates(RecipeInput input) {
+        BitSet candidates = null;
+        if (input instanceof SingleItemInput<?> single) {
+            UniqueKey id = single.input().id();
+            BitSet byItem = id == null ? null : this.byItem.get(id);
+            if (byItem != null) {
+                candidates = (BitSet) byItem.clone();
+            }
+        } else if (input instanceof CraftingInput<?> crafting) {
+            BitSet byCount = this.byIngredientCount.get(crafting.ingredientCount());
+            if (byCount != null) {
+                candidates = (BitSet) byCount.clone();
+                // 每一个放入的物品都必须是配方的材料
+                for (int i = 0, size = crafting.size(); i < size && !candidates.isEmpty(); i++) {
+                    UniqueKey id = crafting.getItem(i).id();
+                    if (id == null) continue;
+                    BitSet byItem = this.byItem.get(id);
+                    if (byItem == null) {
+                        candidates.clear();
+                    } else {
+                        candidates.and(byItem);
+                    }
+                }
+            }
+        } else {
+            // 未知的输入类型，检查全部配方
+            candidates = new BitSet(this.recipes.size());
+            candidates.set(0, this.recipes.size());
+            return candidates;
+        }
+        if (candidates == null) {
+            return this.unindexed;
+        }
+        candidates.or(this.unindexed);
+        return candidates;
+    }
+}
@@ -24,8 +24,10 @@ import net.momirealms.craftengine.core.pack.model.generation.ModelGeneration;
 import net.momirealms.craftengine.core.pack.model.generation.ModelGenerator;
 import net.momirealms.craftengine.core.pack.model.rangedisptach.CustomModelDataRangeDispatchProperty;
 import net.momirealms.craftengine.core.pack.model.simplified.*;
+import net.momirealms.craftengine.core.pack.optimization.OptimizationCache;
 import net.momirealms.craftengine.core.pack.revision.Revision;
 import net.momirealms.craftengine.core.pack.revision.Revisions;
+import net.momirealms.craftengine.core.pack.zip.ResourcePackZipWriter;
 import net.momirealms.craftengine.core.plugin.CraftEngine;
 import net.momirealms.craftengine.core.plugin.config.Config;
 import net.momirealms.craftengine.core.plugin.config.ConfigParser;
@@ -63,8 +65,6 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import static net.momirealms.craftengine.core.util.MiscUtils.castToMap;
 
@@ -124,36 +124,19 @@ public abstract class AbstractPackManager implements PackManager {
     protected BiConsumer<Path, Path> zipGenerator;
     protected ResourcePackHost resourcePackHost;
     private final SkipOptimizationParser parser = new SkipOptimizationParser();
+    private final OptimizationCache optimizationCache;
+    private final ResourcePackZipWriter zipWriter = new ResourcePackZipWriter();
+    // 生成的资源包中每个文件来自哪个资源文件
+    private final Map<String, Path> assetSources = new HashMap<>();
 
     public AbstractPackManager(CraftEngine plugin, Consumer<PackCacheData> cacheEventDispatcher, BiConsumer<Path, Path> generationEventDispatcher) {
         this.plugin = plugin;
         this.cacheEventDispatcher = cacheEventDispatcher;
         this.generationEventDispatcher = generationEventDispatcher;
+        this.optimizationCache = new OptimizationCache(plugin.dataFolderPath().resolve("cache").resolve("optimization"));
         this.zipGenerator = (p1, p2) -> {
-            try (FileOutputStream fos = new FileOutputStream(p2.toFile());
-                 ZipOutputStream zos = new ZipOutputStream(fos)) {
-                Files.walkFileTree(p1, new SimpleFileVisitor<>() {
-                    @Override
-                    public @NotNull FileVisitResult preVisitDirectory(@NotNull Path dir, @NotNull BasicFileAttributes attrs) throws IOException {
-                        if (!dir.equals(p1)) {
-                            String relativePath = p1.relativize(dir).toString().replace("\\", "/") + "/";
-                            ZipEntry entry = new ZipEntry(relativePath);
-                            zos.putNextEntry(entry);
-                            zos.closeEntry();
-                        }
-                        return FileVisitResult.CONTINUE;
-                    }
-
-                    @Override
-                    public @NotNull FileVisitResult visitFile(@NotNull Path file, @NotNull BasicFileAttributes attrs) throws IOException {
-                        String relativePath = p1.relativize(file).toString().replace("\\", "/");
-                        ZipEntry entry = new ZipEntry(relativePath);
-                        zos.putNextEntry(entry);
-                        Files.copy(file, zos);
-                        zos.closeEntry();
-                        return FileVisitResult.CONTINUE;
-                    }
-                });
+            try {
+                this.zipWriter.write(p1, p2, ResourcePackZipWriter.CompressionPolicy.of(Config.zipStoredExtensions(), Config.zipCompressionLevel()), this.plugin.scheduler().async());
             } catch (IOException e) {
                 throw new RuntimeException("Failed to generate resource pack", e);
             }
@@ -784,8 +767,42 @@ public abstract class AbstractPackManager implements PackManager {
             }
             long time2 = System.currentTimeMillis();
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.generate", String.valueOf(time2 - time1)));
+            Path finalPath = resourcePackPath();
+
+            // 与上次生成的内容对比，没有任何变化时直接使用已有的资源包
+            PackBuildManifest manifest = null;
+            PackBuildManifest previous = null;
+            PackBuildManifest.Changes changes = null;
+            if (Config.incrementalGeneration()) {
+                manifest = PackBuildManifest.create(generatedPackPath, this.postProcessingFingerprint());
+                previous = PackBuildManifest.read(buildManifestPath());
+                if (previous != null && previous.settings().equals(manifest.settings())) {
+                    changes = manifest.changesSince(previous);
+                    if (changes.isEmpty() && previous.isZipIntact(finalPath)) {
+                        this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.unchanged"));
+                        this.generationEventDispatcher.accept(generatedPackPath, finalPath);
+                        return;
+                    }
+                    PackBuildManifest.Changes finalChanges = changes;
+                    this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.changes",
+                            String.valueOf(changes.added().size()), String.valueOf(changes.modified().size()), String.valueOf(changes.removed().size())));
+                    Debugger.RESOURCE_PACK.debug(() -> this.describeChanges(finalChanges));
+                }
+            }
+
             if (Config.validateResourcePack()) {
-                this.validateResourcePack(generatedPackPath);
+                // 修改的文件不会影响验证结果时，沿用上次验证时修复的文件
+                if (changes != null && !changes.affectsValidation()) {
+                    previous.restoreValidatedEntries(generatedPackPath);
+                    manifest = manifest.withValidatedEntries(previous);
+                    Debugger.RESOURCE_PACK.debug(() -> "Skipped validation as no changed file affects it");
+                } else {
+                    Set<Path> rewrittenFiles = new HashSet<>();
+                    this.validateResourcePack(generatedPackPath, rewrittenFiles);
+                    if (manifest != null) {
+                        manifest = manifest.withValidatedEntries(generatedPackPath, rewrittenFiles);
+                    }
+                }
             }
             long time3 = System.currentTimeMillis();
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.validate", String.valueOf(time3 - time2)));
@@ -794,12 +811,15 @@ public abstract class AbstractPackManager implements PackManager {
             }
             long time4 = System.currentTimeMillis();
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.optimize", String.valueOf(time4 - time3)));
-            Path finalPath = resourcePackPath();
             Files.createDirectories(finalPath.getParent());
             try {
                 this.zipGenerator.accept(generatedPackPath, finalPath);
+                if (manifest != null) {
+                    manifest.withZip(finalPath).write(buildManifestPath());
+                }
             } catch (Exception e) {
                 this.plugin.logger().severe("Error zipping resource pack", e);
+                Files.deleteIfExists(buildManifestPath());
             }
             long time5 = System.currentTimeMillis();
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.create", String.valueOf(time5 - time4)));
@@ -807,6 +827,44 @@ public abstract class AbstractPackManager implements PackManager {
         }
     }
 
+    private Path buildManifestPath() {
+        return this.plugin.dataFolderPath().resolve("cache").resolve("resource-pack-manifest.json");
+    }
+
+    // 影响验证、优化与压缩结果的设置
+    private String postProcessingFingerprint() {
+        List<String> values = new ArrayList<>();
+        values.add(this.plugin.pluginVersion());
+        try {
+            values.add(Files.readString(this.plugin.dataFolderPath().resolve("config.yml")));
+        } catch (IOException e) {
+            values.add(UUID.randomUUID().toString());
+        }
+        values.add(String.join(",", new TreeSet<>(this.parser.excludeTexture())));
+        values.add(String.join(",", new TreeSet<>(this.parser.excludeJson())));
+        return PackBuildManifest.fingerprint(values);
+    }
+
+    private String describeChanges(PackBuildManifest.Changes changes) {
+        StringJoiner joiner = new StringJoiner("\n", "Resource pack changes:\n", "");
+        for (String path : new TreeSet<>(changes.added())) {
+            joiner.add("+ " + path + this.describeSource(path));
+        }
+        for (String path : new TreeSet<>(changes.modified())) {
+            joiner.add("* " + path + this.describeSource(path));
+        }
+        for (String path : new TreeSet<>(changes.removed())) {
+            joiner.add("- " + path);
+        }
+        return joiner.toString();
+    }
+
+    private String describeSource(String path) {
+        Path source = this.assetSources.get(path);
+        // 没有对应的资源文件，说明是根据配置生成的
+        return source == null ? " (generated)" : " (" + source + ")";
+    }
+
     private void generatePackMetadata(Path path, Set<Revision> revisions) throws IOException {
         JsonObject rawMeta;
         boolean changed = false;
@@ -1056,6 +1114,11 @@ public abstract class AbstractPackManager implements PackManager {
             }
         }
 
+        OptimizationCache cache = Config.enableOptimizationCache() ? this.optimizationCache : null;
+        if (cache != null) {
+            cache.reset();
+        }
+
         if (Config.optimizeJson()) {
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.optimize.json"));
             AtomicLong previousBytes = new AtomicLong(0L);
@@ -1068,7 +1131,7 @@ public abstract class AbstractPackManager implements PackManager {
                     try {
                         byte[] before = Files.readAllBytes(jsonPath);
                         previousBytes.getAndAdd(before.length);
-                        byte[] after = GsonHelper.toString(GsonHelper.parseJson(new String(before, StandardCharsets.UTF_8))).replace("\"minecraft:", "\"").getBytes(StandardCharsets.UTF_8);
+                        byte[] after = optimize(cache, "json", "", before, AbstractPackManager::optimizeJson);
                         if (after.length < before.length) {
                             afterBytes.addAndGet(after.length);
                             Files.write(jsonPath, after);
@@ -1085,14 +1148,7 @@ public abstract class AbstractPackManager implements PackManager {
                     try {
                         byte[] before = Files.readAllBytes(jsonPath);
                         previousBytes.getAndAdd(before.length);
-                        JsonObject json = GsonHelper.parseJson(new String(before, StandardCharsets.UTF_8)).getAsJsonObject();
-                        List<String> invalidKey = json.keySet().stream().filter(k -> !ALLOWED_MODEL_TAGS.contains(k)).toList();
-                        if (!invalidKey.isEmpty()) {
-                            for (String key : invalidKey) {
-                                json.remove(key);
-                            }
-                        }
-                        byte[] after = GsonHelper.toString(json).replace("\"minecraft:", "\"").getBytes(StandardCharsets.UTF_8);
+                        byte[] after = optimize(cache, "model", "", before, AbstractPackManager::optimizeModelJson);
                         if (after.length < before.length) {
                             afterBytes.addAndGet(after.length);
                             Files.write(jsonPath, after);
@@ -1138,7 +1194,7 @@ public abstract class AbstractPackManager implements PackManager {
                 futures.add(CompletableFuture.runAsync(() -> {
                     try {
                         byte[] previousImageBytes = Files.readAllBytes(imagePath);
-                        byte[] optimized = optimizeImage(imagePath, previousImageBytes);
+                        byte[] optimized = optimize(cache, "texture", "zopfli=" + Config.zopfliIterations(), previousImageBytes, bytes -> optimizeImage(imagePath, bytes));
                         previousBytes.addAndGet(previousImageBytes.length);
                         if (optimized.length < previousImageBytes.length) {
                             afterBytes.addAndGet(optimized.length);
@@ -1172,6 +1228,34 @@ public abstract class AbstractPackManager implements PackManager {
             double compressionRatio = ((double) optimizedSize / originalSize) * 100;
             this.plugin.logger().info(TranslationManager.instance().translateLog("info.resource_pack.optimize.result", formatSize(originalSize), formatSize(optimizedSize), String.format("%.2f%%", compressionRatio)));
         }
+
+        if (cache != null) {
+            try {
+                int pruned = cache.prune();
+                Debugger.RESOURCE_PACK.debug(() -> "Optimization cache: " + cache.hitCount() + " hits, " + cache.missCount() + " misses, " + pruned + " unused entries removed");
+            } catch (IOException e) {
+                this.plugin.logger().warn("Failed to prune optimization cache", e);
+            }
+        }
+    }
+
+    private static byte[] optimize(@Nullable OptimizationCache cache, String type, String settings, byte[] input, OptimizationCache.Optimizer optimizer) throws IOException {
+        return cache == null ? optimizer.optimize(input) : cache.optimize(type, settings, input, optimizer);
+    }
+
+    private static byte[] optimizeJson(byte[] before) {
+        return GsonHelper.toString(GsonHelper.parseJson(new String(before, StandardCharsets.UTF_8))).replace("\"minecraft:", "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] optimizeModelJson(byte[] before) {
+        JsonObject json = GsonHelper.parseJson(new String(before, StandardCharsets.UTF_8)).getAsJsonObject();
+        List<String> invalidKey = json.keySet().stream().filter(k -> !ALLOWED_MODEL_TAGS.contains(k)).toList();
+        if (!invalidKey.isEmpty()) {
+            for (String key : invalidKey) {
+                json.remove(key);
+            }
+        }
+        return GsonHelper.toString(json).replace("\"minecraft:", "\"").getBytes(StandardCharsets.UTF_8);
     }
 
     private static final int BAR_LENGTH = 30;
@@ -1223,7 +1307,7 @@ public abstract class AbstractPackManager implements PackManager {
     }
 
     @SuppressWarnings("DuplicatedCode")
-    private void validateResourcePack(Path path) {
+    private void validateResourcePack(Path path, Set<Path> rewrittenFiles) {
         // 收集全部overlay
         Path[] rootPaths;
         try {
@@ -1729,6 +1813,7 @@ public abstract class AbstractPackManager implements PackManager {
                     try {
                         Files.createDirectories(atlas.getKey().getParent());
                         GsonHelper.writeJsonFile(right, atlas.getKey());
+                        rewrittenFiles.add(atlas.getKey());
                     } catch (IOException e) {
                         this.plugin.logger().warn("Failed to write atlas to json file", e);
                     }
@@ -1759,6 +1844,7 @@ public abstract class AbstractPackManager implements PackManager {
                     try {
                         Files.createDirectories(atlas.getKey().getParent());
                         GsonHelper.writeJsonFile(right, atlas.getKey());
+                        rewrittenFiles.add(atlas.getKey());
                     } catch (IOException e) {
                         this.plugin.logger().warn("Failed to write atlas to json file", e);
                     }
@@ -2893,6 +2979,9 @@ public abstract class AbstractPackManager implements PackManager {
         Map<String, List<Path>> conflictChecker = new HashMap<>(Math.max(128, this.cachedAssetFiles.size()), 0.6f);
         Map<Path, CachedAssetFile> previousFiles = this.cachedAssetFiles;
         this.cachedAssetFiles = new HashMap<>(Math.max(128, this.cachedAssetFiles.size()), 0.6f);
+        if (fs != null) {
+            this.assetSources.clear();
+        }
 
         List<Path> folders = new ArrayList<>();
         folders.addAll(loadedPacks().stream()
@@ -2985,6 +3074,7 @@ public abstract class AbstractPackManager implements PackManager {
             Files.createDirectories(targetPath.getParent());
             Files.write(targetPath, data);
             conflictChecker.put(relativePath, List.of(namedSourcePath));
+            this.assetSources.put(relativePath, namedSourcePath);
         } else {
             PathContext relativeCTX = PathContext.of(relative);
             PathContext targetCTX = PathContext.of(targetPath);
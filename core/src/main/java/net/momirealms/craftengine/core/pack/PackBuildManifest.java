@@ -0,0 +1,229 @@
+package net.momirealms.craftengine.core.pack;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.momirealms.craftengine.core.util.CharacterUtils;
+import net.momirealms.craftengine.core.util.GsonHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Describes the content of a generated resource pack before it's validated, optimized and zipped,
+ * so the next build can tell which entries have changed.
+ * It also keeps the files rewritten by the validation, so that they can be restored when validation is skipped.
+ */
+public final class PackBuildManifest {
+    private static final int VERSION = 2;
+    private final String settings;
+    private final Map<String, String> entries;
+    private final Map<String, String> validatedEntries;
+    private final long zipSize;
+    private final long zipLastModified;
+
+    private PackBuildManifest(String settings, Map<String, String> entries, Map<String, String> validatedEntries, long zipSize, long zipLastModified) {
+        this.settings = settings;
+        this.entries = entries;
+        this.validatedEntries = validatedEntries;
+        this.zipSize = zipSize;
+        this.zipLastModified = zipLastModified;
+    }
+
+    /**
+     * @param root the root folder of the generated pack
+     * @param settings the fingerprint of the settings used to process the pack after generation
+     */
+    public static PackBuildManifest create(Path root, String settings) throws IOException {
+        Map<String, String> entries = new HashMap<>(1024);
+        MessageDigest md = sha1();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public @NotNull FileVisitResult visitFile(@NotNull Path file, @NotNull BasicFileAttributes attrs) throws IOException {
+                String relativePath = CharacterUtils.replaceBackslashWithSlash(root.relativize(file).toString());
+                entries.put(relativePath, HexFormat.of().formatHex(md.digest(Files.readAllBytes(file))));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new PackBuildManifest(settings, entries, Map.of(), -1, -1);
+    }
+
+    /**
+     * Returns a copy of this manifest that remembers the zip built from it.
+     */
+    public PackBuildManifest withZip(Path zip) throws IOException {
+        return new PackBuildManifest(this.settings, this.entries, this.validatedEntries, Files.size(zip), Files.getLastModifiedTime(zip).toMillis());
+    }
+
+    /**
+     * Returns a copy of this manifest that remembers the content of the files rewritten by the validation.
+     *
+     * @param root the root folder of the generated pack
+     * @param files the rewritten files
+     */
+    public PackBuildManifest withValidatedEntries(Path root, Collection<Path> files) throws IOException {
+        Map<String, String> validatedEntries = new HashMap<>(files.size());
+        for (Path file : files) {
+            String relativePath = CharacterUtils.replaceBackslashWithSlash(root.relativize(file).toString());
+            validatedEntries.put(relativePath, Files.readString(file));
+        }
+        return new PackBuildManifest(this.settings, this.entries, validatedEntries, this.zipSize, this.zipLastModified);
+    }
+
+    /**
+     * Returns a copy of this manifest that takes over the validated files of the previous build.
+     */
+    public PackBuildManifest withValidatedEntries(PackBuildManifest previous) {
+        return new PackBuildManifest(this.settings, this.entries, previous.validatedEntries, this.zipSize, this.zipLastModified);
+    }
+
+    /**
+     * Writes the files rewritten by the validation of this build into the generated pack.
+     */
+    public void restoreValidatedEntries(Path root) throws IOException {
+        for (Map.Entry<String, String> entry : this.validatedEntries.entrySet()) {
+            Path file = root.resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry.getValue());
+        }
+    }
+
+    /**
+     * Whether the given zip is still the one built from this manifest.
+     */
+    public boolean isZipIntact(Path zip) {
+        if (this.zipSize < 0) return false;
+        try {
+            return Files.size(zip) == this.zipSize && Files.getLastModifiedTime(zip).toMillis() == this.zipLastModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public String settings() {
+        return this.settings;
+    }
+
+    public Map<String, String> entries() {
+        return Collections.unmodifiableMap(this.entries);
+    }
+
+    /**
+     * Compares this manifest against the one of the previous build.
+     */
+    public Changes changesSince(PackBuildManifest previous) {
+        Set<String> added = new HashSet<>();
+        Set<String> modified = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        for (Map.Entry<String, String> entry : this.entries.entrySet()) {
+            String previousHash = previous.entries.get(entry.getKey());
+            if (previousHash == null) {
+                added.add(entry.getKey());
+            } else if (!previousHash.equals(entry.getValue())) {
+                modified.add(entry.getKey());
+            }
+        }
+        for (String path : previous.entries.keySet()) {
+            if (!this.entries.containsKey(path)) {
+                removed.add(path);
+            }
+        }
+        return new Changes(added, modified, removed);
+    }
+
+    @Nullable
+    public static PackBuildManifest read(Path path) {
+        if (!Files.isRegularFile(path)) return null;
+        try {
+            JsonObject json = GsonHelper.readJsonFile(path).getAsJsonObject();
+            if (json.get("version").getAsInt() != VERSION) return null;
+            Map<String, String> entries = new HashMap<>(1024);
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("entries").entrySet()) {
+                entries.put(entry.getKey(), entry.getValue().getAsString());
+            }
+            Map<String, String> validatedEntries = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("validated").entrySet()) {
+                validatedEntries.put(entry.getKey(), entry.getValue().getAsString());
+            }
+            JsonObject zip = json.getAsJsonObject("zip");
+            return new PackBuildManifest(json.get("settings").getAsString(), entries, validatedEntries, zip.get("size").getAsLong(), zip.get("last-modified").getAsLong());
+        } catch (IOException | JsonParseException | IllegalStateException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("version", VERSION);
+        json.addProperty("settings", this.settings);
+        JsonObject zip = new JsonObject();
+        zip.addProperty("size", this.zipSize);
+        zip.addProperty("last-modified", this.zipLastModified);
+        json.add("zip", zip);
+        JsonObject entries = new JsonObject();
+        for (Map.Entry<String, String> entry : new TreeMap<>(this.entries).entrySet()) {
+            entries.addProperty(entry.getKey(), entry.getValue());
+        }
+        json.add("entries", entries);
+        JsonObject validatedEntries = new JsonObject();
+        for (Map.Entry<String, String> entry : new TreeMap<>(this.validatedEntries).entrySet()) {
+            validatedEntries.addProperty(entry.getKey(), entry.getValue());
+        }
+        json.add("validated", validatedEntries);
+        Files.createDirectories(path.getParent());
+        GsonHelper.writeJsonFile(json, path);
+    }
+
+    public static String fingerprint(Collection<String> values) {
+        MessageDigest md = sha1();
+        for (String value : values) {
+            md.update(value.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to calculate SHA1", e);
+        }
+    }
+
+    /**
+     * The entries that differ between two builds, as paths relative to the root of the pack.
+     */
+    public record Changes(Set<String> added, Set<String> modified, Set<String> removed) {
+
+        public boolean isEmpty() {
+            return this.added.isEmpty() && this.modified.isEmpty() && this.removed.isEmpty();
+        }
+
+        public boolean isChanged(String path) {
+            return this.added.contains(path) || this.modified.contains(path);
+        }
+
+        /**
+         * Whether the result of the validation may differ from the previous build.
+         * The validation only reads json files and checks whether the files they refer to exist,
+         * so modifying other files, or json files it never reads, doesn't affect it.
+         */
+        public boolean affectsValidation() {
+            if (!this.added.isEmpty() || !this.removed.isEmpty()) return true;
+            for (String path : this.modified) {
+                if ((path.endsWith(".json") || path.endsWith(".mcmeta")) && !path.contains("/lang/")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
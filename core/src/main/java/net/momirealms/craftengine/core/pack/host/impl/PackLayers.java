@@ -0,0 +1,87 @@
+package net.momirealms.craftengine.core.pack.host.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds overlay packs holding only the files changed since a base pack. Clients that already downloaded
+ * the base only need to download the overlay, which is applied on top of it.
+ */
+final class PackLayers {
+    private static final String PACK_META = "pack.mcmeta";
+
+    private PackLayers() {}
+
+    /**
+     * @return the fingerprint of every file in the pack, by path
+     * @throws IOException if the pack can't be read as a zip file, such as protected packs
+     */
+    static Map<String, Long> readEntries(Path pack) throws IOException {
+        Map<String, Long> entries = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+            while (enumeration.hasMoreElements()) {
+                ZipEntry entry = enumeration.nextElement();
+                if (entry.isDirectory()) continue;
+                entries.put(entry.getName(), fingerprint(entry));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @param base the entries of the base pack
+     * @param maxSize the max compressed size of the changed files
+     * @return the overlay, or null if the pack removes files of the base, which an overlay can't undo, or if it has too many changes
+     * @throws IOException if the pack can't be read as a zip file, such as protected packs
+     */
+    static byte @Nullable [] createOverlay(Map<String, Long> base, Path pack, long maxSize) throws IOException {
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            List<ZipEntry> changed = new ArrayList<>();
+            Set<String> removed = new HashSet<>(base.keySet());
+            long size = 0;
+            Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+            while (enumeration.hasMoreElements()) {
+                ZipEntry entry = enumeration.nextElement();
+                if (entry.isDirectory()) continue;
+                String name = entry.getName();
+                removed.remove(name);
+                Long previous = base.get(name);
+                // 每个资源包都需要自己的pack.mcmeta
+                if (previous == null || previous != fingerprint(entry) || name.equals(PACK_META)) {
+                    changed.add(entry);
+                    size += entry.getCompressedSize();
+                }
+            }
+            if (!removed.isEmpty() || size > maxSize) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) size + 1024);
+            try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (ZipEntry entry : changed) {
+                    ZipEntry copy = new ZipEntry(entry.getName());
+                    // 保留原时间，使相同的改动生成相同的资源包
+                    copy.setTime(entry.getTime());
+                    zip.putNextEntry(copy);
+                    try (InputStream input = zipFile.getInputStream(entry)) {
+                        input.transferTo(zip);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static long fingerprint(ZipEntry entry) {
+        return entry.getCrc() << 32 ^ entry.getSize();
+    }
+}
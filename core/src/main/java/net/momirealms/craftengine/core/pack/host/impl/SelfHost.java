@@ -28,9 +28,7 @@ public class SelfHost implements ResourcePackHost {
 
     @Override
     public CompletableFuture<List<ResourcePackDownloadData>> requestResourcePackDownloadLink(UUID player) {
-        ResourcePackDownloadData data = SelfHostHttpServer.instance().generateOneTimeUrl(player);
-        if (data == null) return CompletableFuture.completedFuture(List.of());
-        return CompletableFuture.completedFuture(List.of(data));
+        return CompletableFuture.completedFuture(SelfHostHttpServer.instance().generateOneTimeUrls(player));
     }
 
     @Override
@@ -98,7 +96,15 @@ public class SelfHost implements ResourcePackHost {
                 maxBandwidthUsage = ResourceConfigUtils.getAsLong(rateLimitingSection.getOrDefault("max-bandwidth-per-second", 0), "max-bandwidth");
                 minDownloadSpeed = ResourceConfigUtils.getAsLong(rateLimitingSection.getOrDefault("min-download-speed-per-player", 50_000), "min-download-speed-per-player");
             }
-            selfHostHttpServer.updateProperties(ip, port, url, denyNonMinecraftRequest, protocol, limit, oneTimeToken, maxBandwidthUsage, minDownloadSpeed, strictValidation);
+            boolean layeredDelivery = false;
+            int maxLayeredVersions = 5;
+            Map<String, Object> layeredDeliverySection = ResourceConfigUtils.getAsMapOrNull(arguments.get("layered-delivery"), "layered-delivery");
+            if (layeredDeliverySection != null) {
+                layeredDelivery = ResourceConfigUtils.getAsBoolean(layeredDeliverySection.getOrDefault("enable", false), "enable");
+                maxLayeredVersions = ResourceConfigUtils.getAsInt(layeredDeliverySection.getOrDefault("max-versions", 5), "max-versions");
+            }
+            boolean gzip = ResourceConfigUtils.getAsBoolean(arguments.getOrDefault("gzip", false), "gzip");
+            selfHostHttpServer.updateProperties(ip, port, url, denyNonMinecraftRequest, protocol, limit, oneTimeToken, maxBandwidthUsage, minDownloadSpeed, strictValidation, layeredDelivery, maxLayeredVersions, gzip);
             return INSTANCE;
         }
     }
@@ -6,15 +6,20 @@ import com.github.benmanes.caffeine.cache.Scheduler;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.*;
-import io.netty.handler.stream.ChunkedStream;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.traffic.GlobalChannelTrafficShapingHandler;
 import io.netty.util.CharsetUtil;
@@ -22,27 +27,34 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 import net.momirealms.craftengine.core.pack.host.ResourcePackDownloadData;
 import net.momirealms.craftengine.core.plugin.CraftEngine;
 import net.momirealms.craftengine.core.plugin.locale.TranslationManager;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 public final class SelfHostHttpServer {
+    private static final int CHUNK_SIZE = 65536;
     private static SelfHostHttpServer instance;
     private final Cache<String, String> oneTimePackUrls = Caffeine.newBuilder()
             .maximumSize(1024)
@@ -57,6 +69,9 @@ public final class SelfHostHttpServer {
 
     private final AtomicLong totalRequests = new AtomicLong();
     private final AtomicLong blockedRequests = new AtomicLong();
+    private final MetricsRegistry.Counter notModifiedResponses = MetricsRegistry.instance().counter("craftengine_self_host_not_modified_total", "Downloads answered with 304 because the client already has the pack");
+    private final MetricsRegistry.Counter partialResponses = MetricsRegistry.instance().counter("craftengine_self_host_partial_downloads_total", "Downloads resumed with a range request");
+    private final MetricsRegistry.Counter sentBytes = MetricsRegistry.instance().counter("craftengine_self_host_sent_bytes_total", "Bytes of resource packs sent by the self host server");
 
     private Bandwidth limitPerIp = Bandwidth.builder()
             .capacity(1)
@@ -78,9 +93,15 @@ public final class SelfHostHttpServer {
     private ScheduledExecutorService virtualTrafficExecutor;
     private final ChannelGroup activeDownloadChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
-    private byte[] resourcePackBytes;
-    private String packHash;
-    private UUID packUUID;
+    // 依次发送给玩家的资源包，分层发送时为基础资源包和覆盖包
+    private volatile List<PackContent> packs = List.of();
+    // 读取资源包可能较慢，不与带宽分配共用锁
+    private final Object packLock = new Object();
+    private boolean layeredDelivery;
+    private int maxLayeredVersions = 5;
+    private boolean gzip;
+    private BasePack basePack;
+    private int layeredVersions;
 
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -90,6 +111,10 @@ public final class SelfHostHttpServer {
         if (instance != null) {
             throw new IllegalStateException("SelfHostHttpServer is already initialized.");
         }
+        MetricsRegistry registry = MetricsRegistry.instance();
+        registry.counter("craftengine_self_host_requests_total", "Requests received by the self host server", this.totalRequests::get);
+        registry.counter("craftengine_self_host_blocked_requests_total", "Requests rejected by the self host server", this.blockedRequests::get);
+        registry.gauge("craftengine_self_host_active_downloads", "Resource pack downloads in progress", this.activeDownloadChannels::size);
     }
 
     public static SelfHostHttpServer instance() {
@@ -108,7 +133,10 @@ public final class SelfHostHttpServer {
                                  boolean token,
                                  long globalUploadRateLimit,
                                  long minDownloadSpeed,
-                                 boolean strictValidation) {
+                                 boolean strictValidation,
+                                 boolean layeredDelivery,
+                                 int maxLayeredVersions,
+                                 boolean gzip) {
         this.ip = ip;
         this.url = url;
         this.denyNonMinecraft = denyNonMinecraft;
@@ -116,6 +144,11 @@ public final class SelfHostHttpServer {
         this.limitPerIp = limitPerIp;
         this.useToken = token;
         this.strictValidation = strictValidation;
+        synchronized (this.packLock) {
+            this.layeredDelivery = layeredDelivery;
+            this.maxLayeredVersions = maxLayeredVersions;
+            this.gzip = gzip;
+        }
         if (this.globalUploadRateLimit != globalUploadRateLimit || this.minDownloadSpeed != minDownloadSpeed) {
             this.globalUploadRateLimit = globalUploadRateLimit;
             this.minDownloadSpeed = minDownloadSpeed;
@@ -144,8 +177,10 @@ public final class SelfHostHttpServer {
     }
 
     private void initializeServer() {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        // 优先使用原生epoll传输
+        boolean epoll = Epoll.isAvailable();
+        bossGroup = epoll ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+        workerGroup = epoll ? new EpollEventLoopGroup() : new NioEventLoopGroup();
         virtualTrafficExecutor = Executors.newScheduledThreadPool(1, Thread.ofVirtual().factory());
         long initSize = globalUploadRateLimit <= 0 ? 0 : Math.max(minDownloadSpeed, globalUploadRateLimit);
         trafficShapingHandler = new GlobalChannelTrafficShapingHandler(
@@ -159,7 +194,7 @@ public final class SelfHostHttpServer {
         );
         ServerBootstrap b = new ServerBootstrap();
         b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
@@ -251,12 +286,49 @@ public final class SelfHostHttpServer {
             }
 
             // 没有资源包
-            if (resourcePackBytes == null) {
+            String requestedHash = queryDecoder.parameters().getOrDefault("pack", Collections.emptyList()).stream().findFirst().orElse(null);
+            PackContent pack = findPack(requestedHash);
+            if (pack == null) {
                 sendError(ctx, HttpResponseStatus.NOT_FOUND, "Resource pack missing");
                 blockedRequests.incrementAndGet();
                 return;
             }
 
+            boolean keepAlive = HttpUtil.isKeepAlive(request);
+            String rangeHeader = request.headers().get(HttpHeaderNames.RANGE);
+            // 范围请求总是针对未压缩的资源包
+            boolean gzipped = pack.gzipped() != null && rangeHeader == null && acceptsGzip(request.headers().get(HttpHeaderNames.ACCEPT_ENCODING));
+            ByteBuffer body = gzipped ? pack.gzipped() : pack.content();
+            String etag = gzipped ? "\"" + pack.hash() + "-gzip\"" : "\"" + pack.hash() + "\"";
+
+            // 客户端已经持有当前的资源包
+            String ifNoneMatch = request.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+            if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag)) {
+                notModifiedResponses.increment();
+                FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_MODIFIED);
+                response.headers().set(HttpHeaderNames.ETAG, etag);
+                HttpUtil.setContentLength(response, 0);
+                sendResponse(ctx, response, keepAlive);
+                return;
+            }
+
+            // 断点续传，资源包已经改变时忽略范围请求
+            int fileLength = body.remaining();
+            ByteRange byteRange = null;
+            String ifRange = request.headers().get(HttpHeaderNames.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+                byteRange = ByteRange.parse(rangeHeader, fileLength);
+                if (byteRange == ByteRange.UNSATISFIABLE) {
+                    FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + fileLength);
+                    HttpUtil.setContentLength(response, 0);
+                    sendResponse(ctx, response, keepAlive);
+                    return;
+                }
+            }
+            int start = byteRange == null ? 0 : byteRange.start();
+            int length = byteRange == null ? fileLength : byteRange.end() - byteRange.start() + 1;
+
             // 新人来了，所有人的速度上限降低
             if (!activeDownloadChannels.contains(ctx.channel())) {
                 activeDownloadChannels.add(ctx.channel());
@@ -264,19 +336,30 @@ public final class SelfHostHttpServer {
             }
 
             // 告诉客户端资源包大小
-            long fileLength = resourcePackBytes.length;
-            HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-            HttpUtil.setContentLength(response, fileLength);
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/zip");
-            boolean keepAlive = HttpUtil.isKeepAlive(request);
+            HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, byteRange == null ? HttpResponseStatus.OK : HttpResponseStatus.PARTIAL_CONTENT);
+            HttpUtil.setContentLength(response, length);
+            response.headers()
+                    .set(HttpHeaderNames.CONTENT_TYPE, "application/zip")
+                    .set(HttpHeaderNames.ETAG, etag)
+                    .set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+            if (pack.gzipped() != null) {
+                response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+            }
+            if (gzipped) {
+                response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+            }
+            if (byteRange != null) {
+                partialResponses.increment();
+                response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + byteRange.start() + "-" + byteRange.end() + "/" + fileLength);
+            }
             if (keepAlive) {
                 response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
             }
             ctx.write(response);
 
-            // 发送分段资源包
-            ChunkedStream chunkedStream = new ChunkedStream(new ByteArrayInputStream(resourcePackBytes), 8192);
-            HttpChunkedInput httpChunkedInput = new HttpChunkedInput(chunkedStream);
+            // 直接分段发送堆外内存中的资源包，不为每个下载复制数据
+            ByteBuf content = Unpooled.wrappedBuffer(body.duplicate()).slice(start, length);
+            HttpChunkedInput httpChunkedInput = new HttpChunkedInput(new ChunkedByteBuf(content, sentBytes));
             ChannelFuture sendFileFuture = ctx.writeAndFlush(httpChunkedInput);
             if (!keepAlive) {
                 sendFileFuture.addListener(ChannelFutureListener.CLOSE);
@@ -293,20 +376,74 @@ public final class SelfHostHttpServer {
             });
         }
 
+        @Nullable
+        private PackContent findPack(@Nullable String hash) {
+            List<PackContent> available = packs;
+            if (hash == null) {
+                return available.isEmpty() ? null : available.getFirst();
+            }
+            for (PackContent pack : available) {
+                if (pack.hash().equals(hash)) {
+                    return pack;
+                }
+            }
+            return null;
+        }
+
+        private boolean acceptsGzip(@Nullable String header) {
+            if (header == null) return false;
+            for (String coding : header.split(",")) {
+                String[] params = coding.split(";");
+                if (!params[0].trim().equalsIgnoreCase("gzip")) continue;
+                for (int i = 1; i < params.length; i++) {
+                    if (params[i].replace(" ", "").matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private boolean matchesETag(String header, String etag) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void sendResponse(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+            if (keepAlive) {
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+                ctx.writeAndFlush(response);
+            } else {
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
         private void handleMetrics(ChannelHandlerContext ctx) {
+            // 保留旧的指标名称，之后是插件的所有指标
             String metrics = "# TYPE total_requests counter\n"
                     + "total_requests " + totalRequests.get() + "\n"
                     + "# TYPE blocked_requests counter\n"
-                    + "blocked_requests " + blockedRequests.get();
+                    + "blocked_requests " + blockedRequests.get() + "\n"
+                    + MetricsRegistry.instance().scrape();
 
+            ByteBuf content = Unpooled.copiedBuffer(metrics, CharsetUtil.UTF_8);
             FullHttpResponse response = new DefaultFullHttpResponse(
                     HttpVersion.HTTP_1_1,
                     HttpResponseStatus.OK,
-                    Unpooled.copiedBuffer(metrics, CharsetUtil.UTF_8)
+                    content
             );
             response.headers()
-                    .set(HttpHeaderNames.CONTENT_TYPE, "text/plain")
-                    .set(HttpHeaderNames.CONTENT_LENGTH, metrics.length());
+                    .set(HttpHeaderNames.CONTENT_TYPE, "text/plain; version=0.0.4")
+                    .set(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
 
             ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
         }
@@ -366,21 +503,19 @@ public final class SelfHostHttpServer {
         trafficShapingHandler.setWriteChannelLimit(fairRate);
     }
 
-    @Nullable
-    public ResourcePackDownloadData generateOneTimeUrl(UUID user) {
-        if (this.resourcePackBytes == null) return null;
-
-        if (!this.useToken) {
-            return new ResourcePackDownloadData(url() + "download", this.packUUID, this.packHash);
+    public List<ResourcePackDownloadData> generateOneTimeUrls(UUID user) {
+        List<PackContent> available = this.packs;
+        List<ResourcePackDownloadData> result = new ArrayList<>(available.size());
+        for (PackContent pack : available) {
+            String downloadUrl = url() + "download?pack=" + pack.hash();
+            if (this.useToken) {
+                String token = UUID.randomUUID().toString();
+                oneTimePackUrls.put(token, strictValidation ? user.toString().replace("-", "") : "");
+                downloadUrl += "&token=" + URLEncoder.encode(token, StandardCharsets.UTF_8);
+            }
+            result.add(new ResourcePackDownloadData(downloadUrl, pack.uuid(), pack.hash()));
         }
-
-        String token = UUID.randomUUID().toString();
-        oneTimePackUrls.put(token, strictValidation ? user.toString().replace("-", "") : "");
-        return new ResourcePackDownloadData(
-                url() + "download?token=" + URLEncoder.encode(token, StandardCharsets.UTF_8),
-                packUUID,
-                packHash
-        );
+        return result;
     }
 
     public void disable() {
@@ -404,32 +539,237 @@ public final class SelfHostHttpServer {
     }
 
     public void readResourcePack(Path path) {
-        try {
-            if (Files.exists(path)) {
-                this.resourcePackBytes = Files.readAllBytes(path);
-                calculateHash();
-            } else {
-                this.resourcePackBytes = null;
+        synchronized (this.packLock) {
+            try {
+                if (!Files.exists(path)) {
+                    this.packs = List.of();
+                    return;
+                }
+                PackContent pack = readPack(path);
+                if (pack == null) return;
+                if (!this.layeredDelivery) {
+                    this.basePack = null;
+                    this.packs = List.of(pack);
+                    return;
+                }
+                this.packs = layerPack(path, pack);
+            } catch (IOException e) {
+                CraftEngine.instance().logger().severe("Failed to load resource pack", e);
+            }
+        }
+    }
+
+    private List<PackContent> layerPack(Path path, PackContent pack) throws IOException {
+        Path basePath = path.resolveSibling(path.getFileName() + ".base");
+        BasePack base = this.basePack;
+        if (base == null && Files.exists(basePath)) {
+            // 重启后沿用玩家已经下载过的基础资源包
+            try {
+                PackContent baseContent = readPack(basePath);
+                if (baseContent != null) {
+                    base = new BasePack(baseContent, PackLayers.readEntries(basePath));
+                }
+            } catch (IOException e) {
+                CraftEngine.instance().logger().warn("Failed to read base resource pack " + basePath, e);
+            }
+            this.layeredVersions = 0;
+        }
+        if (base != null) {
+            if (base.content().hash().equals(pack.hash())) {
+                this.basePack = base;
+                return List.of(base.content());
             }
+            if (this.layeredVersions < this.maxLayeredVersions) {
+                byte[] overlay = null;
+                try {
+                    overlay = PackLayers.createOverlay(base.entries(), path, pack.content().remaining() / 2);
+                } catch (IOException e) {
+                    CraftEngine.instance().logger().warn("Failed to create resource pack overlay, sending the full pack instead", e);
+                }
+                if (overlay != null) {
+                    PackContent overlayContent = createPack(ByteBuffer.allocateDirect(overlay.length).put(overlay).flip());
+                    if (overlayContent != null) {
+                        this.basePack = base;
+                        this.layeredVersions++;
+                        return List.of(base.content(), overlayContent);
+                    }
+                }
+            }
+        }
+        // 当前资源包成为新的基础资源包
+        this.layeredVersions = 0;
+        try {
+            this.basePack = new BasePack(pack, PackLayers.readEntries(path));
+            Files.copy(path, basePath, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
-            CraftEngine.instance().logger().severe("Failed to load resource pack", e);
+            this.basePack = null;
+            Files.deleteIfExists(basePath);
+            CraftEngine.instance().logger().warn("Failed to read resource pack entries, layered delivery is disabled for this pack", e);
         }
+        return List.of(pack);
+    }
+
+    @Nullable
+    private PackContent readPack(Path path) throws IOException {
+        // 读入堆外内存以便直接写入套接字，不映射文件，因为重新生成资源包时会覆盖该文件
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Resource pack is too large: " + size + " bytes");
+            }
+            content = ByteBuffer.allocateDirect((int) size);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+            }
+            content.flip();
+        }
+        return createPack(content);
+    }
+
+    @Nullable
+    private PackContent createPack(ByteBuffer content) throws IOException {
+        String hash = calculateHash(content);
+        if (hash == null) return null;
+        return new PackContent(content.asReadOnlyBuffer(), this.gzip ? compress(content) : null, hash, UUID.nameUUIDFromBytes(hash.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private void calculateHash() {
+    @Nullable
+    private static ByteBuffer compress(ByteBuffer content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.remaining() / 2);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(out, CHUNK_SIZE);
+             WritableByteChannel channel = Channels.newChannel(gzipStream)) {
+            channel.write(content.duplicate());
+        }
+        // 压缩效果不明显时只提供原文件
+        if (out.size() > content.remaining() - content.remaining() / 16) {
+            return null;
+        }
+        return ByteBuffer.allocateDirect(out.size()).put(out.toByteArray()).flip().asReadOnlyBuffer();
+    }
+
+    @Nullable
+    private String calculateHash(ByteBuffer content) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-1");
-            digest.update(this.resourcePackBytes);
+            digest.update(content.duplicate());
             byte[] hashBytes = digest.digest();
 
             StringBuilder hexString = new StringBuilder();
             for (byte b : hashBytes) {
                 hexString.append(String.format("%02x", b));
             }
-            this.packHash = hexString.toString();
-            this.packUUID = UUID.nameUUIDFromBytes(this.packHash.getBytes(StandardCharsets.UTF_8));
+            return hexString.toString();
         } catch (NoSuchAlgorithmException e) {
             CraftEngine.instance().logger().severe("SHA-1 algorithm not available", e);
+            return null;
+        }
+    }
+
+    /**
+     * @param content the read-only content of the pack, in direct memory
+     * @param gzipped the content compressed with gzip, or null if it isn't worth compressing
+     */
+    private record PackContent(ByteBuffer content, @Nullable ByteBuffer gzipped, String hash, UUID uuid) {
+    }
+
+    /**
+     * @param entries the fingerprint of every file in the base pack
+     */
+    private record BasePack(PackContent content, Map<String, Long> entries) {
+    }
+
+    /**
+     * A single inclusive range of bytes requested with the {@code Range} header.
+     */
+    private record ByteRange(int start, int end) {
+        private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        /**
+         * @return the requested range, {@link #UNSATISFIABLE} if it lies outside the content,
+         * or null if the header should be ignored and the whole content sent
+         */
+        @Nullable
+        private static ByteRange parse(String header, int length) {
+            // 只支持单个范围，其他情况发送完整内容
+            if (!header.startsWith("bytes=") || header.indexOf(',') != -1) {
+                return null;
+            }
+            String spec = header.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash == -1) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    // 末尾的若干字节
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0 || length == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    return new ByteRange((int) Math.max(0, length - suffix), length - 1);
+                }
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start < 0 || end < start) {
+                    return start >= length ? UNSATISFIABLE : null;
+                }
+                return new ByteRange((int) start, (int) end);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Sends a buffer in chunks, so that large downloads respect the writability of the channel and the traffic shaping.
+     */
+    private static final class ChunkedByteBuf implements ChunkedInput<ByteBuf> {
+        private final ByteBuf content;
+        private final MetricsRegistry.Counter sentBytes;
+        private final int length;
+
+        private ChunkedByteBuf(ByteBuf content, MetricsRegistry.Counter sentBytes) {
+            this.content = content;
+            this.sentBytes = sentBytes;
+            this.length = content.readableBytes();
+        }
+
+        @Override
+        public boolean isEndOfInput() {
+            return !this.content.isReadable();
+        }
+
+        @Override
+        public void close() {
+            this.content.release();
+        }
+
+        @Deprecated
+        @Override
+        public ByteBuf readChunk(ChannelHandlerContext ctx) {
+            return this.readChunk(ctx.alloc());
+        }
+
+        @Override
+        public ByteBuf readChunk(ByteBufAllocator allocator) {
+            if (!this.content.isReadable()) {
+                return null;
+            }
+            int size = Math.min(CHUNK_SIZE, this.content.readableBytes());
+            this.sentBytes.add(size);
+            return this.content.readRetainedSlice(size);
+        }
+
+        @Override
+        public long length() {
+            return this.length;
+        }
+
+        @Override
+        public long progress() {
+            return this.content.readerIndex();
         }
     }
-}
\ No newline at end of file
+}
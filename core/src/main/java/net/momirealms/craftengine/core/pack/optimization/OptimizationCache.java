@@ -0,0 +1,130 @@
+package net.momirealms.craftengine.core.pack.optimization;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Stores the output of resource pack optimizers on disk, keyed by the hash of the input bytes
+ * and the settings of the optimizer, so unchanged files are not optimized again on the next build.
+ */
+public class OptimizationCache {
+    // 优化算法改变时递增，使旧的缓存失效
+    private static final int FORMAT_VERSION = 1;
+    private static final byte[] UNCHANGED = new byte[0];
+    private final Path directory;
+    private final Set<Path> usedEntries = ConcurrentHashMap.newKeySet();
+    private final Set<String> usedTypes = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public OptimizationCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cached output for the given input, or runs the optimizer and stores its output.
+     * If the optimizer doesn't make the input smaller, the input itself is returned.
+     *
+     * @param type the kind of file, used as the folder of the cache entries
+     * @param settings the optimizer settings that affect the output
+     */
+    public byte[] optimize(String type, String settings, byte[] input, Optimizer optimizer) throws IOException {
+        String hash = hash(type, settings, input);
+        Path entry = this.directory.resolve(type).resolve(hash.substring(0, 2)).resolve(hash);
+        this.usedTypes.add(type);
+        this.usedEntries.add(entry);
+        if (Files.isRegularFile(entry)) {
+            try {
+                byte[] cached = Files.readAllBytes(entry);
+                this.hits.increment();
+                return cached.length == 0 ? input : cached;
+            } catch (IOException ignored) {
+                // 读取失败则重新优化
+            }
+        }
+        this.misses.increment();
+        byte[] output = optimizer.optimize(input);
+        this.write(entry, output.length < input.length ? output : UNCHANGED);
+        return output;
+    }
+
+    private void write(Path entry, byte[] data) throws IOException {
+        Files.createDirectories(entry.getParent());
+        Path temp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Deletes the entries of the file types used in this build that were not requested by it.
+     *
+     * @return the number of deleted entries
+     */
+    public int prune() throws IOException {
+        int deleted = 0;
+        for (String type : this.usedTypes) {
+            Path typeFolder = this.directory.resolve(type);
+            if (!Files.isDirectory(typeFolder)) continue;
+            try (Stream<Path> files = Files.walk(typeFolder)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.isRegularFile(file) && !this.usedEntries.contains(file)) {
+                        Files.deleteIfExists(file);
+                        deleted++;
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Resets the entries and statistics collected for the current build.
+     */
+    public void reset() {
+        this.usedEntries.clear();
+        this.usedTypes.clear();
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    private static String hash(String type, String settings, byte[] input) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update((FORMAT_VERSION + ":" + type + ":" + settings + ":").getBytes(StandardCharsets.UTF_8));
+            md.update(input);
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to calculate SHA-256", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Optimizer {
+
+        byte[] optimize(byte[] input) throws IOException;
+    }
+}
@@ -0,0 +1,366 @@
+package net.momirealms.craftengine.core.pack.zip;
+
+import net.momirealms.craftengine.core.util.CharacterUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+/**
+ * Writes a folder into a zip file. Entries are compressed in parallel and then written in sorted order
+ * with fixed timestamps, so the same content always produces the same zip. Only a bounded number of entries
+ * is compressed ahead of the one being written, and each entry is released once it has been written.
+ * Entries whose content hasn't changed since the previous zip are copied from it without being compressed again.
+ * The digest of each entry is kept in the central directory, so this also works for a zip written before a restart.
+ */
+public class ResourcePackZipWriter {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int VERSION = 20;
+    // 文件名使用UTF-8编码
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    // 1980-01-01 00:00:00
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1;
+    private static final int DIRECTORY_ATTRIBUTES = 0x10;
+    // 中央目录中的扩展字段，记录压缩等级与未压缩内容的SHA-1
+    private static final int DIGEST_EXTRA_ID = 0x4543;
+    private static final int DIGEST_EXTRA_SIZE = 4 + 1 + 20;
+    // 同时压缩的条目数量上限，写入后即释放，避免整个资源包的压缩数据同时留在内存中
+    private static final int MAX_ENTRIES_IN_FLIGHT = 64;
+    @Nullable
+    private Index previous;
+
+    /**
+     * @param root the folder to zip
+     * @param zip the zip file to create or replace
+     * @param policy decides how each entry is compressed
+     * @param executor the executor used to compress entries
+     */
+    public synchronized void write(Path root, Path zip, CompressionPolicy policy, Executor executor) throws IOException {
+        List<String> names = collectEntries(root);
+        if (names.size() > 0xFFFF) {
+            throw new ZipException("Too many entries for a zip file: " + names.size());
+        }
+        Index previous = this.previous != null && this.previous.matches(zip) ? this.previous : Index.read(zip);
+        Map<String, IndexedEntry> indexedEntries = new HashMap<>(names.size());
+        Path temp = zip.resolveSibling(zip.getFileName() + ".tmp");
+        try (FileChannel previousChannel = previous != null ? FileChannel.open(zip, StandardOpenOption.READ) : null) {
+            Deque<CompletableFuture<PreparedEntry>> inFlight = new ArrayDeque<>(MAX_ENTRIES_IN_FLIGHT);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 65536)) {
+                ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+                long offset = 0;
+                int next = 0;
+                while (next < names.size() || !inFlight.isEmpty()) {
+                    // 保持一定数量的条目在压缩，并按顺序写出最早提交的条目
+                    while (next < names.size() && inFlight.size() < MAX_ENTRIES_IN_FLIGHT) {
+                        String name = names.get(next++);
+                        inFlight.add(CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return prepareEntry(root, name, policy, previous, previousChannel);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, executor));
+                    }
+                    PreparedEntry entry = join(inFlight.poll());
+                    if (offset > 0xFFFFFFFFL) {
+                        throw new ZipException("Resource pack is too large for a zip file");
+                    }
+                    byte[] nameBytes = entry.name.getBytes(StandardCharsets.UTF_8);
+                    out.write(localHeader(entry, nameBytes));
+                    out.write(entry.data);
+                    centralDirectory.write(centralHeader(entry, nameBytes, offset));
+                    if (entry.digest != null) {
+                        indexedEntries.put(entry.name, new IndexedEntry(entry.digest, entry.method, entry.level, entry.crc, entry.size, entry.data.length, offset));
+                    }
+                    offset += LOCAL_HEADER_SIZE + nameBytes.length + entry.data.length;
+                }
+                if (offset > 0xFFFFFFFFL) {
+                    throw new ZipException("Resource pack is too large for a zip file");
+                }
+                centralDirectory.writeTo(out);
+                out.write(end(names.size(), centralDirectory.size(), offset));
+            }
+        } catch (Throwable t) {
+            Files.deleteIfExists(temp);
+            throw t;
+        }
+        try {
+            Files.move(temp, zip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, zip, StandardCopyOption.REPLACE_EXISTING);
+        }
+        this.previous = new Index(zip, Files.size(zip), Files.getLastModifiedTime(zip).toMillis(), indexedEntries);
+    }
+
+    private static List<String> collectEntries(Path root) throws IOException {
+        List<String> names = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public @NotNull FileVisitResult preVisitDirectory(@NotNull Path dir, @NotNull BasicFileAttributes attrs) {
+                if (!dir.equals(root)) {
+                    names.add(CharacterUtils.replaceBackslashWithSlash(root.relativize(dir).toString()) + "/");
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public @NotNull FileVisitResult visitFile(@NotNull Path file, @NotNull BasicFileAttributes attrs) {
+                names.add(CharacterUtils.replaceBackslashWithSlash(root.relativize(file).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(names);
+        return names;
+    }
+
+    private static PreparedEntry prepareEntry(Path root, String name, CompressionPolicy policy,
+                                              @Nullable Index previous, @Nullable FileChannel previousChannel) throws IOException {
+        if (name.endsWith("/")) {
+            return new PreparedEntry(name, null, STORED, 0, 0, 0, new byte[0]);
+        }
+        byte[] bytes = Files.readAllBytes(root.resolve(name));
+        byte[] digest = sha1().digest(bytes);
+        int level = policy.level(name);
+        // 内容与压缩等级都没有变化，直接复制上次压缩好的数据
+        if (previous != null && previousChannel != null) {
+            IndexedEntry indexed = previous.entries.get(name);
+            if (indexed != null && indexed.level == level && Arrays.equals(indexed.digest, digest)) {
+                ByteBuffer data = ByteBuffer.allocate(indexed.compressedSize);
+                long position = indexed.offset + LOCAL_HEADER_SIZE + name.getBytes(StandardCharsets.UTF_8).length;
+                while (data.hasRemaining()) {
+                    if (previousChannel.read(data, position + data.position()) < 0) {
+                        throw new ZipException("Unexpected end of previous zip file");
+                    }
+                }
+                return new PreparedEntry(name, digest, indexed.method, level, indexed.crc, indexed.size, data.array());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if (level == Deflater.NO_COMPRESSION) {
+            return new PreparedEntry(name, digest, STORED, level, (int) crc.getValue(), bytes.length, bytes);
+        }
+        byte[] compressed = deflate(bytes, level);
+        // 压缩后反而更大则直接存储
+        if (compressed.length >= bytes.length) {
+            return new PreparedEntry(name, digest, STORED, level, (int) crc.getValue(), bytes.length, bytes);
+        }
+        return new PreparedEntry(name, digest, DEFLATED, level, (int) crc.getValue(), bytes.length, compressed);
+    }
+
+    private static byte[] deflate(byte[] bytes, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] localHeader(PreparedEntry entry, byte[] name) {
+        ByteBuffer buffer = ByteBuffer.allocate(LOCAL_HEADER_SIZE + name.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(LOCAL_HEADER_SIGNATURE);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) FLAG_UTF8);
+        buffer.putShort((short) entry.method);
+        buffer.putShort((short) DOS_TIME);
+        buffer.putShort((short) DOS_DATE);
+        buffer.putInt(entry.crc);
+        buffer.putInt(entry.data.length);
+        buffer.putInt(entry.size);
+        buffer.putShort((short) name.length);
+        buffer.putShort((short) 0);
+        buffer.put(name);
+        return buffer.array();
+    }
+
+    private static byte[] centralHeader(PreparedEntry entry, byte[] name, long offset) {
+        int extraSize = entry.digest != null ? DIGEST_EXTRA_SIZE : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(CENTRAL_HEADER_SIZE + name.length + extraSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(CENTRAL_HEADER_SIGNATURE);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) FLAG_UTF8);
+        buffer.putShort((short) entry.method);
+        buffer.putShort((short) DOS_TIME);
+        buffer.putShort((short) DOS_DATE);
+        buffer.putInt(entry.crc);
+        buffer.putInt(entry.data.length);
+        buffer.putInt(entry.size);
+        buffer.putShort((short) name.length);
+        buffer.putShort((short) extraSize);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) 0);
+        buffer.putInt(entry.name.endsWith("/") ? DIRECTORY_ATTRIBUTES : 0);
+        buffer.putInt((int) offset);
+        buffer.put(name);
+        if (entry.digest != null) {
+            buffer.putShort((short) DIGEST_EXTRA_ID);
+            buffer.putShort((short) (DIGEST_EXTRA_SIZE - 4));
+            buffer.put((byte) entry.level);
+            buffer.put(entry.digest);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] end(int entries, int centralDirectorySize, long centralDirectoryOffset) {
+        ByteBuffer buffer = ByteBuffer.allocate(END_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(END_SIGNATURE);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) 0);
+        buffer.putShort((short) entries);
+        buffer.putShort((short) entries);
+        buffer.putInt(centralDirectorySize);
+        buffer.putInt((int) centralDirectoryOffset);
+        buffer.putShort((short) 0);
+        return buffer.array();
+    }
+
+    private static PreparedEntry join(CompletableFuture<PreparedEntry> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to calculate SHA1", e);
+        }
+    }
+
+    /**
+     * Decides the deflate level of each entry, {@link Deflater#NO_COMPRESSION} stores the entry as is.
+     */
+    @FunctionalInterface
+    public interface CompressionPolicy {
+
+        int level(String name);
+
+        static CompressionPolicy of(Set<String> storedExtensions, int level) {
+            return name -> {
+                int index = name.lastIndexOf('.');
+                if (index != -1 && storedExtensions.contains(name.substring(index + 1))) {
+                    return Deflater.NO_COMPRESSION;
+                }
+                return level;
+            };
+        }
+    }
+
+    private record PreparedEntry(String name, byte @Nullable [] digest, int method, int level, int crc, int size, byte[] data) {
+    }
+
+    private record IndexedEntry(byte[] digest, int method, int level, int crc, int size, int compressedSize, long offset) {
+    }
+
+    private record Index(Path zip, long size, long lastModified, Map<String, IndexedEntry> entries) {
+
+        /**
+         * Reads the entries of a zip previously written by this class from its central directory.
+         *
+         * @return the index, or null if the zip doesn't exist or wasn't written by this class
+         */
+        @Nullable
+        private static Index read(Path zip) {
+            if (!Files.isRegularFile(zip)) return null;
+            try (FileChannel channel = FileChannel.open(zip, StandardOpenOption.READ)) {
+                long fileSize = channel.size();
+                if (fileSize < END_SIZE) return null;
+                // 写入时不添加注释，结束记录一定位于文件末尾
+                ByteBuffer end = readFully(channel, fileSize - END_SIZE, END_SIZE);
+                if (end.getInt(0) != END_SIGNATURE) return null;
+                int entryCount = Short.toUnsignedInt(end.getShort(10));
+                long centralDirectorySize = Integer.toUnsignedLong(end.getInt(12));
+                long centralDirectoryOffset = Integer.toUnsignedLong(end.getInt(16));
+                if (centralDirectoryOffset + centralDirectorySize + END_SIZE != fileSize) return null;
+                ByteBuffer centralDirectory = readFully(channel, centralDirectoryOffset, (int) centralDirectorySize);
+                Map<String, IndexedEntry> entries = new HashMap<>(entryCount);
+                for (int i = 0; i < entryCount; i++) {
+                    int position = centralDirectory.position();
+                    if (centralDirectory.getInt(position) != CENTRAL_HEADER_SIGNATURE) return null;
+                    int method = Short.toUnsignedInt(centralDirectory.getShort(position + 10));
+                    int crc = centralDirectory.getInt(position + 16);
+                    int compressedSize = centralDirectory.getInt(position + 20);
+                    int size = centralDirectory.getInt(position + 24);
+                    int nameLength = Short.toUnsignedInt(centralDirectory.getShort(position + 28));
+                    int extraLength = Short.toUnsignedInt(centralDirectory.getShort(position + 30));
+                    int commentLength = Short.toUnsignedInt(centralDirectory.getShort(position + 32));
+                    long offset = Integer.toUnsignedLong(centralDirectory.getInt(position + 42));
+                    byte[] name = new byte[nameLength];
+                    centralDirectory.get(position + CENTRAL_HEADER_SIZE, name);
+                    int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+                    if (extraLength == DIGEST_EXTRA_SIZE && Short.toUnsignedInt(centralDirectory.getShort(extra)) == DIGEST_EXTRA_ID) {
+                        byte[] digest = new byte[20];
+                        centralDirectory.get(extra + 5, digest);
+                        entries.put(new String(name, StandardCharsets.UTF_8), new IndexedEntry(digest, method, centralDirectory.get(extra + 4), crc, size, compressedSize, offset));
+                    }
+                    centralDirectory.position(extra + extraLength + commentLength);
+                }
+                return new Index(zip, fileSize, Files.getLastModifiedTime(zip).toMillis(), entries);
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new ZipException("Unexpected end of zip file");
+                }
+            }
+            return buffer.clear();
+        }
+
+        private boolean matches(Path zip) {
+            try {
+                return this.zip.equals(zip) && Files.size(zip) == this.size && Files.getLastModifiedTime(zip).toMillis() == this.lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -101,7 +101,11 @@ public class Config {
     protected List<String> resource_pack$protection$obfuscation$bypass_sounds;
     protected List<String> resource_pack$protection$obfuscation$bypass_equipments;
 
+    protected boolean resource_pack$incremental_generation;
+    protected int resource_pack$compression$level;
+    protected Set<String> resource_pack$compression$stored_extensions;
     protected boolean resource_pack$optimization$enable;
+    protected boolean resource_pack$optimization$cache;
     protected boolean resource_pack$optimization$texture$enable;
     protected Set<String> resource_pack$optimization$texture$exlude;
     protected int resource_pack$optimization$texture$zopfli_iterations;
@@ -126,10 +130,15 @@ public class Config {
     protected boolean light_system$enable;
 
     protected int chunk_system$compression_method;
+    protected boolean chunk_system$compact_format;
     protected boolean chunk_system$restore_vanilla_blocks_on_chunk_unload;
     protected boolean chunk_system$restore_custom_blocks_on_chunk_load;
     protected boolean chunk_system$sync_custom_blocks_on_chunk_load;
     protected boolean chunk_system$cache_system = true;
+    protected boolean chunk_system$async_loading$enable;
+    protected int chunk_system$async_loading$max_prefetched_chunks;
+    protected boolean chunk_system$batched_saving$enable;
+    protected int chunk_system$batched_saving$batch_size;
     protected boolean chunk_system$injection$use_fast_method;
     protected boolean chunk_system$injection$target;
     protected boolean chunk_system$process_invalid_furniture$enable;
@@ -149,6 +158,7 @@ public class Config {
     protected int block$predict_breaking_interval;
     protected double block$extended_interaction_range;
     protected boolean block$chunk_relighter;
+    protected double block$particle$view_distance;
     protected Key block$deceive_bukkit_material$default;
     protected Map<Integer, Key> block$deceive_bukkit_material$overrides;
     protected int block$serverside_blocks = -1;
@@ -183,6 +193,13 @@ public class Config {
     protected boolean network$intercept_packets$advancement;
     protected boolean network$intercept_packets$player_chat;
     protected boolean network$disable_item_operations;
+    protected boolean network$chunk_packet_cache$enable;
+    protected int network$chunk_packet_cache$max_size;
+    protected boolean network$item_cache$enable;
+    protected int network$item_cache$max_size;
+    protected boolean network$text_cache$enable;
+    protected int network$text_cache$max_size;
+    protected boolean network$metrics$enable;
 
     protected boolean item$client_bound_model;
     protected boolean item$non_italic_tag;
@@ -211,6 +228,8 @@ public class Config {
     protected boolean client_optimization$entity_culling$enable;
     protected int client_optimization$entity_culling$view_distance;
     protected int client_optimization$entity_culling$threads;
+    protected int client_optimization$entity_culling$stationary_interval;
+    protected double client_optimization$entity_culling$camera_move_threshold;
     protected boolean client_optimization$entity_culling$ray_tracing;
     protected boolean client_optimization$entity_culling$rate_limiting$enable;
     protected int client_optimization$entity_culling$rate_limiting$bucket_size;
@@ -374,7 +393,11 @@ public class Config {
         resource_pack$protection$obfuscation$bypass_models = config.getStringList("resource-pack.protection.obfuscation.bypass-models");
         resource_pack$protection$obfuscation$bypass_sounds = config.getStringList("resource-pack.protection.obfuscation.bypass-sounds");
         resource_pack$protection$obfuscation$bypass_equipments = config.getStringList("resource-pack.protection.obfuscation.bypass-equipments");
+        resource_pack$incremental_generation = config.getBoolean("resource-pack.incremental-generation", true);
+        resource_pack$compression$level = MiscUtils.clamp(config.getInt("resource-pack.compression.level", 9), 0, 9);
+        resource_pack$compression$stored_extensions = new HashSet<>(config.getStringList("resource-pack.compression.stored-extensions"));
         resource_pack$optimization$enable = config.getBoolean("resource-pack.optimization.enable", false);
+        resource_pack$optimization$cache = config.getBoolean("resource-pack.optimization.cache", true);
         resource_pack$optimization$texture$enable = config.getBoolean("resource-pack.optimization.texture.enable", true);
         resource_pack$optimization$texture$zopfli_iterations = config.getInt("resource-pack.optimization.texture.zopfli-iterations", 0);
         resource_pack$optimization$texture$exlude = config.getStringList("resource-pack.optimization.texture.exclude").stream().map(p -> {
@@ -414,10 +437,15 @@ public class Config {
 
         // chunk
         chunk_system$compression_method = config.getInt("chunk-system.compression-method", 4);
+        chunk_system$compact_format = config.getBoolean("chunk-system.compact-format", false);
         chunk_system$restore_vanilla_blocks_on_chunk_unload = config.getBoolean("chunk-system.restore-vanilla-blocks-on-chunk-unload", true);
         chunk_system$restore_custom_blocks_on_chunk_load = config.getBoolean("chunk-system.restore-custom-blocks-on-chunk-load", true);
         chunk_system$sync_custom_blocks_on_chunk_load = config.getBoolean("chunk-system.sync-custom-blocks-on-chunk-load", false);
         chunk_system$cache_system = config.getBoolean("chunk-system.cache-system", true);
+        chunk_system$async_loading$enable = config.getBoolean("chunk-system.async-loading.enable", false);
+        chunk_system$async_loading$max_prefetched_chunks = Math.max(config.getInt("chunk-system.async-loading.max-prefetched-chunks", 2048), 0);
+        chunk_system$batched_saving$enable = config.getBoolean("chunk-system.batched-saving.enable", true);
+        chunk_system$batched_saving$batch_size = Math.max(config.getInt("chunk-system.batched-saving.batch-size", 64), 1);
         chunk_system$injection$use_fast_method = config.getBoolean("chunk-system.injection.use-fast-method", false);
         if (firstTime) {
             chunk_system$injection$target = config.getEnum("chunk-system.injection.target", InjectionTarget.class, InjectionTarget.PALETTE) == InjectionTarget.PALETTE;
@@ -506,6 +534,7 @@ public class Config {
         block$predict_breaking_interval = Math.max(config.getInt("block.predict-breaking.interval", 10), 1);
         block$extended_interaction_range = Math.max(config.getDouble("block.predict-breaking.extended-interaction-range", 0.5), 0.0);
         block$chunk_relighter = config.getBoolean("block.chunk-relighter", true);
+        block$particle$view_distance = Math.max(config.getDouble("block.particle.view-distance", 32), 0.0);
         if (firstTime) {
             block$deceive_bukkit_material$default = Key.of(config.getString("block.deceive-bukkit-material.default", "bricks"));
             block$deceive_bukkit_material$overrides = new HashMap<>();
@@ -559,6 +588,13 @@ public class Config {
         }
 
         network$disable_item_operations = config.getBoolean("network.disable-item-operations", false);
+        network$chunk_packet_cache$enable = config.getBoolean("network.chunk-packet-cache.enable", true);
+        network$chunk_packet_cache$max_size = Math.max(config.getInt("network.chunk-packet-cache.max-size", 64), 1);
+        network$item_cache$enable = config.getBoolean("network.item-cache.enable", true);
+        network$item_cache$max_size = Math.max(config.getInt("network.item-cache.max-size", 4096), 1);
+        network$text_cache$enable = config.getBoolean("network.text-cache.enable", true);
+        network$text_cache$max_size = Math.max(config.getInt("network.text-cache.max-size", 2048), 1);
+        network$metrics$enable = config.getBoolean("network.metrics.enable", false);
         network$intercept_packets$system_chat = config.getBoolean("network.intercept-packets.system-chat", true);
         network$intercept_packets$tab_list = config.getBoolean("network.intercept-packets.tab-list", true);
         network$intercept_packets$actionbar = config.getBoolean("network.intercept-packets.actionbar", true);
@@ -589,6 +625,8 @@ public class Config {
         }
         client_optimization$entity_culling$view_distance = config.getInt("client-optimization.entity-culling.view-distance", 64);
         client_optimization$entity_culling$threads = config.getInt("client-optimization.entity-culling.threads", 1);
+        client_optimization$entity_culling$stationary_interval = Math.max(config.getInt("client-optimization.entity-culling.stationary-interval", 5), 1);
+        client_optimization$entity_culling$camera_move_threshold = Math.max(config.getDouble("client-optimization.entity-culling.camera-move-threshold", 0.25), 0.0);
         client_optimization$entity_culling$ray_tracing = client_optimization$entity_culling$enable && config.getBoolean("client-optimization.entity-culling.ray-tracing", true);
         client_optimization$entity_culling$rate_limiting$enable = config.getBoolean("client-optimization.entity-culling.rate-limiting.enable", true);
         client_optimization$entity_culling$rate_limiting$bucket_size = config.getInt("client-optimization.entity-culling.rate-limiting.bucket-size", 300);
@@ -976,10 +1014,42 @@ public class Config {
         return id;
     }
 
+    public static boolean compactChunkFormat() {
+        return instance.chunk_system$compact_format;
+    }
+
     public static boolean disableItemOperations() {
         return instance.network$disable_item_operations;
     }
 
+    public static boolean enableChunkPacketCache() {
+        return instance.network$chunk_packet_cache$enable;
+    }
+
+    public static int chunkPacketCacheMaxSize() {
+        return instance.network$chunk_packet_cache$max_size;
+    }
+
+    public static boolean enableNetworkItemCache() {
+        return instance.network$item_cache$enable;
+    }
+
+    public static int networkItemCacheMaxSize() {
+        return instance.network$item_cache$max_size;
+    }
+
+    public static boolean enableNetworkTextCache() {
+        return instance.network$text_cache$enable;
+    }
+
+    public static int networkTextCacheMaxSize() {
+        return instance.network$text_cache$max_size;
+    }
+
+    public static boolean enablePacketMetrics() {
+        return instance.network$metrics$enable;
+    }
+
     public static boolean interceptSystemChat() {
         return instance.network$intercept_packets$system_chat;
     }
@@ -1056,6 +1126,10 @@ public class Config {
         return instance.block$extended_interaction_range;
     }
 
+    public static double blockParticleViewDistance() {
+        return instance.block$particle$view_distance;
+    }
+
     public static boolean allowEmojiSign() {
         return instance.emoji$contexts$sign;
     }
@@ -1080,6 +1154,22 @@ public class Config {
         return instance.chunk_system$cache_system;
     }
 
+    public static boolean enableAsyncChunkLoading() {
+        return instance.chunk_system$async_loading$enable;
+    }
+
+    public static int maxPrefetchedChunks() {
+        return instance.chunk_system$async_loading$max_prefetched_chunks;
+    }
+
+    public static boolean enableBatchedChunkSaving() {
+        return instance.chunk_system$batched_saving$enable;
+    }
+
+    public static int chunkSaveBatchSize() {
+        return instance.chunk_system$batched_saving$batch_size;
+    }
+
     public static boolean addNonItalicTag() {
         return instance.item$non_italic_tag;
     }
@@ -1168,10 +1258,26 @@ public class Config {
         this.resource_pack$protection$obfuscation$enable = enable;
     }
 
+    public static boolean incrementalGeneration() {
+        return instance.resource_pack$incremental_generation;
+    }
+
+    public static int zipCompressionLevel() {
+        return instance.resource_pack$compression$level;
+    }
+
+    public static Set<String> zipStoredExtensions() {
+        return instance.resource_pack$compression$stored_extensions;
+    }
+
     public static boolean optimizeResourcePack() {
         return instance.resource_pack$optimization$enable;
     }
 
+    public static boolean enableOptimizationCache() {
+        return instance.resource_pack$optimization$cache;
+    }
+
     public static boolean optimizeTexture() {
         return instance.resource_pack$optimization$texture$enable;
     }
@@ -1212,6 +1318,14 @@ public class Config {
         return instance.client_optimization$entity_culling$threads;
     }
 
+    public static int entityCullingStationaryInterval() {
+        return instance.client_optimization$entity_culling$stationary_interval;
+    }
+
+    public static double entityCullingCameraMoveThreshold() {
+        return instance.client_optimization$entity_culling$camera_move_threshold;
+    }
+
     public static boolean enableEntityCullingRateLimiting() {
         return instance.client_optimization$entity_culling$rate_limiting$enable;
     }
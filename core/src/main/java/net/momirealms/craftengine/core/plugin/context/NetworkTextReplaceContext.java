@@ -1,21 +1,49 @@
 package net.momirealms.craftengine.core.plugin.context;
 
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.momirealms.craftengine.core.entity.player.Player;
 import net.momirealms.craftengine.core.plugin.context.parameter.DirectContextParameters;
+import net.momirealms.craftengine.core.plugin.text.minimessage.ImageTag;
+import net.momirealms.craftengine.core.plugin.text.minimessage.ShiftTag;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 
 public final class NetworkTextReplaceContext extends PlayerOptionalContext implements PlayerContext {
+    @Nullable
+    private final PlayerDependencyTracker tracker;
 
     public NetworkTextReplaceContext(Player player) {
+        this(player, null);
+    }
+
+    public NetworkTextReplaceContext(Player player, @Nullable PlayerDependencyTracker tracker) {
         super(player, new ContextHolder(Map.of(DirectContextParameters.PLAYER, () -> player)));
+        this.tracker = tracker;
     }
 
     public static @NotNull NetworkTextReplaceContext of(Player player) {
         return new NetworkTextReplaceContext(player);
     }
 
+    public static @NotNull NetworkTextReplaceContext of(Player player, @NotNull PlayerDependencyTracker tracker) {
+        return new NetworkTextReplaceContext(player, tracker);
+    }
+
+    @Override
+    protected TagResolver @Nullable [] getTagResolver() {
+        TagResolver[] resolvers = super.getTagResolver();
+        if (this.tracker == null || resolvers == null) return resolvers;
+        TagResolver[] tracked = new TagResolver[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            TagResolver resolver = resolvers[i];
+            // 图片与偏移标签对所有玩家相同
+            tracked[i] = resolver == ShiftTag.INSTANCE || resolver == ImageTag.INSTANCE ? resolver : this.tracker.track(resolver);
+        }
+        return tracked;
+    }
+
     @Override
     public Player player() {
         return super.player;
@@ -0,0 +1,54 @@
+package net.momirealms.craftengine.core.plugin.context;
+
+import net.kyori.adventure.text.minimessage.ParsingException;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records whether a text was resolved with tags whose output may differ between players,
+ * such as placeholders, expressions or arguments, so that the result is only reused when it's safe.
+ */
+public final class PlayerDependencyTracker {
+    private boolean playerDependent;
+
+    public void markPlayerDependent() {
+        this.playerDependent = true;
+    }
+
+    public boolean isPlayerDependent() {
+        return this.playerDependent;
+    }
+
+    public TagResolver track(TagResolver resolver) {
+        return new TrackedTagResolver(resolver, this);
+    }
+
+    public TagResolver @Nullable [] track(TagResolver @Nullable [] resolvers) {
+        if (resolvers == null) return null;
+        TagResolver[] tracked = new TagResolver[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            tracked[i] = track(resolvers[i]);
+        }
+        return tracked;
+    }
+
+    private record TrackedTagResolver(TagResolver resolver, PlayerDependencyTracker tracker) implements TagResolver {
+
+        @Override
+        public @Nullable Tag resolve(@NotNull String name, @NotNull ArgumentQueue arguments, net.kyori.adventure.text.minimessage.@NotNull Context ctx) throws ParsingException {
+            Tag tag = this.resolver.resolve(name, arguments, ctx);
+            if (tag != null) {
+                this.tracker.markPlayerDependent();
+            }
+            return tag;
+        }
+
+        @Override
+        public boolean has(@NotNull String name) {
+            return this.resolver.has(name);
+        }
+    }
+}
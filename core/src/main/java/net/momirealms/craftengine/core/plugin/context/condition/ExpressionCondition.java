@@ -2,10 +2,12 @@ package net.momirealms.craftengine.core.plugin.context.condition;
 
 import com.ezylang.evalex.EvaluationException;
 import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.data.EvaluationValue;
 import com.ezylang.evalex.parser.ParseException;
 import net.momirealms.craftengine.core.plugin.CraftEngine;
 import net.momirealms.craftengine.core.plugin.context.Condition;
 import net.momirealms.craftengine.core.plugin.context.Context;
+import net.momirealms.craftengine.core.plugin.context.expression.CompiledExpression;
 import net.momirealms.craftengine.core.plugin.context.text.TextProvider;
 import net.momirealms.craftengine.core.plugin.context.text.TextProviders;
 import net.momirealms.craftengine.core.util.Key;
@@ -15,9 +17,11 @@ import java.util.Map;
 
 public class ExpressionCondition<CTX extends Context> implements Condition<CTX> {
     private final TextProvider expression;
+    private final CompiledExpression compiled;
 
-    public ExpressionCondition(TextProvider expression) {
+    public ExpressionCondition(TextProvider expression, CompiledExpression compiled) {
         this.expression = expression;
+        this.compiled = compiled;
     }
 
     @Override
@@ -27,6 +31,16 @@ public class ExpressionCondition<CTX extends Context> implements Condition<CTX>
 
     @Override
     public boolean test(CTX ctx) {
+        try {
+            EvaluationValue value = this.compiled.evaluate(ctx);
+            if (value != null) {
+                return value.getBooleanValue();
+            }
+        } catch (EvaluationException e) {
+            CraftEngine.instance().logger().warn("Invalid expression " + this.compiled.source(), e);
+            return false;
+        }
+        // 含有无法预编译的标签
         String exp = this.expression.get(ctx).replace("\\<", "<"); // fixme minimessage added a \ before <
         Expression expr = new Expression(exp);
         try {
@@ -42,7 +56,7 @@ public class ExpressionCondition<CTX extends Context> implements Condition<CTX>
         @Override
         public Condition<CTX> create(Map<String, Object> arguments) {
             String value = ResourceConfigUtils.requireNonEmptyStringOrThrow(arguments.get("expression"), "warning.config.condition.expression.missing_expression");
-            return new ExpressionCondition<>(TextProviders.fromString(value));
+            return new ExpressionCondition<>(TextProviders.fromString(value), CompiledExpression.compile(value));
         }
     }
 }
@@ -0,0 +1,199 @@
+package net.momirealms.craftengine.core.plugin.context.expression;
+
+import com.ezylang.evalex.EvaluationException;
+import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.data.EvaluationValue;
+import com.ezylang.evalex.parser.ASTNode;
+import com.ezylang.evalex.parser.ParseException;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.context.Context;
+import net.momirealms.craftengine.core.plugin.context.ContextKey;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An expression parsed once when the config is loaded. {@code <arg:...>} and {@code <global:...>} tags are turned into
+ * variables of the parsed expression, so evaluating it neither runs MiniMessage nor parses the expression again.
+ * Expressions with other tags, or tags in places where a variable isn't equivalent to inserting text, are dynamic
+ * and must be evaluated the old way. A static expression may still fall back for a single evaluation
+ * if a placeholder doesn't resolve to a plain number or boolean.
+ */
+public final class CompiledExpression {
+    private static final Pattern TAG = Pattern.compile("<([A-Za-z0-9_.\\-!?#/]+)((?::[^<>]*)?)>");
+    private final String source;
+    private final String template;
+    private final ASTNode ast;
+    // 没有变量时可以共享同一个表达式
+    private final Expression shared;
+    private final Slot[] slots;
+
+    private CompiledExpression(String source, String template, ASTNode ast, Expression shared, Slot[] slots) {
+        this.source = source;
+        this.template = template;
+        this.ast = ast;
+        this.shared = shared;
+        this.slots = slots;
+    }
+
+    public static CompiledExpression compile(String expression) {
+        // 转义字符交给MiniMessage处理
+        if (expression.indexOf('\\') != -1) {
+            return dynamic(expression);
+        }
+        StringBuilder template = new StringBuilder(expression.length());
+        List<Slot> slots = new ArrayList<>();
+        Matcher matcher = TAG.matcher(expression);
+        int last = 0;
+        while (matcher.find()) {
+            String literal = expression.substring(last, matcher.start());
+            template.append(literal);
+            // 只能替换独立的操作数，不能处于字符串或其他标识符之中
+            if (!isBoundaryBefore(template) || !isBoundaryAfter(expression, matcher.end()) || isInsideString(template)) {
+                return dynamic(expression);
+            }
+            Slot slot = createSlot(matcher.group(1), matcher.group(2));
+            if (slot == null) {
+                return dynamic(expression);
+            }
+            template.append(" ce_slot_").append(slots.size()).append(' ');
+            slots.add(slot);
+            last = matcher.end();
+        }
+        template.append(expression, last, expression.length());
+        String templateString = template.toString();
+        try {
+            Expression parsed = new Expression(templateString);
+            ASTNode ast = parsed.getAbstractSyntaxTree();
+            return new CompiledExpression(expression, templateString, ast, slots.isEmpty() ? parsed : null, slots.toArray(new Slot[0]));
+        } catch (ParseException e) {
+            return dynamic(expression);
+        }
+    }
+
+    private static CompiledExpression dynamic(String expression) {
+        return new CompiledExpression(expression, null, null, null, new Slot[0]);
+    }
+
+    public String source() {
+        return this.source;
+    }
+
+    public boolean isDynamic() {
+        return this.ast == null;
+    }
+
+    /**
+     * @return the result, or null if the expression has to be evaluated the old way
+     */
+    @Nullable
+    public EvaluationValue evaluate(Context context) throws EvaluationException {
+        if (this.ast == null) {
+            return null;
+        }
+        if (this.shared != null) {
+            return this.shared.evaluateSubtree(this.ast);
+        }
+        Expression expression = new Expression(this.template);
+        for (int i = 0; i < this.slots.length; i++) {
+            String text = this.slots[i].resolve(context);
+            if (text == null) {
+                return null;
+            }
+            Object value = toValue(text);
+            if (value == null) {
+                return null;
+            }
+            expression.with("ce_slot_" + i, value);
+        }
+        return expression.evaluateSubtree(this.ast);
+    }
+
+    @Nullable
+    private static Slot createSlot(String name, String arguments) {
+        String[] args = arguments.isEmpty() ? new String[0] : arguments.substring(1).split(":", -1);
+        for (String arg : args) {
+            if (arg.indexOf('\'') != -1 || arg.indexOf('"') != -1) {
+                return null;
+            }
+        }
+        return switch (name.toLowerCase()) {
+            case "arg" -> args.length == 1 || args.length == 2 ? new ArgumentSlot(ContextKey.chain(args[0]), args.length == 2 ? args[1] : null) : null;
+            case "global" -> args.length == 1 ? new GlobalVariableSlot(args[0]) : null;
+            default -> null;
+        };
+    }
+
+    private static boolean isBoundaryBefore(CharSequence text) {
+        if (text.isEmpty()) {
+            return true;
+        }
+        char c = text.charAt(text.length() - 1);
+        return !(Character.isLetterOrDigit(c) || c == '_' || c == '.');
+    }
+
+    private static boolean isBoundaryAfter(CharSequence text, int index) {
+        if (index >= text.length()) {
+            return true;
+        }
+        char c = text.charAt(index);
+        return !(Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '(');
+    }
+
+    private static boolean isInsideString(CharSequence text) {
+        boolean inside = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    @Nullable
+    private static Object toValue(String text) {
+        if (text.indexOf('<') != -1 || text.indexOf('\\') != -1) {
+            return null;
+        }
+        if (text.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (text.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private interface Slot {
+
+        @Nullable
+        String resolve(Context context);
+    }
+
+    private record ArgumentSlot(ContextKey<?> key, @Nullable String defaultValue) implements Slot {
+
+        @Override
+        public String resolve(Context context) {
+            Optional<?> optional = context.getOptionalParameter(this.key);
+            Object value = optional.orElse(null);
+            return value == null ? this.defaultValue : String.valueOf(value);
+        }
+    }
+
+    private record GlobalVariableSlot(String id) implements Slot {
+
+        @Override
+        public String resolve(Context context) {
+            return CraftEngine.instance().globalVariableManager().get(this.id);
+        }
+    }
+}
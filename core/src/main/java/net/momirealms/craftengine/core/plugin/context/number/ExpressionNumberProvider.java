@@ -2,9 +2,11 @@ package net.momirealms.craftengine.core.plugin.context.number;
 
 import com.ezylang.evalex.EvaluationException;
 import com.ezylang.evalex.Expression;
+import com.ezylang.evalex.data.EvaluationValue;
 import com.ezylang.evalex.parser.ParseException;
 import net.kyori.adventure.text.Component;
 import net.momirealms.craftengine.core.plugin.context.Context;
+import net.momirealms.craftengine.core.plugin.context.expression.CompiledExpression;
 import net.momirealms.craftengine.core.util.AdventureHelper;
 import net.momirealms.craftengine.core.util.Key;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
@@ -14,30 +16,38 @@ import java.util.Map;
 public class ExpressionNumberProvider implements NumberProvider {
     public static final Factory FACTORY = new Factory();
     private final String expr;
+    private final CompiledExpression compiled;
 
     public ExpressionNumberProvider(String expr) {
         this.expr = expr;
+        this.compiled = CompiledExpression.compile(expr);
     }
 
     @Override
     public float getFloat(Context context) {
-        Component resultComponent = AdventureHelper.customMiniMessage().deserialize(this.expr, context.tagResolvers());
-        String resultString = AdventureHelper.plainTextContent(resultComponent);
-        Expression expression = new Expression(resultString);
-        try {
-            return expression.evaluate().getNumberValue().floatValue();
-        } catch (EvaluationException | ParseException e) {
-            throw new RuntimeException("Invalid expression: " + this.expr + " -> " + resultString + " -> Cannot parse", e);
-        }
+        return evaluate(context).getNumberValue().floatValue();
     }
 
     @Override
     public double getDouble(Context context) {
+        return evaluate(context).getNumberValue().doubleValue();
+    }
+
+    private EvaluationValue evaluate(Context context) {
+        try {
+            EvaluationValue value = this.compiled.evaluate(context);
+            if (value != null) {
+                return value;
+            }
+        } catch (EvaluationException e) {
+            throw new RuntimeException("Invalid expression: " + this.expr + " -> Cannot evaluate", e);
+        }
+        // 含有无法预编译的标签
         Component resultComponent = AdventureHelper.customMiniMessage().deserialize(this.expr, context.tagResolvers());
         String resultString = AdventureHelper.plainTextContent(resultComponent);
         Expression expression = new Expression(resultString);
         try {
-            return expression.evaluate().getNumberValue().doubleValue();
+            return expression.evaluate();
         } catch (EvaluationException | ParseException e) {
             throw new RuntimeException("Invalid expression: " + this.expr + " -> " + resultString + " -> Cannot parse", e);
         }
@@ -0,0 +1,68 @@
+package net.momirealms.craftengine.core.plugin.context.number;
+
+import net.momirealms.craftengine.core.plugin.context.Context;
+import net.momirealms.craftengine.core.util.Key;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws values from a table sampled once from a random provider, for providers evaluated very often,
+ * such as the offsets of particles emitted by blocks. Providers that may depend on the context are never tabulated.
+ */
+public final class TabulatedNumberProvider implements NumberProvider {
+    private static final int SIZE = 256;
+    private final NumberProvider provider;
+    private final double[] doubles;
+    private final int[] ints;
+
+    private TabulatedNumberProvider(NumberProvider provider) {
+        this.provider = provider;
+        this.doubles = new double[SIZE];
+        this.ints = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.doubles[i] = provider.getDouble(null);
+            this.ints[i] = provider.getInt(null);
+        }
+    }
+
+    public static NumberProvider of(NumberProvider provider) {
+        if (provider instanceof FixedNumberProvider || !isContextFree(provider)) {
+            return provider;
+        }
+        return new TabulatedNumberProvider(provider);
+    }
+
+    private static boolean isContextFree(NumberProvider provider) {
+        return switch (provider) {
+            case FixedNumberProvider ignored -> true;
+            case GaussianNumberProvider ignored -> true;
+            case UniformNumberProvider uniform -> isContextFree(uniform.min()) && isContextFree(uniform.max());
+            case BinomialNumberProvider binomial -> isContextFree(binomial.trials()) && isContextFree(binomial.successProbability());
+            default -> false;
+        };
+    }
+
+    public NumberProvider provider() {
+        return this.provider;
+    }
+
+    @Override
+    public float getFloat(Context context) {
+        return (float) this.doubles[ThreadLocalRandom.current().nextInt(SIZE)];
+    }
+
+    @Override
+    public double getDouble(Context context) {
+        return this.doubles[ThreadLocalRandom.current().nextInt(SIZE)];
+    }
+
+    @Override
+    public int getInt(Context context) {
+        return this.ints[ThreadLocalRandom.current().nextInt(SIZE)];
+    }
+
+    @Override
+    public Key type() {
+        return this.provider.type();
+    }
+}
@@ -2,5 +2,12 @@ package net.momirealms.craftengine.core.plugin.entityculling;
 
 import net.momirealms.craftengine.core.plugin.Manageable;
 
+import java.util.List;
+
 public interface EntityCullingManager extends Manageable {
+
+    /**
+     * @return the measured culling cost of the online players, the most expensive first, or an empty list if entity culling is disabled
+     */
+    List<EntityCullingScheduler.PlayerCost> playerCosts();
 }
@@ -2,31 +2,31 @@ package net.momirealms.craftengine.core.plugin.entityculling;
 
 import net.momirealms.craftengine.core.plugin.config.Config;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class EntityCullingManagerImpl implements EntityCullingManager {
-    private final List<EntityCullingThread> threads = new ArrayList<>();
+    private EntityCullingScheduler scheduler;
 
     @Override
     public void load() {
         if (Config.enableEntityCulling()) {
             int threads = Math.min(64, Math.max(Config.entityCullingThreads(), 1));
-            for (int i = 0; i < threads; i++) {
-                EntityCullingThread thread = new EntityCullingThread(i, threads);
-                this.threads.add(thread);
-                thread.start();
-            }
+            this.scheduler = new EntityCullingScheduler(threads);
+            this.scheduler.start();
         }
     }
 
     @Override
     public void unload() {
-        if (!this.threads.isEmpty()) {
-            for (EntityCullingThread thread : this.threads) {
-                thread.stop();
-            }
-            this.threads.clear();
+        if (this.scheduler != null) {
+            this.scheduler.stop();
+            this.scheduler = null;
         }
     }
+
+    @Override
+    public List<EntityCullingScheduler.PlayerCost> playerCosts() {
+        EntityCullingScheduler scheduler = this.scheduler;
+        return scheduler == null ? List.of() : scheduler.playerCosts();
+    }
 }
@@ -0,0 +1,233 @@
+package net.momirealms.craftengine.core.plugin.entityculling;
+
+import net.momirealms.craftengine.core.entity.player.Player;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.logger.Debugger;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the entity culling of all online players every 50ms on a work stealing pool.
+ * Players are submitted as separate tasks ordered by their measured cost, so idle workers
+ * take over the remaining players instead of waiting for a fixed partition to finish.
+ * Players whose view hasn't changed for a while are culled less frequently, while their rate limiting tokens
+ * are still restored every tick.
+ * The cost is recorded per worker and per player, see {@link #playerCosts()}.
+ */
+public class EntityCullingScheduler {
+    private static final int STATIONARY_RUNS_BEFORE_THROTTLING = 20;
+    private static final int STATE_CLEANUP_INTERVAL = 100;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = Executors.defaultThreadFactory().newThread(r);
+        thread.setName("CraftEngine-EntityCulling-Timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ForkJoinPool pool;
+    // 线程被回收后其编号会被复用，使每个线程的统计数据数量有上限
+    private final BitSet workerSlots = new BitSet();
+    private final Map<UUID, PlayerState> playerStates = new ConcurrentHashMap<>();
+    private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private final MetricsRegistry.Counter runs;
+    private final MetricsRegistry.Counter throttledRuns;
+    private final MetricsRegistry.Histogram tickTimes;
+    private int ticks;
+
+    public EntityCullingScheduler(int threads) {
+        this.pool = new ForkJoinPool(threads, Worker::new, null, false);
+        MetricsRegistry registry = MetricsRegistry.instance();
+        this.runs = registry.counter("craftengine_entity_culling_runs_total", "Entity culling runs of players");
+        this.throttledRuns = registry.counter("craftengine_entity_culling_throttled_total", "Entity culling runs skipped because the player was stationary");
+        this.tickTimes = registry.histogram("craftengine_entity_culling_tick_seconds", "Time spent on the entity culling of all players");
+        registry.gauge("craftengine_entity_culling_threads", "Threads of the entity culling pool", this.pool::getPoolSize);
+        registry.gauge("craftengine_entity_culling_active_threads", "Threads of the entity culling pool that are culling", this.pool::getActiveThreadCount);
+    }
+
+    public void start() {
+        this.timer.scheduleAtFixedRate(this::scheduleTask, 0, 50, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        this.timer.shutdown();
+        this.pool.shutdown();
+    }
+
+    /**
+     * @return the measured culling cost of the online players, the most expensive first
+     */
+    public List<PlayerCost> playerCosts() {
+        List<PlayerCost> costs = new ArrayList<>(this.playerStates.size());
+        for (Map.Entry<UUID, PlayerState> entry : this.playerStates.entrySet()) {
+            PlayerState state = entry.getValue();
+            costs.add(new PlayerCost(entry.getKey(), state.name, state.averageNanos, state.maxNanos, state.runs.sum(), state.throttledRuns.sum()));
+        }
+        costs.sort(Comparator.comparingLong(PlayerCost::averageNanos).reversed());
+        return costs;
+    }
+
+    private void scheduleTask() {
+        int tick = ++this.ticks;
+        // 上一轮还没结束
+        if (!this.isRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<CullingTask> tasks = new ArrayList<>();
+            int skipped = 0;
+            for (Player player : CraftEngine.instance().networkManager().onlineUsers()) {
+                PlayerState state = this.playerStates.computeIfAbsent(player.uuid(), k -> new PlayerState(player.name()));
+                state.lastSeenTick = tick;
+                // 上一轮已结束，此时没有线程在剔除该玩家的实体
+                player.restoreEntityCullingTokens();
+                if (state.shouldRun(player.entityCullingViewVersion(), tick)) {
+                    tasks.add(new CullingTask(player, state));
+                } else {
+                    state.throttledRuns.increment();
+                    skipped++;
+                }
+            }
+            this.throttledRuns.add(skipped);
+            if (tick % STATE_CLEANUP_INTERVAL == 0) {
+                this.playerStates.values().removeIf(state -> state.lastSeenTick != tick);
+            }
+            if (tasks.isEmpty()) {
+                this.isRunning.set(false);
+                return;
+            }
+            // 开销大的玩家先执行，避免一轮的末尾只剩一个线程在工作
+            tasks.sort(Comparator.comparingLong((CullingTask task) -> task.state.averageNanos).reversed());
+            int finalSkipped = skipped;
+            this.pool.execute(() -> this.runTasks(tasks, finalSkipped, tick));
+        } catch (Throwable e) {
+            this.isRunning.set(false);
+            CraftEngine.instance().logger().severe("Failed to schedule entity culling tick", e);
+        }
+    }
+
+    private void runTasks(List<CullingTask> tasks, int skipped, int tick) {
+        try {
+            long startTime = System.nanoTime();
+            ForkJoinTask.invokeAll(tasks);
+            long duration = System.nanoTime() - startTime;
+            this.tickTimes.observe(duration);
+            if (Config.debugEntityCulling() && tick % 20 == 0) {
+                String value = String.format("Entity culling processed %d players (%d throttled) in %sms on %d threads",
+                        tasks.size(), skipped, String.format("%.2f", duration / 1_000_000.0), this.pool.getPoolSize());
+                Debugger.ENTITY_CULLING.debug(() -> value);
+            }
+        } catch (Throwable e) {
+            CraftEngine.instance().logger().severe("Failed to run entity culling tick", e);
+        } finally {
+            this.isRunning.set(false);
+        }
+    }
+
+    public record PlayerCost(UUID uuid, String name, long averageNanos, long maxNanos, long runs, long throttledRuns) {
+    }
+
+    private int acquireWorkerSlot() {
+        synchronized (this.workerSlots) {
+            int slot = this.workerSlots.nextClearBit(0);
+            this.workerSlots.set(slot);
+            return slot;
+        }
+    }
+
+    private void releaseWorkerSlot(int slot) {
+        synchronized (this.workerSlots) {
+            this.workerSlots.clear(slot);
+        }
+    }
+
+    private class Worker extends ForkJoinWorkerThread {
+        private final int slot;
+        private final MetricsRegistry.Histogram playerTimes;
+
+        private Worker(ForkJoinPool pool) {
+            super(pool);
+            this.slot = acquireWorkerSlot();
+            this.playerTimes = MetricsRegistry.instance().histogram("craftengine_entity_culling_player_seconds", "Time spent on the entity culling of a player", "worker", String.valueOf(this.slot));
+            this.setName("CraftEngine-EntityCulling-" + this.slot);
+            this.setDaemon(true);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            try {
+                releaseWorkerSlot(this.slot);
+            } finally {
+                super.onTermination(exception);
+            }
+        }
+    }
+
+    private static class PlayerState {
+        private final String name;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder throttledRuns = new LongAdder();
+        private volatile long averageNanos;
+        private volatile long maxNanos;
+        // 以下字段只在调度线程访问
+        private int lastSeenTick;
+        private int lastRunTick;
+        private int lastViewVersion;
+        private int stationaryRuns;
+
+        private PlayerState(String name) {
+            this.name = name;
+        }
+
+        private boolean shouldRun(int viewVersion, int tick) {
+            if (viewVersion != this.lastViewVersion) {
+                this.lastViewVersion = viewVersion;
+                this.stationaryRuns = 0;
+            } else if (this.stationaryRuns >= STATIONARY_RUNS_BEFORE_THROTTLING && tick - this.lastRunTick < Config.entityCullingStationaryInterval()) {
+                return false;
+            } else {
+                this.stationaryRuns++;
+            }
+            this.lastRunTick = tick;
+            return true;
+        }
+
+        private void record(long nanos) {
+            long average = this.averageNanos;
+            this.averageNanos = average == 0 ? nanos : average + (nanos - average) / 5;
+            if (nanos > this.maxNanos) {
+                this.maxNanos = nanos;
+            }
+            this.runs.increment();
+        }
+    }
+
+    private class CullingTask extends RecursiveAction {
+        private final Player player;
+        private final PlayerState state;
+
+        private CullingTask(Player player, PlayerState state) {
+            this.player = player;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            long startTime = System.nanoTime();
+            try {
+                this.player.entityCullingTick();
+            } catch (Exception e) {
+                CraftEngine.instance().logger().severe("Failed to run entity culling tick for " + this.player.name(), e);
+            }
+            long duration = System.nanoTime() - startTime;
+            this.state.record(duration);
+            EntityCullingScheduler.this.runs.increment();
+            if (Thread.currentThread() instanceof Worker worker) {
+                worker.playerTimes.observe(duration);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.momirealms.craftengine.core.plugin.entityculling;
+
+import net.momirealms.craftengine.core.world.BlockPos;
+
+/**
+ * Records the latest occlusion changes of the blocks known by a client, so that cached visibility results
+ * only have to be discarded if a change happened close to the rays they were computed from.
+ * Only the most recent changes are kept, older ones are treated as if they could be anywhere.
+ */
+public final class OcclusionChangeLog {
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+    private final long[] positions = new long[CAPACITY];
+    private volatile long sequence;
+    private volatile int generation;
+
+    public synchronized void record(int x, int y, int z) {
+        long sequence = this.sequence;
+        this.positions[(int) (sequence & MASK)] = BlockPos.asLong(x, y, z);
+        this.sequence = sequence + 1;
+    }
+
+    /**
+     * Marks every change as unknown, for instance when chunks are loaded or unloaded on the client side.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            this.generation++;
+        }
+    }
+
+    public long sequence() {
+        return this.sequence;
+    }
+
+    public int generation() {
+        return this.generation;
+    }
+
+    /**
+     * @param from the sequence of the first change to check
+     * @param to the sequence after the last change to check
+     * @return whether any block in the given box has changed between the two sequences
+     */
+    public boolean hasChanged(long from, long to, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (from >= to) {
+            return false;
+        }
+        if (to - from > CAPACITY) {
+            return true;
+        }
+        synchronized (this) {
+            // 已经被覆盖
+            if (this.sequence - from > CAPACITY) {
+                return true;
+            }
+            for (long i = from; i < to; i++) {
+                long packed = this.positions[(int) (i & MASK)];
+                int x = (int) (packed >> 38);
+                int y = (int) ((packed << 52) >> 52);
+                int z = (int) ((packed << 26) >> 38);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,195 @@
+package net.momirealms.craftengine.core.plugin.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the metrics of the plugin and writes them in the Prometheus text format.
+ * Metrics are identified by their name and labels, asking for the same metric twice returns the same instance.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    // 纳秒，从1微秒到100毫秒
+    public static final long[] LATENCY_BUCKETS = new long[]{1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000, 5_000_000, 10_000_000, 100_000_000};
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param labels the names and values of the labels, alternately
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) this.family(name, help, "counter").series.computeIfAbsent(formatLabels(labels), k -> new Counter());
+    }
+
+    /**
+     * Registers a counter whose value is read from the supplier, replacing any previous one with the same labels.
+     */
+    public void counter(String name, String help, LongSupplier supplier, String... labels) {
+        this.family(name, help, "counter").series.put(formatLabels(labels), new Function(supplier));
+    }
+
+    /**
+     * Registers a gauge whose value is read from the supplier, replacing any previous one with the same labels.
+     */
+    public void gauge(String name, String help, LongSupplier supplier, String... labels) {
+        this.family(name, help, "gauge").series.put(formatLabels(labels), new Function(supplier));
+    }
+
+    /**
+     * Creates a histogram of durations, observed in nanoseconds and written in seconds.
+     */
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) this.family(name, help, "histogram").series.computeIfAbsent(formatLabels(labels), k -> new Histogram(LATENCY_BUCKETS));
+    }
+
+    /**
+     * @return all the metrics in the Prometheus text format
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder();
+        for (Family family : new TreeMap<>(this.families).values()) {
+            builder.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            builder.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Metric> entry : new TreeMap<>(family.series).entrySet()) {
+                entry.getValue().write(builder, family.name, entry.getKey());
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param filter the text that the returned samples must contain, or null for all samples
+     * @return the samples without the buckets of histograms, for a quick look from a command
+     */
+    public List<String> summary(@Nullable String filter) {
+        List<String> result = new ArrayList<>();
+        for (String line : this.scrape().split("\n")) {
+            if (line.startsWith("#") || line.contains("_bucket{")) continue;
+            if (filter != null && !line.contains(filter)) continue;
+            result.add(line);
+        }
+        return result;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = this.families.computeIfAbsent(name, k -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be pairs of names and values");
+        }
+        if (labels.length == 0) return "";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i != 0) builder.append(',');
+            builder.append(labels[i]).append("=\"").append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return builder.toString();
+    }
+
+    private record Family(String name, String help, String type, Map<String, Metric> series) {
+
+        private Family(String name, String help, String type) {
+            this(name, help, type, new ConcurrentHashMap<>());
+        }
+    }
+
+    private interface Metric {
+
+        void write(StringBuilder builder, String name, String labels);
+    }
+
+    public static final class Counter implements Metric {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {}
+
+        public void increment() {
+            this.value.increment();
+        }
+
+        public void add(long amount) {
+            this.value.add(amount);
+        }
+
+        public long get() {
+            return this.value.sum();
+        }
+
+        @Override
+        public void write(StringBuilder builder, String name, String labels) {
+            writeSample(builder, name, labels, this.value.sum());
+        }
+    }
+
+    private record Function(LongSupplier supplier) implements Metric {
+
+        @Override
+        public void write(StringBuilder builder, String name, String labels) {
+            writeSample(builder, name, labels, this.supplier.getAsLong());
+        }
+    }
+
+    public static final class Histogram implements Metric {
+        private final long[] bounds;
+        // 最后一个为超出所有上限的数量
+        private final LongAdder[] buckets;
+        private final LongAdder sum = new LongAdder();
+
+        private Histogram(long[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < this.buckets.length; i++) {
+                this.buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(long nanos) {
+            int index = 0;
+            while (index < this.bounds.length && nanos > this.bounds[index]) {
+                index++;
+            }
+            this.buckets[index].increment();
+            this.sum.add(nanos);
+        }
+
+        @Override
+        public void write(StringBuilder builder, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long count = 0;
+            for (int i = 0; i < this.bounds.length; i++) {
+                count += this.buckets[i].sum();
+                writeSample(builder, name + "_bucket", prefix + "le=\"" + this.bounds[i] / 1e9 + "\"", count);
+            }
+            count += this.buckets[this.bounds.length].sum();
+            writeSample(builder, name + "_bucket", prefix + "le=\"+Inf\"", count);
+            builder.append(name).append("_sum");
+            if (!labels.isEmpty()) builder.append('{').append(labels).append('}');
+            builder.append(' ').append(this.sum.sum() / 1e9).append('\n');
+            writeSample(builder, name + "_count", labels, count);
+        }
+    }
+
+    private static void writeSample(StringBuilder builder, String name, String labels, long value) {
+        builder.append(name);
+        if (!labels.isEmpty()) builder.append('{').append(labels).append('}');
+        builder.append(' ').append(value).append('\n');
+    }
+}
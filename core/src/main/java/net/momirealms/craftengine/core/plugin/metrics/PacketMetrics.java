@@ -0,0 +1,62 @@
+package net.momirealms.craftengine.core.plugin.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counts the packets going through the packet pipeline in one direction, by packet type.
+ */
+public final class PacketMetrics {
+    private final String direction;
+    private final AtomicReferenceArray<Entry> entries;
+
+    /**
+     * @param direction the direction of the packets, used as a label
+     * @param packetCount the number of packet ids in this direction
+     */
+    public PacketMetrics(String direction, int packetCount) {
+        this.direction = direction;
+        this.entries = new AtomicReferenceArray<>(packetCount);
+    }
+
+    /**
+     * @param packet the name of the packet
+     * @param listener the name of the listener handling the packet, or null if there is none
+     * @param nanos the time spent in the listener
+     */
+    public void record(int packetId, String packet, @Nullable String listener, int bytesBefore, int bytesAfter, boolean changed, boolean cancelled, long nanos) {
+        if (packetId < 0 || packetId >= this.entries.length()) return;
+        Entry entry = this.entries.get(packetId);
+        if (entry == null) {
+            // 并发创建时注册表会返回相同的指标
+            entry = new Entry(this.direction, packet, listener);
+            this.entries.set(packetId, entry);
+        }
+        entry.packets.increment();
+        entry.bytesBefore.add(bytesBefore);
+        entry.bytesAfter.add(bytesAfter);
+        if (changed) entry.changed.increment();
+        if (cancelled) entry.cancelled.increment();
+        if (entry.listenerTime != null) entry.listenerTime.observe(nanos);
+    }
+
+    private static final class Entry {
+        private final MetricsRegistry.Counter packets;
+        private final MetricsRegistry.Counter changed;
+        private final MetricsRegistry.Counter cancelled;
+        private final MetricsRegistry.Counter bytesBefore;
+        private final MetricsRegistry.Counter bytesAfter;
+        private final MetricsRegistry.@Nullable Histogram listenerTime;
+
+        private Entry(String direction, String packet, @Nullable String listener) {
+            MetricsRegistry registry = MetricsRegistry.instance();
+            this.packets = registry.counter("craftengine_packets_total", "Packets handled by the packet pipeline", "direction", direction, "packet", packet);
+            this.changed = registry.counter("craftengine_packets_changed_total", "Packets rewritten by a listener", "direction", direction, "packet", packet);
+            this.cancelled = registry.counter("craftengine_packets_cancelled_total", "Packets cancelled by a listener", "direction", direction, "packet", packet);
+            this.bytesBefore = registry.counter("craftengine_packet_bytes_received_total", "Size of the packets before listeners handle them", "direction", direction, "packet", packet);
+            this.bytesAfter = registry.counter("craftengine_packet_bytes_forwarded_total", "Size of the packets after listeners handle them", "direction", direction, "packet", packet);
+            this.listenerTime = listener == null ? null : registry.histogram("craftengine_packet_listener_seconds", "Time spent in packet listeners", "direction", direction, "packet", packet, "listener", listener);
+        }
+    }
+}
@@ -12,7 +12,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 public interface NetWorkUser {
@@ -72,7 +71,14 @@ public interface NetWorkUser {
 
     Object platformPlayer();
 
-    Map<Integer, EntityPacketHandler> entityPacketHandlers();
+    @Nullable
+    EntityPacketHandler getEntityPacketHandler(int entityId);
+
+    @Nullable
+    EntityPacketHandler putEntityPacketHandler(int entityId, EntityPacketHandler handler);
+
+    @Nullable
+    EntityPacketHandler removeEntityPacketHandler(int entityId);
 
     boolean clientModEnabled();
 
@@ -96,6 +102,8 @@ public interface NetWorkUser {
 
     void removeTrackedChunk(long chunkPos);
 
+    void onClientOcclusionChanged(int x, int y, int z);
+
     @Nullable
     IntIdentityList clientBlockList();
 
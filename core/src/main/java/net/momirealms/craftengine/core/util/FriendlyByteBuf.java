@@ -37,6 +37,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.Predicate;
 
 public class FriendlyByteBuf extends ByteBuf {
 
@@ -534,6 +535,61 @@ public class FriendlyByteBuf extends ByteBuf {
         }
     }
 
+    /**
+     * Skips an NBT tag without decoding it, testing its string values on the way.
+     *
+     * @return whether any string value of the tag matches the predicate
+     */
+    public boolean skipNbt(boolean named, Predicate<String> predicate) {
+        byte type = this.readByte();
+        if (type == 0) {
+            return false;
+        }
+        if (named) {
+            this.skipBytes(this.readUnsignedShort());
+        }
+        return this.skipNbtPayload(type, predicate, false, 0);
+    }
+
+    private boolean skipNbtPayload(byte type, Predicate<String> predicate, boolean matched, int depth) {
+        if (depth > 512) {
+            throw new DecoderException("Tried to skip NBT tag with too high complexity, depth > 512");
+        }
+        switch (type) {
+            case 1 -> this.skipBytes(1);
+            case 2 -> this.skipBytes(2);
+            case 3, 5 -> this.skipBytes(4);
+            case 4, 6 -> this.skipBytes(8);
+            case 7 -> this.skipBytes(this.readInt());
+            case 8 -> {
+                int length = this.readUnsignedShort();
+                // Modified UTF-8只在空字符与增补字符上与UTF-8不同，不影响匹配
+                if (!matched) {
+                    matched = predicate.test(this.toString(this.readerIndex(), length, StandardCharsets.UTF_8));
+                }
+                this.skipBytes(length);
+            }
+            case 9 -> {
+                byte elementType = this.readByte();
+                int size = this.readInt();
+                for (int i = 0; i < size; i++) {
+                    matched = this.skipNbtPayload(elementType, predicate, matched, depth + 1);
+                }
+            }
+            case 10 -> {
+                byte entryType;
+                while ((entryType = this.readByte()) != 0) {
+                    this.skipBytes(this.readUnsignedShort());
+                    matched = this.skipNbtPayload(entryType, predicate, matched, depth + 1);
+                }
+            }
+            case 11 -> this.skipBytes(this.readInt() * 4);
+            case 12 -> this.skipBytes(this.readInt() * 8);
+            default -> throw new DecoderException("Unknown NBT tag type: " + type);
+        }
+        return matched;
+    }
+
     public String readUtf() {
         return this.readUtf(32767);
     }
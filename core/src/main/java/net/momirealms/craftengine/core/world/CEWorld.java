@@ -9,6 +9,8 @@ import net.momirealms.craftengine.core.plugin.config.Config;
 import net.momirealms.craftengine.core.plugin.scheduler.SchedulerTask;
 import net.momirealms.craftengine.core.util.TickersList;
 import net.momirealms.craftengine.core.world.chunk.CEChunk;
+import net.momirealms.craftengine.core.world.chunk.storage.ChunkPrefetcher;
+import net.momirealms.craftengine.core.world.chunk.storage.ChunkSaver;
 import net.momirealms.craftengine.core.world.chunk.storage.StorageAdaptor;
 import net.momirealms.craftengine.core.world.chunk.storage.WorldDataStorage;
 import org.jetbrains.annotations.Nullable;
@@ -23,6 +25,8 @@ public abstract class CEWorld {
     protected final ConcurrentLong2ReferenceChainedHashTable<CEChunk> loadedChunkMap;
     protected final WorldDataStorage worldDataStorage;
     protected final WorldHeight worldHeightAccessor;
+    protected final ChunkPrefetcher chunkPrefetcher;
+    protected final ChunkSaver chunkSaver;
     protected List<SectionPos> pendingLightSections = new ArrayList<>();
     protected final Set<SectionPos> lightSections = ConcurrentHashMap.newKeySet(128);
     protected final TickersList<TickingBlockEntity> syncTickingBlockEntities = new TickersList<>();
@@ -40,6 +44,8 @@ public abstract class CEWorld {
         this.loadedChunkMap = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(1024, 0.5f);
         this.worldDataStorage = adaptor.adapt(world);
         this.worldHeightAccessor = world.worldHeight();
+        this.chunkPrefetcher = new ChunkPrefetcher(this);
+        this.chunkSaver = new ChunkSaver(this);
     }
 
     public CEWorld(World world, WorldDataStorage dataStorage) {
@@ -47,6 +53,8 @@ public abstract class CEWorld {
         this.loadedChunkMap = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(1024, 0.5f);
         this.worldDataStorage = dataStorage;
         this.worldHeightAccessor = world.worldHeight();
+        this.chunkPrefetcher = new ChunkPrefetcher(this);
+        this.chunkSaver = new ChunkSaver(this);
     }
 
     public void setTicking(boolean ticking) {
@@ -76,13 +84,13 @@ public abstract class CEWorld {
             for (ConcurrentLong2ReferenceChainedHashTable.TableEntry<CEChunk> entry : this.loadedChunkMap.entrySet()) {
                 CEChunk chunk = entry.getValue();
                 if (chunk.dirty()) {
-                    this.worldDataStorage.writeChunkAt(new ChunkPos(entry.getKey()), chunk);
-                    chunk.setDirty(false);
+                    this.chunkSaver.save(chunk);
                 }
             }
         } catch (IOException e) {
             CraftEngine.instance().logger().warn("Failed to save world chunks", e);
         }
+        this.chunkSaver.scheduleFlush();
     }
 
     public World world() {
@@ -94,11 +102,15 @@ public abstract class CEWorld {
     }
 
     public void addLoadedChunk(CEChunk chunk) {
-        this.loadedChunkMap.put(chunk.chunkPos().longKey(), chunk);
+        long key = chunk.chunkPos().longKey();
+        this.loadedChunkMap.put(key, chunk);
+        this.chunkPrefetcher.discard(key);
     }
 
     public void removeLoadedChunk(CEChunk chunk) {
-        this.loadedChunkMap.remove(chunk.chunkPos().longKey());
+        long key = chunk.chunkPos().longKey();
+        this.loadedChunkMap.remove(key);
+        this.chunkPrefetcher.discard(key);
     }
 
     @Nullable
@@ -162,6 +174,14 @@ public abstract class CEWorld {
         return worldDataStorage;
     }
 
+    public ChunkPrefetcher chunkPrefetcher() {
+        return this.chunkPrefetcher;
+    }
+
+    public ChunkSaver chunkSaver() {
+        return this.chunkSaver;
+    }
+
     public void sectionLightUpdated(Collection<SectionPos> pos) {
         if (this.isUpdatingLights) {
             this.pendingLightSections.addAll(pos);
@@ -176,6 +196,8 @@ public abstract class CEWorld {
 
     public void syncTick() {
         this.tickSyncBlockEntities();
+        this.chunkPrefetcher.tick();
+        this.chunkSaver.tick();
         if (!Config.asyncLightUpdate()) {
             this.updateLight();
         }
@@ -56,6 +56,10 @@ public class CEChunk {
     }
 
     public CEChunk(CEWorld world, ChunkPos chunkPos, CESection[] sections, @Nullable ListTag blockEntitiesTag, @Nullable ListTag blockEntityRenders, @Nullable ListTag entities) {
+        this(world, chunkPos, sections, blockEntitiesTag, blockEntityRenders == null ? null : DefaultBlockEntityRendererSerializer.deserialize(chunkPos, blockEntityRenders));
+    }
+
+    public CEChunk(CEWorld world, ChunkPos chunkPos, CESection[] sections, @Nullable ListTag blockEntitiesTag, @Nullable List<BlockPos> blockEntityRendererPoses) {
         this.world = world;
         this.chunkPos = chunkPos;
         this.worldHeightAccessor = world.worldHeight();
@@ -82,9 +86,8 @@ public class CEChunk {
         } else {
             this.blockEntities = new Object2ObjectOpenHashMap<>(DEFAULT_MAP_SIZE, 0.5f);
         }
-        if (blockEntityRenders != null) {
-            this.constantBlockEntityRenderers = new Object2ObjectOpenHashMap<>(Math.max(blockEntityRenders.size(), DEFAULT_MAP_SIZE), 0.5f);
-            List<BlockPos> blockEntityRendererPoses = DefaultBlockEntityRendererSerializer.deserialize(this.chunkPos, blockEntityRenders);
+        if (blockEntityRendererPoses != null) {
+            this.constantBlockEntityRenderers = new Object2ObjectOpenHashMap<>(Math.max(blockEntityRendererPoses.size(), DEFAULT_MAP_SIZE), 0.5f);
             for (BlockPos pos : blockEntityRendererPoses) {
                 this.addConstantBlockEntityRenderer(pos);
             }
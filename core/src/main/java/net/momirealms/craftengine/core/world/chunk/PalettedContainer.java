@@ -335,7 +335,14 @@ public class PalettedContainer<T> implements PaletteResizeListener<T>, ReadableC
     }
 
     public static <T> PalettedContainer<T> read(IndexedIterable<T> idList, PaletteProvider paletteProvider, ReadableContainer.Serialized<T> serialized) {
-        List<T> list = serialized.paletteEntries();
+        return read(idList, paletteProvider, serialized.paletteEntries(), serialized.storage().map(LongStream::toArray).orElse(null));
+    }
+
+    /**
+     * @param list the palette entries
+     * @param ls the packed palette indices, which may be used by the container without being copied
+     */
+    public static <T> PalettedContainer<T> read(IndexedIterable<T> idList, PaletteProvider paletteProvider, List<T> list, long @Nullable [] ls) {
         int containerSize = paletteProvider.getContainerSize();
         int bits = paletteProvider.getBits(idList, list.size());
         DataProvider<T> dataProvider = paletteProvider.createDataProvider(idList, bits);
@@ -343,11 +350,9 @@ public class PalettedContainer<T> implements PaletteResizeListener<T>, ReadableC
         if (bits == 0) {
             paletteStorage = new EmptyPaletteStorage(containerSize);
         } else {
-            Optional<LongStream> optional = serialized.storage();
-            if (optional.isEmpty()) {
+            if (ls == null) {
                 return null;
             }
-            long[] ls = optional.get().toArray();
             try {
                 if (dataProvider.factory() == PalettedContainer.PaletteProvider.ID_LIST) {
                     Palette<T> palette = new BiMapPalette<>(idList, bits, (id, value) -> 0, list);
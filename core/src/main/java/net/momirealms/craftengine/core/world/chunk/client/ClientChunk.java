@@ -28,13 +28,13 @@ public class ClientChunk {
         return section.isOccluding((y & 15) << 8 | (z & 15) << 4 | x & 15);
     }
 
-    public void setOccluding(int x, int y, int z, boolean occluding) {
-        if (this.sections == null) return;
+    public boolean setOccluding(int x, int y, int z, boolean occluding) {
+        if (this.sections == null) return false;
         int index = sectionIndex(SectionPos.blockToSectionCoord(y));
-        if (index < 0 || index >= this.sections.length) return;
+        if (index < 0 || index >= this.sections.length) return false;
         ClientSection section = this.sections[index];
-        if (section == null) return;
-        section.setOccluding((y & 15) << 8 | (z & 15) << 4 | x & 15, occluding);
+        if (section == null) return false;
+        return section.setOccluding((y & 15) << 8 | (z & 15) << 4 | x & 15, occluding);
     }
 
     public int sectionIndex(int sectionId) {
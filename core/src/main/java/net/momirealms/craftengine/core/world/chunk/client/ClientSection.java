@@ -2,9 +2,16 @@ package net.momirealms.craftengine.core.world.chunk.client;
 
 public class ClientSection {
     private ClientSectionOcclusionStorage storage;
+    // 存储与其他玩家共享时，修改前需要先复制
+    private boolean shared;
 
     public ClientSection(ClientSectionOcclusionStorage storage) {
+        this(storage, false);
+    }
+
+    public ClientSection(ClientSectionOcclusionStorage storage, boolean shared) {
         this.storage = storage;
+        this.shared = shared;
     }
 
     public boolean isOccluding(int x, int y, int z) {
@@ -15,20 +22,31 @@ public class ClientSection {
         return this.storage.isOccluding(index);
     }
 
-    public void setOccluding(int x, int y, int z, boolean value) {
-        this.setOccluding((y << 4 | z) << 4 | x, value);
+    public boolean setOccluding(int x, int y, int z, boolean value) {
+        return this.setOccluding((y << 4 | z) << 4 | x, value);
     }
 
-    public void setOccluding(int index, boolean value) {
+    /**
+     * @return whether the occlusion state has changed
+     */
+    public boolean setOccluding(int index, boolean value) {
         boolean wasOccluding = this.storage.isOccluding(index);
-        if (wasOccluding != value) {
+        if (wasOccluding == value) {
+            return false;
+        } else {
             if (this.storage instanceof PackedOcclusionStorage arrayStorage) {
+                if (this.shared) {
+                    arrayStorage = arrayStorage.copy();
+                    this.storage = arrayStorage;
+                    this.shared = false;
+                }
                 arrayStorage.set(index, value);
             } else {
                 PackedOcclusionStorage newStorage = new PackedOcclusionStorage(wasOccluding);
                 newStorage.set(index, value);
                 this.storage = newStorage;
             }
+            return true;
         }
     }
 }
@@ -0,0 +1,38 @@
+package net.momirealms.craftengine.core.world.chunk.client;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A bitset of the block states that block the view, indexed by block state id.
+ * Block states outside the table never block the view.
+ */
+public final class OcclusionTable implements IntPredicate {
+    private final long[] words;
+
+    private OcclusionTable(long[] words) {
+        this.words = words;
+    }
+
+    public static OcclusionTable of(int size, IntPredicate predicate) {
+        long[] words = new long[(size + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(i)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return new OcclusionTable(words);
+    }
+
+    @Override
+    public boolean test(int stateId) {
+        int index = stateId >>> 6;
+        return index < this.words.length && (this.words[index] & (1L << stateId)) != 0;
+    }
+
+    /**
+     * The words of the bitset, which must not be modified.
+     */
+    long[] words() {
+        return this.words;
+    }
+}
@@ -1,6 +1,7 @@
 package net.momirealms.craftengine.core.world.chunk.client;
 
 import java.util.Arrays;
+import java.util.function.IntToLongFunction;
 
 public class PackedOcclusionStorage implements ClientSectionOcclusionStorage {
     private static final int SIZE = 4096;
@@ -18,6 +19,47 @@ public class PackedOcclusionStorage implements ClientSectionOcclusionStorage {
         }
     }
 
+    private PackedOcclusionStorage(long[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Builds the occlusion data directly from the packed data of a paletted container.
+     *
+     * @param bits the bits per value in the packed data
+     * @param data the packed data by word index
+     * @param occludingValues a bitset of the values that block the view
+     */
+    public static PackedOcclusionStorage fromPackedData(int bits, IntToLongFunction data, long[] occludingValues) {
+        long[] words = new long[LONGS];
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        int index = 0;
+        for (int i = 0; index < SIZE; i++) {
+            long word = data.applyAsLong(i);
+            for (int j = 0; j < valuesPerLong && index < SIZE; j++, index++) {
+                int value = (int) (word & mask);
+                word >>>= bits;
+                int valueIndex = value >>> 6;
+                if (valueIndex < occludingValues.length && (occludingValues[valueIndex] & (1L << value)) != 0) {
+                    words[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        return new PackedOcclusionStorage(words);
+    }
+
+    /**
+     * Builds the occlusion data directly from the packed data of a paletted container that uses the global palette.
+     */
+    public static PackedOcclusionStorage fromPackedData(int bits, IntToLongFunction data, OcclusionTable table) {
+        return fromPackedData(bits, data, table.words());
+    }
+
+    public PackedOcclusionStorage copy() {
+        return new PackedOcclusionStorage(this.data.clone());
+    }
+
     @Override
     public boolean isOccluding(int index) {
         int arrayIndex = index >>> 6; // index / 64
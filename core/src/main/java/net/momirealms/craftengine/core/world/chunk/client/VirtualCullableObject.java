@@ -1,11 +1,21 @@
 package net.momirealms.craftengine.core.world.chunk.client;
 
 import net.momirealms.craftengine.core.entity.player.Player;
+import net.momirealms.craftengine.core.plugin.entityculling.CullingData;
+import net.momirealms.craftengine.core.util.Tristate;
 import net.momirealms.craftengine.core.world.Cullable;
 
 public class VirtualCullableObject {
     public Cullable cullable;
     public boolean isShown;
+    // 可见性缓存，只在实体剔除线程访问
+    private CullingData cachedCullingData;
+    private int cachedCameraVersion;
+    private boolean cachedRayTracing;
+    private int occlusionGeneration;
+    private long occlusionSequence;
+    private Tristate firstPersonVisible = Tristate.UNDEFINED;
+    private Tristate thirdPersonVisible = Tristate.UNDEFINED;
 
     public VirtualCullableObject(Cullable cullable) {
         this.cullable = cullable;
@@ -33,4 +43,50 @@ public class VirtualCullableObject {
             this.cullable.hide(player);
         }
     }
+
+    /**
+     * Whether the cached visibility was computed for the same culling data, camera position and ray tracing mode.
+     * The culling data is replaced whenever the object moves or changes its shape.
+     */
+    public boolean isVisibilityCached(CullingData cullingData, int cameraVersion, boolean rayTracing) {
+        return this.cachedCullingData == cullingData && this.cachedCameraVersion == cameraVersion && this.cachedRayTracing == rayTracing;
+    }
+
+    public void resetVisibility(CullingData cullingData, int cameraVersion, boolean rayTracing, int occlusionGeneration, long occlusionSequence) {
+        this.cachedCullingData = cullingData;
+        this.cachedCameraVersion = cameraVersion;
+        this.cachedRayTracing = rayTracing;
+        this.occlusionGeneration = occlusionGeneration;
+        this.occlusionSequence = occlusionSequence;
+        this.firstPersonVisible = Tristate.UNDEFINED;
+        this.thirdPersonVisible = Tristate.UNDEFINED;
+    }
+
+    public int occlusionGeneration() {
+        return this.occlusionGeneration;
+    }
+
+    public long occlusionSequence() {
+        return this.occlusionSequence;
+    }
+
+    public void setOcclusionSequence(long occlusionSequence) {
+        this.occlusionSequence = occlusionSequence;
+    }
+
+    public Tristate firstPersonVisible() {
+        return this.firstPersonVisible;
+    }
+
+    public void setFirstPersonVisible(boolean visible) {
+        this.firstPersonVisible = Tristate.of(visible);
+    }
+
+    public Tristate thirdPersonVisible() {
+        return this.thirdPersonVisible;
+    }
+
+    public void setThirdPersonVisible(boolean visible) {
+        this.thirdPersonVisible = Tristate.of(visible);
+    }
 }
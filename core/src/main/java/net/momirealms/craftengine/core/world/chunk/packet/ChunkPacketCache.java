@@ -0,0 +1,130 @@
+package net.momirealms.craftengine.core.world.chunk.packet;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.momirealms.craftengine.core.plugin.metrics.MetricsRegistry;
+import net.momirealms.craftengine.core.world.chunk.client.ClientSection;
+import net.momirealms.craftengine.core.world.chunk.client.ClientSectionOcclusionStorage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares the rewritten section data of chunk packets between players who receive the same chunk.
+ * An entry is only reused if the chunk data sent by the server is byte-for-byte identical to the one
+ * it was computed from, so any block update in the chunk makes the old entry unusable.
+ */
+public class ChunkPacketCache {
+    private static final int OCCLUSION_STORAGE_WEIGHT = 512;
+    private final Cache<Key, CachedEntry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ChunkPacketCache() {
+        this.cache = Caffeine.newBuilder()
+                .scheduler(Scheduler.systemScheduler())
+                .maximumWeight(64L * 1024 * 1024)
+                .weigher((Key key, CachedEntry entry) -> entry.weight())
+                .expireAfterAccess(60, TimeUnit.SECONDS)
+                .build();
+        MetricsRegistry.instance().counter("craftengine_cache_hits_total", "Lookups answered by a cache", this::hitCount, "cache", "chunk_packet");
+        MetricsRegistry.instance().counter("craftengine_cache_misses_total", "Lookups not answered by a cache", this::missCount, "cache", "chunk_packet");
+        MetricsRegistry.instance().gauge("craftengine_cache_entries", "Estimated number of entries in a cache", this::size, "cache", "chunk_packet");
+    }
+
+    /**
+     * @param chunkData the readable section data sent by the server
+     */
+    @Nullable
+    public Entry get(Key key, ByteBuf chunkData) {
+        CachedEntry cached = this.cache.getIfPresent(key);
+        if (cached != null && ByteBufUtil.equals(Unpooled.wrappedBuffer(cached.chunkData), chunkData)) {
+            this.hits.increment();
+            return cached.entry;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * @param chunkData the readable section data sent by the server, which is copied
+     */
+    public void put(Key key, ByteBuf chunkData, Entry entry) {
+        this.cache.put(key, new CachedEntry(ByteBufUtil.getBytes(chunkData), entry));
+    }
+
+    public void setMaximumSize(long bytes) {
+        this.cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(bytes));
+    }
+
+    public void clear() {
+        this.cache.invalidateAll();
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @param world the client side world
+     * @param chunkPos the chunk position
+     * @param clientMod whether the mod block state mapper was used
+     * @param clientBlockRegistrySize the size of the block registry on the client side
+     * @param occlusion whether occlusion data was computed
+     */
+    public record Key(UUID world, long chunkPos, boolean clientMod, int clientBlockRegistrySize, boolean occlusion) {
+    }
+
+    /**
+     * @param rewrittenChunkData the rewritten chunk data, or null if nothing has been changed
+     * @param occlusions the occlusion data of each section, or null if occlusion is not computed
+     */
+    public record Entry(byte @Nullable [] rewrittenChunkData, ClientSectionOcclusionStorage @Nullable [] occlusions) {
+
+        /**
+         * Creates client sections backed by the cached occlusion data.
+         * The storages are copied once a player's section is modified.
+         */
+        public ClientSection @Nullable [] createClientSections() {
+            if (this.occlusions == null) {
+                return null;
+            }
+            ClientSection[] sections = new ClientSection[this.occlusions.length];
+            for (int i = 0; i < sections.length; i++) {
+                ClientSectionOcclusionStorage storage = this.occlusions[i];
+                if (storage != null) {
+                    sections[i] = new ClientSection(storage, true);
+                }
+            }
+            return sections;
+        }
+    }
+
+    private record CachedEntry(byte[] chunkData, Entry entry) {
+
+        private int weight() {
+            int weight = this.chunkData.length;
+            if (this.entry.rewrittenChunkData != null) {
+                weight += this.entry.rewrittenChunkData.length;
+            }
+            if (this.entry.occlusions != null) {
+                weight += this.entry.occlusions.length * OCCLUSION_STORAGE_WEIGHT;
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package net.momirealms.craftengine.core.world.chunk.packet;
+
+import net.momirealms.craftengine.core.util.FriendlyByteBuf;
+import net.momirealms.craftengine.core.util.VersionHelper;
+import net.momirealms.craftengine.core.world.chunk.client.ClientSectionOcclusionStorage;
+import net.momirealms.craftengine.core.world.chunk.client.OcclusionTable;
+import net.momirealms.craftengine.core.world.chunk.client.PackedOcclusionStorage;
+import net.momirealms.craftengine.core.world.chunk.client.SingularOcclusionStorage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Rewrites the block states of the section data in a chunk packet by walking the wire format directly,
+ * without materializing {@link MCSection}s. Only palette entries are remapped, the packed data is copied as is
+ * unless the section uses the global palette and either a block changes or the client uses a different bit width.
+ * Biomes are always copied as is.
+ */
+public final class ChunkSectionRewriter {
+    private static final boolean FIXED_SIZE_DATA = VersionHelper.isOrAbove1_21_5();
+    private static final int BLOCK_COUNT = 4096;
+    private static final int BIOME_COUNT = 64;
+    private static final int MAX_BLOCK_PALETTE_BITS = 8;
+    private static final int MAX_BIOME_PALETTE_BITS = 3;
+
+    private ChunkSectionRewriter() {}
+
+    /**
+     * @param in the section data of the chunk packet
+     * @param sectionCount the number of sections on the client side
+     * @param remapper the block state mapper
+     * @param clientGlobalBits the bits used by the global palette on the client side
+     * @param occlusionTable the block states that block the view
+     * @param occlusions the array to fill with the occlusion data of each section, or null if not needed
+     * @param out the buffer to write the rewritten section data into
+     * @return whether the rewritten data differs from the input
+     */
+    public static boolean rewrite(FriendlyByteBuf in,
+                                  int sectionCount,
+                                  int[] remapper,
+                                  int clientGlobalBits,
+                                  OcclusionTable occlusionTable,
+                                  ClientSectionOcclusionStorage @Nullable [] occlusions,
+                                  FriendlyByteBuf out) {
+        boolean changed = false;
+        int[] globalScratch = null;
+        for (int i = 0; i < sectionCount; i++) {
+            // 非空方块数
+            out.writeShort(in.readShort());
+            int bits = in.readUnsignedByte();
+            if (bits == 0) {
+                changed |= rewriteSingular(in, remapper, occlusionTable, occlusions, i, out);
+            } else if (bits <= MAX_BLOCK_PALETTE_BITS) {
+                changed |= rewritePalette(in, bits, remapper, occlusionTable, occlusions, i, out);
+            } else {
+                if (globalScratch == null) {
+                    globalScratch = new int[BLOCK_COUNT];
+                }
+                changed |= rewriteGlobal(in, bits, clientGlobalBits, remapper, occlusionTable, occlusions, i, out, globalScratch);
+            }
+            copyBiomes(in, out);
+        }
+        return changed;
+    }
+
+    private static boolean rewriteSingular(FriendlyByteBuf in, int[] remapper, OcclusionTable occlusionTable,
+                                           ClientSectionOcclusionStorage @Nullable [] occlusions, int index, FriendlyByteBuf out) {
+        int state = in.readVarInt();
+        int newState = remapper[state];
+        out.writeByte(0);
+        out.writeVarInt(newState);
+        copyData(in, 0, BLOCK_COUNT, out);
+        if (occlusions != null) {
+            occlusions[index] = new SingularOcclusionStorage(occlusionTable.test(newState));
+        }
+        return newState != state;
+    }
+
+    private static boolean rewritePalette(FriendlyByteBuf in, int bits, int[] remapper, OcclusionTable occlusionTable,
+                                          ClientSectionOcclusionStorage @Nullable [] occlusions, int index, FriendlyByteBuf out) {
+        boolean changed = false;
+        int size = in.readVarInt();
+        out.writeByte(bits);
+        out.writeVarInt(size);
+        // 调色板中哪些索引有阻挡
+        long[] occludingValues = occlusions != null ? new long[(size + 63) >>> 6] : null;
+        boolean hasOcclusions = false;
+        boolean hasNoOcclusions = false;
+        for (int h = 0; h < size; h++) {
+            int state = in.readVarInt();
+            int newState = remapper[state];
+            out.writeVarInt(newState);
+            if (newState != state) {
+                changed = true;
+            }
+            if (occludingValues != null) {
+                if (occlusionTable.test(newState)) {
+                    occludingValues[h >>> 6] |= 1L << h;
+                    hasOcclusions = true;
+                } else {
+                    hasNoOcclusions = true;
+                }
+            }
+        }
+        int dataLength = readDataLength(in, bits, BLOCK_COUNT);
+        int dataStart = in.readerIndex();
+        if (occlusions != null) {
+            // 两种情况都有，那么需要根据调色板索引处理视线遮挡数据
+            if (hasOcclusions && hasNoOcclusions) {
+                occlusions[index] = PackedOcclusionStorage.fromPackedData(bits, i -> in.getLong(dataStart + (i << 3)), occludingValues);
+            }
+            // 全遮蔽或全透视则使用优化存储方案
+            else {
+                occlusions[index] = new SingularOcclusionStorage(hasOcclusions);
+            }
+        }
+        writeDataLength(out, dataLength);
+        out.writeBytes(in, dataLength << 3);
+        return changed;
+    }
+
+    private static boolean rewriteGlobal(FriendlyByteBuf in, int bits, int clientBits, int[] remapper, OcclusionTable occlusionTable,
+                                         ClientSectionOcclusionStorage @Nullable [] occlusions, int index, FriendlyByteBuf out, int[] states) {
+        int dataLength = readDataLength(in, bits, BLOCK_COUNT);
+        int dataStart = in.readerIndex();
+        if (occlusions != null) {
+            occlusions[index] = PackedOcclusionStorage.fromPackedData(bits, i -> in.getLong(dataStart + (i << 3)), occlusionTable);
+        }
+        boolean changed = false;
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        int blockIndex = 0;
+        for (int l = 0; l < dataLength && blockIndex < BLOCK_COUNT; l++) {
+            long word = in.getLong(dataStart + (l << 3));
+            for (int j = 0; j < valuesPerLong && blockIndex < BLOCK_COUNT; j++, blockIndex++) {
+                int state = (int) (word & mask);
+                word >>>= bits;
+                int newState = remapper[state];
+                if (newState != state) {
+                    changed = true;
+                }
+                states[blockIndex] = newState;
+            }
+        }
+        // 没有任何改变且客户端位数相同，原样复制
+        if (!changed && bits == clientBits) {
+            out.writeByte(bits);
+            writeDataLength(out, dataLength);
+            out.writeBytes(in, dataLength << 3);
+            return false;
+        }
+        in.skipBytes(dataLength << 3);
+        // 以客户端位数重新打包
+        int clientValuesPerLong = 64 / clientBits;
+        out.writeByte(clientBits);
+        writeDataLength(out, (BLOCK_COUNT + clientValuesPerLong - 1) / clientValuesPerLong);
+        long word = 0;
+        int valuesInWord = 0;
+        for (int i = 0; i < BLOCK_COUNT; i++) {
+            word |= (long) states[i] << (valuesInWord * clientBits);
+            if (++valuesInWord == clientValuesPerLong) {
+                out.writeLong(word);
+                word = 0;
+                valuesInWord = 0;
+            }
+        }
+        if (valuesInWord != 0) {
+            out.writeLong(word);
+        }
+        return true;
+    }
+
+    private static void copyBiomes(FriendlyByteBuf in, FriendlyByteBuf out) {
+        int start = in.readerIndex();
+        int bits = in.readUnsignedByte();
+        if (bits == 0) {
+            in.readVarInt();
+        } else if (bits <= MAX_BIOME_PALETTE_BITS) {
+            int size = in.readVarInt();
+            for (int i = 0; i < size; i++) {
+                in.readVarInt();
+            }
+        }
+        int dataLength = readDataLength(in, bits, BIOME_COUNT);
+        in.skipBytes(dataLength << 3);
+        out.writeBytes(in, start, in.readerIndex() - start);
+    }
+
+    private static void copyData(FriendlyByteBuf in, int bits, int size, FriendlyByteBuf out) {
+        int dataLength = readDataLength(in, bits, size);
+        writeDataLength(out, dataLength);
+        out.writeBytes(in, dataLength << 3);
+    }
+
+    private static int readDataLength(FriendlyByteBuf in, int bits, int size) {
+        if (!FIXED_SIZE_DATA) {
+            return in.readVarInt();
+        }
+        if (bits == 0) {
+            return 0;
+        }
+        int valuesPerLong = 64 / bits;
+        return (size + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    private static void writeDataLength(FriendlyByteBuf out, int dataLength) {
+        if (!FIXED_SIZE_DATA) {
+            out.writeVarInt(dataLength);
+        }
+    }
+}
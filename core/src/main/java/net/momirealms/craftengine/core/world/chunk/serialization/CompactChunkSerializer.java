@@ -0,0 +1,179 @@
+package net.momirealms.craftengine.core.world.chunk.serialization;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.momirealms.craftengine.core.block.EmptyBlock;
+import net.momirealms.craftengine.core.block.ImmutableBlockState;
+import net.momirealms.craftengine.core.util.FriendlyByteBuf;
+import net.momirealms.craftengine.core.world.BlockPos;
+import net.momirealms.craftengine.core.world.CEWorld;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.chunk.CEChunk;
+import net.momirealms.craftengine.core.world.chunk.CESection;
+import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
+import net.momirealms.craftengine.core.world.chunk.ReadableContainer;
+import net.momirealms.sparrow.nbt.CompoundTag;
+import net.momirealms.sparrow.nbt.ListTag;
+import net.momirealms.sparrow.nbt.Tag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Encodes chunks in a compact binary format. Every block state used by a chunk is written once in a dictionary
+ * shared by all its sections, which refer to it by index and store their palette indices as raw packed longs.
+ * Block entities are kept as nameless compounds and renderers as packed positions.
+ * <p>
+ * Decoding is split in two steps: {@link #read(FriendlyByteBuf, ChunkPos)} can run on any thread,
+ * while {@link #deserialize(CEWorld, ChunkPos, Decoded)} resolves the block states and must run where chunks are created.
+ */
+public final class CompactChunkSerializer {
+    private static final long[] EMPTY_DATA = new long[0];
+    // 4096个方块在最大位数下需要的long数量
+    private static final int MAX_DATA_LENGTH = 4096;
+
+    private CompactChunkSerializer() {}
+
+    /**
+     * @return the encoded chunk, or null if the chunk has no custom block to save
+     */
+    public static byte @Nullable [] serialize(@Nullable CESection @NotNull [] chunkSections, @NotNull ListTag blockEntities, @NotNull List<BlockPos> blockEntityRenderers) {
+        List<CESection> sections = new ArrayList<>();
+        List<ReadableContainer.Serialized<ImmutableBlockState>> serializedSections = new ArrayList<>();
+        for (CESection section : chunkSections) {
+            if (section == null) continue;
+            ReadableContainer.Serialized<ImmutableBlockState> serialized = section.statesContainer().serialize(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE);
+            List<ImmutableBlockState> states = serialized.paletteEntries();
+            if (states.size() == 1 && states.getFirst() == EmptyBlock.STATE) continue;
+            sections.add(section);
+            serializedSections.add(serialized);
+        }
+        if (sections.isEmpty()) return null;
+        // 所有区段共用同一个方块状态字典
+        Reference2IntOpenHashMap<ImmutableBlockState> dictionary = new Reference2IntOpenHashMap<>();
+        dictionary.defaultReturnValue(-1);
+        List<ImmutableBlockState> entries = new ArrayList<>();
+        for (ReadableContainer.Serialized<ImmutableBlockState> serialized : serializedSections) {
+            for (ImmutableBlockState state : serialized.paletteEntries()) {
+                if (dictionary.putIfAbsent(state, entries.size()) == -1) {
+                    entries.add(state);
+                }
+            }
+        }
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(1024));
+        buf.writeVarInt(entries.size());
+        for (ImmutableBlockState state : entries) {
+            buf.writeNbt(state.getNbtToSave(), false);
+        }
+        buf.writeVarInt(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            ReadableContainer.Serialized<ImmutableBlockState> serialized = serializedSections.get(i);
+            buf.writeByte(sections.get(i).sectionY());
+            List<ImmutableBlockState> palette = serialized.paletteEntries();
+            buf.writeVarInt(palette.size());
+            for (ImmutableBlockState state : palette) {
+                buf.writeVarInt(dictionary.getInt(state));
+            }
+            buf.writeLongArray(serialized.storage().map(LongStream::toArray).orElse(EMPTY_DATA));
+        }
+        buf.writeVarInt(blockEntities.size());
+        for (Tag tag : blockEntities) {
+            buf.writeNbt(tag, false);
+        }
+        buf.writeVarInt(blockEntityRenderers.size());
+        for (BlockPos pos : blockEntityRenderers) {
+            int y = pos.y();
+            buf.writeVarInt((y << 1) ^ (y >> 31));
+            buf.writeByte((pos.x() & 15) << 4 | (pos.z() & 15));
+        }
+        return buf.extractByteBufContents();
+    }
+
+    /**
+     * Reads the data of a chunk without resolving its block states.
+     */
+    @NotNull
+    public static Decoded read(@NotNull FriendlyByteBuf buf, @NotNull ChunkPos pos) throws IOException {
+        int dictionarySize = buf.readVarInt();
+        CompoundTag[] dictionary = new CompoundTag[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            if (!(buf.readNbt(false) instanceof CompoundTag state)) {
+                throw new IOException("Invalid block state in chunk " + pos);
+            }
+            dictionary[i] = state;
+        }
+        int sectionCount = buf.readVarInt();
+        List<DecodedSection> sections = new ArrayList<>(sectionCount);
+        for (int i = 0; i < sectionCount; i++) {
+            byte y = buf.readByte();
+            int[] palette = new int[buf.readVarInt()];
+            for (int j = 0; j < palette.length; j++) {
+                int index = buf.readVarInt();
+                if (index < 0 || index >= dictionarySize) {
+                    throw new IOException("Invalid block state index " + index + " in chunk " + pos);
+                }
+                palette[j] = index;
+            }
+            long[] data = buf.readLongArray(null, MAX_DATA_LENGTH);
+            sections.add(new DecodedSection(y, palette, data.length == 0 ? null : data));
+        }
+        int blockEntityCount = buf.readVarInt();
+        ListTag blockEntities = new ListTag();
+        for (int i = 0; i < blockEntityCount; i++) {
+            blockEntities.add(buf.readNbt(false));
+        }
+        int rendererCount = buf.readVarInt();
+        List<BlockPos> blockEntityRenderers = new ArrayList<>(rendererCount);
+        for (int i = 0; i < rendererCount; i++) {
+            int zigzag = buf.readVarInt();
+            int y = (zigzag >>> 1) ^ -(zigzag & 1);
+            int xz = buf.readUnsignedByte();
+            blockEntityRenderers.add(new BlockPos((pos.x << 4) + (xz >> 4), y, (pos.z << 4) + (xz & 15)));
+        }
+        return new Decoded(dictionary, sections, blockEntities, blockEntityRenderers);
+    }
+
+    @NotNull
+    public static CEChunk deserialize(@NotNull CEWorld world, @NotNull ChunkPos pos, @NotNull Decoded decoded) {
+        return new CEChunk(world, pos, deserializeSections(world, decoded), decoded.blockEntities, decoded.blockEntityRenderers);
+    }
+
+    public static CESection @NotNull [] deserializeSections(@NotNull CEWorld world, @NotNull Decoded decoded) {
+        // 每种方块状态只需解析一次
+        ImmutableBlockState[] states = new ImmutableBlockState[decoded.dictionary.length];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = DefaultSectionSerializer.deserializeState(decoded.dictionary[i]);
+        }
+        CESection[] sectionArray = new CESection[world.worldHeight().getSectionsCount()];
+        for (DecodedSection section : decoded.sections) {
+            int sectionIndex = world.worldHeight().getSectionIndexFromSectionY(section.y);
+            if (sectionIndex < 0 || sectionIndex >= sectionArray.length) continue;
+            List<ImmutableBlockState> palette = new ArrayList<>(section.palette.length);
+            for (int index : section.palette) {
+                palette.add(states[index]);
+            }
+            PalettedContainer<ImmutableBlockState> container = PalettedContainer.read(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE, palette, section.data);
+            if (container != null) {
+                sectionArray[sectionIndex] = new CESection(section.y, container);
+            }
+        }
+        return sectionArray;
+    }
+
+    /**
+     * A chunk read by {@link #read(FriendlyByteBuf, ChunkPos)}, whose block states are not resolved yet.
+     */
+    public record Decoded(CompoundTag[] dictionary, List<DecodedSection> sections, ListTag blockEntities, List<BlockPos> blockEntityRenderers) {
+    }
+
+    /**
+     * @param palette the indices of the palette entries in the dictionary
+     * @param data the packed palette indices, or null if the palette has a single entry
+     */
+    public record DecodedSection(byte y, int[] palette, long @Nullable [] data) {
+    }
+}
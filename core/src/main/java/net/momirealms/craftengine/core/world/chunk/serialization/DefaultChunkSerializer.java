@@ -15,8 +15,17 @@ public final class DefaultChunkSerializer {
 
     @Nullable
     public static CompoundTag serialize(@NotNull CEChunk chunk) {
+        return serialize(chunk, DefaultBlockEntitySerializer.serialize(chunk.blockEntities()), DefaultBlockEntityRendererSerializer.serialize(chunk.constantBlockEntityRendererPositions()));
+    }
+
+    @Nullable
+    public static CompoundTag serialize(@NotNull CEChunk chunk, @NotNull ListTag blockEntities, @NotNull ListTag blockEntityRenders) {
+        return serialize(chunk.sections(), blockEntities, blockEntityRenders);
+    }
+
+    @Nullable
+    public static CompoundTag serialize(@Nullable CESection @NotNull [] ceSections, @NotNull ListTag blockEntities, @NotNull ListTag blockEntityRenders) {
         ListTag sections = new ListTag();
-        CESection[] ceSections = chunk.sections();
         for (CESection ceSection : ceSections) {
             if (ceSection != null) {
                 CompoundTag sectionNbt = DefaultSectionSerializer.serialize(ceSection);
@@ -28,11 +37,9 @@ public final class DefaultChunkSerializer {
         if (sections.isEmpty()) return null;
         CompoundTag chunkNbt = new CompoundTag();
         chunkNbt.put("sections", sections);
-        ListTag blockEntities = DefaultBlockEntitySerializer.serialize(chunk.blockEntities());
         if (!blockEntities.isEmpty()) {
             chunkNbt.put("block_entities", blockEntities);
         }
-        ListTag blockEntityRenders = DefaultBlockEntityRendererSerializer.serialize(chunk.constantBlockEntityRendererPositions());
         if (!blockEntityRenders.isEmpty()) {
             chunkNbt.put("block_entity_renderers", blockEntityRenders);
         }
@@ -41,6 +48,13 @@ public final class DefaultChunkSerializer {
 
     @NotNull
     public static CEChunk deserialize(@NotNull CEWorld world, @NotNull ChunkPos pos, @NotNull CompoundTag chunkNbt) {
+        CESection[] sectionArray = deserializeSections(world, chunkNbt);
+        ListTag blockEntities = chunkNbt.getList("block_entities");
+        ListTag blockEntityRenders = chunkNbt.getList("block_entity_renderers");
+        return new CEChunk(world, pos, sectionArray, blockEntities, blockEntityRenders, null);
+    }
+
+    public static CESection @NotNull [] deserializeSections(@NotNull CEWorld world, @NotNull CompoundTag chunkNbt) {
         ListTag sections = chunkNbt.getList("sections");
         CESection[] sectionArray = new CESection[world.worldHeight().getSectionsCount()];
         for (int i = 0, size = sections.size(); i < size; ++i) {
@@ -53,8 +67,6 @@ public final class DefaultChunkSerializer {
                 }
             }
         }
-        ListTag blockEntities = chunkNbt.getList("block_entities");
-        ListTag blockEntityRenders = chunkNbt.getList("block_entity_renderers");
-        return new CEChunk(world, pos, sectionArray, blockEntities, blockEntityRenders, null);
+        return sectionArray;
     }
 }
@@ -22,10 +22,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.LongStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class DefaultSectionSerializer {
+    // 同一个世界的区块通常只使用少量方块状态，缓存解析结果以避免重复解析属性
+    private static final Map<StateKey, ImmutableBlockState> RESOLVED_STATES = new ConcurrentHashMap<>();
 
     private DefaultSectionSerializer() {}
 
@@ -58,36 +60,62 @@ public final class DefaultSectionSerializer {
         ListTag palettes = blockStates.getList("palette");
         List<ImmutableBlockState> paletteEntries = new ArrayList<>(palettes.size());
         for (Tag tag : palettes) {
-            CompoundTag palette = (CompoundTag) tag;
-            String id = palette.getString("id");
-            CompoundTag data = palette.getCompound("properties");
-            Key key;
-            if (Config.handleInvalidBlock()) {
-                String converted = Config.blockMappings().get(id);
-                if (converted == null) {
-                    key = Key.of(id);
-                } else if (converted.isEmpty()) {
-                    paletteEntries.add(EmptyBlock.STATE);
-                    continue;
-                } else {
-                    key = Key.of(converted);
-                }
-            } else {
+            paletteEntries.add(deserializeState((CompoundTag) tag));
+        }
+        PalettedContainer<ImmutableBlockState> palettedContainer = PalettedContainer.read(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE, paletteEntries, blockStates.getLongArray("data"));
+        return new CESection(sectionNbt.getByte("y"), palettedContainer);
+    }
+
+    /**
+     * Resolves a block state saved by {@link ImmutableBlockState#getNbtToSave()}.
+     * Blocks that are no longer registered are kept as inactive blocks, so that they can be saved back as they were.
+     * Resolved states are cached until {@link #invalidateStateCache()} is called.
+     */
+    public static ImmutableBlockState deserializeState(@NotNull CompoundTag palette) {
+        String id = palette.getString("id");
+        CompoundTag data = palette.getCompound("properties");
+        ImmutableBlockState cached = RESOLVED_STATES.get(new StateKey(id, data));
+        if (cached != null) {
+            return cached;
+        }
+        // 只在未命中时复制属性作为键，避免调用者之后修改palette影响缓存
+        return RESOLVED_STATES.computeIfAbsent(new StateKey(id, data == null ? null : data.copy()), k -> resolveState(id, data));
+    }
+
+    /**
+     * Clears the resolved block states, must be called whenever blocks or block mappings are reloaded.
+     */
+    public static void invalidateStateCache() {
+        RESOLVED_STATES.clear();
+    }
+
+    private static ImmutableBlockState resolveState(String id, CompoundTag data) {
+        Key key;
+        if (Config.handleInvalidBlock()) {
+            String converted = Config.blockMappings().get(id);
+            if (converted == null) {
                 key = Key.of(id);
+            } else if (converted.isEmpty()) {
+                return EmptyBlock.STATE;
+            } else {
+                key = Key.of(converted);
             }
-            Holder<CustomBlock> owner = BuiltInRegistries.BLOCK.get(key).orElseGet(() -> {
+        } else {
+            key = Key.of(id);
+        }
+        Holder<CustomBlock> owner;
+        // 区块可能在多个工作线程上同时解析，注册表本身不是线程安全的，查找与注册必须是原子操作
+        synchronized (BuiltInRegistries.BLOCK) {
+            owner = BuiltInRegistries.BLOCK.get(key).orElseGet(() -> {
                 Holder.Reference<CustomBlock> holder = ((WritableRegistry<CustomBlock>) BuiltInRegistries.BLOCK).registerForHolder(ResourceKey.create(BuiltInRegistries.BLOCK.key().location(), key));
                 InactiveCustomBlock inactiveBlock = new InactiveCustomBlock(holder);
                 holder.bindValue(inactiveBlock);
                 return holder;
             });
-            ImmutableBlockState state = owner.value().getBlockState(data);
-            paletteEntries.add(state);
         }
-        long[] data = blockStates.getLongArray("data");
-        ReadableContainer.Serialized<ImmutableBlockState> serialized = new ReadableContainer.Serialized<>(paletteEntries,
-                data == null ? Optional.empty() : Optional.of(LongStream.of(data)));
-        PalettedContainer<ImmutableBlockState> palettedContainer = PalettedContainer.read(null, PalettedContainer.PaletteProvider.CUSTOM_BLOCK_STATE, serialized);
-        return new CESection(sectionNbt.getByte("y"), palettedContainer);
+        return owner.value().getBlockState(data);
+    }
+
+    private record StateKey(String id, CompoundTag properties) {
     }
 }
@@ -8,8 +8,11 @@ import net.momirealms.craftengine.core.world.CEWorld;
 import net.momirealms.craftengine.core.world.ChunkPos;
 import net.momirealms.craftengine.core.world.chunk.CEChunk;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class CachedStorage<T extends WorldDataStorage> implements WorldDataStorage {
@@ -42,11 +45,41 @@ public class CachedStorage<T extends WorldDataStorage> implements WorldDataStora
         return chunk;
     }
 
+    @Override
+    public @Nullable PrefetchedChunk prefetchChunkAt(@NotNull ChunkPos pos) throws IOException {
+        // 缓存命中时无需预读
+        if (this.chunkCache.getIfPresent(pos) != null) {
+            return null;
+        }
+        return this.storage.prefetchChunkAt(pos);
+    }
+
+    @Override
+    public @NotNull CEChunk readChunkAt(@NotNull CEWorld world, @NotNull PrefetchedChunk prefetched) {
+        CEChunk chunk = this.chunkCache.getIfPresent(prefetched.pos());
+        if (chunk != null) {
+            return chunk;
+        }
+        chunk = this.storage.readChunkAt(world, prefetched);
+        this.chunkCache.put(prefetched.pos(), chunk);
+        return chunk;
+    }
+
     @Override
     public void writeChunkAt(@NotNull ChunkPos pos, @NotNull CEChunk chunk) throws IOException {
         this.storage.writeChunkAt(pos, chunk);
     }
 
+    @Override
+    public boolean supportsBatchedWrite() {
+        return this.storage.supportsBatchedWrite();
+    }
+
+    @Override
+    public void writeChunkBatch(@NotNull List<ChunkSnapshot> snapshots, @NotNull Executor executor) throws IOException {
+        this.storage.writeChunkBatch(snapshots, executor);
+    }
+
     @Override
     public void clearChunkAt(@NotNull ChunkPos pos) throws IOException {
         this.storage.clearChunkAt(pos);
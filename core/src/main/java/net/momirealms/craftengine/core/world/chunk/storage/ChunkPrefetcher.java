@@ -0,0 +1,127 @@
+package net.momirealms.craftengine.core.world.chunk.storage;
+
+import ca.spottedleaf.concurrentutil.map.ConcurrentLong2ReferenceChainedHashTable;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.logger.Debugger;
+import net.momirealms.craftengine.core.world.CEWorld;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads and decodes chunk data on worker threads before the chunk is actually loaded,
+ * so that only the block entity renderers and section injection are left for the main thread.
+ * Decoded chunks are kept in a bounded staging area until they are taken or expired.
+ */
+public class ChunkPrefetcher {
+    private static final long STAGED_CHUNK_EXPIRATION = 30_000L;
+    private final CEWorld world;
+    private final ConcurrentLong2ReferenceChainedHashTable<StagedChunk> stagedChunks;
+    private int ticks;
+
+    public ChunkPrefetcher(CEWorld world) {
+        this.world = world;
+        this.stagedChunks = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(256, 0.5f);
+    }
+
+    /**
+     * Starts reading the chunk at the given position in the background,
+     * unless it's already loaded, already staged or the staging area is full.
+     */
+    public void prefetch(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        if (this.world.isChunkLoaded(key) || this.stagedChunks.containsKey(key)) {
+            return;
+        }
+        if (this.stagedChunks.size() >= Config.maxPrefetchedChunks()) {
+            return;
+        }
+        StagedChunk staged = new StagedChunk(System.currentTimeMillis(), new CompletableFuture<>());
+        if (this.stagedChunks.putIfAbsent(key, staged) != null) {
+            return;
+        }
+        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+        CraftEngine.instance().scheduler().executeAsync(() -> {
+            try {
+                // 保存队列中的区块在加载时直接取出，无需读取
+                if (this.world.chunkSaver().isUnsaved(pos)) {
+                    staged.future.complete(null);
+                    return;
+                }
+                PrefetchedChunk prefetched = this.world.worldDataStorage().prefetchChunkAt(pos);
+                staged.future.complete(prefetched == null ? null : prefetched.decode(this.world));
+            } catch (Throwable t) {
+                staged.future.completeExceptionally(t);
+            }
+        });
+    }
+
+    /**
+     * Prefetches the chunks that enter the view range of a player who moved from one chunk to another.
+     */
+    public void prefetchFrontier(int fromChunkX, int fromChunkZ, int toChunkX, int toChunkZ, int radius) {
+        for (int x = toChunkX - radius; x <= toChunkX + radius; x++) {
+            for (int z = toChunkZ - radius; z <= toChunkZ + radius; z++) {
+                if (Math.abs(x - fromChunkX) <= radius && Math.abs(z - fromChunkZ) <= radius) {
+                    continue;
+                }
+                this.prefetch(x, z);
+            }
+        }
+    }
+
+    /**
+     * Takes the staged chunk at the given position. A read that is still in progress is not waited for,
+     * since the worker pool may be busy with other work such as resource pack generation.
+     *
+     * @return the prefetched chunk, or null if it was not staged, not read yet or the read failed
+     */
+    @Nullable
+    public PrefetchedChunk take(ChunkPos pos) {
+        StagedChunk staged = this.stagedChunks.remove(pos.longKey);
+        if (staged == null || !staged.future.isDone()) {
+            return null;
+        }
+        try {
+            return staged.future.join();
+        } catch (CompletionException e) {
+            CraftEngine.instance().logger().warn("Failed to prefetch chunk at " + pos.x + " " + pos.z, e.getCause());
+            return null;
+        }
+    }
+
+    public void discard(long chunkPos) {
+        this.stagedChunks.remove(chunkPos);
+    }
+
+    public void clear() {
+        this.stagedChunks.clear();
+    }
+
+    public int stagedCount() {
+        return this.stagedChunks.size();
+    }
+
+    public void tick() {
+        if (++this.ticks % 100 != 0 || this.stagedChunks.isEmpty()) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - STAGED_CHUNK_EXPIRATION;
+        int removed = 0;
+        for (ConcurrentLong2ReferenceChainedHashTable.TableEntry<StagedChunk> entry : this.stagedChunks.entrySet()) {
+            if (entry.getValue().createdAt < expireBefore && this.stagedChunks.remove(entry.getKey(), entry.getValue()) == entry.getValue()) {
+                removed++;
+            }
+        }
+        if (removed != 0) {
+            int finalRemoved = removed;
+            Debugger.COMMON.debug(() -> "Expired " + finalRemoved + " prefetched chunks in world " + this.world.name());
+        }
+    }
+
+    private record StagedChunk(long createdAt, CompletableFuture<PrefetchedChunk> future) {
+    }
+}
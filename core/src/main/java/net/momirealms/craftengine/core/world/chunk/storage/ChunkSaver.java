@@ -0,0 +1,144 @@
+package net.momirealms.craftengine.core.world.chunk.storage;
+
+import ca.spottedleaf.concurrentutil.map.ConcurrentLong2ReferenceChainedHashTable;
+import net.momirealms.craftengine.core.plugin.CraftEngine;
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.plugin.logger.Debugger;
+import net.momirealms.craftengine.core.world.CEWorld;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.chunk.CEChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects dirty chunks of a world and writes them in batches off the main thread.
+ * Saving the same chunk again before its batch is written replaces the pending snapshot,
+ * so a chunk is written at most once per batch.
+ */
+public class ChunkSaver {
+    private final CEWorld world;
+    private final ConcurrentLong2ReferenceChainedHashTable<ChunkSnapshot> pendingChunks;
+    private final ConcurrentLong2ReferenceChainedHashTable<ChunkSnapshot> writingChunks;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private int ticks;
+
+    public ChunkSaver(CEWorld world) {
+        this.world = world;
+        this.pendingChunks = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(256, 0.5f);
+        this.writingChunks = ConcurrentLong2ReferenceChainedHashTable.createWithCapacity(256, 0.5f);
+    }
+
+    public boolean isBatched() {
+        return Config.enableBatchedChunkSaving() && this.world.worldDataStorage().supportsBatchedWrite();
+    }
+
+    /**
+     * Queues a chunk for saving. Must be called on the thread that owns the chunk.
+     */
+    public void save(CEChunk chunk) throws IOException {
+        // 预读的数据已经过时
+        this.world.chunkPrefetcher().discard(chunk.chunkPos().longKey());
+        if (!this.isBatched()) {
+            this.world.worldDataStorage().writeChunkAt(chunk.chunkPos(), chunk);
+            chunk.setDirty(false);
+            return;
+        }
+        this.pendingChunks.put(chunk.chunkPos().longKey(), ChunkSnapshot.of(chunk));
+        chunk.setDirty(false);
+        if (this.pendingChunks.size() >= Config.chunkSaveBatchSize()) {
+            this.scheduleFlush();
+        }
+    }
+
+    public void scheduleFlush() {
+        if (this.pendingChunks.isEmpty()) {
+            return;
+        }
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            CraftEngine.instance().scheduler().executeAsync(() -> {
+                this.flushScheduled.set(false);
+                this.flush();
+            });
+        }
+    }
+
+    /**
+     * Writes all pending chunks and waits for the batch to finish.
+     */
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            if (this.pendingChunks.isEmpty()) {
+                return;
+            }
+            List<ChunkSnapshot> batch = new ArrayList<>(this.pendingChunks.size());
+            for (ConcurrentLong2ReferenceChainedHashTable.TableEntry<ChunkSnapshot> entry : this.pendingChunks.entrySet()) {
+                long key = entry.getKey();
+                ChunkSnapshot snapshot = entry.getValue();
+                // 先标记为正在写入再移出队列，避免takeUnsaved在两者之间找不到该区块
+                this.writingChunks.put(key, snapshot);
+                if (this.pendingChunks.remove(key, snapshot) == snapshot) {
+                    batch.add(snapshot);
+                } else {
+                    this.writingChunks.remove(key, snapshot);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                this.world.worldDataStorage().writeChunkBatch(batch, CraftEngine.instance().scheduler().async());
+            } catch (IOException e) {
+                CraftEngine.instance().logger().warn("Failed to save chunks in world " + this.world.name(), e);
+            } finally {
+                for (ChunkSnapshot snapshot : batch) {
+                    this.writingChunks.remove(snapshot.pos().longKey(), snapshot);
+                }
+            }
+            Debugger.COMMON.debug(() -> "Saved " + batch.size() + " chunks in world " + this.world.name() + " in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Takes a chunk that is waiting to be saved or being saved out of the queue, so that it can be loaded
+     * again without waiting for the write. The returned chunk must be marked dirty by the caller if it's kept,
+     * since a queued save is dropped.
+     *
+     * @return the chunk, or null if its stored data is up to date
+     */
+    @Nullable
+    public CEChunk takeUnsaved(ChunkPos pos) {
+        long key = pos.longKey;
+        ChunkSnapshot snapshot = this.pendingChunks.remove(key);
+        if (snapshot == null) {
+            snapshot = this.writingChunks.get(key);
+        }
+        return snapshot == null ? null : snapshot.chunk();
+    }
+
+    /**
+     * @return whether the stored data of the chunk is outdated until the queued save is written
+     */
+    public boolean isUnsaved(ChunkPos pos) {
+        return this.pendingChunks.containsKey(pos.longKey) || this.writingChunks.containsKey(pos.longKey);
+    }
+
+    public int pendingCount() {
+        return this.pendingChunks.size();
+    }
+
+    public void tick() {
+        if (++this.ticks % 20 == 0) {
+            this.scheduleFlush();
+        }
+    }
+}
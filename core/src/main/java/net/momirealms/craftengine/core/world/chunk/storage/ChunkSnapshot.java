@@ -0,0 +1,72 @@
+package net.momirealms.craftengine.core.world.chunk.storage;
+
+import net.momirealms.craftengine.core.block.ImmutableBlockState;
+import net.momirealms.craftengine.core.world.BlockPos;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.chunk.CEChunk;
+import net.momirealms.craftengine.core.world.chunk.CESection;
+import net.momirealms.craftengine.core.world.chunk.PalettedContainer;
+import net.momirealms.craftengine.core.world.chunk.serialization.CompactChunkSerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultBlockEntityRendererSerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultBlockEntitySerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultChunkSerializer;
+import net.momirealms.sparrow.nbt.CompoundTag;
+import net.momirealms.sparrow.nbt.ListTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A chunk prepared for saving off the owning thread. Sections, block entities and renderers
+ * are all copied on creation, so later changes to the chunk don't end up in this save.
+ */
+public record ChunkSnapshot(@NotNull ChunkPos pos, @NotNull CEChunk chunk, @Nullable CESection @NotNull [] sections, @NotNull ListTag blockEntities, @NotNull List<BlockPos> blockEntityRenderers) {
+
+    /**
+     * Must be called on the thread that owns the chunk.
+     */
+    public static ChunkSnapshot of(@NotNull CEChunk chunk) {
+        CESection[] sections = chunk.sections();
+        CESection[] copies = new CESection[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            CESection section = sections[i];
+            if (section == null) continue;
+            PalettedContainer<ImmutableBlockState> container = section.statesContainer();
+            container.lock();
+            try {
+                copies[i] = new CESection(section.sectionY(), container.copy());
+            } finally {
+                container.unlock();
+            }
+        }
+        return new ChunkSnapshot(
+                chunk.chunkPos(),
+                chunk,
+                copies,
+                DefaultBlockEntitySerializer.serialize(chunk.blockEntities()),
+                chunk.constantBlockEntityRendererPositions()
+        );
+    }
+
+    /**
+     * @return whether there's no custom block to save, in which case the stored chunk should be cleared
+     */
+    public boolean isEmpty() {
+        for (CESection section : this.sections) {
+            if (section != null && !section.statesContainer().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    public CompoundTag toTag() {
+        return DefaultChunkSerializer.serialize(this.sections, this.blockEntities, DefaultBlockEntityRendererSerializer.serialize(this.blockEntityRenderers));
+    }
+
+    public byte @Nullable [] toCompact() {
+        return CompactChunkSerializer.serialize(this.sections, this.blockEntities, this.blockEntityRenderers);
+    }
+}
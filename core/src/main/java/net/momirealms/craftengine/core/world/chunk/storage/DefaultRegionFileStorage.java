@@ -1,14 +1,19 @@
 package net.momirealms.craftengine.core.world.chunk.storage;
 
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.momirealms.craftengine.core.plugin.config.Config;
 import net.momirealms.craftengine.core.util.ExceptionCollector;
 import net.momirealms.craftengine.core.util.FileUtils;
+import net.momirealms.craftengine.core.util.FriendlyByteBuf;
 import net.momirealms.craftengine.core.world.CEWorld;
 import net.momirealms.craftengine.core.world.ChunkPos;
 import net.momirealms.craftengine.core.world.chunk.CEChunk;
-import net.momirealms.craftengine.core.world.chunk.serialization.DefaultChunkSerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.CompactChunkSerializer;
 import net.momirealms.sparrow.nbt.CompoundTag;
 import net.momirealms.sparrow.nbt.NBT;
 import org.jetbrains.annotations.NotNull;
@@ -17,8 +22,16 @@ import org.jetbrains.annotations.Nullable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class DefaultRegionFileStorage implements WorldDataStorage {
     private final Path folder;
@@ -26,9 +39,13 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
     public static final String REGION_FILE_SUFFIX = ".mca";
     public static final String REGION_FILE_PREFIX = "r.";
     public static final int MAX_NON_EXISTING_CACHE = 1024 * 64;
+    public static final int MAX_CACHED_REGION_FILES = 256;
 
     public final Long2ObjectLinkedOpenHashMap<RegionFile> regionCache = new Long2ObjectLinkedOpenHashMap<>();
     private final LongLinkedOpenHashSet nonExistingRegionFiles = new LongLinkedOpenHashSet();
+    // 正在被使用的区域文件及其使用者数量，这些文件不会被移出缓存
+    private final Reference2IntOpenHashMap<RegionFile> regionFileUsers = new Reference2IntOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<RegionFile> closingRegionFiles = new Long2ObjectOpenHashMap<>();
 
     public DefaultRegionFileStorage(Path directory) {
         this.folder = directory;
@@ -64,41 +81,102 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
         return this.regionCache.getAndMoveToFirst(ChunkPos.asLong(pos.regionX(), pos.regionZ()));
     }
 
-    public synchronized boolean chunkExists(ChunkPos pos) throws IOException {
-        RegionFile regionfile = getRegionFile(pos, true, false);
-        return regionfile != null && regionfile.hasChunk(pos);
+    public boolean chunkExists(ChunkPos pos) throws IOException {
+        RegionFile regionfile = this.acquireRegionFile(pos, true, false);
+        if (regionfile == null) {
+            return false;
+        }
+        try {
+            return regionfile.hasChunk(pos);
+        } finally {
+            this.releaseRegionFile(regionfile, false);
+        }
     }
 
-    public synchronized RegionFile getRegionFile(ChunkPos pos, boolean existingOnly, boolean lock) throws IOException {
+    /**
+     * Gets the region file of the chunk and marks it as in use, so that it won't be closed until
+     * {@link #releaseRegionFile(RegionFile, boolean)} is called. The file lock is taken after leaving
+     * the storage monitor, so waiting for a busy region file doesn't block the others.
+     *
+     * @return the region file, or null if existingOnly is true and the file doesn't exist
+     */
+    @Nullable
+    public RegionFile acquireRegionFile(ChunkPos pos, boolean existingOnly, boolean lock) throws IOException {
         long chunkPosLongKey = ChunkPos.asLong(pos.regionX(), pos.regionZ());
-        RegionFile regionfile = this.regionCache.getAndMoveToFirst(chunkPosLongKey);
-        if (regionfile != null) {
-            if (lock) {
-                regionfile.fileLock.lock();
-            }
-            return regionfile;
-        } else {
-            if (existingOnly && !this.doesRegionFilePossiblyExist(chunkPosLongKey)) {
-                return null;
-            }
-            if (this.regionCache.size() >= 256) {
-                this.regionCache.removeLast().close();
-            }
-            Path path = this.folder.resolve(REGION_FILE_PREFIX + pos.regionX() + "." + pos.regionZ() + REGION_FILE_SUFFIX);
-            if (existingOnly && !Files.exists(path)) {
-                this.markNonExisting(chunkPosLongKey);
-                return null;
-            } else {
-                this.createRegionFile(chunkPosLongKey);
+        RegionFile regionfile;
+        long evictedKey = 0;
+        RegionFile evicted = null;
+        synchronized (this) {
+            // 等待同一区域的旧文件关闭后再重新打开
+            while (this.closingRegionFiles.containsKey(chunkPosLongKey)) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for region file to close");
+                }
             }
-            FileUtils.createDirectoriesSafe(this.folder);
-            RegionFile newRegionFile = new RegionFile(path, this.folder, CompressionMethod.fromId(Config.compressionMethod()));
+            regionfile = this.regionCache.getAndMoveToFirst(chunkPosLongKey);
+            if (regionfile == null) {
+                if (existingOnly && !this.doesRegionFilePossiblyExist(chunkPosLongKey)) {
+                    return null;
+                }
+                Path path = this.folder.resolve(REGION_FILE_PREFIX + pos.regionX() + "." + pos.regionZ() + REGION_FILE_SUFFIX);
+                if (existingOnly && !Files.exists(path)) {
+                    this.markNonExisting(chunkPosLongKey);
+                    return null;
+                } else {
+                    this.createRegionFile(chunkPosLongKey);
+                }
+                FileUtils.createDirectoriesSafe(this.folder);
+                regionfile = new RegionFile(path, this.folder, CompressionMethod.fromId(Config.compressionMethod()));
+                if (this.regionCache.size() >= MAX_CACHED_REGION_FILES) {
+                    // 只关闭最久未使用且没有线程正在使用的区域文件
+                    for (Long2ObjectMap.Entry<RegionFile> entry : this.regionCache.long2ObjectEntrySet()) {
+                        if (!this.regionFileUsers.containsKey(entry.getValue())) {
+                            evictedKey = entry.getLongKey();
+                            evicted = entry.getValue();
+                        }
+                    }
+                    if (evicted != null) {
+                        this.regionCache.remove(evictedKey);
+                        this.closingRegionFiles.put(evictedKey, evicted);
+                    }
+                }
+                this.regionCache.putAndMoveToFirst(chunkPosLongKey, regionfile);
+            }
+            this.regionFileUsers.addTo(regionfile, 1);
+        }
+        if (evicted != null) {
+            try {
+                evicted.close();
+            } catch (IOException e) {
+                this.releaseRegionFile(regionfile, false);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    this.closingRegionFiles.remove(evictedKey);
+                    this.notifyAll();
+                }
+            }
+        }
+        if (lock) {
+            regionfile.fileLock.lock();
+        }
+        return regionfile;
+    }
 
-            this.regionCache.putAndMoveToFirst(chunkPosLongKey, newRegionFile);
-            if (lock) {
-                newRegionFile.fileLock.lock();
+    /**
+     * Marks a region file acquired by {@link #acquireRegionFile(ChunkPos, boolean, boolean)} as no longer used.
+     */
+    public void releaseRegionFile(RegionFile regionFile, boolean unlock) {
+        if (unlock) {
+            regionFile.fileLock.unlock();
+        }
+        synchronized (this) {
+            if (this.regionFileUsers.addTo(regionFile, -1) == 1) {
+                this.regionFileUsers.removeInt(regionFile);
             }
-            return newRegionFile;
         }
     }
 
@@ -122,47 +200,157 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
 
     @Override
     public CEChunk readNewChunkAt(CEWorld world, ChunkPos pos) throws IOException {
-        RegionFile regionFile = this.getRegionFile(pos, false, true);
+        RegionFile regionFile = this.acquireRegionFile(pos, false, true);
         try {
             if (regionFile.doesChunkExist(pos)) {
                 regionFile.clear(pos);
             }
             return new CEChunk(world, pos);
         } finally {
-            regionFile.fileLock.unlock();
+            this.releaseRegionFile(regionFile, true);
         }
     }
 
     @Override
     public @NotNull CEChunk readChunkAt(@NotNull CEWorld world, @NotNull ChunkPos pos) throws IOException {
-        RegionFile regionFile = this.getRegionFile(pos, false, true);
+        return this.readStoredChunk(pos).toChunk(world);
+    }
+
+    @Override
+    public @NotNull PrefetchedChunk prefetchChunkAt(@NotNull ChunkPos pos) throws IOException {
+        return this.readStoredChunk(pos);
+    }
+
+    /**
+     * Reads and decodes the stored data of a chunk in whichever format it was saved.
+     */
+    @NotNull
+    public PrefetchedChunk readStoredChunk(@NotNull ChunkPos pos) throws IOException {
+        RegionFile regionFile = this.acquireRegionFile(pos, false, true);
         try {
-            DataInputStream dataInputStream = regionFile.getChunkDataInputStream(pos);
-            CompoundTag tag;
-            try {
-                if (dataInputStream == null) {
-                    return new CEChunk(world, pos);
-                }
-                tag = NBT.readCompound(dataInputStream, false);
-            } catch (Throwable t1) {
-                try {
-                    dataInputStream.close();
-                } catch (Throwable t2) {
-                    t1.addSuppressed(t2);
+            RegionFile.ChunkStream chunkStream = regionFile.getChunkStream(pos);
+            if (chunkStream == null) {
+                return new PrefetchedChunk(pos, null);
+            }
+            try (DataInputStream dataInputStream = chunkStream.input()) {
+                if (chunkStream.isCompact()) {
+                    FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(dataInputStream.readAllBytes()));
+                    try {
+                        return new PrefetchedChunk(pos, null, CompactChunkSerializer.read(buf, pos));
+                    } catch (RuntimeException e) {
+                        throw new IOException("Failed to decode chunk " + pos, e);
+                    }
                 }
-                throw t1;
+                return new PrefetchedChunk(pos, NBT.readCompound(dataInputStream, false));
             }
-            dataInputStream.close();
-            return DefaultChunkSerializer.deserialize(world, pos, tag);
         } finally {
-            regionFile.fileLock.unlock();
+            this.releaseRegionFile(regionFile, true);
         }
     }
 
     @Override
     public void writeChunkAt(@NotNull ChunkPos pos, @NotNull CEChunk chunk) throws IOException {
-        CompoundTag nbt = DefaultChunkSerializer.serialize(chunk);
-        writeChunkTagAt(pos, nbt);
+        EncodedChunk encoded = encodeChunk(ChunkSnapshot.of(chunk), CompressionMethod.fromId(Config.compressionMethod()));
+        RegionFile regionFile = this.acquireRegionFile(pos, encoded.data == null, true);
+        if (regionFile == null) {
+            return;
+        }
+        try {
+            if (encoded.data == null) {
+                regionFile.clear(pos);
+            } else {
+                regionFile.writeEncodedChunk(pos, encoded.data);
+            }
+        } finally {
+            this.releaseRegionFile(regionFile, true);
+        }
+    }
+
+    @Override
+    public boolean supportsBatchedWrite() {
+        return true;
+    }
+
+    @Override
+    public void writeChunkBatch(@NotNull List<ChunkSnapshot> snapshots, @NotNull Executor executor) throws IOException {
+        CompressionMethod compression = CompressionMethod.fromId(Config.compressionMethod());
+        // 在工作线程上并行构建NBT并压缩
+        List<CompletableFuture<EncodedChunk>> futures = new ArrayList<>(snapshots.size());
+        for (ChunkSnapshot snapshot : snapshots) {
+            try {
+                futures.add(CompletableFuture.supplyAsync(() -> encodeChunkUnchecked(snapshot, compression), executor));
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭时（如插件卸载）直接在当前线程上处理
+                futures.add(CompletableFuture.supplyAsync(() -> encodeChunkUnchecked(snapshot, compression), Runnable::run));
+            }
+        }
+        ExceptionCollector<IOException> collector = new ExceptionCollector<>();
+        // 按区域文件分组，每个区域文件每批次只获取一次
+        Long2ObjectOpenHashMap<List<EncodedChunk>> chunksByRegion = new Long2ObjectOpenHashMap<>();
+        for (CompletableFuture<EncodedChunk> future : futures) {
+            try {
+                EncodedChunk encoded = future.join();
+                chunksByRegion.computeIfAbsent(ChunkPos.asLong(encoded.pos.regionX(), encoded.pos.regionZ()), k -> new ArrayList<>()).add(encoded);
+            } catch (CompletionException e) {
+                collector.add(e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+            }
+        }
+        for (List<EncodedChunk> chunks : chunksByRegion.values()) {
+            boolean clearOnly = true;
+            for (EncodedChunk chunk : chunks) {
+                if (chunk.data != null) {
+                    clearOnly = false;
+                    break;
+                }
+            }
+            RegionFile regionFile;
+            try {
+                regionFile = this.acquireRegionFile(chunks.getFirst().pos, clearOnly, false);
+            } catch (IOException e) {
+                collector.add(e);
+                continue;
+            }
+            if (regionFile == null) {
+                continue;
+            }
+            try {
+                for (EncodedChunk chunk : chunks) {
+                    // 每个区块单独加锁，避免长时间阻塞主线程对该区域的读取
+                    regionFile.fileLock.lock();
+                    try {
+                        if (chunk.data == null) {
+                            regionFile.clear(chunk.pos);
+                        } else {
+                            regionFile.writeEncodedChunk(chunk.pos, chunk.data);
+                        }
+                    } catch (IOException e) {
+                        collector.add(e);
+                    } finally {
+                        regionFile.fileLock.unlock();
+                    }
+                }
+            } finally {
+                this.releaseRegionFile(regionFile, false);
+            }
+        }
+        collector.throwIfPresent();
+    }
+
+    private static EncodedChunk encodeChunk(ChunkSnapshot snapshot, CompressionMethod compression) throws IOException {
+        if (Config.compactChunkFormat()) {
+            byte[] data = snapshot.toCompact();
+            return new EncodedChunk(snapshot.pos(), data == null ? null : RegionFile.encodeCompactChunk(snapshot.pos(), data, compression));
+        }
+        CompoundTag tag = snapshot.toTag();
+        return new EncodedChunk(snapshot.pos(), tag == null ? null : RegionFile.encodeChunk(snapshot.pos(), tag, compression));
+    }
+
+    private static EncodedChunk encodeChunkUnchecked(ChunkSnapshot snapshot, CompressionMethod compression) {
+        try {
+            return encodeChunk(snapshot, compression);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
     }
 
     @Override
@@ -171,7 +359,10 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
     }
 
     public void writeChunkTagAt(@NotNull ChunkPos pos, @Nullable CompoundTag nbt) throws IOException {
-        RegionFile regionFile = this.getRegionFile(pos, nbt == null, true);
+        RegionFile regionFile = this.acquireRegionFile(pos, nbt == null, true);
+        if (regionFile == null) {
+            return;
+        }
         try {
             if (nbt == null) {
                 regionFile.clear(pos);
@@ -192,10 +383,13 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
                 dataOutputStream.close();
             }
         } finally {
-            regionFile.fileLock.unlock();
+            this.releaseRegionFile(regionFile, true);
         }
     }
 
+    private record EncodedChunk(ChunkPos pos, @Nullable ByteBuffer data) {
+    }
+
     @Override
     public synchronized void flush() throws IOException {
         for (RegionFile regionFile : this.regionCache.values()) {
@@ -204,9 +398,15 @@ public class DefaultRegionFileStorage implements WorldDataStorage {
     }
 
     @Override
-    public synchronized void close() throws IOException {
+    public void close() throws IOException {
+        List<RegionFile> regionFiles;
+        synchronized (this) {
+            regionFiles = new ArrayList<>(this.regionCache.values());
+            this.regionCache.clear();
+        }
+        // 关闭时会获取文件锁，不能在持有存储锁时进行
         ExceptionCollector<IOException> collector = new ExceptionCollector<>();
-        for (RegionFile regionfile : this.regionCache.values()) {
+        for (RegionFile regionfile : regionFiles) {
             try {
                 regionfile.close();
             } catch (IOException ioexception) {
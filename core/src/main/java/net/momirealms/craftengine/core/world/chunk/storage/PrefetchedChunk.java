@@ -0,0 +1,89 @@
+package net.momirealms.craftengine.core.world.chunk.storage;
+
+import net.momirealms.craftengine.core.plugin.config.Config;
+import net.momirealms.craftengine.core.world.BlockPos;
+import net.momirealms.craftengine.core.world.CEWorld;
+import net.momirealms.craftengine.core.world.ChunkPos;
+import net.momirealms.craftengine.core.world.chunk.CEChunk;
+import net.momirealms.craftengine.core.world.chunk.CESection;
+import net.momirealms.craftengine.core.world.chunk.serialization.CompactChunkSerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultBlockEntityRendererSerializer;
+import net.momirealms.craftengine.core.world.chunk.serialization.DefaultChunkSerializer;
+import net.momirealms.sparrow.nbt.CompoundTag;
+import net.momirealms.sparrow.nbt.ListTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Holds the data of a chunk that has been read ahead of time off the main thread,
+ * either as a tag or in the compact format. Having neither means there is no stored data for this chunk.
+ * {@link #decode(CEWorld)} builds the chunk on the reading thread, leaving only the block entity renderers,
+ * which need the players tracking the chunk, to {@link #toChunk(CEWorld)}.
+ */
+public final class PrefetchedChunk {
+    private final ChunkPos pos;
+    @Nullable
+    private final CompoundTag tag;
+    @Nullable
+    private final CompactChunkSerializer.Decoded compact;
+    private CEChunk chunk;
+    private List<BlockPos> blockEntityRenderers = List.of();
+
+    public PrefetchedChunk(@NotNull ChunkPos pos, @Nullable CompoundTag tag, CompactChunkSerializer.@Nullable Decoded compact) {
+        this.pos = pos;
+        this.tag = tag;
+        this.compact = compact;
+    }
+
+    public PrefetchedChunk(@NotNull ChunkPos pos, @Nullable CompoundTag tag) {
+        this(pos, tag, null);
+    }
+
+    @NotNull
+    public ChunkPos pos() {
+        return this.pos;
+    }
+
+    /**
+     * Resolves the block states and builds the chunk without its block entity renderers.
+     * Can be called on any thread, but the result must be handed over safely to the thread calling {@link #toChunk(CEWorld)}.
+     */
+    public PrefetchedChunk decode(@NotNull CEWorld world) {
+        if (this.chunk != null) {
+            return this;
+        }
+        if (this.compact != null) {
+            CESection[] sections = CompactChunkSerializer.deserializeSections(world, this.compact);
+            this.chunk = new CEChunk(world, this.pos, sections, this.compact.blockEntities(), (List<BlockPos>) null);
+            this.blockEntityRenderers = this.compact.blockEntityRenderers();
+        } else if (this.tag != null) {
+            CESection[] sections = DefaultChunkSerializer.deserializeSections(world, this.tag);
+            this.chunk = new CEChunk(world, this.pos, sections, this.tag.getList("block_entities"), (List<BlockPos>) null);
+            ListTag renderers = this.tag.getList("block_entity_renderers");
+            if (renderers != null) {
+                this.blockEntityRenderers = DefaultBlockEntityRendererSerializer.deserialize(this.pos, renderers);
+            }
+        } else {
+            this.chunk = new CEChunk(world, this.pos);
+        }
+        // 储存格式与配置不同时，在下次保存时转换格式
+        if ((this.tag != null || this.compact != null) && (this.compact != null) != Config.compactChunkFormat()) {
+            this.chunk.setDirty(true);
+        }
+        return this;
+    }
+
+    /**
+     * Must be called on the main thread.
+     */
+    @NotNull
+    public CEChunk toChunk(@NotNull CEWorld world) {
+        this.decode(world);
+        for (BlockPos pos : this.blockEntityRenderers) {
+            this.chunk.addConstantBlockEntityRenderer(pos);
+        }
+        return this.chunk;
+    }
+}
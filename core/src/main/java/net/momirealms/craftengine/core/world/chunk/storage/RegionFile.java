@@ -24,6 +24,8 @@ import java.util.function.Function;
 public class RegionFile implements AutoCloseable {
     private static final PluginLogger LOGGER = CraftEngine.instance().logger();
     private static final byte FORMAT_VERSION = 1;
+    // 紧凑的二进制格式，与NBT格式并存，不经过FORMAT_UPDATER升级
+    public static final byte COMPACT_FORMAT_VERSION = 2;
     public static final int SECTOR_BYTES = 4096;
     public static final int CHUNK_HEADER_SIZE = 5;
     public static final int EXTERNAL_STREAM_FLAG = 128;
@@ -107,13 +109,14 @@ public class RegionFile implements AutoCloseable {
     /**
      * Retrieves the data input stream for a given chunk. The method reads and processes the
      * chunk's header, checks for potential errors, and returns a valid input stream for the chunk data.
+     * Chunks in older versions of the NBT format are upgraded to the current one.
      *
      * @param pos The position of the chunk within the region file.
-     * @return A DataInputStream for the chunk's data if it exists and is valid, or null if there is an error.
-     * @throws IOException If an I/O error occurs while reading from the file.
+     * @return The stream of the chunk's data and its format if it exists and is valid, or null if there is an error.
+     * @throws IOException If an I/O error occurs while reading from the file, or the chunk uses an unknown format.
      */
     @Nullable
-    public synchronized DataInputStream getChunkDataInputStream(ChunkPos pos) throws IOException {
+    public synchronized ChunkStream getChunkStream(ChunkPos pos) throws IOException {
         int sectorInfo = this.getSectorInfo(pos);
         // If no sector information is found (sectorInfo == 0), return null (indicating chunk doesn't exist).
         if (sectorInfo == INFO_NOT_PRESENT) {
@@ -145,27 +148,21 @@ public class RegionFile implements AutoCloseable {
             LOGGER.warn(String.format("Chunk %s is allocated, but stream is missing", pos));
             return null;
         }
+        // Data written by a newer version of the plugin must not be treated as missing, or it would be overwritten.
+        if (version > COMPACT_FORMAT_VERSION) {
+            throw new IOException(String.format("Chunk %s has unsupported format version %s", pos, version));
+        }
 
         // Calculate the actual data size
         int actualSize = size - 1;
+        DataInputStream inputStream;
         if (RegionFile.isExternalStreamChunk(flags)) {
             // If the chunk has both internal and external streams, log a warning.
             if (actualSize != 0) {
                 LOGGER.warn("Chunk has both internal and external streams");
             }
-            // Create and return an input stream for the external chunk.
-            if (version == FORMAT_VERSION) {
-                return this.createExternalChunkInputStream(pos, RegionFile.getExternalChunkVersion(compressionScheme));
-            } else {
-                int currentVersion = version;
-                DataInputStream inputStream = this.createExternalChunkInputStream(pos, RegionFile.getExternalChunkVersion(compressionScheme));
-                while (currentVersion < FORMAT_VERSION) {
-                    inputStream = FORMAT_UPDATER.get(currentVersion).apply(inputStream);
-                    if (inputStream == null) break;
-                    currentVersion++;
-                }
-                return inputStream;
-            }
+            // Create an input stream for the external chunk.
+            inputStream = this.createExternalChunkInputStream(pos, RegionFile.getExternalChunkVersion(compressionScheme));
         } else if (actualSize > bytebuffer.remaining()) {
             // If the declared size of the chunk is greater than the remaining bytes in the buffer, the stream is truncated.
             LOGGER.severe(String.format("Chunk %s stream is truncated: expected %s but read %s", pos, actualSize, bytebuffer.remaining()));
@@ -175,20 +172,22 @@ public class RegionFile implements AutoCloseable {
             LOGGER.severe(String.format("Declared size %s of chunk %s is negative", size, pos));
             return null;
         } else {
-            if (version == FORMAT_VERSION) {
-                // Otherwise, create and return a standard input stream for the chunk data.
-                return this.createChunkInputStream(pos, compressionScheme, RegionFile.createInputStream(bytebuffer, actualSize));
-            } else {
-                int currentVersion = version;
-                DataInputStream inputStream = this.createChunkInputStream(pos, compressionScheme, RegionFile.createInputStream(bytebuffer, actualSize));
-                while (currentVersion < FORMAT_VERSION) {
-                    inputStream = FORMAT_UPDATER.get(currentVersion).apply(inputStream);
-                    if (inputStream == null) break;
-                    currentVersion++;
-                }
-                return inputStream;
-            }
+            // Otherwise, create a standard input stream for the chunk data.
+            inputStream = this.createChunkInputStream(pos, compressionScheme, RegionFile.createInputStream(bytebuffer, actualSize));
         }
+        if (inputStream == null) {
+            return null;
+        }
+        if (version == COMPACT_FORMAT_VERSION) {
+            return new ChunkStream(inputStream, version);
+        }
+        int currentVersion = version;
+        while (currentVersion < FORMAT_VERSION) {
+            inputStream = FORMAT_UPDATER.get(currentVersion).apply(inputStream);
+            if (inputStream == null) return null;
+            currentVersion++;
+        }
+        return new ChunkStream(inputStream, FORMAT_VERSION);
     }
 
     public static byte encodeFlag(byte compressionScheme, byte version, boolean external) {
@@ -300,7 +299,60 @@ public class RegionFile implements AutoCloseable {
     }
 
     public DataOutputStream getChunkDataOutputStream(ChunkPos pos) throws IOException {
-        return new DataOutputStream(this.compression.wrap(new ChunkBuffer(pos)));
+        return new DataOutputStream(this.compression.wrap(new ChunkBuffer(pos, this.compression, FORMAT_VERSION, this)));
+    }
+
+    /**
+     * Serializes and compresses a chunk tag into a buffer that can later be written with
+     * {@link #writeEncodedChunk(ChunkPos, ByteBuffer)}. This method does not access any region file,
+     * so it's safe to call it concurrently without holding the file lock.
+     *
+     * @param pos The position of the chunk.
+     * @param tag The chunk tag to encode.
+     * @param compression The compression method to use.
+     * @return A buffer containing the chunk header and the compressed data.
+     * @throws IOException If an I/O error occurs while compressing the data.
+     */
+    public static ByteBuffer encodeChunk(ChunkPos pos, CompoundTag tag, CompressionMethod compression) throws IOException {
+        return encodeChunk(pos, FORMAT_VERSION, compression, out -> NBT.writeCompound(tag, out, false));
+    }
+
+    /**
+     * Same as {@link #encodeChunk(ChunkPos, CompoundTag, CompressionMethod)}, for chunks in the compact format.
+     *
+     * @param data The chunk encoded by {@link net.momirealms.craftengine.core.world.chunk.serialization.CompactChunkSerializer}.
+     */
+    public static ByteBuffer encodeCompactChunk(ChunkPos pos, byte[] data, CompressionMethod compression) throws IOException {
+        return encodeChunk(pos, COMPACT_FORMAT_VERSION, compression, out -> out.write(data));
+    }
+
+    private static ByteBuffer encodeChunk(ChunkPos pos, byte version, CompressionMethod compression, ChunkWriter writer) throws IOException {
+        ChunkBuffer buffer = new ChunkBuffer(pos, compression, version, null);
+        DataOutputStream dataOutputStream = new DataOutputStream(compression.wrap(buffer));
+        try {
+            writer.write(dataOutputStream);
+        } catch (Throwable t1) {
+            try {
+                dataOutputStream.close();
+            } catch (Throwable t2) {
+                t1.addSuppressed(t2);
+            }
+            throw t1;
+        }
+        dataOutputStream.close();
+        return buffer.toByteBuffer();
+    }
+
+    /**
+     * Writes a chunk buffer produced by {@link #encodeChunk(ChunkPos, CompoundTag, CompressionMethod)}.
+     * The caller is expected to hold the file lock.
+     *
+     * @param pos The position of the chunk within the region file.
+     * @param buffer The encoded chunk data.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    public void writeEncodedChunk(ChunkPos pos, ByteBuffer buffer) throws IOException {
+        this.write(pos, buffer);
     }
 
     public void flush() throws IOException {
@@ -337,8 +389,12 @@ public class RegionFile implements AutoCloseable {
             LOGGER.warn(String.format("Saving oversized chunk %s (%s bytes) to external file %s", pos.x() + "," + pos.z(), sizeToWrite, path));
             sectorsToWrite = 1;
             sectorStartPosition = this.usedSectors.allocate(sectorsToWrite);
+            // 以数据实际使用的压缩方式与格式写入外部文件头
+            byte flags = buf.get(buf.position() + 4);
+            CompressionMethod compression = CompressionMethod.fromId(flags & 0b00000111);
+            byte version = (byte) ((flags & 0b01111000) >>> 3);
             regionFileOperation = this.writeToExternalFileSafely(path, buf);
-            ByteBuffer externalBuf = this.createExternalHeader();
+            ByteBuffer externalBuf = this.createExternalHeader(compression == null ? this.compression : compression, version);
             this.fileChannel.write(externalBuf, (long) sectorStartPosition * SECTOR_BYTES);
         } else {
             sectorStartPosition = this.usedSectors.allocate(sectorsToWrite);
@@ -356,14 +412,10 @@ public class RegionFile implements AutoCloseable {
         }
     }
 
-    private ByteBuffer createExternalHeader() {
-        return this.createExternalHeader(this.compression);
-    }
-
-    private ByteBuffer createExternalHeader(CompressionMethod compression) {
+    private ByteBuffer createExternalHeader(CompressionMethod compression, byte version) {
         ByteBuffer bytebuffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
         bytebuffer.putInt(1);
-        bytebuffer.put(encodeFlag((byte) compression.getId(), FORMAT_VERSION, true));
+        bytebuffer.put(encodeFlag((byte) compression.getId(), version, true));
         //bytebuffer.put((byte) (compression.getId() | EXTERNAL_STREAM_FLAG));
         ((Buffer) bytebuffer).flip();
         return bytebuffer;
@@ -447,11 +499,13 @@ public class RegionFile implements AutoCloseable {
         return this.directory.resolve(s);
     }
 
-    private class ChunkBuffer extends ByteArrayOutputStream {
+    private static class ChunkBuffer extends ByteArrayOutputStream {
 
         private final ChunkPos pos;
+        @Nullable
+        private final RegionFile regionFile;
 
-        public ChunkBuffer(ChunkPos pos) {
+        public ChunkBuffer(ChunkPos pos, CompressionMethod compression, byte version, @Nullable RegionFile regionFile) {
             super(8096);
             // chunk size 4 bytes
             super.write(0);
@@ -459,8 +513,9 @@ public class RegionFile implements AutoCloseable {
             super.write(0);
             super.write(0);
             // compression method
-            super.write(encodeFlag((byte) RegionFile.this.compression.getId(), FORMAT_VERSION, false));
+            super.write(encodeFlag((byte) compression.getId(), version, false));
             this.pos = pos;
+            this.regionFile = regionFile;
         }
 
         @Override
@@ -479,10 +534,16 @@ public class RegionFile implements AutoCloseable {
             super.write(b, off, len);
         }
 
-        public void close() throws IOException {
+        public ByteBuffer toByteBuffer() {
             ByteBuffer bytebuffer = ByteBuffer.wrap(this.buf, 0, this.count);
             bytebuffer.putInt(0, this.count - CHUNK_HEADER_SIZE + 1);
-            RegionFile.this.write(this.pos, bytebuffer);
+            return bytebuffer;
+        }
+
+        public void close() throws IOException {
+            if (this.regionFile != null) {
+                this.regionFile.write(this.pos, this.toByteBuffer());
+            }
         }
     }
 
@@ -491,6 +552,23 @@ public class RegionFile implements AutoCloseable {
         void run() throws IOException;
     }
 
+    @FunctionalInterface
+    private interface ChunkWriter {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * @param input The decompressed data of the chunk.
+     * @param version The format of the data, either the NBT format or {@link #COMPACT_FORMAT_VERSION}.
+     */
+    public record ChunkStream(DataInputStream input, byte version) {
+
+        public boolean isCompact() {
+            return this.version == COMPACT_FORMAT_VERSION;
+        }
+    }
+
     public static final class RegionFileSizeException extends RuntimeException {
 
         public RegionFileSizeException(String message) {
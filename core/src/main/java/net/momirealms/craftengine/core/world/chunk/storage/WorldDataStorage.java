@@ -1,11 +1,15 @@
 package net.momirealms.craftengine.core.world.chunk.storage;
 
+import net.momirealms.craftengine.core.util.ExceptionCollector;
 import net.momirealms.craftengine.core.world.CEWorld;
 import net.momirealms.craftengine.core.world.ChunkPos;
 import net.momirealms.craftengine.core.world.chunk.CEChunk;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 public interface WorldDataStorage {
 
@@ -17,8 +21,55 @@ public interface WorldDataStorage {
     @NotNull
     CEChunk readChunkAt(@NotNull CEWorld world, @NotNull ChunkPos pos) throws IOException;
 
+    /**
+     * Reads the stored data of a chunk without constructing it, so that the file I/O,
+     * decompression and NBT decoding can be done ahead of time on a worker thread.
+     * Implementations must be thread-safe. Returns {@code null} if prefetching is not
+     * supported, in which case the chunk will be read by {@link #readChunkAt(CEWorld, ChunkPos)}.
+     */
+    @Nullable
+    default PrefetchedChunk prefetchChunkAt(@NotNull ChunkPos pos) throws IOException {
+        return null;
+    }
+
+    @NotNull
+    default CEChunk readChunkAt(@NotNull CEWorld world, @NotNull PrefetchedChunk prefetched) {
+        return prefetched.toChunk(world);
+    }
+
     void writeChunkAt(@NotNull ChunkPos pos, @NotNull CEChunk chunk) throws IOException;
 
+    /**
+     * Whether this storage can write chunks through {@link #writeChunkBatch(List, Executor)}.
+     */
+    default boolean supportsBatchedWrite() {
+        return false;
+    }
+
+    /**
+     * Serializes the snapshots in parallel on the given executor and writes them in one batch.
+     * Snapshots with no data clear the stored chunk. This is called off the main thread when
+     * {@link #supportsBatchedWrite()} returns true, so implementations that enable it must be thread-safe
+     * and must only read the data captured by the snapshots. The default implementation writes the chunks
+     * one by one through {@link #writeChunkAt(ChunkPos, CEChunk)}, which reads the live chunks, and is only
+     * meant to be called directly on the thread that owns them.
+     */
+    default void writeChunkBatch(@NotNull List<ChunkSnapshot> snapshots, @NotNull Executor executor) throws IOException {
+        ExceptionCollector<IOException> collector = new ExceptionCollector<>();
+        for (ChunkSnapshot snapshot : snapshots) {
+            try {
+                if (snapshot.isEmpty()) {
+                    this.clearChunkAt(snapshot.pos());
+                } else {
+                    this.writeChunkAt(snapshot.pos(), snapshot.chunk());
+                }
+            } catch (IOException e) {
+                collector.add(e);
+            }
+        }
+        collector.throwIfPresent();
+    }
+
     void clearChunkAt(@NotNull ChunkPos pos) throws IOException;
 
     void flush() throws IOException;
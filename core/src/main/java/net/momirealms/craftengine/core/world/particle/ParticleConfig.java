@@ -3,6 +3,7 @@ package net.momirealms.craftengine.core.world.particle;
 import net.momirealms.craftengine.core.plugin.CraftEngine;
 import net.momirealms.craftengine.core.plugin.context.number.NumberProvider;
 import net.momirealms.craftengine.core.plugin.context.number.NumberProviders;
+import net.momirealms.craftengine.core.plugin.context.number.TabulatedNumberProvider;
 import net.momirealms.craftengine.core.util.Key;
 import net.momirealms.craftengine.core.util.ResourceConfigUtils;
 
@@ -49,14 +50,14 @@ public class ParticleConfig {
 
     public static ParticleConfig fromMap$blockEntity(Map<String, Object> arguments) {
         Key particleType = Key.of(arguments.getOrDefault("particle", "flame").toString());
-        NumberProvider x = NumberProviders.fromObject(arguments.getOrDefault("x", 0));
-        NumberProvider y = NumberProviders.fromObject(arguments.getOrDefault("y", 0));
-        NumberProvider z = NumberProviders.fromObject(arguments.getOrDefault("z", 0));
-        NumberProvider count = NumberProviders.fromObject(arguments.getOrDefault("count", 1));
-        NumberProvider xOffset = NumberProviders.fromObject(arguments.getOrDefault("offset-x", 0));
-        NumberProvider yOffset = NumberProviders.fromObject(arguments.getOrDefault("offset-y", 0));
-        NumberProvider zOffset = NumberProviders.fromObject(arguments.getOrDefault("offset-z", 0));
-        NumberProvider speed = NumberProviders.fromObject(arguments.getOrDefault("speed", 0));
+        NumberProvider x = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("x", 0)));
+        NumberProvider y = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("y", 0)));
+        NumberProvider z = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("z", 0)));
+        NumberProvider count = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("count", 1)));
+        NumberProvider xOffset = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("offset-x", 0)));
+        NumberProvider yOffset = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("offset-y", 0)));
+        NumberProvider zOffset = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("offset-z", 0)));
+        NumberProvider speed = TabulatedNumberProvider.of(NumberProviders.fromObject(arguments.getOrDefault("speed", 0)));
         return new ParticleConfig(CraftEngine.instance().platform().getParticleType(particleType), x, y, z, count, xOffset, yOffset, zOffset, speed, Optional.ofNullable(ParticleDataTypes.TYPES.get(particleType)).map(it -> it.apply(arguments)).orElse(null));
     }
 